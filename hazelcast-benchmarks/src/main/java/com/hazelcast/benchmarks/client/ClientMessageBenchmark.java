@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.client;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ClientMessageReader;
+import com.hazelcast.client.impl.protocol.ClientMessageWriter;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+
+/**
+ * Measures encoding and decoding of {@link ClientMessage}s with the
+ * {@code Map.put} and {@code Map.get} codecs, and the framing of an encoded
+ * message to and from a byte buffer as done by the client connections.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientMessageBenchmark {
+
+    private static final String MAP_NAME = "map";
+    private static final int MAX_MESSAGE_LENGTH = Integer.MAX_VALUE;
+    private static final int KEY_SIZE = 8;
+
+    /**
+     * Size of the map value payload in bytes.
+     */
+    @Param({"100", "10000"})
+    private int valueSize;
+
+    private Data key;
+    private Data value;
+    private ClientMessage putRequest;
+    private ClientMessage getResponse;
+    private ByteBuffer buffer;
+    private final ClientMessageWriter writer = new ClientMessageWriter();
+    private final ClientMessageReader reader = new ClientMessageReader(MAX_MESSAGE_LENGTH);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        key = randomData(KEY_SIZE);
+        value = randomData(valueSize);
+        putRequest = MapPutCodec.encodeRequest(MAP_NAME, key, value, 1, -1);
+        getResponse = MapGetCodec.encodeResponse(value);
+        buffer = ByteBuffer.allocate(putRequest.getFrameLength());
+    }
+
+    @Benchmark
+    public ClientMessage encodePutRequest() {
+        return MapPutCodec.encodeRequest(MAP_NAME, key, value, 1, -1);
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters decodePutRequest() {
+        return MapPutCodec.decodeRequest(putRequest);
+    }
+
+    @Benchmark
+    public ClientMessage encodeGetResponse() {
+        return MapGetCodec.encodeResponse(value);
+    }
+
+    @Benchmark
+    public Data decodeGetResponse() {
+        return MapGetCodec.decodeResponse(getResponse);
+    }
+
+    @Benchmark
+    public ClientMessage writeAndReadPutRequest() {
+        buffer.clear();
+        if (!writer.writeTo(buffer, putRequest)) {
+            throw new IllegalStateException("Buffer is too small for the message");
+        }
+        buffer.flip();
+        if (!reader.readFrom(buffer, true)) {
+            throw new IllegalStateException("Message was not fully read");
+        }
+        ClientMessage message = reader.getClientMessage();
+        reader.reset();
+        return message;
+    }
+
+    private static Data randomData(int payloadSize) {
+        byte[] bytes = new byte[HEAP_DATA_OVERHEAD + payloadSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return new HeapData(bytes);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IMap#get}, {@link IMap#put} and {@link IMap#set} against a
+ * single in-process member, without any network hop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapBenchmark {
+
+    /**
+     * In-memory format of the benchmarked map.
+     */
+    @Param({"BINARY", "OBJECT"})
+    private InMemoryFormat inMemoryFormat;
+
+    /**
+     * Number of entries the map is populated with.
+     */
+    @Param({"10000"})
+    private int keyCount;
+
+    /**
+     * Size of the values in bytes.
+     */
+    @Param({"100"})
+    private int valueSize;
+
+    private HazelcastInstance instance;
+    private IMap<Integer, byte[]> map;
+    private byte[] value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Config config = new Config();
+        config.setClusterName("benchmark-" + System.nanoTime());
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getJetConfig().setEnabled(false);
+        config.getMapConfig("default").setInMemoryFormat(inMemoryFormat);
+
+        instance = Hazelcast.newHazelcastInstance(config);
+        map = instance.getMap("map");
+        value = new byte[valueSize];
+        for (int i = 0; i < keyCount; i++) {
+            map.set(i, value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        instance.getLifecycleService().terminate();
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    public byte[] put() {
+        return map.put(randomKey(), value);
+    }
+
+    @Benchmark
+    public void set() {
+        map.set(randomKey(), value);
+    }
+
+    private int randomKey() {
+        return ThreadLocalRandom.current().nextInt(keyCount);
+    }
+}
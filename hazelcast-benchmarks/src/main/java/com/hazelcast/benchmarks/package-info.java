@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JMH benchmarks covering the core data path: in-process {@code IMap}
+ * operations, serialization, index stores, client protocol codecs and the
+ * TPC reactors.
+ * <p>
+ * The benchmarks are run with the {@code benchmarks} Maven profile from the
+ * root of the repository:
+ * <pre>
+ * mvn -Pbenchmarks -Dquick verify -pl hazelcast-benchmarks -am
+ * </pre>
+ * {@code -Djmh.includes=<regexp>} selects the benchmarks to run and
+ * {@code -Djmh.args=<options>} passes additional JMH options. The results
+ * are written in JSON format to {@code target/jmh-result.json}.
+ */
+package com.hazelcast.benchmarks;
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.BitmapIndexStore;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.OrderedIndexStore;
+import com.hazelcast.query.impl.PrimitiveOrderedIndexStore;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
+
+/**
+ * Measures lookups in {@link OrderedIndexStore}, {@link
+ * PrimitiveOrderedIndexStore} and {@link BitmapIndexStore} populated with {@code entryCount} entries spread evenly over
+ * {@code distinctValues} integer attribute values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexStoreBenchmark {
+
+    private static final String ATTRIBUTE = "value";
+    private static final int IN_VALUE_COUNT = 5;
+    /**
+     * Range queries cover one tenth of the distinct values.
+     */
+    private static final int RANGE_DIVISOR = 10;
+
+    /**
+     * Number of entries the index stores are populated with.
+     */
+    @Param({"100000"})
+    private int entryCount;
+
+    /**
+     * Number of distinct attribute values, i.e. the cardinality of the index.
+     */
+    @Param({"10", "1000"})
+    private int distinctValues;
+
+    private InternalSerializationService ss;
+    private OrderedIndexStore orderedStore;
+    private PrimitiveOrderedIndexStore primitiveStore;
+    private BitmapIndexStore bitmapStore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ss = new DefaultSerializationServiceBuilder().setConfig(new SerializationConfig()).build();
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        orderedStore = new OrderedIndexStore(IndexCopyBehavior.NEVER);
+        primitiveStore = new PrimitiveOrderedIndexStore(IndexCopyBehavior.NEVER);
+        bitmapStore = new BitmapIndexStore(new IndexConfig(IndexType.BITMAP, ATTRIBUTE));
+
+        for (int i = 0; i < entryCount; i++) {
+            Integer value = i % distinctValues;
+            CachedQueryEntry entry = new CachedQueryEntry(ss, ss.toData(i), value, extractors);
+            orderedStore.insert(value, entry, entry, IndexOperationStats.EMPTY);
+            primitiveStore.insert(value, entry, entry, IndexOperationStats.EMPTY);
+            bitmapStore.insert(value, entry, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        orderedStore.destroy();
+        primitiveStore.destroy();
+        bitmapStore.destroy();
+        ss.dispose();
+    }
+
+    @Benchmark
+    public int orderedEqual() {
+        return orderedStore.getRecords(orderedStore.canonicalizeQueryArgumentScalar(randomValue())).size();
+    }
+
+    @Benchmark
+    public int orderedRange() {
+        int from = randomValue();
+        Set<QueryableEntry> records = orderedStore.getRecords(orderedStore.canonicalizeQueryArgumentScalar(from), true,
+                orderedStore.canonicalizeQueryArgumentScalar(from + distinctValues / RANGE_DIVISOR), true);
+        return records.size();
+    }
+
+    @Benchmark
+    public int orderedLess() {
+        return orderedStore.getRecords(Comparison.LESS, orderedStore.canonicalizeQueryArgumentScalar(randomValue())).size();
+    }
+
+    @Benchmark
+    public int primitiveEqual() {
+        return primitiveStore.getRecords(primitiveStore.canonicalizeQueryArgumentScalar(randomValue())).size();
+    }
+
+    @Benchmark
+    public int primitiveRange() {
+        int from = randomValue();
+        Set<QueryableEntry> records = primitiveStore.getRecords(primitiveStore.canonicalizeQueryArgumentScalar(from), true,
+                primitiveStore.canonicalizeQueryArgumentScalar(from + distinctValues / RANGE_DIVISOR), true);
+        return records.size();
+    }
+
+    @Benchmark
+    public int primitiveLess() {
+        return primitiveStore.getRecords(Comparison.LESS, primitiveStore.canonicalizeQueryArgumentScalar(randomValue())).size();
+    }
+
+    @Benchmark
+    public int bitmapEqual() {
+        return bitmapStore.evaluate(Predicates.equal(ATTRIBUTE, randomValue()), INTEGER_CONVERTER).size();
+    }
+
+    @Benchmark
+    public int bitmapIn() {
+        Set<Integer> values = new HashSet<>();
+        for (int i = 0; i < IN_VALUE_COUNT; i++) {
+            values.add(randomValue());
+        }
+        Predicate predicate = Predicates.in(ATTRIBUTE, values.toArray(new Integer[0]));
+        return bitmapStore.evaluate(predicate, INTEGER_CONVERTER).size();
+    }
+
+    private int randomValue() {
+        return ThreadLocalRandom.current().nextInt(distinctValues);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.IndexStore;
+import com.hazelcast.query.impl.OrderedIndexStore;
+import com.hazelcast.query.impl.StripedIndexStore;
+import com.hazelcast.query.impl.UnorderedIndexStore;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+
+/**
+ * Measures the index updates of {@value #THREAD_COUNT} concurrent threads
+ * mimicking the partition threads of a member: every thread updates the
+ * entries of the partitions {@code partitionId % THREAD_COUNT == threadIndex}
+ * only. Compares a single shared index store with a {@link StripedIndexStore}
+ * having a stripe per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(IndexStoreWriteBenchmark.THREAD_COUNT)
+@Fork(1)
+public class IndexStoreWriteBenchmark {
+
+    static final int THREAD_COUNT = 16;
+
+    private static final int PARTITION_COUNT = 271;
+
+    /**
+     * Number of entries updated by every thread.
+     */
+    @Param({"10000"})
+    private int entriesPerThread;
+
+    /**
+     * Number of distinct attribute values, i.e. the cardinality of the index.
+     */
+    @Param({"100", "100000"})
+    private int distinctValues;
+
+    /**
+     * The index store: {@code sorted} and {@code hash} are single shared
+     * stores, {@code striped-sorted} and {@code striped-hash} have a stripe
+     * per thread.
+     */
+    @Param({"sorted", "striped-sorted", "hash", "striped-hash"})
+    private String store;
+
+    private final AtomicInteger threadIndexes = new AtomicInteger();
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+    private IndexStore indexStore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ss = new DefaultSerializationServiceBuilder().setConfig(new SerializationConfig()).build();
+        extractors = Extractors.newBuilder(ss).build();
+        switch (store) {
+            case "sorted":
+                indexStore = new OrderedIndexStore(IndexCopyBehavior.NEVER);
+                break;
+            case "striped-sorted":
+                indexStore = new StripedIndexStore(THREAD_COUNT, PARTITION_COUNT, true,
+                        () -> new OrderedIndexStore(IndexCopyBehavior.NEVER));
+                break;
+            case "hash":
+                indexStore = new UnorderedIndexStore(IndexCopyBehavior.NEVER);
+                break;
+            case "striped-hash":
+                indexStore = new StripedIndexStore(THREAD_COUNT, PARTITION_COUNT, false,
+                        () -> new UnorderedIndexStore(IndexCopyBehavior.NEVER));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown store: " + store);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        indexStore.destroy();
+        ss.dispose();
+    }
+
+    /**
+     * The entries owned by a benchmark thread and their current values.
+     */
+    @State(Scope.Thread)
+    public static class PartitionThread {
+
+        private CachedQueryEntry[] entries;
+        private int[] values;
+
+        @Setup(Level.Trial)
+        public void setup(IndexStoreWriteBenchmark benchmark) {
+            int threadIndex = benchmark.threadIndexes.getAndIncrement() % THREAD_COUNT;
+            List<CachedQueryEntry> owned = new ArrayList<>(benchmark.entriesPerThread);
+            for (int key = 0; owned.size() < benchmark.entriesPerThread; key++) {
+                Data keyData = benchmark.ss.toData(key);
+                if (hashToIndex(keyData.getPartitionHash(), PARTITION_COUNT) % THREAD_COUNT == threadIndex) {
+                    owned.add(new CachedQueryEntry(benchmark.ss, keyData, null, benchmark.extractors));
+                }
+            }
+            entries = owned.toArray(new CachedQueryEntry[0]);
+            values = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                values[i] = ThreadLocalRandom.current().nextInt(benchmark.distinctValues);
+                benchmark.indexStore.insert(values[i], entries[i], entries[i], IndexOperationStats.EMPTY);
+            }
+        }
+    }
+
+    @Benchmark
+    public void update(PartitionThread thread) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(thread.entries.length);
+        int oldValue = thread.values[i];
+        int newValue = random.nextInt(distinctValues);
+        thread.values[i] = newValue;
+        indexStore.update(oldValue, newValue, thread.entries[i], thread.entries[i], IndexOperationStats.EMPTY);
+    }
+
+    @Benchmark
+    public void removeAndInsert(PartitionThread thread) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(thread.entries.length);
+        indexStore.remove(thread.values[i], thread.entries[i], IndexOperationStats.EMPTY);
+        thread.values[i] = random.nextInt(distinctValues);
+        indexStore.insert(thread.values[i], thread.entries[i], thread.entries[i], IndexOperationStats.EMPTY);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing a large value into an outbound packet and writing
+ * the packet into a socket sized buffer. The copying variant copies the
+ * serialization buffer into the packet payload like {@code toBytes}, the
+ * other one hands the serialization buffer over to the packet.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation saved by the latter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketSerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int CLASS_ID = 1;
+    private static final int SOCKET_BUFFER_SIZE = 128 * 1024;
+
+    /**
+     * Size of the byte array held by the benchmarked value.
+     */
+    @Param({"10240", "102400", "1048576"})
+    private int valueSize;
+
+    /**
+     * Serialization format of the benchmarked value.
+     */
+    @Param({"COMPACT", "IDENTIFIED_DATA_SERIALIZABLE"})
+    private Format format;
+
+    private InternalSerializationService ss;
+    private Object object;
+    private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final ByteBuffer socketBuffer = ByteBuffer.allocateDirect(SOCKET_BUFFER_SIZE);
+
+    /**
+     * Serialization formats of the benchmarked value.
+     */
+    public enum Format {
+        /**
+         * Compact serialization with an explicit serializer.
+         */
+        COMPACT,
+        /**
+         * IdentifiedDataSerializable serialization.
+         */
+        IDENTIFIED_DATA_SERIALIZABLE
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().addSerializer(new CompactBlobSerializer());
+        config.addDataSerializableFactory(FACTORY_ID, classId -> new IdentifiedBlob());
+        ss = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new InMemorySchemaService())
+                .build();
+
+        byte[] bytes = new byte[valueSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        switch (format) {
+            case COMPACT:
+                object = new CompactBlob(bytes);
+                break;
+            case IDENTIFIED_DATA_SERIALIZABLE:
+                object = new IdentifiedBlob(bytes);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ss.dispose();
+    }
+
+    @Benchmark
+    public int copyingPacket() {
+        return write(new Packet(ss.toBytes(object), 1));
+    }
+
+    @Benchmark
+    public int handedOverPacket() {
+        return write(ss.toBytes(object, (bytes, length) -> new Packet(bytes, length, 1)));
+    }
+
+    private int write(Packet packet) {
+        int written = 0;
+        boolean done;
+        do {
+            socketBuffer.clear();
+            done = packetWriter.writeTo(packet, socketBuffer);
+            written += socketBuffer.position();
+        } while (!done);
+        return written;
+    }
+
+    /**
+     * Keeps the schemas in memory, the benchmark runs without a cluster.
+     */
+    private static final class InMemorySchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+        @Nullable
+        @Override
+        public Schema get(long schemaId) {
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            putLocal(schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+    }
+
+    private static final class CompactBlob {
+        private final byte[] bytes;
+
+        private CompactBlob(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class CompactBlobSerializer implements CompactSerializer<CompactBlob> {
+
+        @Nonnull
+        @Override
+        public CompactBlob read(@Nonnull CompactReader reader) {
+            return new CompactBlob(reader.readArrayOfInt8("bytes"));
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactBlob blob) {
+            writer.writeArrayOfInt8("bytes", blob.bytes);
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "blob";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactBlob> getCompactClass() {
+            return CompactBlob.class;
+        }
+    }
+
+    private static final class IdentifiedBlob implements IdentifiedDataSerializable {
+        private byte[] bytes;
+
+        private IdentifiedBlob() {
+        }
+
+        private IdentifiedBlob(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeByteArray(bytes);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            bytes = in.readByteArray();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code toData} and {@code toObject} of the member serialization
+ * service for the same value serialized with Compact, Portable and
+ * IdentifiedDataSerializable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int CLASS_ID = 1;
+    private static final long ID = 1L;
+    private static final int AGE = 42;
+    private static final String NAME = "Jane Doe";
+
+    /**
+     * Serialization format of the benchmarked value.
+     */
+    @Param({"COMPACT", "PORTABLE", "IDENTIFIED_DATA_SERIALIZABLE"})
+    private Format format;
+
+    private InternalSerializationService ss;
+    private Object object;
+    private Data data;
+
+    /**
+     * Serialization formats of the benchmarked value.
+     */
+    public enum Format {
+        /**
+         * Compact serialization with an explicit serializer.
+         */
+        COMPACT,
+        /**
+         * Portable serialization.
+         */
+        PORTABLE,
+        /**
+         * IdentifiedDataSerializable serialization.
+         */
+        IDENTIFIED_DATA_SERIALIZABLE
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().addSerializer(new CompactPersonSerializer());
+        config.addPortableFactory(FACTORY_ID, classId -> new PortablePerson());
+        config.addDataSerializableFactory(FACTORY_ID, classId -> new IdentifiedPerson());
+        ss = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new InMemorySchemaService())
+                .build();
+
+        switch (format) {
+            case COMPACT:
+                object = new CompactPerson(ID, AGE, NAME);
+                break;
+            case PORTABLE:
+                object = new PortablePerson(ID, AGE, NAME);
+                break;
+            case IDENTIFIED_DATA_SERIALIZABLE:
+                object = new IdentifiedPerson(ID, AGE, NAME);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        data = ss.toData(object);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ss.dispose();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return ss.toData(object);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return ss.toObject(data);
+    }
+
+    /**
+     * Keeps the schemas in memory, the benchmark runs without a cluster.
+     */
+    private static final class InMemorySchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+        @Nullable
+        @Override
+        public Schema get(long schemaId) {
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            putLocal(schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+    }
+
+    private static final class CompactPerson {
+        private final long id;
+        private final int age;
+        private final String name;
+
+        private CompactPerson(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+    }
+
+    private static final class CompactPersonSerializer implements CompactSerializer<CompactPerson> {
+
+        @Nonnull
+        @Override
+        public CompactPerson read(@Nonnull CompactReader reader) {
+            return new CompactPerson(reader.readInt64("id"), reader.readInt32("age"), reader.readString("name"));
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactPerson person) {
+            writer.writeInt64("id", person.id);
+            writer.writeInt32("age", person.age);
+            writer.writeString("name", person.name);
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "person";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactPerson> getCompactClass() {
+            return CompactPerson.class;
+        }
+    }
+
+    private static final class PortablePerson implements Portable {
+        private long id;
+        private int age;
+        private String name;
+
+        private PortablePerson() {
+        }
+
+        private PortablePerson(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeInt("age", age);
+            writer.writeString("name", name);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            age = reader.readInt("age");
+            name = reader.readString("name");
+        }
+    }
+
+    private static final class IdentifiedPerson implements IdentifiedDataSerializable {
+        private long id;
+        private int age;
+        private String name;
+
+        private IdentifiedPerson() {
+        }
+
+        private IdentifiedPerson(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeInt(age);
+            out.writeString(name);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            age = in.readInt();
+            name = in.readString();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.tpc;
+
+import com.hazelcast.cache.ICache;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency percentiles of the {@link IMap} and {@link ICache}
+ * get, put, set and remove calls of a client against a single member over the
+ * loopback interface, either over the classic networking or over the TPC
+ * sockets. With TPC, the request is decoded, run against the record store and
+ * answered by the reactor owning the partition of the key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientLatencyBenchmark {
+
+    /**
+     * Whether the member and the client use TPC.
+     */
+    @Param({"false", "true"})
+    private boolean tpc;
+
+    /**
+     * Number of entries the map and the cache are populated with.
+     */
+    @Param({"10000"})
+    private int keyCount;
+
+    /**
+     * Size of the values in bytes.
+     */
+    @Param({"100"})
+    private int valueSize;
+
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+    private IMap<Integer, byte[]> map;
+    private ICache<Integer, byte[]> cache;
+    private byte[] value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String clusterName = "benchmark-" + System.nanoTime();
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getJetConfig().setEnabled(false);
+        config.getTpcConfig().setEnabled(tpc);
+        config.addCacheConfig(new CacheSimpleConfig().setName("cache"));
+        member = Hazelcast.newHazelcastInstance(config);
+
+        Address address = member.getCluster().getLocalMember().getAddress();
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setClusterName(clusterName);
+        clientConfig.getNetworkConfig().addAddress(address.getHost() + ":" + address.getPort());
+        clientConfig.getTpcConfig().setEnabled(tpc);
+        client = HazelcastClient.newHazelcastClient(clientConfig);
+
+        map = client.getMap("map");
+        cache = client.getCacheManager().getCache("cache");
+        value = new byte[valueSize];
+        for (int i = 0; i < keyCount; i++) {
+            map.set(i, value);
+            cache.put(i, value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdown();
+        member.getLifecycleService().terminate();
+    }
+
+    @Benchmark
+    public byte[] mapGet() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    public byte[] mapPut() {
+        return map.put(randomKey(), value);
+    }
+
+    @Benchmark
+    public void mapSet() {
+        map.set(randomKey(), value);
+    }
+
+    @Benchmark
+    public byte[] mapRemove(RemovedKey removedKey) {
+        return map.remove(removedKey.key);
+    }
+
+    @Benchmark
+    public byte[] cacheGet() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    public void cachePut() {
+        cache.put(randomKey(), value);
+    }
+
+    @Benchmark
+    public boolean cacheRemove(RemovedKey removedKey) {
+        return cache.remove(removedKey.key);
+    }
+
+    private int randomKey() {
+        return ThreadLocalRandom.current().nextInt(keyCount);
+    }
+
+    /**
+     * The key removed by the next invocation. The entry is put back before
+     * every invocation, outside the measured time, so that every remove hits.
+     */
+    @State(Scope.Thread)
+    public static class RemovedKey {
+        private int key;
+
+        @Setup(Level.Invocation)
+        public void setup(ClientLatencyBenchmark benchmark) {
+            key = benchmark.randomKey();
+            benchmark.map.set(key, benchmark.value);
+            benchmark.cache.put(key, benchmark.value);
+        }
+    }
+}
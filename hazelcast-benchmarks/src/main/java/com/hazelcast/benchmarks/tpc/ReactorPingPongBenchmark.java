@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.tpc;
+
+import com.hazelcast.internal.tpcengine.Reactor;
+import com.hazelcast.internal.tpcengine.iobuffer.IOBuffer;
+import com.hazelcast.internal.tpcengine.net.AsyncServerSocket;
+import com.hazelcast.internal.tpcengine.net.AsyncSocket;
+import com.hazelcast.internal.tpcengine.net.AsyncSocketReader;
+import com.hazelcast.internal.tpcengine.nio.NioReactorBuilder;
+import com.hazelcast.internal.tpcengine.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.tpcengine.net.AsyncSocketOptions.TCP_NODELAY;
+import static com.hazelcast.internal.tpcengine.util.BitUtil.SIZEOF_INT;
+
+/**
+ * Measures the round trip of a message between two NIO reactors connected
+ * over the loopback interface: the client reactor sends a ping, the server
+ * reactor echoes it back and the benchmark thread waits for the pong before
+ * sending the next ping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactorPingPongBenchmark {
+
+    private static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Size of the ping payload in bytes.
+     */
+    @Param({"0", "1024"})
+    private int payloadSize;
+
+    private Reactor clientReactor;
+    private Reactor serverReactor;
+    private AsyncSocket clientSocket;
+    private byte[] payload;
+    private final AtomicLong pongs = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        payload = new byte[payloadSize];
+        clientReactor = new NioReactorBuilder().build().start();
+        serverReactor = new NioReactorBuilder().build().start();
+
+        AsyncServerSocket serverSocket = serverReactor.newAsyncServerSocketBuilder()
+                .setAcceptConsumer(acceptRequest -> serverReactor.newAsyncSocketBuilder(acceptRequest)
+                        .set(TCP_NODELAY, true)
+                        .setReader(new EchoReader(true))
+                        .build()
+                        .start())
+                .build();
+        serverSocket.bind(new InetSocketAddress("127.0.0.1", 0));
+        serverSocket.start();
+
+        clientSocket = clientReactor.newAsyncSocketBuilder()
+                .set(TCP_NODELAY, true)
+                .setReader(new EchoReader(false))
+                .build();
+        clientSocket.start();
+        clientSocket.connect(serverSocket.getLocalAddress()).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        clientReactor.shutdown();
+        serverReactor.shutdown();
+        clientReactor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        serverReactor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long pingPong() {
+        long expectedPongs = pongs.get() + 1;
+        IOBuffer ping = new IOBuffer(SIZEOF_INT + payloadSize, true);
+        ping.writeInt(payloadSize);
+        ping.writeBytes(payload);
+        ping.flip();
+        if (!clientSocket.writeAndFlush(ping)) {
+            throw new IllegalStateException("Socket has no space");
+        }
+        while (pongs.get() < expectedPongs) {
+            Thread.onSpinWait();
+        }
+        return expectedPongs;
+    }
+
+    /**
+     * Reads length-prefixed messages. The server side echoes every message
+     * back, the client side counts them as pongs.
+     */
+    private final class EchoReader extends AsyncSocketReader {
+        private final boolean serverSide;
+        private IOBuffer message;
+
+        private EchoReader(boolean serverSide) {
+            this.serverSide = serverSide;
+        }
+
+        @Override
+        public void onRead(ByteBuffer src) {
+            for (; ; ) {
+                if (message == null) {
+                    if (src.remaining() < SIZEOF_INT) {
+                        break;
+                    }
+                    int size = src.getInt();
+                    message = new IOBuffer(SIZEOF_INT + size, true);
+                    message.byteBuffer().limit(SIZEOF_INT + size);
+                    message.writeInt(size);
+                }
+
+                BufferUtil.put(message.byteBuffer(), src);
+                if (message.remaining() > 0) {
+                    // not all bytes of the message have been received
+                    break;
+                }
+                message.flip();
+
+                if (serverSide) {
+                    if (!socket.unsafeWriteAndFlush(message)) {
+                        throw new IllegalStateException("Socket has no space");
+                    }
+                } else {
+                    pongs.incrementAndGet();
+                }
+                message = null;
+            }
+        }
+    }
+}
@@ -75,6 +75,7 @@ import com.hazelcast.sql.impl.expression.math.RemainderFunction;
 import com.hazelcast.sql.impl.expression.math.RoundTruncateFunction;
 import com.hazelcast.sql.impl.expression.math.SignFunction;
 import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.math.VectorSimilarityFunction;
 import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
 import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
 import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
@@ -231,7 +232,9 @@ public class JetSqlSerializerHook implements DataSerializerHook {
 
     public static final int LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER = 91;
 
-    public static final int LEN = LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER + 1;
+    public static final int EXPRESSION_VECTOR_SIMILARITY = 92;
+
+    public static final int LEN = EXPRESSION_VECTOR_SIMILARITY + 1;
 
     @Override
     public int getFactoryId() {
@@ -349,6 +352,8 @@ public class JetSqlSerializerHook implements DataSerializerHook {
 
         constructors[LAZY_SPECIFIC_MEMBER_PROCESSOR_META_SUPPLIER] = LazyDefiningSpecificMemberPms::new;
 
+        constructors[EXPRESSION_VECTOR_SIMILARITY] = VectorSimilarityFunction::new;
+
         return new ArrayDataSerializableFactory(constructors);
     }
 
@@ -431,6 +431,13 @@ public final class IndexResolver {
                         operands.element1(),
                         operands.element2()
                 );
+            case LIKE:
+                // Handle prefix LIKE predicates. Converted to RANGE filter. Example:
+                // {a LIKE 'abc%'} -> RANGE['abc', 'abd')
+                return prepareSingleColumnCandidateLikePrefix(
+                        exp,
+                        ((RexCall) exp).getOperands()
+                );
             case OR:
                 // Handle OR/IN predicates. If OR condition refer to only a single column and all comparisons are equality
                 // comparisons, then composite filter is created. Otherwise null is returned. Examples:
@@ -682,6 +689,86 @@ public final class IndexResolver {
         );
     }
 
+    /**
+     * Prepare a candidate for a prefix {@code LIKE} expression.
+     * <p>
+     * Strings starting with the given prefix form a contiguous range in the
+     * sort order, e.g. {@code col LIKE 'abc%'} is equivalent to {@code col >=
+     * 'abc' AND col < 'abd'}. Only the literal patterns without an {@code
+     * ESCAPE} clause having a single trailing {@code %} wildcard are
+     * converted.
+     *
+     * @param exp      original expression, e.g. {col LIKE 'abc%'}
+     * @param operands operands of the expression
+     * @return candidate or {@code null}
+     */
+    private static IndexComponentCandidate prepareSingleColumnCandidateLikePrefix(RexNode exp, List<RexNode> operands) {
+        if (operands.size() != 2) {
+            // ESCAPE clause
+            return null;
+        }
+
+        RexNode operand = operands.get(0);
+        RexNode pattern = operands.get(1);
+        if (operand.getKind() != SqlKind.INPUT_REF || pattern.getKind() != SqlKind.LITERAL
+                || operand.getType().getSqlTypeName() != SqlTypeName.VARCHAR) {
+            return null;
+        }
+
+        String prefix = extractLikePrefix(((RexLiteral) pattern).getValueAs(String.class));
+        if (prefix == null) {
+            return null;
+        }
+
+        IndexFilterValue from = new IndexFilterValue(
+                singletonList(ConstantExpression.create(prefix, QueryDataType.VARCHAR)),
+                singletonList(false)
+        );
+
+        String successor = prefixSuccessor(prefix);
+        IndexFilterValue to = successor == null ? null : new IndexFilterValue(
+                singletonList(ConstantExpression.create(successor, QueryDataType.VARCHAR)),
+                singletonList(false)
+        );
+
+        return new IndexComponentCandidate(
+                exp,
+                ((RexInputRef) operand).getIndex(),
+                new IndexRangeFilter(from, true, to, false)
+        );
+    }
+
+    /**
+     * @return the non-empty prefix of the given {@code LIKE} pattern if the
+     * pattern has no wildcards but the trailing {@code %}, {@code null}
+     * otherwise.
+     */
+    private static String extractLikePrefix(String pattern) {
+        if (pattern == null || pattern.length() < 2 || pattern.charAt(pattern.length() - 1) != '%') {
+            return null;
+        }
+
+        String prefix = pattern.substring(0, pattern.length() - 1);
+        if (prefix.indexOf('%') >= 0 || prefix.indexOf('_') >= 0) {
+            return null;
+        }
+        return prefix;
+    }
+
+    /**
+     * @return the smallest string greater than all the strings starting with
+     * the given prefix or {@code null} if there is no such string.
+     */
+    private static String prefixSuccessor(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; --i) {
+            char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+
     @SuppressWarnings({"ConstantConditions"})
     private static IndexComponentCandidate prepareSingleColumnSearchCandidateComparison(
             RexNode exp,
@@ -57,6 +57,7 @@ import com.hazelcast.sql.impl.expression.math.RemainderFunction;
 import com.hazelcast.sql.impl.expression.math.RoundTruncateFunction;
 import com.hazelcast.sql.impl.expression.math.SignFunction;
 import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.math.VectorSimilarityFunction;
 import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
 import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
 import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
@@ -405,6 +406,9 @@ public final class RexToExpression {
                     return DoubleFunction.create(operands[0], DoubleFunction.DEGREES);
                 } else if (function == HazelcastSqlOperatorTable.RADIANS) {
                     return DoubleFunction.create(operands[0], DoubleFunction.RADIANS);
+                } else if (function == HazelcastSqlOperatorTable.VECTOR_SIMILARITY) {
+                    assert operands.length == 2;
+                    return VectorSimilarityFunction.create(operands[0], operands[1]);
                 } else if (function == HazelcastSqlOperatorTable.ROUND) {
                     return RoundTruncateFunction.create(
                             operands[0],
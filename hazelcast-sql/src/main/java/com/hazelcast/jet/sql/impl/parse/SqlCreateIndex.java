@@ -205,9 +205,16 @@ public class SqlCreateIndex extends SqlCreate {
             case "bitmap":
                 type = IndexType.BITMAP;
                 break;
+            case "ngram":
+                type = IndexType.NGRAM;
+                break;
+            case "vector":
+                type = IndexType.VECTOR;
+                break;
             default:
                 throw QueryException.error(
-                        "Can't create index: wrong index type. Only HASH, SORTED and BITMAP types are supported."
+                        "Can't create index: wrong index type. Only HASH, SORTED, BITMAP, NGRAM and VECTOR types are "
+                                + "supported."
                 );
         }
         return type;
@@ -49,6 +49,7 @@ import com.hazelcast.jet.sql.impl.validate.operators.math.HazelcastModFunction;
 import com.hazelcast.jet.sql.impl.validate.operators.math.HazelcastRandFunction;
 import com.hazelcast.jet.sql.impl.validate.operators.math.HazelcastRoundTruncateFunction;
 import com.hazelcast.jet.sql.impl.validate.operators.math.HazelcastSignFunction;
+import com.hazelcast.jet.sql.impl.validate.operators.math.HazelcastVectorSimilarityFunction;
 import com.hazelcast.jet.sql.impl.validate.operators.misc.HazelcastArithmeticOperator;
 import com.hazelcast.jet.sql.impl.validate.operators.misc.HazelcastCaseOperator;
 import com.hazelcast.jet.sql.impl.validate.operators.misc.HazelcastCastFunction;
@@ -205,6 +206,7 @@ public final class HazelcastSqlOperatorTable extends ReflectiveSqlOperatorTable
     public static final SqlFunction LOG10 = new HazelcastDoubleFunction("LOG10");
     public static final SqlFunction DEGREES = new HazelcastDoubleFunction("DEGREES");
     public static final SqlFunction RADIANS = new HazelcastDoubleFunction("RADIANS");
+    public static final SqlFunction VECTOR_SIMILARITY = HazelcastVectorSimilarityFunction.INSTANCE;
 
     public static final SqlFunction FLOOR = HazelcastFloorCeilFunction.FLOOR;
     public static final SqlFunction CEIL = HazelcastFloorCeilFunction.CEIL;
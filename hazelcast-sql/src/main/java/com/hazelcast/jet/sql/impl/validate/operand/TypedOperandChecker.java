@@ -50,6 +50,7 @@ public class TypedOperandChecker extends AbstractOperandChecker {
     public static final TypedOperandChecker ROW = new TypedOperandChecker(SqlTypeName.ROW);
     public static final TypedOperandChecker SYMBOL = new TypedOperandChecker(SqlTypeName.SYMBOL);
     public static final TypedOperandChecker JSON = new TypedOperandChecker(HazelcastJsonType.TYPE);
+    public static final TypedOperandChecker OBJECT = new TypedOperandChecker(SqlTypeName.ANY);
 
     protected final SqlTypeName targetTypeName;
     protected final RelDataType type;
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.sql.impl.expression.math;
+
+import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
+import com.hazelcast.query.impl.Vectors;
+import com.hazelcast.sql.impl.expression.BiExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataType;
+
+/**
+ * Cosine similarity of two numeric vectors. Operands may be {@code float[]},
+ * {@code double[]}, arrays or lists of numbers. Returns {@code null} if any of
+ * the operands is {@code null}, is not a vector or if their dimensions differ.
+ */
+public class VectorSimilarityFunction extends BiExpression<Double> {
+
+    public VectorSimilarityFunction() {
+    }
+
+    private VectorSimilarityFunction(Expression<?> operand1, Expression<?> operand2) {
+        super(operand1, operand2);
+    }
+
+    public static VectorSimilarityFunction create(Expression<?> operand1, Expression<?> operand2) {
+        return new VectorSimilarityFunction(operand1, operand2);
+    }
+
+    @Override
+    public int getClassId() {
+        return JetSqlSerializerHook.EXPRESSION_VECTOR_SIMILARITY;
+    }
+
+    @Override
+    public QueryDataType getType() {
+        return QueryDataType.DOUBLE;
+    }
+
+    @Override
+    public Double eval(Row row, ExpressionEvalContext context) {
+        float[] lhs = Vectors.toVector(operand1.eval(row, context));
+        if (lhs == null) {
+            return null;
+        }
+
+        float[] rhs = Vectors.toVector(operand2.eval(row, context));
+        if (rhs == null || rhs.length != lhs.length) {
+            return null;
+        }
+
+        return Vectors.cosineSimilarity(lhs, rhs);
+    }
+
+    @Override
+    public String toString() {
+        return "VectorSimilarityFunction{operand1=" + operand1 + ", operand2=" + operand2 + '}';
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.connector.map.index;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.jet.sql.impl.opt.physical.FullScanPhysicalRel;
+import com.hazelcast.jet.sql.impl.opt.physical.IndexScanMapPhysicalRel;
+import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
+import com.hazelcast.jet.sql.impl.support.expressions.ExpressionBiValue;
+import com.hazelcast.map.IMap;
+import com.hazelcast.sql.impl.extract.QueryPath;
+import com.hazelcast.sql.impl.schema.TableField;
+import com.hazelcast.sql.impl.schema.map.MapTableField;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.sql.impl.support.expressions.ExpressionBiValue.createBiClass;
+import static com.hazelcast.jet.sql.impl.support.expressions.ExpressionBiValue.createBiValue;
+import static com.hazelcast.jet.sql.impl.support.expressions.ExpressionTypes.STRING;
+import static com.hazelcast.sql.impl.schema.map.MapTableUtils.getPartitionedMapIndexes;
+import static java.util.Arrays.asList;
+
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SqlIndexLikePrefixTest extends SqlIndexTestSupport {
+
+    private static final String[] VALUES = {
+            "a", "ab", "abc", "abcd", "abd", "abz", "b", "ba", "a_c", "a%c", "xabc", "ab\uFFFF", "ab\uFFFFc", "ac", null
+    };
+
+    private String mapName;
+
+    @BeforeClass
+    public static void beforeClass() {
+        initialize(1, null);
+    }
+
+    @Before
+    public void before() throws Exception {
+        mapName = randomName();
+
+        Class<? extends ExpressionBiValue> valueClass = createBiClass(STRING, STRING);
+        IMap<Integer, ? super ExpressionBiValue> map = instance().getMap(mapName);
+
+        createMapping(mapName, int.class, valueClass);
+        createIndex("f1_index", mapName, IndexType.SORTED, "field1");
+
+        for (int i = 0; i < VALUES.length; ++i) {
+            map.put(i, createBiValue(valueClass, i, VALUES[i], VALUES[i]));
+        }
+    }
+
+    @Test
+    public void when_prefixPattern_then_indexIsUsed() {
+        checkPlan(true, "SELECT __key FROM " + mapName + " WHERE field1 LIKE 'ab%'");
+        checkPlan(true, "SELECT __key FROM " + mapName + " WHERE field1 LIKE 'ab\uFFFF%'");
+    }
+
+    @Test
+    public void when_nonPrefixPattern_then_indexIsNotUsed() {
+        checkPlan(false, "SELECT __key FROM " + mapName + " WHERE field1 LIKE '%bc%'");
+        checkPlan(false, "SELECT __key FROM " + mapName + " WHERE field1 LIKE 'a_c%'");
+        checkPlan(false, "SELECT __key FROM " + mapName + " WHERE field1 LIKE 'a%c'");
+        checkPlan(false, "SELECT __key FROM " + mapName + " WHERE field1 LIKE '%'");
+        checkPlan(false, "SELECT __key FROM " + mapName + " WHERE field1 LIKE 'a!%%' ESCAPE '!'");
+    }
+
+    @Test
+    public void when_prefixPattern_then_resultsMatchFullScan() {
+        checkResults("ab%");
+        checkResults("a%");
+        checkResults("ab\uFFFF%");
+        checkResults("abc%");
+        checkResults("b%");
+        checkResults("x%");
+        checkResults("zzz%");
+    }
+
+    private void checkResults(String pattern) {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 0; i < VALUES.length; ++i) {
+            if (VALUES[i] != null && VALUES[i].startsWith(pattern.substring(0, pattern.length() - 1))) {
+                expected.add(new Row(i));
+            }
+        }
+        assertRowsAnyOrder("SELECT __key FROM " + mapName + " WHERE field1 LIKE '" + pattern + "'", expected);
+    }
+
+    private void checkPlan(boolean withIndex, String sql) {
+        List<QueryDataType> parameterTypes = asList(QueryDataType.INT, QueryDataType.VARCHAR, QueryDataType.VARCHAR);
+        List<TableField> mapTableFields = asList(
+                new MapTableField("__key", QueryDataType.INT, false, QueryPath.KEY_PATH),
+                new MapTableField("field1", QueryDataType.VARCHAR, false, new QueryPath("field1", false)),
+                new MapTableField("field2", QueryDataType.VARCHAR, false, new QueryPath("field2", false))
+        );
+        HazelcastTable table = partitionedTable(
+                mapName,
+                mapTableFields,
+                getPartitionedMapIndexes(mapContainer(instance().getMap(mapName)), mapTableFields),
+                VALUES.length
+        );
+
+        Result optimizationResult = optimizePhysical(sql, parameterTypes, table);
+        assertPlan(
+                optimizationResult.getPhysical(),
+                plan(planRow(0, withIndex ? IndexScanMapPhysicalRel.class : FullScanPhysicalRel.class))
+        );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.sql.impl.expression.math;
+
+import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
+import com.hazelcast.jet.sql.impl.expression.ExpressionTestSupport;
+import com.hazelcast.sql.impl.SqlErrorCode;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.math.VectorSimilarityFunction;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.sql.SqlColumnType.DOUBLE;
+import static com.hazelcast.sql.SqlColumnType.INTEGER;
+import static com.hazelcast.sql.SqlColumnType.VARCHAR;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class VectorSimilarityFunctionIntegrationTest extends ExpressionTestSupport {
+
+    @Test
+    public void testColumn() {
+        putAndCheckValue(new float[]{3f, 4f}, sql("this, this"), DOUBLE, 1d);
+        putAndCheckValue(new double[]{3d, 4d}, sql("this, ?"), DOUBLE, 0.96d, new float[]{4f, 3f});
+        putAndCheckValue(new Integer[]{1, 0}, sql("this, ?"), DOUBLE, 0d, Arrays.asList(0, 1));
+
+        // Not a vector or different dimensions
+        putAndCheckValue(OBJECT_VAL, sql("this, this"), DOUBLE, null);
+        putAndCheckValue(new float[]{1f, 0f}, sql("this, ?"), DOUBLE, null, new float[]{1f, 0f, 0f});
+
+        putAndCheckFailure("1", sql("this, this"), SqlErrorCode.PARSING, signatureErrorFunction("VECTOR_SIMILARITY", VARCHAR, VARCHAR));
+        putAndCheckFailure(1, sql("this, this"), SqlErrorCode.PARSING, signatureErrorFunction("VECTOR_SIMILARITY", INTEGER, INTEGER));
+    }
+
+    @Test
+    public void testParameter() {
+        put(0);
+
+        checkValue0(sql("?, ?"), DOUBLE, null, null, new float[]{1f});
+        checkValue0(sql("?, ?"), DOUBLE, null, new float[]{1f}, null);
+        checkValue0(sql("?, ?"), DOUBLE, -1d, new float[]{1f, 0f}, new float[]{-2f, 0f});
+        checkValue0(sql("?, ?"), DOUBLE, 0d, new float[]{0f, 0f}, new float[]{1f, 1f});
+    }
+
+    @Test
+    public void testEquals() {
+        VectorSimilarityFunction function = VectorSimilarityFunction.create(
+                ConstantExpression.create(new float[]{1f}, QueryDataType.OBJECT),
+                ConstantExpression.create(new float[]{1f}, QueryDataType.OBJECT)
+        );
+        VectorSimilarityFunction sameFunction = VectorSimilarityFunction.create(
+                ConstantExpression.create(new float[]{1f}, QueryDataType.OBJECT),
+                ConstantExpression.create(new float[]{1f}, QueryDataType.OBJECT)
+        );
+        VectorSimilarityFunction differentFunction = VectorSimilarityFunction.create(
+                ConstantExpression.create(new float[]{1f}, QueryDataType.OBJECT),
+                ConstantExpression.create(null, QueryDataType.OBJECT)
+        );
+
+        checkEquals(function, function, true);
+        checkEquals(function, differentFunction, false);
+        checkEquals(sameFunction, differentFunction, false);
+    }
+
+    @Test
+    public void testSerialization() {
+        VectorSimilarityFunction original = VectorSimilarityFunction.create(
+                ConstantExpression.create(null, QueryDataType.OBJECT),
+                ConstantExpression.create(null, QueryDataType.OBJECT)
+        );
+        VectorSimilarityFunction restored = serializeAndCheck(original, JetSqlSerializerHook.EXPRESSION_VECTOR_SIMILARITY);
+
+        checkEquals(original, restored, true);
+    }
+
+    private static String sql(String operands) {
+        return "SELECT VECTOR_SIMILARITY(" + operands + ") FROM map";
+    }
+}
@@ -353,6 +353,12 @@ public class NestingAndCasingExpressionTest extends ExpressionTestSupport {
         check(sql("RADIANS(?) || RADIANS(?)"), 1, 1);
     }
 
+    @Test
+    public void test_VECTOR_SIMILARITY() {
+        float[] vector = {1f, 0f};
+        check(sql("VECTOR_SIMILARITY(?, ?) || VECTOR_SIMILARITY(?, ?)"), vector, vector, vector, vector);
+    }
+
     @Test
     public void test_FLOOR() {
         check(sql("FLOOR(?) || FLOOR(?)"), 1, 1);
@@ -55,6 +55,14 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    /**
+     * @return the path of the attribute this aggregator accumulates or {@code
+     * null} if it accumulates the values of the entries.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
 
@@ -26,7 +26,7 @@ import java.math.BigDecimal;
 import java.util.Objects;
 
 public final class BigDecimalAverageAggregator<I> extends AbstractAggregator<I, BigDecimal, BigDecimal>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private BigDecimal sum = BigDecimal.ZERO;
     private long count;
@@ -27,7 +27,7 @@ import java.math.BigInteger;
 import java.util.Objects;
 
 public final class BigIntegerAverageAggregator<I> extends AbstractAggregator<I, BigInteger, BigDecimal>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private BigInteger sum = BigInteger.ZERO;
     private long count;
@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 
 public final class BigIntegerSumAggregator<I> extends AbstractAggregator<I, BigInteger, BigInteger>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private BigInteger sum = BigInteger.ZERO;
 
@@ -20,11 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.IndexedValues;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, ExtractedValueAggregator, IndexAwareAggregator {
     private long count;
 
     public CountAggregator() {
@@ -40,6 +42,16 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public boolean accumulateIndexedValues(IndexedValues values) {
+        if (attributePath == null || values.isMultiValued()) {
+            // the values of collection attributes are counted one by one
+            return false;
+        }
+        count += values.getEntryCount();
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
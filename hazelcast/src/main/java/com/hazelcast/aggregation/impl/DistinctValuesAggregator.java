@@ -20,17 +20,19 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.IndexedValues;
 import com.hazelcast.internal.util.MapUtil;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
 
 @SuppressFBWarnings("SE_BAD_FIELD")
 public final class DistinctValuesAggregator<I, R>
         extends AbstractAggregator<I, R, Set<R>>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator, IndexAwareAggregator {
 
     private CanonicalizingHashSet<R> values = new CanonicalizingHashSet<>();
 
@@ -47,6 +49,19 @@ public final class DistinctValuesAggregator<I, R>
         values.addInternal(value);
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public boolean accumulateIndexedValues(IndexedValues indexedValues) {
+        if (attributePath == null || !indexedValues.isOrdered() || indexedValues.isMultiValued()) {
+            // the null values of empty collections are not accumulated
+            return false;
+        }
+        for (Iterator<Comparable> iterator = indexedValues.getDistinctValues(); iterator.hasNext(); ) {
+            values.addInternal((R) iterator.next());
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Marker for the aggregators which accumulate only the values extracted from
+ * the accumulated entries and never keep references to the entries
+ * themselves. An entry passed to such an aggregator may be reused by the
+ * caller once the accumulation of the entry returns.
+ */
+public interface ExtractedValueAggregator {
+}
@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private long sum;
 
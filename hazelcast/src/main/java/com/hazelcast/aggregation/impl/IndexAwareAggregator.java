@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.query.impl.IndexedValues;
+
+/**
+ * Aggregator which can accumulate the values of its attribute directly from
+ * an index built for the attribute, without visiting and deserializing the
+ * indexed entries.
+ */
+public interface IndexAwareAggregator {
+
+    /**
+     * @return the path of the attribute this aggregator accumulates or {@code
+     * null} if it accumulates the values of the entries.
+     */
+    String getAttributePath();
+
+    /**
+     * Accumulates all the values kept by the given index view as if all the
+     * indexed entries were accumulated one by one.
+     *
+     * @param values the values to accumulate.
+     * @return {@code true} if the values were accumulated, {@code false} if
+     * the given view can't answer this aggregator; the aggregator is left
+     * intact in the latter case.
+     */
+    boolean accumulateIndexedValues(IndexedValues values);
+
+}
@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number, Long>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private long sum;
 
@@ -25,7 +25,8 @@ import com.hazelcast.query.impl.Numbers;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class LongAverageAggregator<I> extends AbstractAggregator<I, Number, Double> implements IdentifiedDataSerializable {
+public final class LongAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private long sum;
 
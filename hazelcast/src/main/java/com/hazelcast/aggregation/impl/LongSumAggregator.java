@@ -25,7 +25,8 @@ import com.hazelcast.query.impl.Numbers;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class LongSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class LongSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private long sum;
 
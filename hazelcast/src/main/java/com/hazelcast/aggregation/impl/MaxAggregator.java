@@ -21,12 +21,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.IndexedValues;
 
 import java.io.IOException;
 import java.util.Objects;
 
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator, IndexAwareAggregator {
 
     private R max;
 
@@ -52,6 +53,19 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         return max == null || Comparables.compare(max, otherValue) < 0;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean accumulateIndexedValues(IndexedValues values) {
+        if (attributePath == null || !values.isOrdered()) {
+            return false;
+        }
+        R value = (R) values.getMaxValue();
+        if (isCurrentlyLessThan(value)) {
+            max = value;
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
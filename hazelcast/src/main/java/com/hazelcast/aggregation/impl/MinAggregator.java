@@ -21,12 +21,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.IndexedValues;
 
 import java.io.IOException;
 import java.util.Objects;
 
 public final class MinAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator, IndexAwareAggregator {
 
     private R min;
 
@@ -52,6 +53,19 @@ public final class MinAggregator<I, R extends Comparable> extends AbstractAggreg
         return min == null || Comparables.compare(min, otherValue) > 0;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean accumulateIndexedValues(IndexedValues values) {
+        if (attributePath == null || !values.isOrdered()) {
+            return false;
+        }
+        R value = (R) values.getMinValue();
+        if (isCurrentlyGreaterThan(value)) {
+            min = value;
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class NumberAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, ExtractedValueAggregator {
 
     private double sum;
 
@@ -238,7 +238,13 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
         if (isUrgent(messageTask)) {
             operationService.execute((UrgentMessageTask) messageTask);
         } else if (messageTask instanceof AbstractPartitionMessageTask) {
-            operationService.execute((AbstractPartitionMessageTask) messageTask);
+            if (tpcEnabled) {
+                // when the message was decoded by the reactor owning the partition, the task, the operation and
+                // the write of the response all run on that reactor without passing through its operation queue
+                operationService.getOperationExecutor().runOrExecuteTask((AbstractPartitionMessageTask) messageTask);
+            } else {
+                operationService.execute((AbstractPartitionMessageTask) messageTask);
+            }
         } else if (isQuery(messageTask)) {
             queryExecutor.execute(messageTask);
         } else if (messageTask instanceof TransactionalMessageTask) {
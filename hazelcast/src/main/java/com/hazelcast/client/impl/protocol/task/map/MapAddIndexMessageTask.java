@@ -33,6 +33,8 @@ import com.hazelcast.spi.impl.operationservice.OperationFactory;
 import java.security.Permission;
 import java.util.Map;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
+
 public class MapAddIndexMessageTask
         extends AbstractAllPartitionsMessageTask<MapAddIndexCodec.RequestParameters> {
 
@@ -89,6 +91,12 @@ public class MapAddIndexMessageTask
                 && parameters.indexConfig.getType() == IndexType.BITMAP) {
             throw new IllegalArgumentException("BITMAP indexes are not supported by NATIVE storage");
         }
+        // RU_COMPAT_5_3
+        IndexType type = parameters.indexConfig.getType();
+        if ((type == IndexType.NGRAM || type == IndexType.VECTOR)
+                && nodeEngine.getClusterService().getClusterVersion().isUnknownOrLessThan(V5_4)) {
+            throw new UnsupportedOperationException(type + " indexes require cluster version " + V5_4 + " or later");
+        }
     }
 
     @Override
@@ -27,7 +27,23 @@ public enum IndexType {
     HASH(1),
 
     /** Bitmap index. Can be used with equality predicates. */
-    BITMAP(2);
+    BITMAP(2),
+
+    /**
+     * N-gram index. Can be used with {@code LIKE}, {@code ILIKE} and regex
+     * predicates.
+     *
+     * @since 5.4
+     */
+    NGRAM(3),
+
+    /**
+     * Vector index. Can be used with the nearest neighbor queries created
+     * by {@link com.hazelcast.query.Predicates#nearestNeighbors}.
+     *
+     * @since 5.4
+     */
+    VECTOR(4);
 
     private final int id;
 
@@ -77,6 +77,8 @@ import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 import com.hazelcast.spi.merge.MergingValue;
 import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import static java.lang.String.format;
 
 import java.util.EnumMap;
@@ -104,6 +106,9 @@ public final class ConfigValidator {
             = EnumSet.of(PER_NODE, PER_PARTITION, USED_NATIVE_MEMORY_PERCENTAGE,
             FREE_NATIVE_MEMORY_PERCENTAGE, USED_NATIVE_MEMORY_SIZE, FREE_NATIVE_MEMORY_SIZE);
 
+    private static final Set<MaxSizePolicy> MAP_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES
+            = EnumSet.of(PER_NODE, PER_PARTITION, USED_NATIVE_MEMORY_SIZE);
+
     private static final Set<MaxSizePolicy> MAP_SUPPORTED_ON_HEAP_MAX_SIZE_POLICIES
             = EnumSet.of(PER_NODE, PER_PARTITION, USED_HEAP_SIZE, USED_HEAP_PERCENTAGE,
             FREE_HEAP_SIZE, FREE_HEAP_PERCENTAGE);
@@ -127,7 +132,11 @@ public final class ConfigValidator {
     public static void checkMapConfig(Config config, MapConfig mapConfig,
                                       SplitBrainMergePolicyProvider mergePolicyProvider) {
 
-        checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
+        if (isOffHeapStorageEnabled(config, mapConfig)) {
+            checkMapOffHeapMaxSizePolicy(mapConfig);
+        } else {
+            checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
+        }
         checkNotBitmapIndexWhenNativeMemory(mapConfig.getInMemoryFormat(), mapConfig.getIndexConfigs());
         checkTSEnabledOnEnterpriseJar(mapConfig.getTieredStoreConfig());
 
@@ -268,6 +277,26 @@ public final class ConfigValidator {
         checkMapNativeMaxSizePolicy(mapConfig);
     }
 
+    /**
+     * @return {@code true} if the given NATIVE map is backed by the
+     * open-source off-heap storage
+     * @see ClusterProperty#MAP_OFF_HEAP_STORAGE_ENABLED
+     */
+    public static boolean isOffHeapStorageEnabled(Config config, MapConfig mapConfig) {
+        return mapConfig.getInMemoryFormat() == NATIVE
+                && !getBuildInfo().isEnterprise()
+                && new HazelcastProperties(config).getBoolean(ClusterProperty.MAP_OFF_HEAP_STORAGE_ENABLED);
+    }
+
+    private static void checkMapOffHeapMaxSizePolicy(MapConfig mapConfig) {
+        MaxSizePolicy maxSizePolicy = mapConfig.getEvictionConfig().getMaxSizePolicy();
+        if (!MAP_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES.contains(maxSizePolicy)) {
+            throw new InvalidConfigurationException("Maximum size policy " + maxSizePolicy
+                    + " cannot be used with the off-heap storage of the map [" + mapConfig.getName() + "]."
+                    + " Supported maximum size policies are: " + MAP_SUPPORTED_OFF_HEAP_MAX_SIZE_POLICIES);
+        }
+    }
+
     private static void checkMapNativeMaxSizePolicy(MapConfig mapConfig) {
         MaxSizePolicy maxSizePolicy = mapConfig.getEvictionConfig().getMaxSizePolicy();
         if (!MAP_SUPPORTED_NATIVE_MAX_SIZE_POLICIES.contains(maxSizePolicy)) {
@@ -19,6 +19,9 @@ package com.hazelcast.internal.diagnostics;
 
 import com.hazelcast.internal.util.LatencyDistribution;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
@@ -31,7 +34,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * A {@link DiagnosticsPlugin} that displays operation latency information.
  *
  * This plugin measure the time an operation runs on an operation thread; if the operation is a blocking
- * operation or being offloaded, only the time on the operation thread is measured.
+ * operation or being offloaded, only the time on the operation thread is measured. If the partition threads
+ * use the array based operation queue, the time operations spend in the queue of each partition thread is
+ * displayed as well.
  */
 public class OperationProfilerPlugin extends DiagnosticsPlugin {
 
@@ -77,6 +82,33 @@ public class OperationProfilerPlugin extends DiagnosticsPlugin {
         write(writer, opLatencyDistribution);
 
         writer.endSection();
+
+        writeQueueLatency(writer);
+    }
+
+    private void writeQueueLatency(DiagnosticsLogWriter writer) {
+        OperationExecutor executor = operationService.getOperationExecutor();
+        if (!(executor instanceof OperationExecutorImpl)) {
+            return;
+        }
+
+        boolean started = false;
+        for (PartitionOperationThread thread : ((OperationExecutorImpl) executor).getPartitionThreads()) {
+            LatencyDistribution distribution = thread.queueLatencyDistribution();
+            if (distribution == null || distribution.count() == 0) {
+                continue;
+            }
+
+            if (!started) {
+                writer.startSection("PartitionThreadQueueLatency");
+                started = true;
+            }
+            write(writer, thread.getName(), distribution);
+        }
+
+        if (started) {
+            writer.endSection();
+        }
     }
 
     static void write(DiagnosticsLogWriter writer, ConcurrentMap<Class, LatencyDistribution> opLatencyDistribution) {
@@ -86,21 +118,25 @@ public class OperationProfilerPlugin extends DiagnosticsPlugin {
                 continue;
             }
 
-            writer.startSection(entry.getKey().getName());
-            writer.writeKeyValueEntry("count", distribution.count());
-            writer.writeKeyValueEntry("totalTime(us)", distribution.totalMicros());
-            writer.writeKeyValueEntry("avg(us)", distribution.avgMicros());
-            writer.writeKeyValueEntry("max(us)", distribution.maxMicros());
-
-            writer.startSection("latency-distribution");
-            for (int bucket = 0; bucket < distribution.bucketCount(); bucket++) {
-                long value = distribution.bucket(bucket);
-                if (value > 0) {
-                    writer.writeKeyValueEntry(LatencyDistribution.LATENCY_KEYS[bucket], value);
-                }
+            write(writer, entry.getKey().getName(), distribution);
+        }
+    }
+
+    private static void write(DiagnosticsLogWriter writer, String name, LatencyDistribution distribution) {
+        writer.startSection(name);
+        writer.writeKeyValueEntry("count", distribution.count());
+        writer.writeKeyValueEntry("totalTime(us)", distribution.totalMicros());
+        writer.writeKeyValueEntry("avg(us)", distribution.avgMicros());
+        writer.writeKeyValueEntry("max(us)", distribution.maxMicros());
+
+        writer.startSection("latency-distribution");
+        for (int bucket = 0; bucket < distribution.bucketCount(); bucket++) {
+            long value = distribution.bucket(bucket);
+            if (value > 0) {
+                writer.writeKeyValueEntry(LatencyDistribution.LATENCY_KEYS[bucket], value);
             }
-            writer.endSection();
-            writer.endSection();
         }
+        writer.endSection();
+        writer.endSection();
     }
 }
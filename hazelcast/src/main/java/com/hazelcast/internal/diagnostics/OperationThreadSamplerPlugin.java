@@ -21,6 +21,9 @@ import com.hazelcast.internal.util.concurrent.ConcurrentItemCounter;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionThreadAffinity;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
@@ -38,6 +41,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  *
  * With the operation sampler we have a lot better understanding which operations
  * are actually running.
+ *
+ * When partition threads are allowed to steal partitions from each other, the
+ * current partition to thread mapping is written as well.
  */
 public class OperationThreadSamplerPlugin extends DiagnosticsPlugin {
 
@@ -114,6 +120,29 @@ public class OperationThreadSamplerPlugin extends DiagnosticsPlugin {
         writer.startSection("OperationThreadSamples");
         write(writer, "Partition", partitionSpecificSamples);
         write(writer, "Generic", genericSamples);
+        writePartitionThreadAffinity(writer);
+        writer.endSection();
+    }
+
+    private void writePartitionThreadAffinity(DiagnosticsLogWriter writer) {
+        if (!(executor instanceof OperationExecutorImpl)) {
+            return;
+        }
+
+        OperationExecutorImpl executorImpl = (OperationExecutorImpl) executor;
+        PartitionThreadAffinity affinity = executorImpl.getPartitionThreadAffinity();
+        if (affinity == null) {
+            return;
+        }
+
+        writer.startSection("PartitionThreadAffinity");
+        writer.writeKeyValueEntry("stealCount", affinity.getStealCount());
+        for (PartitionOperationThread thread : executorImpl.getPartitionThreads()) {
+            int threadId = thread.getThreadId();
+            writer.writeKeyValueEntry(thread.getName(), "ownedPartitions=" + affinity.getOwnedPartitionCount(threadId)
+                    + " stolenPartitions=" + affinity.getStolenPartitionCount(threadId)
+                    + " donatedPartitions=" + affinity.getDonatedPartitionCount(threadId));
+        }
         writer.endSection();
     }
 
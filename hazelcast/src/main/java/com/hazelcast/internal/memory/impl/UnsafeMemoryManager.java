@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryManager} which allocates blocks straight from the operating
+ * system via {@code Unsafe.allocateMemory()} and accesses them through the
+ * platform-aware global {@link MemoryAccessor}.
+ * <p>
+ * There is no pooling: every {@link MemoryAllocator#allocate(long)} is a
+ * {@code malloc} call. The manager only keeps track of the number of bytes
+ * it currently has allocated so that owners can report their footprint.
+ * Allocation and deallocation are not synchronized and must be done by a
+ * single thread at a time, reading the used memory is thread-safe.
+ */
+public final class UnsafeMemoryManager implements MemoryManager {
+
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final Allocator malloc = new Allocator();
+
+    public UnsafeMemoryManager() {
+        if (!UNSAFE_AVAILABLE || !MEM_AVAILABLE) {
+            throw new UnsupportedOperationException("Native memory cannot be accessed on this platform,"
+                    + " sun.misc.Unsafe is not available");
+        }
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return malloc;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    /**
+     * @return number of bytes currently allocated through this manager
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    @Override
+    public void dispose() {
+        malloc.dispose();
+    }
+
+    private final class Allocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            assert size > 0 : "Invalid allocation size: " + size;
+            long address = allocate0(size);
+            UNSAFE.setMemory(address, size, (byte) 0);
+            usedMemory.addAndGet(size);
+            return address;
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            assert newSize > 0 : "Invalid reallocation size: " + newSize;
+            long newAddress;
+            try {
+                newAddress = UNSAFE.reallocateMemory(address, newSize);
+            } catch (OutOfMemoryError e) {
+                throw new NativeOutOfMemoryError("Cannot reallocate " + newSize + " bytes of native memory", e);
+            }
+            if (newSize > currentSize) {
+                UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+            }
+            usedMemory.addAndGet(newSize - currentSize);
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            assert address != NULL_ADDRESS : "Attempt to free NULL_ADDRESS";
+            UNSAFE.freeMemory(address);
+            usedMemory.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+            // nothing to release, blocks are owned and freed by the callers
+        }
+
+        private long allocate0(long size) {
+            try {
+                return UNSAFE.allocateMemory(size);
+            } catch (OutOfMemoryError e) {
+                throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory", e);
+            }
+        }
+    }
+}
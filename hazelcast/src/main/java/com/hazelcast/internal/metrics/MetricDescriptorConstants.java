@@ -224,6 +224,12 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_BACKUP_COUNT = "backupCount";
     public static final String MAP_METRIC_QUERY_COUNT = "queryCount";
     public static final String MAP_METRIC_INDEXED_QUERY_COUNT = "indexedQueryCount";
+    public static final String MAP_METRIC_QUERY_SCANNED_ENTRY_COUNT = "queryScannedEntryCount";
+    public static final String MAP_METRIC_QUERY_SCANNED_ENTRIES_PER_SECOND = "queryScannedEntriesPerSecond";
+    public static final String MAP_METRIC_TOTAL_QUERY_SCAN_LATENCY = "totalQueryScanLatency";
+    public static final String MAP_METRIC_QUERY_DESERIALIZED_BYTES = "queryDeserializedBytes";
+    public static final String MAP_METRIC_QUERY_COMPILED_EVALUATION_COUNT = "queryCompiledEvaluationCount";
+    public static final String MAP_METRIC_QUERY_INTERPRETED_EVALUATION_COUNT = "queryInterpretedEvaluationCount";
     public static final String MAP_METRIC_TOTAL_PUT_LATENCY = "totalPutLatency";
     public static final String MAP_METRIC_TOTAL_SET_LATENCY = "totalSetLatency";
     public static final String MAP_METRIC_TOTAL_GET_LATENCY = "totalGetLatency";
@@ -255,6 +261,29 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_MAP_STORE_WAITING_TO_BE_PROCESSED_COUNT
             = "waitingToBeProcessedCount";
     public static final String MAP_TAG_HYBRID_LOG_ID = "hybridLogId";
+    public static final String MAP_PREFIX_WRITE_BEHIND_WORKER = "map.writeBehindWorker";
+    public static final String MAP_TAG_WRITE_BEHIND_WORKER = "worker";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_COUNT = "batchCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_STORED_ENTRY_COUNT = "storedEntryCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_TOTAL_BATCH_LATENCY = "totalBatchLatency";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_MAX_BATCH_LATENCY = "maxBatchLatency";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_LAST_BATCH_SIZE = "lastBatchSize";
+    public static final String MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_SIZE = "batchSize";
+    public static final String MAP_PREFIX_KEY_LOADER = "map.keyLoader";
+    public static final String MAP_METRIC_KEY_LOADER_DISPATCHED_KEY_COUNT = "dispatchedKeyCount";
+    public static final String MAP_METRIC_KEY_LOADER_KEY_SHARD_COUNT = "keyShardCount";
+    public static final String MAP_METRIC_KEY_LOADER_LOADED_KEY_SHARD_COUNT = "loadedKeyShardCount";
+    public static final String MAP_PREFIX_MATERIALIZED_AGGREGATION = "map.materializedAggregation";
+    public static final String MAP_TAG_MATERIALIZED_AGGREGATION = "aggregation";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_READ_COUNT = "readCount";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_INCREMENTAL_UPDATE_COUNT = "incrementalUpdateCount";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_INVALIDATION_COUNT = "invalidationCount";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_REBUILD_COUNT = "rebuildCount";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_REBUILD_TIME = "totalRebuildTime";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_MAINTENANCE_TIME = "totalMaintenanceTime";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_STALE_PARTITION_COUNT = "stalePartitionCount";
+    public static final String MAP_METRIC_MATERIALIZED_AGGREGATION_LAST_READ_STALE_PARTITION_COUNT
+            = "lastReadStalePartitionCount";
     // ===[/MAP]========================================================
 
     // ===[MEMORY]======================================================
@@ -376,6 +405,7 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_EXECUTOR_COMPLETED_COUNT = "completedCount";
     public static final String OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT = "partitionThreadCount";
     public static final String OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT = "genericThreadCount";
+    public static final String OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT = "partitionStealCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_TOTAL_COUNT = "completedTotalCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_PACKET_COUNT = "completedPacketCount";
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_COUNT = "completedOperationCount";
@@ -386,6 +416,13 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_THREAD_COMPLETED_OPERATION_BATCH_COUNT = "completedOperationBatchCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT = "normalPendingCount";
     public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT = "priorityPendingCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT = "ownedPartitionCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT = "stolenPartitionCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_DONATED_PARTITION_COUNT = "donatedPartitionCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_COUNT = "queueLatencyCount";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_AVG = "queueLatencyAvg";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_MAX = "queueLatencyMax";
+    public static final String OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_PARK_COUNT = "queueParkCount";
     public static final String OPERATION_METRIC_PARKER_PARK_QUEUE_COUNT = "parkQueueCount";
     public static final String OPERATION_METRIC_PARKER_TOTAL_PARKED_OPERATION_COUNT = "totalParkedOperationCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSE_QUEUE_SIZE = "responseQueueSize";
@@ -394,6 +431,9 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_BACKUP_COUNT = "responses.backupCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_ERROR_COUNT = "responses.errorCount";
     public static final String OPERATION_METRIC_INBOUND_RESPONSE_HANDLER_RESPONSES_MISSING_COUNT = "responses.missingCount";
+    public static final String OPERATION_METRIC_RESPONSE_BATCHER_BATCH_COUNT = "responseBatcher.batchCount";
+    public static final String OPERATION_METRIC_RESPONSE_BATCHER_RESPONSE_COUNT = "responseBatcher.responseCount";
+    public static final String OPERATION_METRIC_RESPONSE_BATCHER_AVG_BATCH_SIZE = "responseBatcher.avgBatchSize";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_BACKUP_TIMEOUTS = "backupTimeouts";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_NORMAL_TIMEOUTS = "normalTimeouts";
     public static final String OPERATION_METRIC_INVOCATION_MONITOR_HEARTBEAT_PACKETS_RECEIVED = "heartbeatPacketsReceived";
@@ -407,6 +447,7 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_USED_PERCENTAGE = "usedPercentage";
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID = "lastCallId";
     public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING = "pending";
+    public static final String OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_OVERFLOW = "overflow";
     public static final String OPERATION_METRIC_OPERATION_RUNNER_EXECUTED_OPERATIONS_COUNT = "executedOperationsCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_ASYNC_OPERATIONS = "asyncOperations";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_TIMEOUT_COUNT = "operationTimeoutCount";
@@ -48,6 +48,11 @@ public interface IndexOperationStats {
         public void onEntryRemoved(Object removedValue) {
             // do nothing
         }
+
+        @Override
+        public void onMemoryCostChanged(long delta) {
+            // do nothing
+        }
     };
 
     /**
@@ -75,4 +80,14 @@ public interface IndexOperationStats {
      */
     void onEntryRemoved(Object removedValue);
 
+    /**
+     * Invoked by the associated index if its internal structures changed their
+     * memory cost in a way not captured by the added and removed values, for
+     * instance, if a bitmap index converted its bit set to another internal
+     * representation.
+     *
+     * @param delta the memory cost delta.
+     */
+    void onMemoryCostChanged(long delta);
+
 }
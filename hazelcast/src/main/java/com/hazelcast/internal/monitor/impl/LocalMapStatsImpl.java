@@ -49,6 +49,11 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OWNED_ENTRY_MEMORY_COST;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PUT_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_COMPILED_EVALUATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_DESERIALIZED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_INTERPRETED_EVALUATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_SCANNED_ENTRIES_PER_SECOND;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_SCANNED_ENTRY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_REMOVE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_SET_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_GET_LATENCY;
@@ -57,12 +62,14 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_MAX_REMOVE_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_MAX_SET_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_PUT_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_QUERY_SCAN_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_REMOVE_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_SET_LATENCY;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.util.ConcurrencyUtil.setMax;
 import static com.hazelcast.internal.util.TimeUtil.convertNanosToMillis;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
 /**
@@ -105,6 +112,16 @@ public class LocalMapStatsImpl implements LocalMapStats {
             newUpdater(LocalMapStatsImpl.class, "maxSetLatency");
     private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_REMOVE_LATENCY =
             newUpdater(LocalMapStatsImpl.class, "maxRemoveLatency");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_QUERY_SCAN_LATENCIES =
+            newUpdater(LocalMapStatsImpl.class, "totalQueryScanLatenciesNanos");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_SCANNED_ENTRY_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "queryScannedEntryCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_DESERIALIZED_BYTES =
+            newUpdater(LocalMapStatsImpl.class, "queryDeserializedBytes");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_COMPILED_EVALUATION_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "queryCompiledEvaluationCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_INTERPRETED_EVALUATION_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "queryInterpretedEvaluationCount");
 
     private final ConcurrentMap<String, PartitionedIndexStatsImpl> mutableIndexStats =
             new ConcurrentHashMap<>();
@@ -174,6 +191,15 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long queryCount;
     @Probe(name = MAP_METRIC_INDEXED_QUERY_COUNT)
     private volatile long indexedQueryCount;
+    @Probe(name = MAP_METRIC_QUERY_SCANNED_ENTRY_COUNT)
+    private volatile long queryScannedEntryCount;
+    private volatile long totalQueryScanLatenciesNanos;
+    @Probe(name = MAP_METRIC_QUERY_DESERIALIZED_BYTES, unit = BYTES)
+    private volatile long queryDeserializedBytes;
+    @Probe(name = MAP_METRIC_QUERY_COMPILED_EVALUATION_COUNT)
+    private volatile long queryCompiledEvaluationCount;
+    @Probe(name = MAP_METRIC_QUERY_INTERPRETED_EVALUATION_COUNT)
+    private volatile long queryInterpretedEvaluationCount;
 
     private final boolean ignoreMemoryCosts;
 
@@ -446,6 +472,38 @@ public class LocalMapStatsImpl implements LocalMapStats {
         this.indexedQueryCount = indexedQueryCount;
     }
 
+    @Override
+    public long getQueryScannedEntryCount() {
+        return queryScannedEntryCount;
+    }
+
+    @Probe(name = MAP_METRIC_QUERY_SCANNED_ENTRIES_PER_SECOND)
+    @Override
+    public long getQueryScannedEntriesPerSecond() {
+        long scanNanos = totalQueryScanLatenciesNanos;
+        return scanNanos == 0 ? 0 : (long) (queryScannedEntryCount * (double) SECONDS.toNanos(1) / scanNanos);
+    }
+
+    @Probe(name = MAP_METRIC_TOTAL_QUERY_SCAN_LATENCY, unit = MS)
+    public long getTotalQueryScanLatency() {
+        return convertNanosToMillis(totalQueryScanLatenciesNanos);
+    }
+
+    @Override
+    public long getQueryDeserializedBytes() {
+        return queryDeserializedBytes;
+    }
+
+    @Override
+    public long getQueryCompiledEvaluationCount() {
+        return queryCompiledEvaluationCount;
+    }
+
+    @Override
+    public long getQueryInterpretedEvaluationCount() {
+        return queryInterpretedEvaluationCount;
+    }
+
     @Override
     public Map<String, LocalIndexStats> getIndexStats() {
         return indexStats;
@@ -500,6 +558,36 @@ public class LocalMapStatsImpl implements LocalMapStats {
         setMax(this, MAX_REMOVE_LATENCY, latencyNanos);
     }
 
+    /**
+     * Records a full partition scan performed for a query.
+     *
+     * @param scannedEntries the number of entries visited by the scan
+     * @param latencyNanos   the time spent in the scan
+     */
+    public void incrementQueryScanNanos(long scannedEntries, long latencyNanos) {
+        QUERY_SCANNED_ENTRY_COUNT.addAndGet(this, scannedEntries);
+        TOTAL_QUERY_SCAN_LATENCIES.addAndGet(this, latencyNanos);
+    }
+
+    public void incrementQueryDeserializedBytes(long bytes) {
+        if (bytes > 0) {
+            QUERY_DESERIALIZED_BYTES.addAndGet(this, bytes);
+        }
+    }
+
+    /**
+     * Records predicate evaluations performed by a full partition scan.
+     *
+     * @param evaluations the number of evaluated entries
+     * @param compiled    {@code true} if the predicate was compiled in full,
+     *                    {@code false} if it was interpreted
+     */
+    public void incrementQueryEvaluations(long evaluations, boolean compiled) {
+        if (evaluations > 0) {
+            (compiled ? QUERY_COMPILED_EVALUATION_COUNT : QUERY_INTERPRETED_EVALUATION_COUNT).addAndGet(this, evaluations);
+        }
+    }
+
     public void incrementOtherOperations() {
         NUMBER_OF_OTHER_OPERATIONS.incrementAndGet(this);
     }
@@ -566,6 +654,11 @@ public class LocalMapStatsImpl implements LocalMapStats {
                 + ", nearCacheStats=" + (nearCacheStats != null ? nearCacheStats : "")
                 + ", queryCount=" + queryCount
                 + ", indexedQueryCount=" + indexedQueryCount
+                + ", queryScannedEntryCount=" + queryScannedEntryCount
+                + ", totalQueryScanLatency=" + convertNanosToMillis(totalQueryScanLatenciesNanos)
+                + ", queryDeserializedBytes=" + queryDeserializedBytes
+                + ", queryCompiledEvaluationCount=" + queryCompiledEvaluationCount
+                + ", queryInterpretedEvaluationCount=" + queryInterpretedEvaluationCount
                 + ", indexStats=" + indexStats
                 + ", replicationStats=" + replicationStats
                 + '}';
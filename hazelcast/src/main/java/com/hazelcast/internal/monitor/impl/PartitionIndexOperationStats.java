@@ -45,6 +45,12 @@ public class PartitionIndexOperationStats implements IndexOperationStats {
         --entryCountDelta;
     }
 
+    @Override
+    public void onMemoryCostChanged(long delta) {
+        // Memory cost tracking for HD indexes is done on the native memory
+        // allocator level.
+    }
+
     /**
      * Resets this stats instance to be ready for reuse.
      */
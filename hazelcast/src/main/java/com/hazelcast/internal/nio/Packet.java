@@ -108,6 +108,9 @@ public final class Packet extends HeapData implements OutboundFrame {
     private char flags;
 
     private int partitionId;
+    // the number of leading bytes of the payload array which belong to the
+    // packet, the array of an outbound packet may be longer
+    private int payloadSize;
     private transient ServerConnection conn;
 
     public Packet() {
@@ -119,7 +122,19 @@ public final class Packet extends HeapData implements OutboundFrame {
     }
 
     public Packet(byte[] payload, int partitionId) {
+        this(payload, payload != null ? payload.length : 0, partitionId);
+    }
+
+    /**
+     * Creates a packet holding the leading {@code payloadSize} bytes of the
+     * given array. This lets the buffer an object was serialized into by
+     * {@code InternalSerializationService.toBytes(Object, SerializedBytesFunction)}
+     * become the payload without copying it.
+     */
+    public Packet(byte[] payload, int payloadSize, int partitionId) {
         super(payload);
+        assert payload == null ? payloadSize == 0 : payloadSize <= payload.length;
+        this.payloadSize = payloadSize;
         this.partitionId = partitionId;
         raiseFlags(FLAG_4_0);
     }
@@ -221,6 +236,11 @@ public final class Packet extends HeapData implements OutboundFrame {
         return isFlagRaised(FLAG_URGENT);
     }
 
+    @Override
+    public int totalSize() {
+        return payload != null ? payloadSize : 0;
+    }
+
     @Override
     public int getFrameLength() {
         return (payload != null ? totalSize() : 0) + HEADER_SIZE;
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+/**
+ * Marker interface for operations which are allowed to run on the
+ * migration source while the partition is migrated in live mode.
+ * <p>
+ * An operation is only allowed if its service is a {@link
+ * LiveMigrationAwareService} which also accepts the operation.
+ *
+ * @see LiveMigrationAwareService#isAllowedDuringLiveMigration
+ * @since 5.4
+ */
+public interface AllowedDuringLiveMigration {
+}
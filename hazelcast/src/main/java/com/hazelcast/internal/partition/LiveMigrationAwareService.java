@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.Map;
+
+/**
+ * A {@link ChunkedMigrationAwareService} whose partition data can keep
+ * being mutated on the migration source while its chunks are streamed to
+ * the destination.
+ * <p>
+ * The migration source calls {@link #startLiveMigration} before the first
+ * fragment is sent. From then on, operations implementing {@link
+ * AllowedDuringLiveMigration} and accepted by {@link
+ * #isAllowedDuringLiveMigration} keep running on the migrating partition
+ * and the service tracks the mutations they make. Once all fragments have
+ * been sent, operations of the partition are blocked again and {@link
+ * #finishLiveMigration} is called to get the operations replaying the
+ * tracked mutations on the destination.
+ * <p>
+ * All methods except {@link #isAllowedDuringLiveMigration} and {@link
+ * #cancelLiveMigration} are called on the partition thread.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#PARTITION_LIVE_MIGRATION_ENABLED
+ * @since 5.4
+ */
+public interface LiveMigrationAwareService extends ChunkedMigrationAwareService {
+
+    /**
+     * Starts tracking the mutations of the partition data.
+     *
+     * @param event partition replication event
+     * @return {@code true} if the data of this service can be mutated
+     * during the migration, {@code false} if the partition must be
+     * migrated as usual
+     */
+    boolean startLiveMigration(PartitionReplicationEvent event);
+
+    /**
+     * @param op the operation to check
+     * @return {@code true} if the operation may run on the migrating
+     * partition while its mutations are tracked
+     */
+    boolean isAllowedDuringLiveMigration(Operation op);
+
+    /**
+     * Stops tracking the mutations of the partition data.
+     *
+     * @param event partition replication event
+     * @return the operations to replay the tracked mutations on the
+     * destination by namespace
+     */
+    Map<ServiceNamespace, Operation> finishLiveMigration(PartitionReplicationEvent event);
+
+    /**
+     * Stops tracking the mutations of the partition data after a failed
+     * migration. Must be idempotent.
+     *
+     * @param partitionId the ID of the migrated partition
+     */
+    void cancelLiveMigration(int partitionId);
+}
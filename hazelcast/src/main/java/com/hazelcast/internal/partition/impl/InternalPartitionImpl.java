@@ -35,6 +35,7 @@ public class InternalPartitionImpl extends AbstractInternalPartition implements
     private volatile int version;
     private volatile PartitionReplica localReplica;
     private volatile boolean isMigrating;
+    private volatile boolean isLiveMigrating;
 
     InternalPartitionImpl(int partitionId, PartitionReplica localReplica, PartitionReplicaInterceptor interceptor) {
         super(partitionId);
@@ -72,6 +73,19 @@ public class InternalPartitionImpl extends AbstractInternalPartition implements
      */
     public void resetMigrating() {
         isMigrating = false;
+        isLiveMigrating = false;
+    }
+
+    /**
+     * Returns {@code true} if the partition is migrating and operations
+     * allowed during live migration may still run on it.
+     */
+    public boolean isLiveMigrating() {
+        return isLiveMigrating;
+    }
+
+    public void setLiveMigrating(boolean liveMigrating) {
+        isLiveMigrating = liveMigrating;
     }
 
     @Override
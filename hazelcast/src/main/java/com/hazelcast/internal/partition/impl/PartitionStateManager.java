@@ -419,6 +419,24 @@ public class PartitionStateManager {
         return partitions[partitionId].isMigrating();
     }
 
+    public void setLiveMigratingFlag(int partitionId) {
+        if (logger.isFinestEnabled()) {
+            logger.finest("Setting partition-live-migrating flag. partitionId=" + partitionId);
+        }
+        partitions[partitionId].setLiveMigrating(true);
+    }
+
+    public void clearLiveMigratingFlag(int partitionId) {
+        if (logger.isFinestEnabled()) {
+            logger.finest("Clearing partition-live-migrating flag. partitionId=" + partitionId);
+        }
+        partitions[partitionId].setLiveMigrating(false);
+    }
+
+    public boolean isLiveMigrating(int partitionId) {
+        return partitions[partitionId].isLiveMigrating();
+    }
+
     public void updateStamp() {
         stateStamp = calculateStamp(partitions, () -> stampCalculationBuffer);
         if (logger.isFinestEnabled()) {
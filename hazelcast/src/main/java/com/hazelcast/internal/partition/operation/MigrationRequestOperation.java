@@ -18,8 +18,10 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.partition.LiveMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
@@ -32,6 +34,7 @@ import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.MigrationInterceptor.MigrationParticipant;
 import com.hazelcast.internal.partition.impl.MigrationManager;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.internal.partition.impl.PartitionStateManager;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.ThreadUtil;
 import com.hazelcast.logging.ILogger;
@@ -48,6 +51,7 @@ import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -62,6 +66,7 @@ import java.util.logging.Level;
 
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
 import static com.hazelcast.internal.util.CollectionUtil.isNotEmpty;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_LIVE_MIGRATION_ENABLED;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
@@ -82,6 +87,11 @@ import static java.util.Collections.singleton;
  *
  * @since 5.1 If chunked migration is enabled,
  * it also subdivides fragments into chunks.
+ * @since 5.4 If live migration is enabled and the
+ * destination becomes the partition owner, the services
+ * keep serving operations on the partition while the
+ * chunks are sent, and the mutations are replayed on the
+ * destination in the last fragment.
  */
 public class MigrationRequestOperation extends BaseMigrationOperation {
 
@@ -92,6 +102,8 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private transient ServiceNamespacesContext namespacesContext;
     private transient Map<ServiceNamespace, Collection<ChunkSupplier>>
             namespaceToSuppliers = new HashMap<>();
+    // services tracking mutations during live migration, null if not live
+    private transient Collection<LiveMigrationAwareService> liveMigrationServices;
 
     public MigrationRequestOperation() {
     }
@@ -122,6 +134,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
             try {
                 executeBeforeMigrations();
                 namespacesContext = new ServiceNamespacesContext(nodeEngine, getPartitionReplicationEvent());
+                startLiveMigration();
                 invokeMigrationOperation(initialReplicaFragmentMigrationState(), true);
             } catch (Throwable e) {
                 logThrowable(e);
@@ -148,7 +161,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private void invokeMigrationOperation(ReplicaFragmentMigrationState migrationState, boolean firstFragment) {
         assert ThreadUtil.isRunningOnPartitionThread()
                 : "Migration operations must be invoked from a partition thread";
-        boolean lastFragment = !namespacesContext.hasNext();
+        boolean lastFragment = !namespacesContext.hasNext() && liveMigrationServices == null;
         Operation operation = new MigrationOperation(migrationInfo,
                 firstFragment ? completedMigrations : Collections.emptyList(),
                 partitionStateVersion, migrationState, firstFragment, lastFragment);
@@ -194,6 +207,9 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
             if (migrationState != null) {
                 // migration ops must be serialized and invoked from partition threads
                 getNodeEngine().getOperationService().execute(new InvokeMigrationOps(migrationState, getPartitionId()));
+            } else if (liveMigrationServices != null) {
+                // mutations must be collected while no operation runs on the partition
+                getNodeEngine().getOperationService().execute(new InvokeLiveMigrationDeltaOps(getPartitionId()));
             } else {
                 getLogger().finest("All migration fragments done for " + migrationInfo);
                 completeMigration(true);
@@ -230,6 +246,99 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         }
     }
 
+    private final class InvokeLiveMigrationDeltaOps implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        private final int partitionId;
+
+        InvokeLiveMigrationDeltaOps(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                invokeMigrationOperation(finishLiveMigration(), false);
+            } catch (Throwable t) {
+                logThrowable(t);
+                completeMigration(false);
+            }
+        }
+    }
+
+    /**
+     * Lets the {@link LiveMigrationAwareService}s keep serving operations
+     * on the partition while its chunks are sent, if live migration is
+     * enabled and the destination, which holds no replica of the partition
+     * yet, becomes its owner.
+     */
+    private void startLiveMigration() {
+        NodeEngine nodeEngine = getNodeEngine();
+        if (!chunkedMigrationEnabled || !fragmentedMigrationEnabled
+                || !nodeEngine.getProperties().getBoolean(PARTITION_LIVE_MIGRATION_ENABLED)
+                || !isOwnerMigrationToNewReplica()
+                || !nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4)) {
+            return;
+        }
+
+        PartitionReplicationEvent event = getPartitionReplicationEvent();
+        Collection<LiveMigrationAwareService> services = new ArrayList<>();
+        for (LiveMigrationAwareService service : nodeEngine.getServices(LiveMigrationAwareService.class)) {
+            if (service.startLiveMigration(event)) {
+                services.add(service);
+            }
+        }
+        if (!services.isEmpty()) {
+            liveMigrationServices = services;
+            getPartitionStateManager().setLiveMigratingFlag(getPartitionId());
+        }
+    }
+
+    private boolean isOwnerMigrationToNewReplica() {
+        return migrationInfo.getSourceCurrentReplicaIndex() == 0
+                && migrationInfo.getDestinationCurrentReplicaIndex() == -1
+                && migrationInfo.getDestinationNewReplicaIndex() == 0;
+    }
+
+    /**
+     * Blocks the operations of the partition again and creates the
+     * fragment replaying the mutations made during the live migration.
+     */
+    private ReplicaFragmentMigrationState finishLiveMigration() {
+        getPartitionStateManager().clearLiveMigratingFlag(getPartitionId());
+        Collection<LiveMigrationAwareService> services = liveMigrationServices;
+        liveMigrationServices = null;
+
+        PartitionReplicationEvent event = getPartitionReplicationEvent();
+        Map<ServiceNamespace, Operation> operations = new HashMap<>();
+        for (LiveMigrationAwareService service : services) {
+            operations.putAll(service.finishLiveMigration(event));
+        }
+        return createReplicaFragmentMigrationState(operations.keySet(), operations.values(),
+                emptyList(), maxTotalChunkedDataInBytes);
+    }
+
+    private void cancelLiveMigration() {
+        Collection<LiveMigrationAwareService> services = liveMigrationServices;
+        if (services == null) {
+            return;
+        }
+        liveMigrationServices = null;
+        getPartitionStateManager().clearLiveMigratingFlag(getPartitionId());
+        for (LiveMigrationAwareService service : services) {
+            service.cancelLiveMigration(getPartitionId());
+        }
+    }
+
+    private PartitionStateManager getPartitionStateManager() {
+        InternalPartitionServiceImpl partitionService = getService();
+        return partitionService.getPartitionStateManager();
+    }
+
     /**
      * Creates an empty {@code ReplicaFragmentMigrationState} to perform a ready-check on destination.
      * That way initial {@code MigrationOperation} will be empty and any failure or retry
@@ -380,6 +489,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     }
 
     private void completeMigration(boolean result) {
+        cancelLiveMigration();
         success = result;
         onMigrationComplete();
         sendResponse(result);
@@ -69,6 +69,42 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes the obj like {@link #toBytes(Object)} and passes the bytes to
+     * the given function.
+     * <p>
+     * Unlike {@link #toBytes(Object)}, the array passed to the function may
+     * be the buffer the object was serialized into, in which case it is
+     * longer than the serialized form. This saves copying the serialized
+     * form of large objects, e.g. when it is only written to an outbound
+     * packet.
+     *
+     * @param obj      object to write
+     * @param function receives the bytes
+     * @return the result of the function
+     */
+    default <R> R toBytes(Object obj, SerializedBytesFunction<R> function) {
+        byte[] bytes = toBytes(obj);
+        return function.apply(bytes, bytes.length);
+    }
+
+    /**
+     * Writes the obj like {@link #toBytes(Object, int, boolean)} and passes
+     * the bytes to the given function. See
+     * {@link #toBytes(Object, SerializedBytesFunction)} for the contract of
+     * the passed bytes.
+     *
+     * @param obj                 object to write
+     * @param leftPadding         offset from beginning of byte array to start writing the object's bytes
+     * @param insertPartitionHash {@code true} to include the partition hash in the byte array, otherwise {@code false}
+     * @param function            receives the bytes
+     * @return the result of the function
+     */
+    default <R> R toBytes(Object obj, int leftPadding, boolean insertPartitionHash, SerializedBytesFunction<R> function) {
+        byte[] bytes = toBytes(obj, leftPadding, insertPartitionHash);
+        return function.apply(bytes, bytes.length);
+    }
+
     <B extends Data> B toData(Object obj, DataType type);
 
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization;
+
+/**
+ * Receives the bytes an object was serialized into by
+ * {@link InternalSerializationService#toBytes(Object, SerializedBytesFunction)}.
+ *
+ * @param <R> the type of the result
+ */
+@FunctionalInterface
+public interface SerializedBytesFunction<R> {
+
+    /**
+     * @param bytes  the array holding the serialized bytes. It may be
+     *               longer than the serialized form and its ownership is
+     *               transferred to the function.
+     * @param length the number of leading bytes of the array holding the
+     *               serialized form
+     * @return the result
+     */
+    R apply(byte[] bytes, int length);
+}
@@ -24,6 +24,7 @@ import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializedBytesFunction;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
@@ -49,6 +50,7 @@ import com.hazelcast.nio.serialization.Serializer;
 import com.hazelcast.partition.PartitioningStrategy;
 
 import java.io.Externalizable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteOrder;
 import java.util.IdentityHashMap;
@@ -225,23 +227,68 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferPool pool = bufferPoolThreadLocal.get();
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
-            out.position(leftPadding);
+            writeBytes(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder, includeSchema);
+            return out.toByteArray();
+        } catch (Throwable e) {
+            throw handleSerializeException(obj, e);
+        } finally {
+            pool.returnOutputBuffer(out);
+        }
+    }
 
-            SerializerAdapter serializer = serializerFor(obj, includeSchema);
-            if (writeHash) {
-                int partitionHash = calculatePartitionHash(obj, strategy);
-                out.writeInt(partitionHash, BIG_ENDIAN);
-            }
+    @Override
+    public <R> R toBytes(Object obj, SerializedBytesFunction<R> function) {
+        return toBytes(obj, 0, true, BIG_ENDIAN, function);
+    }
 
-            out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+    @Override
+    public <R> R toBytes(Object obj, int leftPadding, boolean insertPartitionHash, SerializedBytesFunction<R> function) {
+        return toBytes(obj, leftPadding, insertPartitionHash, getByteOrder(), function);
+    }
 
-            serializer.write(out, obj);
-            return out.toByteArray();
+    private <R> R toBytes(Object obj, int leftPadding, boolean writeHash, ByteOrder serializerTypeIdByteOrder,
+                          SerializedBytesFunction<R> function) {
+        checkNotNull(obj);
+        checkNotNull(function);
+
+        byte[] bytes;
+        int length;
+        BufferPool pool = bufferPoolThreadLocal.get();
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        try {
+            writeBytes(out, obj, leftPadding, writeHash, globalPartitioningStrategy, serializerTypeIdByteOrder, false);
+            length = out.position();
+            // a buffer which has grown large would be discarded when the
+            // output is returned to the pool, so it is handed over instead
+            // of being copied
+            bytes = out instanceof ByteArrayObjectDataOutput
+                    ? ((ByteArrayObjectDataOutput) out).detachBufferIfNotRetained()
+                    : null;
+            if (bytes == null) {
+                bytes = out.toByteArray();
+            }
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
         } finally {
             pool.returnOutputBuffer(out);
         }
+        return function.apply(bytes, length);
+    }
+
+    private void writeBytes(BufferObjectDataOutput out, Object obj, int leftPadding, boolean writeHash,
+                            PartitioningStrategy strategy, ByteOrder serializerTypeIdByteOrder,
+                            boolean includeSchema) throws IOException {
+        out.position(leftPadding);
+
+        SerializerAdapter serializer = serializerFor(obj, includeSchema);
+        if (writeHash) {
+            int partitionHash = calculatePartitionHash(obj, strategy);
+            out.writeInt(partitionHash, BIG_ENDIAN);
+        }
+
+        out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+
+        serializer.write(out, obj);
     }
 
     @Override
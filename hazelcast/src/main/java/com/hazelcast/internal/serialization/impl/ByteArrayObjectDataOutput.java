@@ -38,6 +38,9 @@ import static com.hazelcast.version.Version.UNKNOWN;
 
 public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
 
+    // the buffer is shrunk back to this multiple of the initial size when cleared
+    private static final int MAX_RETAINED_SIZE_FACTOR = 8;
+
     final int initialSize;
 
     final int firstGrowthSize;
@@ -456,11 +459,28 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
         return newBuffer;
     }
 
+    /**
+     * Hands over the buffer, without copying the written bytes out of it,
+     * if it has grown so large that {@link #clear()} would discard it.
+     * The output gets a new buffer of the retained size then.
+     *
+     * @return the buffer holding the {@link #position()} written bytes, or
+     * {@code null} if the buffer is retained by this output
+     */
+    byte[] detachBufferIfNotRetained() {
+        if (buffer == null || buffer.length <= initialSize * MAX_RETAINED_SIZE_FACTOR) {
+            return null;
+        }
+        byte[] detached = buffer;
+        buffer = new byte[initialSize * MAX_RETAINED_SIZE_FACTOR];
+        return detached;
+    }
+
     @Override
     public void clear() {
         pos = 0;
-        if (buffer != null && buffer.length > initialSize * 8) {
-            buffer = new byte[initialSize * 8];
+        if (buffer != null && buffer.length > initialSize * MAX_RETAINED_SIZE_FACTOR) {
+            buffer = new byte[initialSize * MAX_RETAINED_SIZE_FACTOR];
         }
         version = UNKNOWN;
         wanProtocolVersion = UNKNOWN;
@@ -68,7 +68,7 @@ public class HeapData implements Data {
     @Override
     public void copyTo(byte[] dest, int destPos) {
         if (totalSize() > 0) {
-            System.arraycopy(payload, 0, dest, destPos, payload.length);
+            System.arraycopy(payload, 0, dest, destPos, totalSize());
         }
     }
 
@@ -127,19 +127,18 @@ public class HeapData implements Data {
             return false;
         }
 
-        return dataSize == 0 || equals(this.payload, data.toByteArray());
+        return dataSize == 0 || equals(this.payload, data.toByteArray(), totalSize());
     }
 
-    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed.
-    private static boolean equals(byte[] data1, byte[] data2) {
+    // Same as Arrays.equals(byte[] a, byte[] a2) for the leading length bytes but loop order is reversed.
+    private static boolean equals(byte[] data1, byte[] data2, int length) {
         if (data1 == data2) {
             return true;
         }
         if (data1 == null || data2 == null) {
             return false;
         }
-        final int length = data1.length;
-        if (data2.length != length) {
+        if (data1.length < length || data2.length < length) {
             return false;
         }
         for (int i = length - 1; i >= DATA_OFFSET; i--) {
@@ -125,7 +125,7 @@ public final class SortingUtil {
         return (entry1, entry2) -> SortingUtil.compare(comparator, iterationType, entry1, entry2);
     }
 
-    private static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
+    public static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
         return NamespaceUtil.callWithNamespace(pagingPredicate.getUserCodeNamespace(), () -> (entry1, entry2) ->
                 SortingUtil.compare(pagingPredicate.getComparator(), pagingPredicate.getIterationType(), entry1, entry2));
     }
@@ -137,16 +137,20 @@ public final class SortingUtil {
         }
         PagingPredicateImpl pagingPredicateImpl = (PagingPredicateImpl) pagingPredicate;
         Comparator<QueryableEntry> comparator = newComparator(pagingPredicateImpl);
-        Collections.sort(list, comparator);
-        int nearestPage = nearestAnchorEntry.getKey();
-        int pageSize = pagingPredicate.getPageSize();
-        int page = pagingPredicate.getPage();
-        long totalSize = pageSize * ((long) page - nearestPage);
-        if (list.size() > totalSize) {
-            // it's safe to cast totalSize back to int here since it's limited by the list size
-            list = list.subList(0, (int) totalSize);
-        }
-        return list;
+        return TopN.select(list, comparator, getPagingLimit(pagingPredicateImpl, nearestAnchorEntry));
+    }
+
+    /**
+     * Returns the number of entries following the nearest anchor which are
+     * needed to serve the requested page: the pages between the nearest
+     * anchor and the requested page and the requested page itself.
+     *
+     * @param pagingPredicate    the paging predicate of the query.
+     * @param nearestAnchorEntry the nearest anchor of the requested page.
+     * @return the number of the needed entries.
+     */
+    public static long getPagingLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        return pagingPredicate.getPageSize() * ((long) pagingPredicate.getPage() - nearestAnchorEntry.getKey());
     }
 
     @SuppressWarnings("unchecked")
@@ -182,16 +186,10 @@ public final class SortingUtil {
      */
     public static List getSortedSubListData(List<QueryableEntry> list, PagingPredicateImpl pagingPredicate) {
         IterationType iterationType = pagingPredicate.getIterationType();
-        Map.Entry<Integer, Integer> pageIndex = getPageIndexesAndUpdateAnchor(list, pagingPredicate,
-                iterationType);
-        int begin = pageIndex.getKey();
-        int end = pageIndex.getValue();
-        if (begin == -1) {
-            return Collections.EMPTY_LIST;
-        }
-        List result = new ArrayList(end - begin);
-        for (int i = begin; i < end; ++i) {
-            CachedQueryEntry entry = (CachedQueryEntry) list.get(i);
+        List<? extends Map.Entry> page = getSortedSubListAndUpdateAnchor(list, pagingPredicate, iterationType);
+        List result = new ArrayList(page.size());
+        for (Map.Entry pageEntry : page) {
+            CachedQueryEntry entry = (CachedQueryEntry) pageEntry;
             switch (iterationType) {
                 case KEY:
                     result.add(entry.getKeyData());
@@ -208,44 +206,39 @@ public final class SortingUtil {
         return result;
     }
 
+    /**
+     * Selects the entries of the requested page and updates the anchors of
+     * the pages up to the requested page.
+     * <p>
+     * Only the entries up to the end of the requested page are sorted, they
+     * are selected using a bounded heap, see {@link TopN}.
+     */
     private static List<? extends Map.Entry> getSortedSubListAndUpdateAnchor(List<? extends Map.Entry> list,
-                                                                             PagingPredicateImpl pagingPredicate,
-                                                                             IterationType iterationType) {
-        Map.Entry<Integer, Integer> pageIndex = getPageIndexesAndUpdateAnchor(list, pagingPredicate, iterationType);
-        int begin = pageIndex.getKey();
-        int end = pageIndex.getValue();
-        if (begin == -1) {
-            return Collections.EMPTY_LIST;
-        }
-
-        return list.subList(begin, end);
-    }
-
-    private static Map.Entry<Integer, Integer> getPageIndexesAndUpdateAnchor(List<? extends Map.Entry> list,
                                                                              PagingPredicateImpl pagingPredicateImpl,
                                                                              IterationType iterationType) {
         if (list.isEmpty()) {
-            return new AbstractMap.SimpleImmutableEntry<Integer, Integer>(-1, -1);
+            return Collections.EMPTY_LIST;
         }
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicateImpl.getComparator(), iterationType);
-        Collections.sort(list, comparator);
 
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = pagingPredicateImpl.getNearestAnchorEntry();
         int nearestPage = nearestAnchorEntry.getKey();
         int page = pagingPredicateImpl.getPage();
         int pageSize = pagingPredicateImpl.getPageSize();
         long begin = pageSize * ((long) page - nearestPage - 1);
-        int size = list.size();
+        List<? extends Map.Entry> sorted = TopN.select(list, comparator,
+                getPagingLimit(pagingPredicateImpl, nearestAnchorEntry));
+        int size = sorted.size();
         if (begin > size) {
-            return new AbstractMap.SimpleImmutableEntry<Integer, Integer>(-1, -1);
+            return Collections.EMPTY_LIST;
         }
         long end = begin + pageSize;
         if (end > size) {
             end = size;
         }
-        setAnchor(list, pagingPredicateImpl, nearestPage);
+        setAnchor(sorted, pagingPredicateImpl, nearestPage);
         // it's safe to cast begin and end back to int here since they are limited by the list size
-        return new AbstractMap.SimpleImmutableEntry<Integer, Integer>((int) begin, (int) end);
+        return sorted.subList((int) begin, (int) end);
     }
 
     private static void setAnchor(List<? extends Map.Entry> list, PagingPredicateImpl pagingPredicate, int nearestPage) {
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the first {@code limit} elements, in the order defined by a
+ * comparator, of a sequence of offered elements.
+ * <p>
+ * Only the selected elements are retained: they are kept in a max-heap
+ * bounded by the limit, so selecting the first {@code k} of {@code n}
+ * elements takes {@code O(n log k)} time and {@code O(k)} memory instead of
+ * sorting all the elements.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <E> the type of the elements.
+ */
+public final class TopN<E> {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final Comparator<? super E> comparator;
+    private final int limit;
+    private final PriorityQueue<E> heap;
+
+    /**
+     * @param comparator the comparator defining the order of the elements.
+     * @param limit      the maximum number of elements to select.
+     */
+    public TopN(Comparator<? super E> comparator, int limit) {
+        Preconditions.checkNotNegative(limit, "limit can't be negative");
+        this.comparator = comparator;
+        this.limit = limit;
+        // the head of the heap is the greatest selected element
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit, MAX_INITIAL_CAPACITY)), Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Returns the first {@code limit} elements of the given collection
+     * sorted by the given comparator.
+     *
+     * @param elements   the elements to select from.
+     * @param comparator the comparator defining the order of the elements.
+     * @param limit      the maximum number of elements to select.
+     * @param <E>        the type of the elements.
+     * @return the new sorted list of the selected elements.
+     */
+    public static <E> List<E> select(Collection<? extends E> elements, Comparator<? super E> comparator, long limit) {
+        if (limit >= elements.size()) {
+            List<E> sorted = new ArrayList<>(elements);
+            sorted.sort(comparator);
+            return sorted;
+        }
+
+        TopN<E> topN = new TopN<>(comparator, (int) limit);
+        for (E element : elements) {
+            topN.offer(element);
+        }
+        return topN.toSortedList();
+    }
+
+    /**
+     * Checks whether the given element would be selected if it was offered
+     * now. Allows to skip the preparation of elements which won't be selected
+     * anyway.
+     *
+     * @param element the element to check.
+     * @return {@code true} if the element would be selected, {@code false}
+     * otherwise.
+     */
+    public boolean accepts(E element) {
+        if (heap.size() < limit) {
+            return true;
+        }
+        return limit > 0 && comparator.compare(element, heap.peek()) < 0;
+    }
+
+    /**
+     * Offers the given element for the selection.
+     *
+     * @param element the element to offer.
+     * @return {@code true} if the element is selected, at least for now,
+     * {@code false} otherwise.
+     */
+    public boolean offer(E element) {
+        if (!accepts(element)) {
+            return false;
+        }
+        if (heap.size() == limit) {
+            heap.poll();
+        }
+        heap.offer(element);
+        return true;
+    }
+
+    /**
+     * @return the number of the currently selected elements.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the new list of the selected elements sorted by the comparator.
+     */
+    public List<E> toSortedList() {
+        List<E> sorted = new ArrayList<>(heap);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+}
@@ -283,6 +283,71 @@ public interface LocalMapStats extends LocalInstanceStats {
      */
     long getIndexedQueryCount();
 
+    /**
+     * Returns the total number of entries visited by full partition scans
+     * performed for queries on the map. Queries served by indexes don't
+     * contribute to this value.
+     *
+     * @see #getQueryScannedEntriesPerSecond()
+     * @since 5.4
+     */
+    default long getQueryScannedEntryCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the average number of entries visited per second of time spent
+     * in full partition scans performed for queries on the map, or {@code 0}
+     * if no scan has been performed yet.
+     *
+     * @see #getQueryScannedEntryCount()
+     * @since 5.4
+     */
+    default long getQueryScannedEntriesPerSecond() {
+        return 0;
+    }
+
+    /**
+     * Returns the total number of serialized key and value bytes which had
+     * to be deserialized into objects while evaluating predicates during full
+     * partition scans performed for queries on the map.
+     * <p>
+     * Predicates evaluated directly against the serialized form of Compact
+     * and Portable values don't contribute to this value.
+     *
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_SERIALIZED_SCAN_ENABLED
+     * @since 5.4
+     */
+    default long getQueryDeserializedBytes() {
+        return 0;
+    }
+
+    /**
+     * Returns the total number of predicate evaluations performed by full
+     * partition scans using predicates compiled in full.
+     *
+     * @see #getQueryInterpretedEvaluationCount()
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_PREDICATE_COMPILATION_ENABLED
+     * @since 5.4
+     */
+    default long getQueryCompiledEvaluationCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the total number of predicate evaluations performed by full
+     * partition scans using the interpreter, either because the predicate
+     * compilation is disabled or because some nodes of the predicate could
+     * not be compiled.
+     *
+     * @see #getQueryCompiledEvaluationCount()
+     * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_PREDICATE_COMPILATION_ENABLED
+     * @since 5.4
+     */
+    default long getQueryInterpretedEvaluationCount() {
+        return 0;
+    }
+
     /**
      * Returns the per-index statistics map keyed by the index name.
      */
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+/**
+ * Optional interface for a {@link MapLoader} which can split its keys into
+ * independent shards, e.g. key ranges of a database table.
+ * <p>
+ * If the map loader of a map implements this interface, the initial load
+ * and {@link IMap#loadAll(boolean)} load the keys shard by shard instead of
+ * calling {@link MapLoader#loadAllKeys()} on a single member. The keys of
+ * shard {@code i} are loaded by the owner of partition {@code i % partitionCount},
+ * so the shards are loaded in parallel by all members. The loaded keys are
+ * streamed to their partition owners which load the values via
+ * {@link MapLoader#loadAll(java.util.Collection)} as usual.
+ * <p>
+ * If the shards are aligned with the partitions, i.e. shard {@code i} only
+ * returns keys of partition {@code i}, each member only loads the keys and
+ * values of its own partitions. The partition of a key can be obtained via
+ * {@link com.hazelcast.partition.PartitionService#getPartition(Object)}.
+ * <p>
+ * {@link MapLoader#loadAllKeys()} is still used while the cluster is being
+ * upgraded from a version which does not support sharded loading.
+ *
+ * @param <K> type of the map key
+ * @since 5.4
+ */
+public interface MapLoaderShardingSupport<K> {
+
+    /**
+     * Returns the number of shards. Must return the same value on all members.
+     *
+     * @return the number of shards, a positive number
+     */
+    int getShardCount();
+
+    /**
+     * Loads the keys of the given shard. The keys of all shards together must
+     * be equal to the keys returned by {@link MapLoader#loadAllKeys()}.
+     * <p>
+     * The returned {@link Iterable} is consumed lazily, so large shards can be
+     * streamed. If the returned {@link java.util.Iterator} implements
+     * {@link java.io.Closeable}, it is closed once all keys have been consumed.
+     *
+     * @param shardId the ID of the shard, between {@code 0} (inclusive) and
+     *                {@link #getShardCount()} (exclusive)
+     * @return all keys of the shard
+     */
+    Iterable<K> loadAllKeys(int shardId);
+}
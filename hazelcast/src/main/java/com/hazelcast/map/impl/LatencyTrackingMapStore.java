@@ -41,6 +41,20 @@ public class LatencyTrackingMapStore<K, V> implements MapStore<K, V> {
         this.storeAllProbe = plugin.newProbe(KEY, mapName, "storeAll");
     }
 
+    /**
+     * Creates a probe which tracks the latency of the batch store calls
+     * issued by a single write-behind worker of the map. The probe is reported
+     * next to the map-wide probes of the {@link LatencyTrackingMapStore}.
+     *
+     * @param plugin      the store latency plugin
+     * @param mapName     the name of the map
+     * @param workerIndex the index of the write-behind worker
+     * @return the probe
+     */
+    public static LatencyProbe newWriteBehindWorkerProbe(StoreLatencyPlugin plugin, String mapName, int workerIndex) {
+        return plugin.newProbe(KEY, mapName, "writeBehindWorker[" + workerIndex + "].batchStore");
+    }
+
     @Override
     public V load(K key) {
         throw new UnsupportedOperationException();
@@ -40,6 +40,7 @@ import com.hazelcast.map.impl.eviction.Evictor;
 import com.hazelcast.map.impl.eviction.EvictorImpl;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
+import com.hazelcast.map.impl.query.MaterializedAggregations;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.map.impl.wan.MapWanContext;
@@ -48,6 +49,7 @@ import com.hazelcast.query.impl.IndexRegistry;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.CompiledPredicateCache;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
@@ -63,13 +65,17 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyComparator;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
 import static com.hazelcast.query.impl.InternalIndex.GLOBAL_INDEX_NOOP_PARTITION_ID;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COLUMNAR_RECORD_STORE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.MAP_EVICTION_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_MATERIALIZED_AGGREGATIONS_IDLE_TIMEOUT_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT;
 import static java.lang.System.getProperty;
 
 /**
@@ -85,6 +91,8 @@ public class MapContainer {
     // stored in the mapContainer, so if globalIndexes is null it means that
     // global index is not in use
     protected final Extractors extractors;
+    protected final CompiledPredicateCache compiledPredicateCache;
+    protected final MaterializedAggregations materializedAggregations;
     protected final MapStoreContext mapStoreContext;
     protected final ObjectNamespace objectNamespace;
     protected final IndexRegistry globalIndexRegistry;
@@ -108,6 +116,7 @@ public class MapContainer {
     private volatile Evictor evictor;
 
     private final MapWanContext wanContext;
+    private final boolean columnarRecordStore;
 
     private volatile boolean destroyed;
 
@@ -131,12 +140,19 @@ public class MapContainer {
                 .setAttributeConfigs(mapConfig.getAttributeConfigs())
                 .setClassLoader(NamespaceUtil.getClassLoaderForNamespace(nodeEngine, mapConfig.getUserCodeNamespace()))
                 .build();
+        this.compiledPredicateCache = new CompiledPredicateCache(extractors);
+        this.materializedAggregations = new MaterializedAggregations(
+                nodeEngine.getProperties().getInteger(QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT),
+                nodeEngine.getProperties().getMillis(QUERY_MATERIALIZED_AGGREGATIONS_IDLE_TIMEOUT_SECONDS),
+                nodeEngine.getPartitionService().getPartitionCount(), serializationService, extractors);
         this.queryEntryFactory = new QueryEntryFactory(mapConfig.getCacheDeserializedValues(),
                 serializationService, extractors);
         this.globalIndexRegistry = shouldUseGlobalIndex()
                 ? createIndexRegistry(true, GLOBAL_INDEX_NOOP_PARTITION_ID) : null;
         this.mapStoreContext = createMapStoreContext(this);
         this.wanContext = new MapWanContext(this);
+        this.columnarRecordStore = mapConfig.getInMemoryFormat() == BINARY
+                && nodeEngine.getProperties().getBoolean(MAP_COLUMNAR_RECORD_STORE_ENABLED);
     }
 
     public void init() {
@@ -245,6 +261,26 @@ public class MapContainer {
             || mapServiceContext.isForciblyEnabledGlobalIndex();
     }
 
+    /**
+     * @return {@code true} if record stores of this map keep their records
+     * in a {@link com.hazelcast.map.impl.recordstore.ColumnarStorage}, which
+     * must only be accessed by partition threads
+     * @see com.hazelcast.spi.properties.ClusterProperty#MAP_COLUMNAR_RECORD_STORE_ENABLED
+     */
+    public boolean isColumnarRecordStore() {
+        return columnarRecordStore;
+    }
+
+    /**
+     * @return {@code true} if record stores of this map may be read by
+     * threads other than their partition threads, e.g. scanned by the query
+     * threads. Neither {@link com.hazelcast.config.InMemoryFormat#NATIVE} nor
+     * {@link #isColumnarRecordStore() columnar} record stores are.
+     */
+    public boolean isRecordStoreThreadSafe() {
+        return mapConfig.getInMemoryFormat() != NATIVE && !columnarRecordStore;
+    }
+
     protected static MemoryInfoAccessor getMemoryInfoAccessor() {
         MemoryInfoAccessor pluggedMemoryInfoAccessor = getPluggedMemoryInfoAccessor();
         return pluggedMemoryInfoAccessor != null ? pluggedMemoryInfoAccessor : new RuntimeMemoryInfoAccessor();
@@ -382,6 +418,14 @@ public class MapContainer {
         return extractors;
     }
 
+    public CompiledPredicateCache getCompiledPredicateCache() {
+        return compiledPredicateCache;
+    }
+
+    public MaterializedAggregations getMaterializedAggregations() {
+        return materializedAggregations;
+    }
+
     public boolean hasInvalidationListener() {
         return invalidationListenerCount.get() > 0;
     }
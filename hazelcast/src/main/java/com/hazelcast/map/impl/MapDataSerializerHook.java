@@ -39,6 +39,7 @@ import com.hazelcast.map.impl.operation.AddIndexOperationFactory;
 import com.hazelcast.map.impl.operation.AddInterceptorOperation;
 import com.hazelcast.map.impl.operation.AwaitMapFlushOperation;
 import com.hazelcast.map.impl.operation.ClearBackupOperation;
+import com.hazelcast.map.impl.operation.CoalescedSetOperation;
 import com.hazelcast.map.impl.operation.ClearOperation;
 import com.hazelcast.map.impl.operation.ClearOperationFactory;
 import com.hazelcast.map.impl.operation.ContainsKeyOperation;
@@ -64,8 +65,10 @@ import com.hazelcast.map.impl.operation.IsPartitionLoadedOperationFactory;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
 import com.hazelcast.map.impl.operation.LoadAllOperation;
+import com.hazelcast.map.impl.operation.LoadKeyShardOperation;
 import com.hazelcast.map.impl.operation.LoadMapOperation;
 import com.hazelcast.map.impl.operation.MapChunk;
+import com.hazelcast.map.impl.operation.MapMigrationDeltaOperation;
 import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchIndexOperation;
 import com.hazelcast.map.impl.operation.MapFetchIndexOperation.MapFetchIndexOperationResult;
@@ -327,8 +330,11 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int INDEX_ITERATION_POINTER = 156;
     public static final int MAP_FETCH_INDEX_OPERATION_RESULT = 157;
     public static final int MAP_CHUNK = 158;
+    public static final int COALESCED_SET = 159;
+    public static final int LOAD_KEY_SHARD = 160;
+    public static final int MAP_MIGRATION_DELTA = 161;
 
-    private static final int LEN = MAP_CHUNK + 1;
+    private static final int LEN = MAP_MIGRATION_DELTA + 1;
 
     @Override
     public int getFactoryId() {
@@ -494,6 +500,9 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[INDEX_ITERATION_POINTER] = IndexIterationPointer::new;
         constructors[MAP_FETCH_INDEX_OPERATION_RESULT] = MapFetchIndexOperationResult::new;
         constructors[MAP_CHUNK] = MapChunk::new;
+        constructors[COALESCED_SET] = CoalescedSetOperation::new;
+        constructors[LOAD_KEY_SHARD] = LoadKeyShardOperation::new;
+        constructors[MAP_MIGRATION_DELTA] = MapMigrationDeltaOperation::new;
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
@@ -31,9 +32,11 @@ import com.hazelcast.internal.util.concurrent.IdleStrategy;
 import com.hazelcast.internal.util.scheduler.CoalescingDelayedTrigger;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.MapLoaderShardingSupport;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
+import com.hazelcast.map.impl.operation.LoadKeyShardOperation;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.TriggerLoadIfNeededOperation;
@@ -46,6 +49,7 @@ import com.hazelcast.spi.properties.HazelcastProperty;
 
 import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +59,8 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -67,6 +73,7 @@ import static com.hazelcast.map.impl.MapKeyLoaderUtil.toBatches;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.toPartition;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOAD_ALL_KEYS_EXECUTOR;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOAD_KEY_SHARD_EXECUTOR;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -77,6 +84,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * It loads keys via {@link MapLoader#loadAllKeys} and sends
  * them to all map partitions. Matching values of these keys are
  * loaded in partition owner nodes via {@link MapLoader#loadAll}.
+ * <p>
+ * If the map loader implements {@link MapLoaderShardingSupport}, the
+ * {@link Role#SENDER} does not load the keys itself but sends a
+ * {@link LoadKeyShardOperation} per shard. The keys of a shard are loaded
+ * and sent to the partition owners by the map key loader of the partition
+ * the shard is assigned to, see {@link #loadKeyShard}.
  */
 public class MapKeyLoader {
 
@@ -184,6 +197,21 @@ public class MapKeyLoader {
     private final Semaphore nodeWideLoadedKeyLimiter;
     private final ClusterService clusterService;
     private final Executor internalAsyncExecutor;
+    /**
+     * The number of keys loaded from the map loader and dispatched
+     * to the partition owners by this map key loader
+     */
+    private final AtomicLong dispatchedKeyCount = new AtomicLong();
+    /**
+     * The number of key shards loaded during the last or ongoing key
+     * loading on the {@link Role#SENDER}
+     */
+    private final AtomicInteger loadedKeyShardCount = new AtomicInteger();
+    /**
+     * The number of key shards of the last or ongoing key loading on the
+     * {@link Role#SENDER} or {@code 0} if the keys are not sharded
+     */
+    private volatile int keyShardCount;
 
     public MapKeyLoader(String mapName, OperationService opService, IPartitionService ps,
                         ClusterService clusterService, ExecutionService execService,
@@ -426,6 +454,9 @@ public class MapKeyLoader {
      * many keys have been loaded from the map loader. If the keys returned from the
      * map loader are not equally distributed over all partitions, this may cause some nodes
      * to load more entries than others and exceed the configured policy.
+     * If the map loader implements {@link MapLoaderShardingSupport}, the keys are
+     * loaded in shards in parallel by the owners of the partitions the shards are
+     * assigned to and this method returns after all shards have been loaded.
      *
      * @param mapStoreContext       the map store context for this map
      * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
@@ -439,41 +470,21 @@ public class MapKeyLoader {
         }
 
         int clusterSize = partitionService.getMemberPartitionsMap().size();
+        int mapMaxSize = clusterSize * maxSizePerNode;
         Iterator<Object> keys = null;
         Throwable loadError = null;
 
         try {
-            Iterable<Object> allKeys = mapStoreContext.loadAllKeys();
-            keys = allKeys.iterator();
-            Iterator<Data> dataKeys = map(keys, toData);
-            int mapMaxSize = clusterSize * maxSizePerNode;
-
-            if (mapMaxSize > 0) {
-                dataKeys = limit(dataKeys, mapMaxSize);
-            }
-
-            Iterator<Entry<Integer, Data>> partitionsAndKeys = map(dataKeys, toPartition(partitionService));
-            Iterator<Map<Integer, List<Data>>> batches = toBatches(partitionsAndKeys, maxBatch, nodeWideLoadedKeyLimiter);
-
-            int callCount = 0;
-            List<Future> futures = new ArrayList<>();
-            while (batches.hasNext()) {
-                Map<Integer, List<Data>> batch = batches.next();
-                if (batch.isEmpty()) {
-                    IDLE_STRATEGY.idle(++callCount);
-                } else {
-                    callCount = 0;
-                    futures.addAll(sendBatch(batch, replaceExistingValues, nodeWideLoadedKeyLimiter));
-                }
+            int shardCount = canLoadKeyShards() ? mapStoreContext.getKeyShardCount() : 0;
+            keyShardCount = shardCount;
+            loadedKeyShardCount.set(0);
+            if (shardCount > 0) {
+                sendKeyShards(shardCount, mapMaxSize, replaceExistingValues);
+            } else {
+                Iterable<Object> allKeys = mapStoreContext.loadAllKeys();
+                keys = allKeys.iterator();
+                dispatchKeys(keys, mapMaxSize, replaceExistingValues);
             }
-
-            // This acts as a barrier to prevent re-ordering of key distribution operations (LoadAllOperation)
-            // and LoadStatusOperation(s) which indicates all keys were already loaded.
-            // Re-ordering of in-flight operations can happen during a partition migration. We are waiting here
-            // for all LoadAllOperation(s) to be ACKed by receivers and only then we send them the LoadStatusOperation
-            // See https://github.com/hazelcast/hazelcast/issues/4024 for additional details
-            FutureUtil.waitForever(futures);
-
         } catch (Exception caught) {
             loadError = caught;
         } finally {
@@ -485,11 +496,134 @@ public class MapKeyLoader {
         }
     }
 
+    /**
+     * Returns {@code true} if all members support loading the keys
+     * in shards by {@link LoadKeyShardOperation}.
+     */
+    private boolean canLoadKeyShards() {
+        return clusterService.getClusterVersion().isGreaterOrEqual(Versions.V5_4);
+    }
+
+    /**
+     * Sends a {@link LoadKeyShardOperation} for each key shard to the owner
+     * of the partition the shard is assigned to and waits until all shards
+     * have been loaded and dispatched to the partition owners.
+     *
+     * @param shardCount            the number of key shards
+     * @param mapMaxSize            the maximum number of keys to load or a
+     *                              non-positive value if not limited
+     * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @see MapLoaderShardingSupport
+     */
+    private void sendKeyShards(int shardCount, int mapMaxSize, boolean replaceExistingValues) {
+        int partitionCount = partitionService.getPartitionCount();
+        int maxKeysPerShard = mapMaxSize > 0 ? (mapMaxSize + shardCount - 1) / shardCount : -1;
+        List<Future> futures = new ArrayList<>(shardCount);
+        for (int shardId = 0; shardId < shardCount; shardId++) {
+            Operation op = new LoadKeyShardOperation(mapName, shardId, maxKeysPerShard, replaceExistingValues);
+            InternalCompletableFuture<Object> future = opService.invokeOnPartition(SERVICE_NAME, op,
+                    shardId % partitionCount);
+            futures.add(future.thenRun(loadedKeyShardCount::incrementAndGet));
+        }
+        // the same barrier as in #dispatchKeys, each shard is done after its LoadAllOperations were ACKed
+        FutureUtil.waitForever(futures, FutureUtil.RETHROW_EVERYTHING);
+    }
+
+    /**
+     * Loads the keys of the given shard and sends them to the partition
+     * owners for value loading. The actual loading is done on the
+     * {@link ExecutionService#MAP_LOAD_KEY_SHARD_EXECUTOR} executor.
+     *
+     * @param mapStoreContext       the map store context for this map
+     * @param shardId               the ID of the key shard
+     * @param maxKeys               the maximum number of keys to load or a
+     *                              non-positive value if not limited
+     * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @return a future completed with the number of dispatched keys once all keys of the
+     * shard have been dispatched to the partition owners
+     * @see MapLoaderShardingSupport#loadAllKeys(int)
+     */
+    public InternalCompletableFuture<Long> loadKeyShard(MapStoreContext mapStoreContext, int shardId, int maxKeys,
+                                                        boolean replaceExistingValues) {
+        InternalCompletableFuture<Long> future = new InternalCompletableFuture<>();
+        execService.execute(MAP_LOAD_KEY_SHARD_EXECUTOR, () -> {
+            Iterator<Object> keys = null;
+            try {
+                keys = mapStoreContext.loadAllKeys(shardId).iterator();
+                future.complete(dispatchKeys(keys, maxKeys, replaceExistingValues));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                if (keys instanceof Closeable) {
+                    closeResource((Closeable) keys);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends the keys to the partition owners in batches for value loading.
+     * At most one batch per partition is in flight: a batch for a partition
+     * is sent only after the previous batch for the same partition has been
+     * acknowledged by its owner, which applies back-pressure on the key
+     * loading. This method will return after all batches have been
+     * acknowledged.
+     *
+     * @param keys                  the keys to send
+     * @param maxKeys               the maximum number of keys to send or a
+     *                              non-positive value if not limited
+     * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @return the number of sent keys
+     */
+    private long dispatchKeys(Iterator<Object> keys, int maxKeys, boolean replaceExistingValues) {
+        Iterator<Data> dataKeys = map(keys, toData);
+        if (maxKeys > 0) {
+            dataKeys = limit(dataKeys, maxKeys);
+        }
+
+        Iterator<Entry<Integer, Data>> partitionsAndKeys = map(dataKeys, toPartition(partitionService));
+        Iterator<Map<Integer, List<Data>>> batches = toBatches(partitionsAndKeys, maxBatch, nodeWideLoadedKeyLimiter);
+
+        Future[] inFlightBatches = new Future[partitionService.getPartitionCount()];
+        long keyCount = 0;
+        int callCount = 0;
+        while (batches.hasNext()) {
+            Map<Integer, List<Data>> batch = batches.next();
+            if (batch.isEmpty()) {
+                IDLE_STRATEGY.idle(++callCount);
+            } else {
+                callCount = 0;
+                int batchKeyCount = 0;
+                for (List<Data> partitionKeys : batch.values()) {
+                    batchKeyCount += partitionKeys.size();
+                }
+                sendBatch(batch, replaceExistingValues, nodeWideLoadedKeyLimiter, inFlightBatches);
+                keyCount += batchKeyCount;
+                dispatchedKeyCount.addAndGet(batchKeyCount);
+            }
+        }
+
+        // This acts as a barrier to prevent re-ordering of key distribution operations (LoadAllOperation)
+        // and LoadStatusOperation(s) which indicates all keys were already loaded.
+        // Re-ordering of in-flight operations can happen during a partition migration. We are waiting here
+        // for all LoadAllOperation(s) to be ACKed by receivers and only then we send them the LoadStatusOperation
+        // See https://github.com/hazelcast/hazelcast/issues/4024 for additional details
+        List<Future> futures = new ArrayList<>(inFlightBatches.length);
+        for (Future future : inFlightBatches) {
+            if (future != null) {
+                futures.add(future);
+            }
+        }
+        FutureUtil.waitForever(futures);
+        return keyCount;
+    }
+
     /**
      * Sends the key batches to the partition owners for value
-     * loading. The returned futures represent pending offloading
-     * of the value loading on the partition owner. This means
-     * that once the partition owner receives the keys, it will
+     * loading. The futures of the sent batches represent pending
+     * offloading of the value loading on the partition owner. This
+     * means that once the partition owner receives the keys, it will
      * offload the value loading task and return immediately,
      * thus completing the future. The future does not mean
      * the value loading tasks have been completed or that the
@@ -500,15 +634,15 @@ public class MapKeyLoader {
      * @param replaceExistingValues    if the existing
      *                                 entries for the loaded keys should be replaced
      * @param nodeWideLoadedKeyLimiter controls number of loaded keys
-     * @return a list of futures representing pending
-     * completion of the value offloading task
+     * @param inFlightBatches          the futures of the last batches sent
+     *                                 per partition ID, a batch is sent after
+     *                                 the previous batch for its partition has
+     *                                 completed and replaces its future
      */
-    private List<Future> sendBatch(Map<Integer, List<Data>> batch, boolean replaceExistingValues,
-                                   Semaphore nodeWideLoadedKeyLimiter) {
+    private void sendBatch(Map<Integer, List<Data>> batch, boolean replaceExistingValues,
+                           Semaphore nodeWideLoadedKeyLimiter, Future[] inFlightBatches) {
         Set<Entry<Integer, List<Data>>> entries = batch.entrySet();
 
-        List<Future> futures = new ArrayList<>(entries.size());
-
         Iterator<Entry<Integer, List<Data>>> iterator = entries.iterator();
         while (iterator.hasNext()) {
             Entry<Integer, List<Data>> e = iterator.next();
@@ -517,17 +651,18 @@ public class MapKeyLoader {
             int numberOfLoadedKeys = keys.size();
 
             try {
+                Future previous = inFlightBatches[partitionId];
+                if (previous != null) {
+                    FutureUtil.waitForever(Collections.singletonList(previous));
+                }
                 MapOperation op = operationProvider.createLoadAllOperation(mapName, keys, replaceExistingValues);
-                InternalCompletableFuture<Object> future = opService.invokeOnPartition(SERVICE_NAME, op, partitionId);
-                futures.add(future);
+                inFlightBatches[partitionId] = opService.invokeOnPartition(SERVICE_NAME, op, partitionId);
             } finally {
                 nodeWideLoadedKeyLimiter.release(numberOfLoadedKeys);
             }
 
             iterator.remove();
         }
-
-        return futures;
     }
 
     /**
@@ -617,6 +752,30 @@ public class MapKeyLoader {
         return keyLoadFinished.isDone();
     }
 
+    /**
+     * Returns the number of keys loaded from the map loader and dispatched to
+     * the partition owners by this map key loader.
+     */
+    public long getDispatchedKeyCount() {
+        return dispatchedKeyCount.get();
+    }
+
+    /**
+     * Returns the number of key shards of the last or ongoing key loading
+     * on the {@link Role#SENDER} or {@code 0} if the keys are not sharded.
+     */
+    public int getKeyShardCount() {
+        return keyShardCount;
+    }
+
+    /**
+     * Returns the number of key shards loaded during the last or ongoing key
+     * loading on the {@link Role#SENDER}.
+     */
+    public int getLoadedKeyShardCount() {
+        return loadedKeyShardCount.get();
+    }
+
     /**
      * Advances the state of the map key loader to {@link State#LOADED}
      */
@@ -17,19 +17,24 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.config.MapConfig;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkSuppliers;
-import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.LiveMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.operation.MapMigrationDeltaOperation;
+import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
@@ -45,15 +50,23 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static com.hazelcast.config.CacheDeserializedValues.NEVER;
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sendEndOfSequenceEvents;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_LIVE_MIGRATION_MAX_DELTA_KEYS;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
 
 /**
  * Defines migration behavior of map service.
@@ -61,7 +74,7 @@ import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sen
  * @see MapService
  */
 class MapMigrationAwareService
-        implements ChunkedMigrationAwareService, OffloadedReplicationPreparation {
+        implements LiveMigrationAwareService, OffloadedReplicationPreparation {
 
     protected final PartitionContainer[] containers;
     protected final MapServiceContext mapServiceContext;
@@ -158,6 +171,90 @@ class MapMigrationAwareService
         return ChunkSuppliers.newChainedChunkSupplier(chain);
     }
 
+    @Override
+    public boolean startLiveMigration(PartitionReplicationEvent event) {
+        PartitionContainer container = containers[event.getPartitionId()];
+        Set<String> mapNames = new HashSet<>();
+        for (RecordStore recordStore : container.getAllRecordStores()) {
+            if (!isLiveMigrationSupported(recordStore.getMapContainer())) {
+                return false;
+            }
+            mapNames.add(recordStore.getName());
+        }
+
+        int maxKeysPerMap = mapServiceContext.getNodeEngine().getProperties()
+                .getInteger(PARTITION_LIVE_MIGRATION_MAX_DELTA_KEYS);
+        container.setMigrationDeltaLog(new MapMigrationDeltaLog(mapNames, maxKeysPerMap));
+        return true;
+    }
+
+    @Override
+    public boolean isAllowedDuringLiveMigration(Operation op) {
+        if (!(op instanceof MapOperation)
+                || containers[op.getPartitionId()].getMigrationDeltaLog() == null) {
+            return false;
+        }
+        MapContainer mapContainer = mapServiceContext.getMapContainer(((MapOperation) op).getName());
+        return isLiveMigrationSupported(mapContainer);
+    }
+
+    /**
+     * Maps with state kept outside the record store, which is migrated in
+     * other fragments, can not be mutated during the migration.
+     */
+    private static boolean isLiveMigrationSupported(MapContainer mapContainer) {
+        MapConfig mapConfig = mapContainer.getMapConfig();
+        EventJournalConfig eventJournalConfig = mapContainer.getEventJournalConfig();
+        if (mapConfig.getMapStoreConfig().isEnabled()
+                || (eventJournalConfig != null && eventJournalConfig.isEnabled())) {
+            return false;
+        }
+        return !mapContainer.getWanContext().isWanReplicationEnabled()
+                && mapConfig.getInMemoryFormat() != NATIVE
+                && !mapConfig.getTieredStoreConfig().isEnabled();
+    }
+
+    @Override
+    public Map<ServiceNamespace, Operation> finishLiveMigration(PartitionReplicationEvent event) {
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = containers[partitionId];
+        MapMigrationDeltaLog deltaLog = container.getMigrationDeltaLog();
+        container.setMigrationDeltaLog(null);
+        if (deltaLog == null) {
+            return emptyMap();
+        }
+
+        Map<ServiceNamespace, Operation> operations = new HashMap<>();
+        for (String mapName : deltaLog.getFullyMutatedMapNames()) {
+            RecordStore recordStore = container.getExistingRecordStore(mapName);
+            if (recordStore != null) {
+                ServiceNamespace namespace = recordStore.getMapContainer().getObjectNamespace();
+                operations.put(namespace, prepareReplicationOperation(event, singleton(namespace)));
+            }
+        }
+        for (Map.Entry<String, Set<Data>> entry : deltaLog.getMutatedKeysByMapName().entrySet()) {
+            RecordStore recordStore = container.getExistingRecordStore(entry.getKey());
+            if (recordStore != null) {
+                Operation operation = new MapMigrationDeltaOperation(recordStore, entry.getValue())
+                        .setPartitionId(partitionId)
+                        .setReplicaIndex(event.getReplicaIndex())
+                        .setServiceName(MapService.SERVICE_NAME)
+                        .setNodeEngine(mapServiceContext.getNodeEngine());
+                operations.put(recordStore.getMapContainer().getObjectNamespace(), operation);
+            }
+        }
+        if (logger.isFinestEnabled()) {
+            logger.finest("Replaying mutations of " + operations.size() + " maps made during live migration of partition "
+                    + partitionId + ", fully mutated maps: " + deltaLog.getFullyMutatedMapNames());
+        }
+        return operations;
+    }
+
+    @Override
+    public void cancelLiveMigration(int partitionId) {
+        containers[partitionId].setMigrationDeltaLog(null);
+    }
+
     boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace)
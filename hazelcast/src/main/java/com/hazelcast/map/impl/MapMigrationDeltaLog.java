@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the keys of the maps of a partition which are mutated while the
+ * partition is migrated in live mode. The tracked keys are replayed on the
+ * migration destination in the last migration fragment.
+ * <p>
+ * Mutations are only made on the partition thread, so this class is not
+ * thread-safe.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#PARTITION_LIVE_MIGRATION_ENABLED
+ */
+public final class MapMigrationDeltaLog {
+
+    private final Set<String> migratedMapNames;
+    private final int maxKeysPerMap;
+    private final Map<String, Set<Data>> mutatedKeysByMapName = new HashMap<>();
+    private final Set<String> fullyMutatedMapNames = new HashSet<>();
+
+    /**
+     * @param migratedMapNames the names of the maps whose chunks are sent
+     *                         by the migration
+     * @param maxKeysPerMap    the maximum number of keys tracked per map
+     */
+    MapMigrationDeltaLog(Set<String> migratedMapNames, int maxKeysPerMap) {
+        this.migratedMapNames = migratedMapNames;
+        this.maxKeysPerMap = maxKeysPerMap;
+    }
+
+    /**
+     * Tracks a mutation of a single key.
+     */
+    public void onMutation(String mapName, Data key) {
+        if (fullyMutatedMapNames.contains(mapName)) {
+            return;
+        }
+        if (!migratedMapNames.contains(mapName)) {
+            // created after the migration started, not sent in chunks
+            onFullMutation(mapName);
+            return;
+        }
+
+        Set<Data> keys = mutatedKeysByMapName.computeIfAbsent(mapName, name -> new HashSet<>());
+        keys.add(key);
+        if (keys.size() > maxKeysPerMap) {
+            onFullMutation(mapName);
+        }
+    }
+
+    /**
+     * Tracks a mutation of all entries of the map, like clearing it.
+     */
+    public void onFullMutation(String mapName) {
+        mutatedKeysByMapName.remove(mapName);
+        fullyMutatedMapNames.add(mapName);
+    }
+
+    /**
+     * @return the names of the maps which must be sent again as a whole
+     */
+    Set<String> getFullyMutatedMapNames() {
+        return fullyMutatedMapNames;
+    }
+
+    /**
+     * @return the mutated keys of the maps which are not fully mutated
+     */
+    Map<String, Set<Data>> getMutatedKeysByMapName() {
+        return Collections.unmodifiableMap(mutatedKeysByMapName);
+    }
+}
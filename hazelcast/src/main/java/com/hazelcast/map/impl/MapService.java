@@ -25,7 +25,7 @@ import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.partition.ChunkSupplier;
-import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.LiveMigrationAwareService;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
@@ -51,6 +51,10 @@ import com.hazelcast.internal.services.WanSupportingService;
 import com.hazelcast.internal.util.MutableLong;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
+import com.hazelcast.map.impl.mapstore.MapStoreManager;
+import com.hazelcast.map.impl.mapstore.writebehind.StoreWorkerStats;
+import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindManager;
+import com.hazelcast.map.impl.query.MaterializedAggregation;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
@@ -76,13 +80,23 @@ import java.util.concurrent.CompletionStage;
 
 import static com.hazelcast.core.EntryEventType.INVALIDATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_DISCRIMINATOR_NAME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_KEY_LOADER_DISPATCHED_KEY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_KEY_LOADER_KEY_SHARD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_KEY_LOADER_LOADED_KEY_SHARD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MAP_STORE_WAITING_TO_BE_PROCESSED_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_INDEX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_KEY_LOADER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_MAP_STORE_OFFLOADED_OPERATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_MATERIALIZED_AGGREGATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_NEARCACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_WRITE_BEHIND_WORKER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_INDEX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_MATERIALIZED_AGGREGATION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_WRITE_BEHIND_WORKER;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
 
 /**
  * Defines map service behavior.
@@ -101,7 +115,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_I
  * @see MapServiceContext
  */
 @SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:MethodCount"})
-public class MapService implements ManagedService, ChunkedMigrationAwareService,
+public class MapService implements ManagedService, LiveMigrationAwareService,
         TransactionalService, RemoteService,
         EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService,
@@ -361,6 +375,12 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
                         .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapName);
                 context.collect(nearCacheDescriptor, nearCacheStats);
             }
+
+            // write-behind workers
+            provideWriteBehindWorkerMetrics(mapName, descriptor, context);
+
+            // materialized aggregations
+            provideMaterializedAggregationMetrics(mapName, descriptor, context);
         }
         // stats of offloaded-entry-processor's executor
         ExecutorStats executorStats = mapServiceContext.getOffloadedEntryProcessorExecutorStats();
@@ -374,6 +394,45 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
 
         // mapStore offloaded operations
         setMapStoreOffloadedOperationMetrics(descriptor, context);
+
+        // initial load of map keys
+        setKeyLoaderMetrics(descriptor, context);
+    }
+
+    private void provideWriteBehindWorkerMetrics(String mapName, MetricDescriptor descriptor,
+                                                 MetricsCollectionContext context) {
+        MapContainer mapContainer = mapServiceContext.getExistingMapContainer(mapName);
+        if (mapContainer == null || mapContainer.getMapStoreContext() == null) {
+            return;
+        }
+        MapStoreManager mapStoreManager = mapContainer.getMapStoreContext().getMapStoreManager();
+        if (!(mapStoreManager instanceof WriteBehindManager)) {
+            return;
+        }
+        for (StoreWorkerStats workerStats : ((WriteBehindManager) mapStoreManager).getStoreWorkerStats()) {
+            MetricDescriptor workerDescriptor = descriptor
+                    .copy()
+                    .withPrefix(MAP_PREFIX_WRITE_BEHIND_WORKER)
+                    .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapName)
+                    .withTag(MAP_TAG_WRITE_BEHIND_WORKER, String.valueOf(workerStats.getWorkerIndex()));
+            context.collect(workerDescriptor, workerStats);
+        }
+    }
+
+    private void provideMaterializedAggregationMetrics(String mapName, MetricDescriptor descriptor,
+                                                       MetricsCollectionContext context) {
+        MapContainer mapContainer = mapServiceContext.getExistingMapContainer(mapName);
+        if (mapContainer == null) {
+            return;
+        }
+        for (MaterializedAggregation aggregation : mapContainer.getMaterializedAggregations().getAll()) {
+            MetricDescriptor aggregationDescriptor = descriptor
+                    .copy()
+                    .withPrefix(MAP_PREFIX_MATERIALIZED_AGGREGATION)
+                    .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapName)
+                    .withTag(MAP_TAG_MATERIALIZED_AGGREGATION, String.valueOf(aggregation.getId()));
+            context.collect(aggregationDescriptor, aggregation);
+        }
     }
 
     private void setMapStoreOffloadedOperationMetrics(MetricDescriptor descriptor,
@@ -406,6 +465,40 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         }
     }
 
+    private void setKeyLoaderMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        // aggregate
+        PartitionContainer[] partitionContainers = mapServiceContext.getPartitionContainers();
+        Map<String, long[]> keyLoaderCounts = new HashMap<>();
+        for (PartitionContainer partitionContainer : partitionContainers) {
+            Collection<RecordStore> allRecordStores = partitionContainer.getAllRecordStores();
+            for (RecordStore recordStore : allRecordStores) {
+                MapContainer mapContainer = recordStore.getMapContainer();
+                if (!mapContainer.getMapConfig().isStatisticsEnabled()
+                        || !mapContainer.getMapStoreContext().isMapLoader()) {
+                    continue;
+                }
+
+                MapKeyLoader keyLoader = recordStore.getKeyLoader();
+                long[] counts = keyLoaderCounts.computeIfAbsent(recordStore.getName(), s -> new long[3]);
+                counts[0] += keyLoader.getDispatchedKeyCount();
+                counts[1] += keyLoader.getKeyShardCount();
+                counts[2] += keyLoader.getLoadedKeyShardCount();
+            }
+        }
+
+        // collect metrics
+        for (Map.Entry<String, long[]> entry : keyLoaderCounts.entrySet()) {
+            MetricDescriptor keyLoaderDescriptor = descriptor
+                    .copy()
+                    .withPrefix(MAP_PREFIX_KEY_LOADER)
+                    .withDiscriminator(MAP_DISCRIMINATOR_NAME, entry.getKey());
+            long[] counts = entry.getValue();
+            context.collect(keyLoaderDescriptor, MAP_METRIC_KEY_LOADER_DISPATCHED_KEY_COUNT, INFO, COUNT, counts[0]);
+            context.collect(keyLoaderDescriptor, MAP_METRIC_KEY_LOADER_KEY_SHARD_COUNT, INFO, COUNT, counts[1]);
+            context.collect(keyLoaderDescriptor, MAP_METRIC_KEY_LOADER_LOADED_KEY_SHARD_COUNT, INFO, COUNT, counts[2]);
+        }
+    }
+
     @Override
     public boolean shouldOffload() {
         return migrationAwareService.shouldOffload();
@@ -416,6 +509,26 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         return migrationAwareService.newChunkSupplier(event, namespace);
     }
 
+    @Override
+    public boolean startLiveMigration(PartitionReplicationEvent event) {
+        return migrationAwareService.startLiveMigration(event);
+    }
+
+    @Override
+    public boolean isAllowedDuringLiveMigration(Operation op) {
+        return migrationAwareService.isAllowedDuringLiveMigration(op);
+    }
+
+    @Override
+    public Map<ServiceNamespace, Operation> finishLiveMigration(PartitionReplicationEvent event) {
+        return migrationAwareService.finishLiveMigration(event);
+    }
+
+    @Override
+    public void cancelLiveMigration(int partitionId) {
+        migrationAwareService.cancelLiveMigration(partitionId);
+    }
+
     /**
      * Looks up the User Code Namespace name associated with the specified map name. This starts
      * by looking for an existing {@link MapContainer} and checking its defined
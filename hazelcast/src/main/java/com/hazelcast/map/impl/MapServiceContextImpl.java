@@ -111,6 +111,7 @@ import static com.hazelcast.spi.impl.executionservice.ExecutionService.QUERY_EXE
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
 import static com.hazelcast.spi.properties.ClusterProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COPY_BEHAVIOR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_STORAGE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
 import static java.lang.Thread.currentThread;
@@ -934,6 +935,11 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat) {
+        if (inMemoryFormat == InMemoryFormat.NATIVE
+                && nodeEngine.getProperties().getBoolean(MAP_OFF_HEAP_STORAGE_ENABLED)) {
+            // off-heap storage hands out on-heap copies of the values
+            return ValueComparatorUtil.getValueComparatorOf(InMemoryFormat.BINARY);
+        }
         return ValueComparatorUtil.getValueComparatorOf(inMemoryFormat);
     }
 
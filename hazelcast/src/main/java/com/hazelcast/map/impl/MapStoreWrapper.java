@@ -23,6 +23,7 @@ import com.hazelcast.internal.namespace.NamespaceUtil;
 import com.hazelcast.map.EntryLoader;
 import com.hazelcast.map.MapLoader;
 import com.hazelcast.map.MapLoaderLifecycleSupport;
+import com.hazelcast.map.MapLoaderShardingSupport;
 import com.hazelcast.map.MapStore;
 import com.hazelcast.map.PostProcessingMapStore;
 import com.hazelcast.spi.impl.NodeEngine;
@@ -170,6 +171,31 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         return null;
     }
 
+    /**
+     * Returns the number of key shards or {@code 0} if the map
+     * loader does not implement {@link MapLoaderShardingSupport}.
+     */
+    public int getKeyShardCount() {
+        if (isMapLoader() && impl instanceof MapLoaderShardingSupport) {
+            return NamespaceUtil.callWithOwnClassLoader(impl, ((MapLoaderShardingSupport<?>) impl)::getShardCount);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns an {@link Iterable} of the keys of the given shard or
+     * {@code null} if the map loader does not support sharding.
+     *
+     * @see MapLoaderShardingSupport#loadAllKeys(int)
+     */
+    public Iterable<Object> loadAllKeys(int shardId) {
+        if (isMapLoader() && impl instanceof MapLoaderShardingSupport) {
+            return NamespaceUtil.callWithOwnClassLoader(impl,
+                    () -> ((MapLoaderShardingSupport<Object>) impl).loadAllKeys(shardId));
+        }
+        return null;
+    }
+
     @Override
     public Object load(Object key) {
         if (isMapLoader()) {
@@ -77,6 +77,11 @@ public class PartitionContainer {
      */
     private long lastCleanupTimeCopy;
 
+    /**
+     * Set while the partition is migrated in live mode.
+     */
+    private volatile MapMigrationDeltaLog migrationDeltaLog;
+
     public PartitionContainer(final MapService mapService, final int partitionId) {
         this.mapService = mapService;
         this.partitionId = partitionId;
@@ -135,6 +140,15 @@ public class PartitionContainer {
         return partitionId;
     }
 
+    @Nullable
+    public MapMigrationDeltaLog getMigrationDeltaLog() {
+        return migrationDeltaLog;
+    }
+
+    void setMigrationDeltaLog(@Nullable MapMigrationDeltaLog migrationDeltaLog) {
+        this.migrationDeltaLog = migrationDeltaLog;
+    }
+
     public MapService getMapService() {
         return mapService;
     }
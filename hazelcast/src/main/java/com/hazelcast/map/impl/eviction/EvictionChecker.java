@@ -101,6 +101,9 @@ public class EvictionChecker {
                 return (usedHeapInBytes(mapName) * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) > maxConfiguredSize;
             case FREE_HEAP_PERCENTAGE:
                 return (availableMemoryInBytes() * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) < maxConfiguredSize;
+            case USED_NATIVE_MEMORY_SIZE:
+                // only reachable with the open-source off-heap storage
+                return usedNativeMemoryInBytes(mapName) > MEGABYTES.toBytes(maxConfiguredSize);
             default:
                 throw new IllegalArgumentException("Not an appropriate max size policy [" + maximumSizePolicy + ']');
         }
@@ -154,6 +157,14 @@ public class EvictionChecker {
         return usedHeapInBytes;
     }
 
+    private long usedNativeMemoryInBytes(String mapName) {
+        long usedNativeMemoryInBytes = 0L;
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            usedNativeMemoryInBytes += getRecordStoreHeapCost(mapName, containers[partitionId]);
+        }
+        return usedNativeMemoryInBytes;
+    }
+
     private long getRecordStoreHeapCost(String mapName, PartitionContainer container) {
         RecordStore existingRecordStore = container.getExistingRecordStore(mapName);
         if (existingRecordStore == null) {
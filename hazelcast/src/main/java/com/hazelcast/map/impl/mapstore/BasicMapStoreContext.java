@@ -174,6 +174,16 @@ final class BasicMapStoreContext implements MapStoreContext {
         return IterableUtil.nullToEmpty(storeWrapper.loadAllKeys());
     }
 
+    @Override
+    public int getKeyShardCount() {
+        return storeWrapper.getKeyShardCount();
+    }
+
+    @Override
+    public Iterable<Object> loadAllKeys(int shardId) {
+        return IterableUtil.nullToEmpty(storeWrapper.loadAllKeys(shardId));
+    }
+
     void setMapStoreManager(MapStoreManager mapStoreManager) {
         this.mapStoreManager = mapStoreManager;
     }
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.mapstore;
 
 import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.MapLoaderShardingSupport;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
@@ -63,6 +64,21 @@ public interface MapStoreContext {
      */
     Iterable<Object> loadAllKeys();
 
+    /**
+     * Returns the number of key shards of the map loader or {@code 0} if the
+     * map loader does not support sharded key loading.
+     *
+     * @see MapLoaderShardingSupport#getShardCount()
+     */
+    int getKeyShardCount();
+
+    /**
+     * Returns an {@link Iterable} over the keys of the given shard.
+     *
+     * @see MapLoaderShardingSupport#loadAllKeys(int)
+     */
+    Iterable<Object> loadAllKeys(int shardId);
+
     /**
      * @return {@code true} if a {@link MapLoader} is configured for this map
      */
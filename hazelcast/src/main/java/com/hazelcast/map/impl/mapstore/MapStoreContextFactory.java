@@ -104,6 +104,16 @@ public final class MapStoreContextFactory {
             return Collections.emptyList();
         }
 
+        @Override
+        public int getKeyShardCount() {
+            return 0;
+        }
+
+        @Override
+        public Iterable<Object> loadAllKeys(int shardId) {
+            return Collections.emptyList();
+        }
+
         @Override
         public boolean isMapLoader() {
             return false;
@@ -69,12 +69,12 @@ abstract class AbstractWriteBehindProcessor<T> implements WriteBehindProcessor<T
             return null;
         }
 
-        final int start = chunkNumber * batchSize;
-        final int end = Math.min(start + batchSize, list.size());
+        final long start = (long) chunkNumber * batchSize;
+        final long end = Math.min(start + batchSize, list.size());
         if (start >= end) {
             return null;
         }
-        return list.subList(start, end);
+        return list.subList((int) start, (int) end);
     }
 
     /**
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+/**
+ * The number of entries a {@link WriteBehindProcessor} puts into a single
+ * batch store call. Like {@link com.hazelcast.config.MapStoreConfig#getWriteBatchSize()},
+ * a size of {@code 1} means that the batches are not limited.
+ * <p>
+ * When a target latency is given, the size adapts to the observed latency
+ * of the batch store calls: it is halved when a call takes longer than the
+ * target and doubled when a full batch is stored within half of the target.
+ * The size never grows beyond the configured write batch size.
+ */
+final class AdaptiveWriteBatchSize {
+
+    static final int MIN_BATCH_SIZE = 2;
+
+    private final int writeBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyNanos;
+    // updates may race, it only steers the size of the next batches
+    private volatile int batchSize;
+
+    /**
+     * @param writeBatchSize     the configured write batch size
+     * @param targetLatencyNanos the target latency of a batch store call
+     *                           or {@code 0} to always use the configured size
+     */
+    AdaptiveWriteBatchSize(int writeBatchSize, long targetLatencyNanos) {
+        this.writeBatchSize = writeBatchSize;
+        this.maxBatchSize = writeBatchSize > 1 ? writeBatchSize : Integer.MAX_VALUE;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.batchSize = writeBatchSize;
+    }
+
+    int get() {
+        return batchSize;
+    }
+
+    /**
+     * Adapts the batch size to the latency of a completed batch store call.
+     *
+     * @param size         the number of entries in the stored batch
+     * @param latencyNanos the duration of the call in nanoseconds
+     */
+    void onBatchStored(int size, long latencyNanos) {
+        if (targetLatencyNanos <= 0) {
+            return;
+        }
+
+        int current = batchSize;
+        if (latencyNanos > targetLatencyNanos) {
+            int base = current > 1 ? Math.min(current, size) : size;
+            batchSize = Math.max(MIN_BATCH_SIZE, base / 2);
+        } else if (current > 1 && size >= current && latencyNanos <= targetLatencyNanos / 2) {
+            long doubled = 2L * current;
+            batchSize = doubled >= maxBatchSize ? writeBatchSize : (int) doubled;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.internal.diagnostics.StoreLatencyPlugin.LatencyProbe;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.map.EntryLoader.MetadataAwareValue;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
@@ -52,17 +54,39 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
 
     private final List<StoreListener> storeListeners;
 
+    private final AdaptiveWriteBatchSize batchSize;
+
+    private final StoreWorkerStats stats;
+
+    /**
+     * Tracks the latency of batch store calls, {@code null} if the store latency plugin is disabled.
+     */
+    private final LatencyProbe batchLatencyProbe;
+
     DefaultWriteBehindProcessor(MapStoreContext mapStoreContext) {
+        this(mapStoreContext, 0, 0, null);
+    }
+
+    DefaultWriteBehindProcessor(MapStoreContext mapStoreContext, int workerIndex, long targetBatchLatencyNanos,
+                                LatencyProbe batchLatencyProbe) {
         super(mapStoreContext);
         this.storeListeners = new ArrayList<>(2);
+        this.batchSize = new AdaptiveWriteBatchSize(writeBatchSize, targetBatchLatencyNanos);
+        this.stats = new StoreWorkerStats(workerIndex, batchSize);
+        this.batchLatencyProbe = batchLatencyProbe;
+    }
+
+    StoreWorkerStats getStats() {
+        return stats;
     }
 
     @Override
     public Map<Integer, List<DelayedEntry>> process(List<DelayedEntry> delayedEntries) {
         Map<Integer, List<DelayedEntry>> failMap;
         sort(delayedEntries);
-        if (writeBatchSize > 1) {
-            failMap = doStoreUsingBatchSize(delayedEntries);
+        int currentBatchSize = batchSize.get();
+        if (currentBatchSize > 1) {
+            failMap = doStoreUsingBatchSize(delayedEntries, currentBatchSize);
         } else {
             failMap = processInternal(delayedEntries);
         }
@@ -301,16 +325,18 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
     }
 
     /**
-     * Store chunk by chunk using write batch size {@link #writeBatchSize}
+     * Store chunk by chunk using the current write batch size, see {@link AdaptiveWriteBatchSize}
      *
      * @param sortedDelayedEntries entries to be stored.
+     * @param batchSize            the size of a chunk.
      * @return not-stored entries per partition.
      */
-    private Map<Integer, List<DelayedEntry>> doStoreUsingBatchSize(List<DelayedEntry> sortedDelayedEntries) {
+    private Map<Integer, List<DelayedEntry>> doStoreUsingBatchSize(List<DelayedEntry> sortedDelayedEntries,
+                                                                   int batchSize) {
         Map<Integer, List<DelayedEntry>> failsPerPartition = new HashMap<>();
         int page = 0;
         List<DelayedEntry> delayedEntryList;
-        while ((delayedEntryList = getBatchChunk(sortedDelayedEntries, writeBatchSize, page++)) != null) {
+        while ((delayedEntryList = getBatchChunk(sortedDelayedEntries, batchSize, page++)) != null) {
             Map<Integer, List<DelayedEntry>> fails = processInternal(delayedEntryList);
             Set<Map.Entry<Integer, List<DelayedEntry>>> entries = fails.entrySet();
             for (Map.Entry<Integer, List<DelayedEntry>> entry : entries) {
@@ -442,12 +468,14 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
             callBeforeStoreListeners(batchMap.values());
             final Map map = convertToObject(batchMap);
             boolean result;
+            long startNanos = Timer.nanos();
             try {
                 result = operationType.processBatch(map, mapStore);
             } catch (Exception ex) {
                 batchMap.keySet().removeIf(o -> !map.containsKey(toObject(o)));
                 throw ex;
             }
+            onBatchStored(batchMap.size(), Timer.nanosElapsed(startNanos));
             callAfterStoreListeners(batchMap.values());
             return result;
         }
@@ -474,6 +502,14 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         }
     }
 
+    private void onBatchStored(int size, long latencyNanos) {
+        stats.onBatchStored(size, latencyNanos);
+        batchSize.onBatchStored(size, latencyNanos);
+        if (batchLatencyProbe != null) {
+            batchLatencyProbe.recordValue(latencyNanos);
+        }
+    }
+
     private void sleepSeconds(long secs) {
         try {
             SECONDS.sleep(secs);
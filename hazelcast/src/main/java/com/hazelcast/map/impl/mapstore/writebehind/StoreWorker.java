@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -45,7 +46,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * By default only one {@link StoreWorker} task is created for a map on a member.
+ * If {@link ClusterProperty#MAP_WRITE_BEHIND_WORKER_COUNT} is greater than one, each
+ * worker owns the partitions whose ID modulo the worker count equals its worker index.
+ * <p>
+ * The workers run on the {@link ExecutionService#MAP_WRITE_BEHIND_EXECUTOR} executor, so
+ * slow map stores don't hold up the other tasks of the shared scheduled executor.
  */
 public class StoreWorker implements Runnable {
     private final String mapName;
@@ -59,6 +65,8 @@ public class StoreWorker implements Runnable {
     private final long backupDelayMillis;
     private final long writeDelayMillis;
     private final int partitionCount;
+    private final int workerIndex;
+    private final int workerCount;
     /**
      * Entries are fetched from write-behind-queues according to highestStoreTime. If an entry
      * has a store-time which is smaller than or equal to the highestStoreTime, it will be processed.
@@ -69,6 +77,17 @@ public class StoreWorker implements Runnable {
     private volatile boolean running;
 
     public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor) {
+        this(mapStoreContext, writeBehindProcessor, 0, 1);
+    }
+
+    /**
+     * @param workerIndex the index of this worker, the worker processes the
+     *                    partitions whose ID modulo {@code workerCount}
+     *                    equals this index
+     * @param workerCount the number of workers of the map
+     */
+    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor,
+                       int workerIndex, int workerCount) {
         this.mapName = mapStoreContext.getMapName();
         this.mapServiceContext = mapStoreContext.getMapServiceContext();
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
@@ -79,6 +98,8 @@ public class StoreWorker implements Runnable {
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
         this.partitionCount = partitionService.getPartitionCount();
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
     }
 
 
@@ -107,7 +128,7 @@ public class StoreWorker implements Runnable {
     }
 
     private void schedule() {
-        executionService.schedule(this, 1, SECONDS);
+        executionService.schedule(MAP_WRITE_BEHIND_EXECUTOR, this, 1, SECONDS);
     }
 
     private void runInternal() {
@@ -122,7 +143,7 @@ public class StoreWorker implements Runnable {
         List<DelayedEntry> ownersList = null;
         List<DelayedEntry> backupsList = null;
 
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+        for (int partitionId = workerIndex; partitionId < partitionCount; partitionId += workerCount) {
             if (currentThread().isInterrupted()) {
                 break;
             }
@@ -188,7 +209,7 @@ public class StoreWorker implements Runnable {
     }
 
     private void notifyFlush() {
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+        for (int partitionId = workerIndex; partitionId < partitionCount; partitionId += workerCount) {
             RecordStore recordStore = getRecordStoreOrNull(mapName, partitionId);
             if (recordStore != null) {
                 WriteBehindStore mapDataStore = ((WriteBehindStore) recordStore.getMapDataStore());
@@ -286,6 +307,6 @@ public class StoreWorker implements Runnable {
 
     @Override
     public String toString() {
-        return "StoreWorker{" + "mapName='" + mapName + "'}";
+        return "StoreWorker{" + "mapName='" + mapName + "', workerIndex=" + workerIndex + "}";
     }
 }
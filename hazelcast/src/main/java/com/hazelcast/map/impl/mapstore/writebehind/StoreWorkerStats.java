@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.internal.metrics.Probe;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_LAST_BATCH_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_MAX_BATCH_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_STORED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WORKER_TOTAL_BATCH_LATENCY;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Statistics of the batch store calls issued by the
+ * {@link WriteBehindProcessor} of a single {@link StoreWorker}.
+ */
+public final class StoreWorkerStats {
+
+    private static final AtomicLongFieldUpdater<StoreWorkerStats> BATCH_COUNT =
+            AtomicLongFieldUpdater.newUpdater(StoreWorkerStats.class, "batchCount");
+    private static final AtomicLongFieldUpdater<StoreWorkerStats> STORED_ENTRY_COUNT =
+            AtomicLongFieldUpdater.newUpdater(StoreWorkerStats.class, "storedEntryCount");
+    private static final AtomicLongFieldUpdater<StoreWorkerStats> TOTAL_BATCH_LATENCY_NANOS =
+            AtomicLongFieldUpdater.newUpdater(StoreWorkerStats.class, "totalBatchLatencyNanos");
+
+    private final int workerIndex;
+    private final AdaptiveWriteBatchSize batchSize;
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_COUNT)
+    private volatile long batchCount;
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_STORED_ENTRY_COUNT)
+    private volatile long storedEntryCount;
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_LAST_BATCH_SIZE)
+    private volatile long lastBatchSize;
+    private volatile long totalBatchLatencyNanos;
+    private volatile long maxBatchLatencyNanos;
+
+    StoreWorkerStats(int workerIndex, AdaptiveWriteBatchSize batchSize) {
+        this.workerIndex = workerIndex;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records a successfully completed batch store call.
+     *
+     * @param size         the number of entries in the batch
+     * @param latencyNanos the duration of the call in nanoseconds
+     */
+    void onBatchStored(int size, long latencyNanos) {
+        BATCH_COUNT.incrementAndGet(this);
+        STORED_ENTRY_COUNT.addAndGet(this, size);
+        TOTAL_BATCH_LATENCY_NANOS.addAndGet(this, latencyNanos);
+        lastBatchSize = size;
+        if (latencyNanos > maxBatchLatencyNanos) {
+            maxBatchLatencyNanos = latencyNanos;
+        }
+    }
+
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getStoredEntryCount() {
+        return storedEntryCount;
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_TOTAL_BATCH_LATENCY, unit = MS)
+    public long getTotalBatchLatency() {
+        return NANOSECONDS.toMillis(totalBatchLatencyNanos);
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_MAX_BATCH_LATENCY, unit = MS)
+    public long getMaxBatchLatency() {
+        return NANOSECONDS.toMillis(maxBatchLatencyNanos);
+    }
+
+    /**
+     * Returns the number of entries the worker currently puts into a single
+     * batch store call, {@code 1} means the batch size is not limited.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WORKER_BATCH_SIZE)
+    public int getBatchSize() {
+        return batchSize.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StoreWorkerStats{"
+                + "workerIndex=" + workerIndex
+                + ", batchCount=" + batchCount
+                + ", storedEntryCount=" + storedEntryCount
+                + ", lastBatchSize=" + lastBatchSize
+                + ", totalBatchLatencyNanos=" + totalBatchLatencyNanos
+                + ", maxBatchLatencyNanos=" + maxBatchLatencyNanos
+                + ", batchSize=" + batchSize.get()
+                + '}';
+    }
+}
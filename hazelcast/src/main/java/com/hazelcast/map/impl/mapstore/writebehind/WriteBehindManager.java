@@ -16,6 +16,10 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.internal.diagnostics.Diagnostics;
+import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
+import com.hazelcast.internal.diagnostics.StoreLatencyPlugin.LatencyProbe;
+import com.hazelcast.map.impl.LatencyTrackingMapStore;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -24,47 +28,101 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.MapStoreManager;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
-import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessors.createWriteBehindProcessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Write behind map store manager.
+ * <p>
+ * The partitions of the map are sharded across {@link ClusterProperty#MAP_WRITE_BEHIND_WORKER_COUNT}
+ * store workers. Each worker has its own {@link WriteBehindProcessor}, which is also used to
+ * flush the write-behind queues of the worker's partitions on demand.
  */
 public class WriteBehindManager implements MapStoreManager {
 
-    private final WriteBehindProcessor writeBehindProcessor;
-    private final StoreWorker storeWorker;
+    private final DefaultWriteBehindProcessor[] writeBehindProcessors;
+    private final StoreWorker[] storeWorkers;
     private final MapStoreContext mapStoreContext;
 
     public WriteBehindManager(MapStoreContext mapStoreContext) {
         this.mapStoreContext = mapStoreContext;
-        this.writeBehindProcessor = newWriteBehindProcessor(mapStoreContext);
-        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor);
+        NodeEngine nodeEngine = mapStoreContext.getMapServiceContext().getNodeEngine();
+        HazelcastProperties properties = nodeEngine.getProperties();
+        int workerCount = Math.max(1, Math.min(properties.getInteger(ClusterProperty.MAP_WRITE_BEHIND_WORKER_COUNT),
+                nodeEngine.getPartitionService().getPartitionCount()));
+        long targetBatchLatencyNanos = properties.getNanos(ClusterProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS);
+        StoreLatencyPlugin storeLatencyPlugin = getStoreLatencyPluginOrNull(nodeEngine);
+
+        this.writeBehindProcessors = new DefaultWriteBehindProcessor[workerCount];
+        this.storeWorkers = new StoreWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            writeBehindProcessors[i] = newWriteBehindProcessor(mapStoreContext, i, workerCount,
+                    targetBatchLatencyNanos, storeLatencyPlugin);
+            storeWorkers[i] = new StoreWorker(mapStoreContext, writeBehindProcessors[i], i, workerCount);
+        }
     }
 
     @Override
     public void start() {
-        storeWorker.start();
+        for (StoreWorker storeWorker : storeWorkers) {
+            storeWorker.start();
+        }
     }
 
     @Override
     public void stop() {
-        storeWorker.stop();
+        for (StoreWorker storeWorker : storeWorkers) {
+            storeWorker.stop();
+        }
     }
 
     //todo get this via constructor function.
     @Override
     public MapDataStore getMapDataStore(String mapName, int partitionId) {
+        WriteBehindProcessor writeBehindProcessor = writeBehindProcessors[partitionId % writeBehindProcessors.length];
         return MapDataStores.createWriteBehindStore(mapStoreContext, partitionId, writeBehindProcessor);
     }
 
-    private WriteBehindProcessor newWriteBehindProcessor(final MapStoreContext mapStoreContext) {
-        WriteBehindProcessor writeBehindProcessor = createWriteBehindProcessor(mapStoreContext);
+    /**
+     * Returns the statistics of the store workers of the map.
+     */
+    public Collection<StoreWorkerStats> getStoreWorkerStats() {
+        List<StoreWorkerStats> stats = new ArrayList<>(writeBehindProcessors.length);
+        for (DefaultWriteBehindProcessor writeBehindProcessor : writeBehindProcessors) {
+            stats.add(writeBehindProcessor.getStats());
+        }
+        return stats;
+    }
+
+    private static DefaultWriteBehindProcessor newWriteBehindProcessor(MapStoreContext mapStoreContext, int workerIndex,
+                                                                       int workerCount, long targetBatchLatencyNanos,
+                                                                       StoreLatencyPlugin storeLatencyPlugin) {
+        // a single worker keeps reporting into the map-wide storeAll/deleteAll probes only
+        LatencyProbe batchLatencyProbe = storeLatencyPlugin == null || workerCount == 1
+                ? null
+                : LatencyTrackingMapStore.newWriteBehindWorkerProbe(storeLatencyPlugin, mapStoreContext.getMapName(),
+                workerIndex);
+        DefaultWriteBehindProcessor writeBehindProcessor = new DefaultWriteBehindProcessor(mapStoreContext, workerIndex,
+                targetBatchLatencyNanos, batchLatencyProbe);
         StoreListener<DelayedEntry> storeListener = new InternalStoreListener(mapStoreContext);
         writeBehindProcessor.addStoreListener(storeListener);
         return writeBehindProcessor;
     }
 
+    private static StoreLatencyPlugin getStoreLatencyPluginOrNull(NodeEngine nodeEngine) {
+        if (!(nodeEngine instanceof NodeEngineImpl)) {
+            return null;
+        }
+        Diagnostics diagnostics = ((NodeEngineImpl) nodeEngine).getDiagnostics();
+        return diagnostics == null ? null : diagnostics.getPlugin(StoreLatencyPlugin.class);
+    }
+
     /**
      * Store listener which is responsible for
      * {@link com.hazelcast.map.impl.mapstore.writebehind.WriteBehindStore#stagingArea cleaning.
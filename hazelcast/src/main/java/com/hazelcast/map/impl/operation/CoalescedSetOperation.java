@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Applies a batch of {@link com.hazelcast.map.IMap#set(Object, Object)}
+ * calls, which have been issued concurrently by different threads of the
+ * same member for keys of a single partition, as one operation.
+ * <p>
+ * Compared to a {@link PutAllOperation}, the semantics of the individual
+ * set calls are preserved:
+ * <ul>
+ * <li>the entries whose keys are locked by a thread other than the one
+ * that issued the set for that key are not applied, their indexes are
+ * returned as the response and the callers send them as regular set
+ * operations, which wait for the locks on their own</li>
+ * <li>events carry the old value and are of type
+ * {@link com.hazelcast.core.EntryEventType#UPDATED UPDATED} when the
+ * key already existed</li>
+ * </ul>
+ * The batch itself never waits: a locked key must not hold up the sets of
+ * the other keys, one of which may be issued by the lock owner.
+ * <p>
+ * All applied entries are replicated with a single backup operation.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MAP_SET_COALESCING_ENABLED
+ */
+public class CoalescedSetOperation extends PutAllOperation {
+
+    private static final int[] NO_INDEXES = new int[0];
+
+    private long[] threadIds;
+
+    private transient MapEntries entriesToPut;
+    private transient int[] lockedIndexes;
+
+    public CoalescedSetOperation() {
+    }
+
+    public CoalescedSetOperation(String name, MapEntries mapEntries, long[] threadIds) {
+        super(name, mapEntries, false);
+        this.threadIds = threadIds;
+    }
+
+    @Override
+    public void innerBeforeRun() throws Exception {
+        selectEntriesToPut();
+        super.innerBeforeRun();
+    }
+
+    private void selectEntriesToPut() {
+        MapEntries mapEntries = getMapEntries();
+        int size = mapEntries.size();
+        int[] locked = null;
+        int lockedCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!recordStore.canAcquireLock(mapEntries.getKey(i), getCallerUuid(), threadIds[i])) {
+                if (locked == null) {
+                    locked = new int[size];
+                }
+                locked[lockedCount++] = i;
+            }
+        }
+        if (lockedCount == 0) {
+            entriesToPut = mapEntries;
+            lockedIndexes = NO_INDEXES;
+            return;
+        }
+
+        entriesToPut = new MapEntries(size - lockedCount);
+        for (int i = 0, next = 0; i < size; i++) {
+            if (next < lockedCount && locked[next] == i) {
+                next++;
+            } else {
+                entriesToPut.add(mapEntries.getKey(i), mapEntries.getValue(i));
+            }
+        }
+        lockedIndexes = Arrays.copyOf(locked, lockedCount);
+    }
+
+    @Override
+    protected MapEntries getEntriesToPut() {
+        return entriesToPut;
+    }
+
+    @Override
+    protected Object putToRecordStore(Data dataKey, Data dataValue) {
+        return recordStore.set(dataKey, dataValue, UNSET, UNSET);
+    }
+
+    @Override
+    public boolean isOldValueInEvents() {
+        return true;
+    }
+
+    /**
+     * @return the indexes of the entries which have not been applied because
+     * their keys are locked by other threads, in ascending order
+     */
+    @Override
+    public Object getResponse() {
+        return lockedIndexes;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLongArray(threadIds);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        threadIds = in.readLongArray();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.COALESCED_SET;
+    }
+}
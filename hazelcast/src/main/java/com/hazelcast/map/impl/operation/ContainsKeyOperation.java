@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.internal.locksupport.LockWaitNotifyKey;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.ContainsKeyOpSteps;
@@ -27,7 +28,7 @@ import com.hazelcast.spi.impl.operationservice.BlockingOperation;
 import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
 
 public class ContainsKeyOperation
-        extends ReadonlyKeyBasedMapOperation implements BlockingOperation {
+        extends ReadonlyKeyBasedMapOperation implements BlockingOperation, AllowedDuringLiveMigration {
 
     private transient boolean containsKey;
 
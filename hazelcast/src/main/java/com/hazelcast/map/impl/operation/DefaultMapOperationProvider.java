@@ -269,6 +269,11 @@ public class DefaultMapOperationProvider implements MapOperationProvider {
         return new PutAllOperation(name, mapEntries, triggerMapLoader);
     }
 
+    @Override
+    public MapOperation createCoalescedSetOperation(String name, MapEntries mapEntries, long[] threadIds) {
+        return new CoalescedSetOperation(name, mapEntries, threadIds);
+    }
+
     @Override
     public OperationFactory createPutAllOperationFactory(String name, int[] partitions,
                                                          MapEntries[] mapEntries, boolean triggerMapLoader) {
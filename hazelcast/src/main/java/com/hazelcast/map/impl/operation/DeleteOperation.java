@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.DeleteOpSteps;
@@ -26,7 +27,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 
 import java.io.IOException;
 
-public class DeleteOperation extends BaseRemoveOperation {
+public class DeleteOperation extends BaseRemoveOperation implements AllowedDuringLiveMigration {
 
     // package private for testing purposes
     boolean disableWanReplicationEvent;
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
@@ -37,7 +38,7 @@ import java.util.Set;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
 
 public class GetAllOperation extends MapOperation
-        implements ReadonlyOperation, PartitionAwareOperation {
+        implements ReadonlyOperation, PartitionAwareOperation, AllowedDuringLiveMigration {
 
     /**
      * Speculative factor to be used when initialising collections
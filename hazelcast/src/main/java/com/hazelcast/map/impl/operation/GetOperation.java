@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.internal.locksupport.LockWaitNotifyKey;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.GetOpSteps;
@@ -26,7 +27,8 @@ import com.hazelcast.map.impl.operation.steps.engine.State;
 import com.hazelcast.spi.impl.operationservice.BlockingOperation;
 import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
 
-public final class GetOperation extends ReadonlyKeyBasedMapOperation implements BlockingOperation {
+public final class GetOperation extends ReadonlyKeyBasedMapOperation
+        implements BlockingOperation, AllowedDuringLiveMigration {
 
     private Data result;
 
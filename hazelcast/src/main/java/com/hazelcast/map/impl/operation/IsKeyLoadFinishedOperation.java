@@ -16,7 +16,9 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapKeyLoader;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
 import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
 
@@ -37,6 +39,19 @@ public class IsKeyLoadFinishedOperation extends MapOperation implements Partitio
     @Override
     protected void runInternal() {
         isFinished = recordStore.isKeyLoadFinished();
+        if (!isFinished) {
+            logProgress();
+        }
+    }
+
+    private void logProgress() {
+        ILogger logger = logger();
+        if (logger.isFineEnabled()) {
+            MapKeyLoader keyLoader = recordStore.getKeyLoader();
+            logger.fine("Key loading of map " + name + " is in progress, loaded key shards: "
+                    + keyLoader.getLoadedKeyShardCount() + "/" + keyLoader.getKeyShardCount()
+                    + ", dispatched keys: " + keyLoader.getDispatchedKeyCount());
+        }
     }
 
     @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.MapLoaderShardingSupport;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+
+/**
+ * Loads the keys of a single shard of a {@link MapLoaderShardingSupport}
+ * map loader and sends them to the partition owners for value loading.
+ * <p>
+ * This operation is sent by the {@link com.hazelcast.map.impl.MapKeyLoader.Role#SENDER}
+ * to the owner of the partition the shard is assigned to. The keys are
+ * loaded on a separate thread and the operation responds with the number
+ * of dispatched keys once all of them have been acknowledged by the
+ * partition owners.
+ *
+ * @see com.hazelcast.map.impl.MapKeyLoader#loadKeyShard
+ */
+public class LoadKeyShardOperation extends MapOperation implements PartitionAwareOperation {
+
+    private int shardId;
+    private int maxKeys;
+    private boolean replaceExistingValues;
+
+    public LoadKeyShardOperation() {
+    }
+
+    public LoadKeyShardOperation(String name, int shardId, int maxKeys, boolean replaceExistingValues) {
+        super(name);
+        this.shardId = shardId;
+        this.maxKeys = maxKeys;
+        this.replaceExistingValues = replaceExistingValues;
+    }
+
+    @Override
+    public CallStatus call() {
+        return new LoadKeyShardOffload();
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(shardId);
+        out.writeInt(maxKeys);
+        out.writeBoolean(replaceExistingValues);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        shardId = in.readInt();
+        maxKeys = in.readInt();
+        replaceExistingValues = in.readBoolean();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.LOAD_KEY_SHARD;
+    }
+
+    private final class LoadKeyShardOffload extends Offload {
+
+        private LoadKeyShardOffload() {
+            super(LoadKeyShardOperation.this);
+        }
+
+        @Override
+        public void start() {
+            recordStore.getKeyLoader()
+                    .loadKeyShard(mapContainer.getMapStoreContext(), shardId, maxKeys, replaceExistingValues)
+                    .whenCompleteAsync((keyCount, throwable) -> sendResponse(throwable == null ? keyCount : throwable),
+                            CALLER_RUNS);
+        }
+    }
+}
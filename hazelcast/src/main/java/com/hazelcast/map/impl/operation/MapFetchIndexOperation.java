@@ -110,6 +110,10 @@ public class MapFetchIndexOperation extends MapOperation implements ReadonlyOper
                 break;
             case BITMAP:
                 throw new UnsupportedOperationException("BITMAP index scan is not implemented");
+            case NGRAM:
+                throw new UnsupportedOperationException("NGRAM index scan is not implemented");
+            case VECTOR:
+                throw new UnsupportedOperationException("VECTOR index scan is not implemented");
             default:
                 throw new UnsupportedOperationException(
                         "Unknown index type: \"" + index.getConfig().getType().name() + "\"");
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Replays the entries of a map partition which were mutated on the
+ * migration source while the partition was migrated in live mode.
+ * <p>
+ * Sent in the last migration fragment, after all chunks of the map. The
+ * current state of each mutated key is read on the source when this
+ * operation is serialized: present entries are put into the destination
+ * record store and missing ones are removed from it.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#PARTITION_LIVE_MIGRATION_ENABLED
+ */
+public class MapMigrationDeltaOperation extends Operation implements IdentifiedDataSerializable {
+
+    private transient RecordStore recordStore;
+    private transient Collection<Data> mutatedKeys;
+
+    private transient String mapName;
+    private transient long nearCacheSequence;
+    private transient List<Data> keys;
+    private transient List<Record> records;
+    private transient List<ExpiryMetadata> expiries;
+
+    public MapMigrationDeltaOperation() {
+    }
+
+    public MapMigrationDeltaOperation(RecordStore recordStore, Collection<Data> mutatedKeys) {
+        this.recordStore = recordStore;
+        this.mutatedKeys = mutatedKeys;
+    }
+
+    @Override
+    public void run() throws Exception {
+        MapServiceContext mapServiceContext = ((MapService) getService()).getMapServiceContext();
+        RecordStore recordStore = mapServiceContext.getRecordStore(getPartitionId(), mapName, true);
+        recordStore.beforeOperation();
+        try {
+            IndexRegistry indexRegistry = recordStore.getMapContainer().getOrCreateIndexRegistry(getPartitionId());
+            boolean populateIndexes = indexRegistry.haveAtLeastOneIndex() && !indexRegistry.isGlobal()
+                    && getReplicaIndex() == 0;
+            long nowInMillis = Clock.currentTimeMillis();
+            for (int i = 0; i < keys.size(); i++) {
+                Record record = records.get(i);
+                if (record == null) {
+                    recordStore.removeReplicatedRecord(keys.get(i), false);
+                } else {
+                    recordStore.putOrUpdateReplicatedRecord(keys.get(i), record, expiries.get(i),
+                            populateIndexes, nowInMillis);
+                }
+            }
+            recordStore.disposeDeferredBlocks();
+
+            getMetaDataGenerator(mapServiceContext).setCurrentSequence(mapName, getPartitionId(), nearCacheSequence);
+        } finally {
+            recordStore.afterOperation();
+        }
+    }
+
+    private static MetaDataGenerator getMetaDataGenerator(MapServiceContext mapServiceContext) {
+        return mapServiceContext.getMapNearCacheManager().getInvalidator().getMetaDataGenerator();
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        MapServiceContext mapServiceContext = recordStore.getMapContainer().getMapServiceContext();
+        SerializationService ss = mapServiceContext.getNodeEngine().getSerializationService();
+        String name = recordStore.getName();
+
+        out.writeString(name);
+        out.writeLong(getMetaDataGenerator(mapServiceContext).currentSequence(name, recordStore.getPartitionId()));
+        out.writeInt(mutatedKeys.size());
+        for (Data key : mutatedKeys) {
+            IOUtil.writeData(out, key);
+            Record record = recordStore.getRecord(key);
+            out.writeBoolean(record != null);
+            if (record != null) {
+                Records.writeRecord(out, record, ss.toData(record.getValue()));
+                Records.writeExpiry(out, recordStore.getExpirySystem().getExpiryMetadata(key));
+            }
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        mapName = in.readString();
+        nearCacheSequence = in.readLong();
+        int size = in.readInt();
+        keys = new ArrayList<>(size);
+        records = new ArrayList<>(size);
+        expiries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(IOUtil.readData(in));
+            boolean present = in.readBoolean();
+            records.add(present ? Records.readRecord(in) : null);
+            expiries.add(present ? Records.readExpiry(in) : null);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_MIGRATION_DELTA;
+    }
+}
@@ -358,7 +358,8 @@ public abstract class MapOperation extends AbstractNamedOperation
     public void disposeDeferredBlocks() {
         if (!disposeDeferredBlocks
                 || recordStore == null
-                || recordStore.getInMemoryFormat() != NATIVE) {
+                || (recordStore.getInMemoryFormat() != NATIVE
+                && !mapContainer.isColumnarRecordStore())) {
             return;
         }
 
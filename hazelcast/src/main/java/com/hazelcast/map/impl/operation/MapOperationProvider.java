@@ -102,6 +102,18 @@ public interface MapOperationProvider {
 
     MapOperation createPutAllOperation(String name, MapEntries mapEntries, boolean triggerMapLoader);
 
+    /**
+     * Creates an operation which applies the {@code set} calls of several
+     * threads for keys of a single partition at once.
+     *
+     * @param name       the map name
+     * @param mapEntries the entries to set
+     * @param threadIds  the IDs of the threads which issued the set calls,
+     *                   in the order of the entries
+     * @return the operation for setting the entries
+     */
+    MapOperation createCoalescedSetOperation(String name, MapEntries mapEntries, long[] threadIds);
+
     MapOperation createPutFromLoadAllOperation(String name, List<Data> keyValueSequence, boolean expirationTime);
 
     MapOperation createTxnDeleteOperation(String name, Data dataKey, long version);
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.core.EntryEventType;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.impl.MapDataSerializerHook;
@@ -54,7 +55,7 @@ import static com.hazelcast.map.impl.record.Record.UNSET;
 // RU_COMPAT_5_3 "implements Versioned" can be removed in 5.5
 public class PutAllOperation extends MapOperation
         implements PartitionAwareOperation, BackupAwareOperation,
-        MutatingOperation, Versioned {
+        MutatingOperation, Versioned, AllowedDuringLiveMigration {
 
     private transient int currentIndex;
     private MapEntries mapEntries;
@@ -91,17 +92,17 @@ public class PutAllOperation extends MapOperation
         hasInvalidation = mapContainer.hasInvalidationListener();
 
         if (hasBackups) {
-            backupPairs = new ArrayList(2 * mapEntries.size());
+            backupPairs = new ArrayList(2 * getEntriesToPut().size());
         }
         if (hasInvalidation) {
-            invalidationKeys = new ArrayList<>(mapEntries.size());
+            invalidationKeys = new ArrayList<>(getEntriesToPut().size());
         }
     }
 
     @Override
     public State createState() {
         return super.createState()
-                .setMapEntries(mapEntries)
+                .setMapEntries(getEntriesToPut())
                 .setTriggerMapLoader(triggerMapLoader);
     }
 
@@ -114,9 +115,10 @@ public class PutAllOperation extends MapOperation
     protected void runInternal() {
         // if currentIndex is not zero, this is a
         // continuation of the operation after a NativeOOME
-        int size = mapEntries.size();
+        MapEntries entries = getEntriesToPut();
+        int size = entries.size();
         while (currentIndex < size) {
-            put(mapEntries.getKey(currentIndex), mapEntries.getValue(currentIndex));
+            put(entries.getKey(currentIndex), entries.getValue(currentIndex));
             currentIndex++;
         }
     }
@@ -150,10 +152,31 @@ public class PutAllOperation extends MapOperation
         evict(dataKey);
     }
 
+    protected MapEntries getMapEntries() {
+        return mapEntries;
+    }
+
+    /**
+     * @return the entries this operation puts into the record store, all
+     * the entries it carries unless overridden
+     */
+    protected MapEntries getEntriesToPut() {
+        return mapEntries;
+    }
+
     public boolean isHasMapListener() {
         return hasMapListener;
     }
 
+    /**
+     * @return {@code true} if events of existing entries carry the old
+     * value even when the map loader is not triggered, {@code false}
+     * otherwise
+     */
+    public boolean isOldValueInEvents() {
+        return false;
+    }
+
     public boolean isHasWanReplication() {
         return hasWanReplication;
     }
@@ -185,7 +208,7 @@ public class PutAllOperation extends MapOperation
      * when requested by user and there are map listeners are registered.
      * Otherwise call recordStore.set()
      */
-    private Object putToRecordStore(Data dataKey, Data dataValue) {
+    protected Object putToRecordStore(Data dataKey, Data dataValue) {
         if (triggerMapLoader && hasMapListener) {
             return recordStore.put(dataKey, dataValue, UNSET, UNSET);
         }
@@ -215,7 +238,7 @@ public class PutAllOperation extends MapOperation
 
     @Override
     public boolean shouldBackup() {
-        return (hasBackups && !mapEntries.isEmpty());
+        return (hasBackups && !getEntriesToPut().isEmpty());
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.engine.State;
@@ -23,7 +24,7 @@ import com.hazelcast.map.impl.recordstore.StaticParams;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
 public class PutIfAbsentOperation
-        extends BasePutOperation implements MutatingOperation {
+        extends BasePutOperation implements MutatingOperation, AllowedDuringLiveMigration {
 
     protected transient boolean successful;
 
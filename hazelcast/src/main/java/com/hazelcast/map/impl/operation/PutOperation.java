@@ -16,12 +16,14 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.recordstore.StaticParams;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
-public class PutOperation extends BasePutOperation implements MutatingOperation {
+public class PutOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     public PutOperation() {
     }
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.record.Record;
@@ -23,7 +24,8 @@ import com.hazelcast.map.impl.recordstore.StaticParams;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
-public class PutTransientOperation extends BasePutOperation implements MutatingOperation {
+public class PutTransientOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     public PutTransientOperation() {
     }
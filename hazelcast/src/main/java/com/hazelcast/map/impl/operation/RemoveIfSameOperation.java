@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.RemoveIfSameOpSteps;
@@ -27,7 +28,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 
 import java.io.IOException;
 
-public class RemoveIfSameOperation extends BaseRemoveOperation {
+public class RemoveIfSameOperation extends BaseRemoveOperation implements AllowedDuringLiveMigration {
 
     private Data expect;
     private boolean successful;
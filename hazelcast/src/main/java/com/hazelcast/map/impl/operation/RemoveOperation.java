@@ -16,13 +16,14 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.engine.Step;
 import com.hazelcast.map.impl.operation.steps.RemoveOpSteps;
 import com.hazelcast.map.impl.operation.steps.engine.State;
 
-public class RemoveOperation extends BaseRemoveOperation {
+public class RemoveOperation extends BaseRemoveOperation implements AllowedDuringLiveMigration {
 
     protected boolean successful;
 
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.engine.State;
 import com.hazelcast.map.impl.recordstore.StaticParams;
@@ -27,7 +28,8 @@ import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
 import java.io.IOException;
 
-public class ReplaceIfSameOperation extends BasePutOperation implements MutatingOperation {
+public class ReplaceIfSameOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     private Data expect;
     private boolean successful;
@@ -16,13 +16,15 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.operation.steps.engine.State;
 import com.hazelcast.map.impl.recordstore.StaticParams;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
-public class ReplaceOperation extends BasePutOperation implements MutatingOperation {
+public class ReplaceOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     private boolean successful;
 
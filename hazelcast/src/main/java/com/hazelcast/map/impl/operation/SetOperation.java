@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.engine.State;
@@ -25,7 +26,8 @@ import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 import static com.hazelcast.core.EntryEventType.ADDED;
 import static com.hazelcast.core.EntryEventType.UPDATED;
 
-public class SetOperation extends BasePutOperation implements MutatingOperation {
+public class SetOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     private transient boolean newRecord;
 
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.PutOpSteps;
 import com.hazelcast.map.impl.operation.steps.engine.State;
@@ -32,7 +33,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import java.io.IOException;
 
 public class SetTtlOperation extends LockAwareOperation
-        implements BackupAwareOperation, MutatingOperation {
+        implements BackupAwareOperation, MutatingOperation, AllowedDuringLiveMigration {
 
     private transient boolean response;
 
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.recordstore.StaticParams;
@@ -23,7 +24,8 @@ import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 
 import static com.hazelcast.map.impl.record.Record.UNSET;
 
-public class TryPutOperation extends BasePutOperation implements MutatingOperation {
+public class TryPutOperation extends BasePutOperation
+        implements MutatingOperation, AllowedDuringLiveMigration {
 
     public TryPutOperation() {
     }
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.operation.steps.engine.Step;
@@ -26,7 +27,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 
 import java.io.IOException;
 
-public class TryRemoveOperation extends BaseRemoveOperation {
+public class TryRemoveOperation extends BaseRemoveOperation implements AllowedDuringLiveMigration {
 
     private boolean successful;
 
@@ -143,8 +143,8 @@ public enum PutAllOpSteps implements IMapOpStep {
             Map result = (Map) state.getResult();
             State perKeyState = new State(state);
 
-            boolean loadOldValue = triggerMapLoader
-                    && ((PutAllOperation) state.getOperation()).isHasMapListener();
+            PutAllOperation operation = (PutAllOperation) state.getOperation();
+            boolean loadOldValue = triggerMapLoader && operation.isHasMapListener();
             List loadedKeyAndOldValueWithExpiryPairs = state.loadedKeyAndOldValueWithExpiryPairs();
             Map<Object, Object> loadedOldValuesPerKey = new HashMap<>();
             for (int i = 0; i < loadedKeyAndOldValueWithExpiryPairs.size(); i += 2) {
@@ -174,7 +174,7 @@ public enum PutAllOpSteps implements IMapOpStep {
 
                 PutOpSteps.ON_STORE.runStep(perKeyState);
 
-                if (loadOldValue && oldValue != null) {
+                if (oldValue != null && (loadOldValue || operation.isOldValueInEvents())) {
                     // TODO why do we need to convert to heap data here?
                     oldValueByKey.put(perKeyState.getKey(),
                             mapServiceContext.toData(perKeyState.getOldValue()));
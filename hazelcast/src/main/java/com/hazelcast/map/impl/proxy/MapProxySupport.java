@@ -30,6 +30,7 @@ import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.core.ReadOnly;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.locksupport.LockProxySupport;
 import com.hazelcast.internal.locksupport.LockSupportServiceImpl;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
@@ -129,14 +130,18 @@ import static com.hazelcast.internal.util.Preconditions.checkFalse;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
 import static com.hazelcast.internal.util.ThreadUtil.getThreadId;
+import static com.hazelcast.internal.util.ThreadUtil.isRunningOnPartitionThread;
 import static com.hazelcast.internal.util.TimeUtil.timeInMsOrOneIfResultIsZero;
 import static com.hazelcast.map.impl.EntryRemovingProcessor.ENTRY_REMOVING_PROCESSOR;
 import static com.hazelcast.map.impl.MapOperationStatsUpdater.incrementOperationStats;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.map.impl.query.Target.createPartitionTarget;
+import static com.hazelcast.map.impl.record.Record.UNSET;
 import static com.hazelcast.query.Predicates.alwaysFalse;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
 import static com.hazelcast.spi.properties.ClusterProperty.FAIL_ON_INDETERMINATE_OPERATION_STATE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_SET_COALESCING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_SET_COALESCING_MAX_BATCH_SIZE;
 import static java.lang.Math.ceil;
 import static java.lang.Math.log10;
 import static java.lang.Math.min;
@@ -227,6 +232,8 @@ abstract class MapProxySupport<K, V>
 
     private final int putAllBatchSize;
     private final float putAllInitialSizeFactor;
+    // null when set coalescing is disabled
+    private final MapSetCoalescer setCoalescer;
 
     protected MapProxySupport(String name, MapService service, NodeEngine nodeEngine, MapConfig mapConfig) {
         super(nodeEngine, service);
@@ -252,6 +259,16 @@ abstract class MapProxySupport<K, V>
         this.putAllInitialSizeFactor = properties.getFloat(MAP_PUT_ALL_INITIAL_SIZE_FACTOR);
         // default value the same as in OperationService
         this.failOnIndeterminateOperationState = properties.getBoolean(FAIL_ON_INDETERMINATE_OPERATION_STATE);
+        this.setCoalescer = newSetCoalescerOrNull(nodeEngine, properties);
+    }
+
+    private MapSetCoalescer newSetCoalescerOrNull(NodeEngine nodeEngine, HazelcastProperties properties) {
+        int maxBatchSize = properties.getInteger(MAP_SET_COALESCING_MAX_BATCH_SIZE);
+        if (!properties.getBoolean(MAP_SET_COALESCING_ENABLED) || maxBatchSize <= 1) {
+            return null;
+        }
+        return new MapSetCoalescer(this, nodeEngine.getExecutionService(), partitionService.getPartitionCount(),
+                maxBatchSize);
     }
 
     @Override
@@ -595,10 +612,52 @@ abstract class MapProxySupport<K, V>
     // see this: https://github.com/hazelcast/hazelcast/pull/6088#issuecomment-136025968
     protected void setInternal(Object key, Data valueData, long ttl, TimeUnit timeunit, long maxIdle, TimeUnit maxIdleUnit) {
         Data keyData = toDataWithStrategy(key);
+        if (canCoalesceSet(ttl, timeunit, maxIdle, maxIdleUnit) && coalesceSet(keyData, valueData)) {
+            return;
+        }
         MapOperation operation = newSetOperation(keyData, valueData, ttl, timeunit, maxIdle, maxIdleUnit);
         invokeOperation(keyData, operation);
     }
 
+    private boolean canCoalesceSet(long ttl, TimeUnit timeunit, long maxIdle, TimeUnit maxIdleUnit) {
+        return setCoalescer != null
+                && timeInMsOrOneIfResultIsZero(ttl, timeunit) == UNSET
+                && timeInMsOrOneIfResultIsZero(maxIdle, maxIdleUnit) == UNSET
+                // a partition thread must not wait for a batch, and older members don't know the coalesced operation
+                && !isRunningOnPartitionThread()
+                && getNodeEngine().getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V5_4);
+    }
+
+    /**
+     * @return {@code false} if the set has not been applied because the key
+     * is locked by another thread, it has to be sent on its own then
+     */
+    private boolean coalesceSet(Data keyData, Data valueData) {
+        int partitionId = partitionService.getPartitionId(keyData);
+        long startTimeNanos = statisticsEnabled ? Timer.nanos() : 0;
+        boolean applied;
+        try {
+            applied = setCoalescer.set(partitionId, keyData, valueData, getThreadId()).get();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+        if (applied && statisticsEnabled) {
+            localMapStats.incrementSetLatencyNanos(Timer.nanosElapsed(startTimeNanos));
+        }
+        return applied;
+    }
+
+    /**
+     * Invokes a batch of coalesced set calls, see {@link MapSetCoalescer}.
+     */
+    InternalCompletableFuture<int[]> invokeCoalescedSet(int partitionId, MapEntries entries, long[] threadIds) {
+        MapOperation operation = operationProvider.createCoalescedSetOperation(name, entries, threadIds);
+        return operationService
+                .createInvocationBuilder(SERVICE_NAME, operation, partitionId)
+                .setFailOnIndeterminateOperationState(failOnIndeterminateOperationState)
+                .invoke();
+    }
+
     private MapOperation newSetOperation(Data keyData, Data valueData,
                                          long ttl, TimeUnit timeunit,
                                          long maxIdle, TimeUnit maxIdleUnit) {
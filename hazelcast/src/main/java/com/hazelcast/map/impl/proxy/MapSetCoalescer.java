@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.proxy;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
+
+/**
+ * Coalesces concurrent {@code set} calls of different threads which are
+ * bound for the same partition into a single
+ * {@link com.hazelcast.map.impl.operation.CoalescedSetOperation}.
+ * <p>
+ * A set call for a partition which has no batch in flight is sent right
+ * away, an uncontended set therefore never waits. Set calls arriving while
+ * a batch of their partition is in flight join the next batch, which is
+ * sent by the async executor as soon as the batch in flight completes,
+ * or right away once it reaches the maximum batch size. The batches
+ * therefore grow with the contention and no timer is involved. All callers of a batch are notified when the
+ * batched operation completes. The sets of the keys which are locked by
+ * other threads are not applied by the batch, their callers send them on
+ * their own.
+ * <p>
+ * Only synchronous set calls are coalesced. A thread therefore never has
+ * more than one coalesced set in flight, which preserves the ordering of
+ * the operations issued by a single thread.
+ */
+final class MapSetCoalescer {
+
+    private final MapProxySupport<?, ?> proxy;
+    private final ExecutionService executionService;
+    private final int maxBatchSize;
+    private final AtomicReferenceArray<Batch> batches;
+
+    MapSetCoalescer(MapProxySupport<?, ?> proxy, ExecutionService executionService, int partitionCount,
+                    int maxBatchSize) {
+        this.proxy = proxy;
+        this.executionService = executionService;
+        this.maxBatchSize = maxBatchSize;
+        this.batches = new AtomicReferenceArray<>(partitionCount);
+    }
+
+    /**
+     * Adds the entry to the batch of its partition.
+     *
+     * @return the future which is completed once the batch the entry
+     * belongs to has been applied, with {@code false} if the entry has not
+     * been applied because its key is locked by another thread
+     */
+    InternalCompletableFuture<Boolean> set(int partitionId, Data key, Data value, long threadId) {
+        Batch batch = batches.get(partitionId);
+        if (batch == null) {
+            batch = new Batch(partitionId);
+            if (!batches.compareAndSet(partitionId, null, batch)) {
+                batch = batches.get(partitionId);
+            }
+        }
+        return batch.add(key, value, threadId);
+    }
+
+    private final class Batch {
+
+        private final int partitionId;
+
+        // all fields below are guarded by this batch
+        private MapEntries entries;
+        private long[] threadIds;
+        private List<InternalCompletableFuture<Boolean>> futures;
+        private int inFlightCount;
+
+        Batch(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        InternalCompletableFuture<Boolean> add(Data key, Data value, long threadId) {
+            InternalCompletableFuture<Boolean> future = new InternalCompletableFuture<>();
+            boolean send;
+            synchronized (this) {
+                if (entries == null) {
+                    entries = new MapEntries(maxBatchSize);
+                    threadIds = new long[maxBatchSize];
+                    futures = new ArrayList<>(maxBatchSize);
+                }
+                threadIds[entries.size()] = threadId;
+                entries.add(key, value);
+                futures.add(future);
+                send = inFlightCount == 0 || entries.size() == maxBatchSize;
+            }
+
+            if (send) {
+                send();
+            }
+            return future;
+        }
+
+        /**
+         * Sends the pending batch, if there is one.
+         */
+        private void send() {
+            MapEntries batchEntries;
+            long[] batchThreadIds;
+            List<InternalCompletableFuture<Boolean>> batchFutures;
+            synchronized (this) {
+                if (entries == null) {
+                    // already sent by another thread
+                    return;
+                }
+                batchEntries = entries;
+                batchThreadIds = threadIds;
+                batchFutures = futures;
+                entries = null;
+                threadIds = null;
+                futures = null;
+                inFlightCount++;
+            }
+
+            if (batchEntries.size() < batchThreadIds.length) {
+                long[] trimmed = new long[batchEntries.size()];
+                System.arraycopy(batchThreadIds, 0, trimmed, 0, trimmed.length);
+                batchThreadIds = trimmed;
+            }
+
+            try {
+                proxy.invokeCoalescedSet(partitionId, batchEntries, batchThreadIds)
+                        .whenCompleteAsync((lockedIndexes, throwable) -> {
+                            complete(batchFutures, lockedIndexes, throwable);
+                            onBatchCompleted();
+                        }, CALLER_RUNS);
+            } catch (Throwable t) {
+                complete(batchFutures, null, t);
+                onBatchCompleted();
+            }
+        }
+
+        private void onBatchCompleted() {
+            boolean pending;
+            synchronized (this) {
+                inFlightCount--;
+                pending = entries != null;
+            }
+            if (!pending) {
+                return;
+            }
+            // the sets which arrived in the meantime don't wait any longer. The
+            // batch completes on a response or partition thread, which must not
+            // make remote calls, so the next one is sent by the async executor.
+            try {
+                executionService.execute(ASYNC_EXECUTOR, this::send);
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            List<InternalCompletableFuture<Boolean>> batchFutures;
+            synchronized (this) {
+                batchFutures = futures;
+                entries = null;
+                threadIds = null;
+                futures = null;
+            }
+            if (batchFutures != null) {
+                complete(batchFutures, null, throwable);
+            }
+        }
+
+        private void complete(List<InternalCompletableFuture<Boolean>> batchFutures, int[] lockedIndexes,
+                              Throwable throwable) {
+            int nextLocked = 0;
+            for (int i = 0; i < batchFutures.size(); i++) {
+                InternalCompletableFuture<Boolean> future = batchFutures.get(i);
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else if (nextLocked < lockedIndexes.length && lockedIndexes[nextLocked] == i) {
+                    nextLocked++;
+                    future.complete(false);
+                } else {
+                    future.complete(true);
+                }
+            }
+        }
+    }
+}
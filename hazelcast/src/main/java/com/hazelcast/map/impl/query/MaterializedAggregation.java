@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.IntFunction;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_INCREMENTAL_UPDATE_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_INVALIDATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_LAST_READ_STALE_PARTITION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_READ_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_REBUILD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_STALE_PARTITION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_MAINTENANCE_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_REBUILD_TIME;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * An aggregation of the entries matching a predicate which is maintained
+ * incrementally as the map is mutated.
+ * <p>
+ * A partial aggregator is kept per partition. The entries added to a
+ * partition are accumulated into its partial aggregator directly. Since the
+ * aggregators can't take an entry back, removals and updates of the matching
+ * entries invalidate the partial aggregator instead, it's rebuilt by a scan
+ * of the partition on the next read. So is every partition initially and
+ * whenever its ownership may have changed.
+ * <p>
+ * The mutations of a partition are reported on its partition thread while
+ * the reads run on the query threads, the state of each partition is
+ * guarded by its own monitor.
+ */
+public final class MaterializedAggregation {
+
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> READ_COUNT =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "readCount");
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> INCREMENTAL_UPDATE_COUNT =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "incrementalUpdateCount");
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> INVALIDATION_COUNT =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "invalidationCount");
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> REBUILD_COUNT =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "rebuildCount");
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> TOTAL_REBUILD_TIME_NANOS =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "totalRebuildTimeNanos");
+    private static final AtomicLongFieldUpdater<MaterializedAggregation> TOTAL_MAINTENANCE_TIME_NANOS =
+            AtomicLongFieldUpdater.newUpdater(MaterializedAggregation.class, "totalMaintenanceTimeNanos");
+
+    private final int id;
+    private final Predicate predicate;
+    private final Aggregator aggregator;
+    private final Data aggregatorData;
+    private final InternalSerializationService serializationService;
+    private final Extractors extractors;
+    private final PartitionState[] partitions;
+
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_READ_COUNT)
+    private volatile long readCount;
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_INCREMENTAL_UPDATE_COUNT)
+    private volatile long incrementalUpdateCount;
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_INVALIDATION_COUNT)
+    private volatile long invalidationCount;
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_REBUILD_COUNT)
+    private volatile long rebuildCount;
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_LAST_READ_STALE_PARTITION_COUNT)
+    private volatile long lastReadStalePartitionCount;
+    private volatile long totalRebuildTimeNanos;
+    private volatile long totalMaintenanceTimeNanos;
+    private volatile long lastReadMillis = Clock.currentTimeMillis();
+
+    MaterializedAggregation(int id, Predicate predicate, Aggregator aggregator, int partitionCount,
+                            InternalSerializationService serializationService, Extractors extractors) {
+        this.id = id;
+        this.predicate = predicate;
+        this.aggregatorData = serializationService.toData(aggregator);
+        // keep a private copy, the given aggregator is going to accumulate
+        this.aggregator = serializationService.toObject(aggregatorData);
+        this.serializationService = serializationService;
+        this.extractors = extractors;
+        this.partitions = new PartitionState[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new PartitionState();
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return {@code true} if this aggregation runs the aggregator serialized
+     * to the given data on the entries matching the given predicate.
+     */
+    boolean matches(Predicate predicate, Data aggregatorData) {
+        return this.predicate.equals(predicate) && this.aggregatorData.equals(aggregatorData);
+    }
+
+    long getLastReadMillis() {
+        return lastReadMillis;
+    }
+
+    /**
+     * @return a new empty aggregator of this aggregation.
+     */
+    public Aggregator newAggregator() {
+        return serializationService.toObject(aggregatorData);
+    }
+
+    /**
+     * Combines the partial aggregators of the given partitions into the given
+     * aggregator, the stale partial aggregators are rebuilt first.
+     *
+     * @param partitionIds the partitions to aggregate.
+     * @param result       the aggregator to combine the partial aggregators into.
+     * @param scanner      accumulates all the matching entries of a partition
+     *                     into a new aggregator.
+     */
+    @SuppressWarnings("unchecked")
+    public void read(Iterable<Integer> partitionIds, Aggregator result, IntFunction<Aggregator> scanner) {
+        lastReadMillis = Clock.currentTimeMillis();
+        int staleCount = 0;
+        try {
+            for (int partitionId : partitionIds) {
+                Aggregator partial = partitions[partitionId].snapshot();
+                if (partial == null) {
+                    staleCount++;
+                    partial = rebuild(partitionId, scanner);
+                }
+                partial.onAccumulationFinished();
+                result.combine(partial);
+            }
+        } finally {
+            result.onCombinationFinished();
+        }
+        lastReadStalePartitionCount = staleCount;
+        READ_COUNT.incrementAndGet(this);
+    }
+
+    /**
+     * Called when an entry is added to the given partition.
+     */
+    public void onAdded(int partitionId, Data key, Object value) {
+        long startNanos = System.nanoTime();
+        PartitionState state = partitions[partitionId];
+        synchronized (state) {
+            state.version++;
+            if (state.partial != null) {
+                try {
+                    accumulateIfMatches(state, key, value);
+                } catch (RuntimeException e) {
+                    // let the rebuild report the failure to the query
+                    invalidate(state);
+                }
+            }
+        }
+        TOTAL_MAINTENANCE_TIME_NANOS.addAndGet(this, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Called when the value of an entry of the given partition is updated.
+     */
+    public void onUpdated(int partitionId, Data key, Object oldValue, Object newValue) {
+        long startNanos = System.nanoTime();
+        PartitionState state = partitions[partitionId];
+        synchronized (state) {
+            state.version++;
+            if (state.partial != null) {
+                try {
+                    if (matches(key, oldValue)) {
+                        invalidate(state);
+                    } else {
+                        accumulateIfMatches(state, key, newValue);
+                    }
+                } catch (RuntimeException e) {
+                    invalidate(state);
+                }
+            }
+        }
+        TOTAL_MAINTENANCE_TIME_NANOS.addAndGet(this, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Called when an entry is removed or evicted from the given partition.
+     */
+    public void onRemoved(int partitionId, Data key, Object value) {
+        long startNanos = System.nanoTime();
+        PartitionState state = partitions[partitionId];
+        synchronized (state) {
+            state.version++;
+            if (state.partial != null) {
+                try {
+                    if (matches(key, value)) {
+                        invalidate(state);
+                    }
+                } catch (RuntimeException e) {
+                    invalidate(state);
+                }
+            }
+        }
+        TOTAL_MAINTENANCE_TIME_NANOS.addAndGet(this, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Invalidates the partial aggregator of the given partition, e.g. when its
+     * entries are cleared or replicated or when a backup replica is mutated.
+     */
+    public void invalidate(int partitionId) {
+        PartitionState state = partitions[partitionId];
+        synchronized (state) {
+            state.version++;
+            if (state.partial != null) {
+                invalidate(state);
+            }
+        }
+    }
+
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_REBUILD_TIME, unit = MS)
+    public long getTotalRebuildTime() {
+        return NANOSECONDS.toMillis(totalRebuildTimeNanos);
+    }
+
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_TOTAL_MAINTENANCE_TIME, unit = MS)
+    public long getTotalMaintenanceTime() {
+        return NANOSECONDS.toMillis(totalMaintenanceTimeNanos);
+    }
+
+    /**
+     * Returns the number of the partitions which have been invalidated since
+     * their partial aggregators were last built.
+     */
+    @Probe(name = MAP_METRIC_MATERIALIZED_AGGREGATION_STALE_PARTITION_COUNT)
+    public int getStalePartitionCount() {
+        int count = 0;
+        for (PartitionState state : partitions) {
+            if (state.stale) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public long getIncrementalUpdateCount() {
+        return incrementalUpdateCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    public long getLastReadStalePartitionCount() {
+        return lastReadStalePartitionCount;
+    }
+
+    private boolean matches(Data key, Object value) {
+        return predicate.apply(new CachedQueryEntry(serializationService, key, value, extractors));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accumulateIfMatches(PartitionState state, Data key, Object value) {
+        CachedQueryEntry entry = new CachedQueryEntry(serializationService, key, value, extractors);
+        if (predicate.apply(entry)) {
+            state.partial.accumulate(entry);
+            INCREMENTAL_UPDATE_COUNT.incrementAndGet(this);
+        }
+    }
+
+    private void invalidate(PartitionState state) {
+        state.partial = null;
+        state.stale = true;
+        INVALIDATION_COUNT.incrementAndGet(this);
+    }
+
+    private Aggregator rebuild(int partitionId, IntFunction<Aggregator> scanner) {
+        PartitionState state = partitions[partitionId];
+        long version;
+        synchronized (state) {
+            version = state.version;
+        }
+
+        long startNanos = System.nanoTime();
+        Aggregator partial = scanner.apply(partitionId);
+        TOTAL_REBUILD_TIME_NANOS.addAndGet(this, System.nanoTime() - startNanos);
+        REBUILD_COUNT.incrementAndGet(this);
+
+        synchronized (state) {
+            // the partition was mutated during the scan, the scanned
+            // aggregator may or may not include the mutations
+            if (state.version == version && state.partial == null) {
+                state.partial = copy(partial);
+                state.stale = false;
+            }
+        }
+        return partial;
+    }
+
+    private Aggregator copy(Aggregator aggregator) {
+        return serializationService.toObject(serializationService.toData(aggregator));
+    }
+
+    @Override
+    public String toString() {
+        return "MaterializedAggregation{"
+                + "id=" + id
+                + ", predicate=" + predicate
+                + ", aggregator=" + aggregator
+                + '}';
+    }
+
+    private final class PartitionState {
+        /**
+         * The aggregator of the matching entries of the partition or
+         * {@code null} if it has to be rebuilt.
+         */
+        private Aggregator partial;
+        /**
+         * Incremented on every mutation of the partition.
+         */
+        private long version;
+        /**
+         * Every partition is stale until its partial aggregator is built by
+         * the first read.
+         */
+        private volatile boolean stale = true;
+
+        /**
+         * @return a copy of the partial aggregator of the partition or
+         * {@code null} if it has to be rebuilt.
+         */
+        synchronized Aggregator snapshot() {
+            return partial == null ? null : copy(partial);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The {@link MaterializedAggregation materialized aggregations} of a map on
+ * this member.
+ * <p>
+ * An aggregation is materialized when it's run for the second time with an
+ * equal predicate and an equal aggregator, as long as there are less than
+ * the configured maximal number of materialized aggregations. Materialized
+ * aggregations which haven't been read for the idle timeout are dropped.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT
+ */
+public final class MaterializedAggregations {
+
+    /**
+     * The maximal number of the aggregations run once remembered.
+     */
+    private static final int MAX_CANDIDATE_COUNT = 128;
+
+    private final int maxCount;
+    private final long idleTimeoutMillis;
+    private final int partitionCount;
+    private final InternalSerializationService serializationService;
+    private final Extractors extractors;
+    private final List<MaterializedAggregation> aggregations = new CopyOnWriteArrayList<>();
+    private final Map<Candidate, Boolean> candidates = new ConcurrentHashMap<>();
+    private final AtomicInteger idSequence = new AtomicInteger();
+
+    public MaterializedAggregations(int maxCount, long idleTimeoutMillis, int partitionCount,
+                                    InternalSerializationService serializationService, Extractors extractors) {
+        this.maxCount = maxCount;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.partitionCount = partitionCount;
+        this.serializationService = serializationService;
+        this.extractors = extractors;
+    }
+
+    /**
+     * @return {@code true} if the aggregations may be materialized.
+     */
+    public boolean isEnabled() {
+        return maxCount > 0;
+    }
+
+    /**
+     * Returns the materialized aggregation running the given aggregator on the
+     * entries matching the given predicate. The aggregation is materialized if
+     * it has been run before and the limit of the materialized aggregations
+     * is not reached.
+     *
+     * @return the materialized aggregation or {@code null} if there is none.
+     */
+    public MaterializedAggregation getOrMaterialize(Predicate predicate, Aggregator aggregator) {
+        if (!isEnabled()) {
+            return null;
+        }
+        removeIdle();
+        Data aggregatorData = serializationService.toData(aggregator);
+        for (MaterializedAggregation aggregation : aggregations) {
+            if (aggregation.matches(predicate, aggregatorData)) {
+                return aggregation;
+            }
+        }
+
+        Candidate candidate = new Candidate(predicate, aggregatorData);
+        if (candidates.remove(candidate) == null) {
+            if (candidates.size() >= MAX_CANDIDATE_COUNT) {
+                candidates.clear();
+            }
+            candidates.put(candidate, Boolean.TRUE);
+            return null;
+        }
+        return materialize(predicate, aggregator, aggregatorData);
+    }
+
+    /**
+     * Materializes the given aggregation unless the limit of the materialized
+     * aggregations is reached.
+     *
+     * @return the materialized aggregation or {@code null} if the limit is
+     * reached.
+     */
+    public MaterializedAggregation materialize(Predicate predicate, Aggregator aggregator) {
+        return materialize(predicate, aggregator, serializationService.toData(aggregator));
+    }
+
+    private synchronized MaterializedAggregation materialize(Predicate predicate, Aggregator aggregator,
+                                                             Data aggregatorData) {
+        for (MaterializedAggregation aggregation : aggregations) {
+            if (aggregation.matches(predicate, aggregatorData)) {
+                return aggregation;
+            }
+        }
+        if (aggregations.size() >= maxCount) {
+            return null;
+        }
+        MaterializedAggregation aggregation = new MaterializedAggregation(idSequence.getAndIncrement(), predicate,
+                aggregator, partitionCount, serializationService, extractors);
+        aggregations.add(aggregation);
+        return aggregation;
+    }
+
+    /**
+     * Applies the given action to every materialized aggregation, used to
+     * report the mutations of the map.
+     */
+    public void forEach(Consumer<MaterializedAggregation> action) {
+        if (aggregations.isEmpty()) {
+            return;
+        }
+        for (MaterializedAggregation aggregation : aggregations) {
+            action.accept(aggregation);
+        }
+    }
+
+    public Collection<MaterializedAggregation> getAll() {
+        return Collections.unmodifiableList(aggregations);
+    }
+
+    public void clear() {
+        aggregations.clear();
+        candidates.clear();
+    }
+
+    private void removeIdle() {
+        long now = Clock.currentTimeMillis();
+        aggregations.removeIf(aggregation -> now - aggregation.getLastReadMillis() > idleTimeoutMillis);
+    }
+
+    /**
+     * An aggregation run once. The aggregators are compared in their
+     * serialized form, they aren't required to implement {@code equals}.
+     */
+    private static final class Candidate {
+        private final Predicate predicate;
+        private final Data aggregatorData;
+
+        Candidate(Predicate predicate, Data aggregatorData) {
+            this.predicate = predicate;
+            this.aggregatorData = aggregatorData;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Candidate)) {
+                return false;
+            }
+            Candidate that = (Candidate) o;
+            return predicate.equals(that.predicate) && aggregatorData.equals(that.aggregatorData);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(predicate, aggregatorData);
+        }
+    }
+}
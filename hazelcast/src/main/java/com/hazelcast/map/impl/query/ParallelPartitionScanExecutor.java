@@ -74,6 +74,7 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
         return partitionScanRunner.run(mapName, predicate, partitionId, pointers, fetchSize);
     }
 
+    @SuppressWarnings("unchecked")
     protected void runUsingPartitionScanWithoutPaging(String name, Predicate predicate, Collection<Integer> partitions,
                                                       Result result) {
         List<Future<Result>> futures = new ArrayList<>(partitions.size());
@@ -84,9 +85,8 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
         }
 
         Collection<Result> subResults = waitForResult(futures, timeoutInMillis);
-        for (Result subResult : subResults) {
-            result.combine(subResult);
-        }
+        // sub results are merged by the calling thread only, once all of them are done
+        result.combineAll(subResults);
     }
 
     protected Future<Result> runPartitionScanForPartition(String name, Predicate predicate, int partitionId, Result result) {
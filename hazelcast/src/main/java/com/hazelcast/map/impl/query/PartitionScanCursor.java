@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.InternalGenericRecord;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * Reusable entry used by {@link PartitionScanRunner} to evaluate the
+ * predicate against every entry of a full partition scan.
+ * <p>
+ * If serialized evaluation is enabled and the value is a Compact or Portable
+ * {@link Data}, the value is parsed at most once per visited entry into a
+ * generic record which reads the fields lazily from the serialized bytes.
+ * The record is handed to the getters as the query target, so multiple
+ * attribute accesses of a predicate share it and the value is never
+ * deserialized into a domain object.
+ * <p>
+ * The cursor also counts the serialized bytes it had to deserialize into
+ * objects while evaluating predicates.
+ * <p>
+ * The cursor must not be added to query results since it is re-initialised
+ * for every visited entry, it may only be accumulated by the aggregators which
+ * don't keep references to the accumulated entries, see {@link
+ * com.hazelcast.aggregation.impl.ExtractedValueAggregator}. It is not
+ * thread-safe and is meant to be confined to a single scanning thread.
+ */
+@SuppressWarnings({"rawtypes", "checkstyle:EqualsHashCode"})
+final class PartitionScanCursor extends LazyMapEntry {
+
+    private static final long serialVersionUID = 0L;
+
+    private transient boolean serializedEvaluation;
+    private transient InternalGenericRecord valueRecord;
+    private transient long deserializedBytes;
+
+    PartitionScanCursor() {
+    }
+
+    /**
+     * Points this cursor to the given entry.
+     *
+     * @param serializedEvaluation {@code true} if predicates should be
+     *                             evaluated against the serialized value
+     *                             whenever possible, {@code false} otherwise
+     * @return this cursor
+     */
+    PartitionScanCursor reset(InternalSerializationService ss, Data key, Object value,
+                              Extractors extractors, boolean serializedEvaluation) {
+        init(ss, key, value, extractors);
+        this.serializedEvaluation = serializedEvaluation;
+        this.valueRecord = null;
+        return this;
+    }
+
+    /**
+     * Releases references to the last visited entry so that a cursor kept
+     * by an idle thread doesn't retain them.
+     */
+    void clear() {
+        keyData = null;
+        keyObject = null;
+        valueData = null;
+        valueObject = null;
+        valueRecord = null;
+        setRecord(null);
+        setMetadata(null);
+    }
+
+    /**
+     * Returns the number of serialized bytes deserialized into objects since
+     * the last call of this method and resets the counter.
+     */
+    long drainDeserializedBytes() {
+        long bytes = deserializedBytes;
+        deserializedBytes = 0;
+        return bytes;
+    }
+
+    @Override
+    public Object getKey() {
+        if (keyObject == null && keyData != null) {
+            deserializedBytes += keyData.totalSize();
+        }
+        return super.getKey();
+    }
+
+    @Override
+    public Object getValue() {
+        if (valueObject == null && valueData != null) {
+            deserializedBytes += valueData.totalSize();
+        }
+        return super.getValue();
+    }
+
+    @Override
+    protected Object getTargetObject(boolean key) {
+        if (key || !isSerializedEvaluationTarget()) {
+            return super.getTargetObject(key);
+        }
+
+        if (valueRecord == null) {
+            try {
+                valueRecord = serializationService.readAsInternalGenericRecord(valueData);
+            } catch (IOException e) {
+                throw rethrow(e);
+            }
+        }
+        return valueRecord;
+    }
+
+    private boolean isSerializedEvaluationTarget() {
+        return serializedEvaluation && valueObject == null && valueData != null
+                && (valueData.isCompact() || valueData.isPortable());
+    }
+}
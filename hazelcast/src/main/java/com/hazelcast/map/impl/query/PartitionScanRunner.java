@@ -16,13 +16,17 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.impl.ExtractedValueAggregator;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.namespace.NamespaceUtil;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.SortingUtil;
+import com.hazelcast.internal.util.TopN;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.MapContainer;
@@ -36,6 +40,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.CompiledPredicate;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -48,8 +53,11 @@ import java.util.Map.Entry;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.internal.util.SortingUtil.compareAnchor;
+import static com.hazelcast.internal.util.SortingUtil.getPagingLimit;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_COMPILATION_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_SERIALIZED_SCAN_ENABLED;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
@@ -64,6 +72,10 @@ public class PartitionScanRunner {
     protected final OperationService operationService;
     protected final ClusterService clusterService;
 
+    private final boolean serializedScanEnabled;
+    private final boolean predicateCompilationEnabled;
+    private final ThreadLocal<PartitionScanCursor> cursors = ThreadLocal.withInitial(PartitionScanCursor::new);
+
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
         this.nodeEngine = mapServiceContext.getNodeEngine();
@@ -72,6 +84,8 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.serializedScanEnabled = nodeEngine.getProperties().getBoolean(QUERY_SERIALIZED_SCAN_ENABLED);
+        this.predicateCompilationEnabled = nodeEngine.getProperties().getBoolean(QUERY_PREDICATE_COMPILATION_ENABLED);
     }
 
     @SuppressWarnings("unchecked")
@@ -87,38 +101,114 @@ public class PartitionScanRunner {
         Extractors extractors = mapServiceContext.getExtractors(mapName);
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
+        Predicate evaluatedPredicate = compile(mapContainer, predicate);
+        // the built-in aggregators accumulate the values extracted from the
+        // cursor itself, Compact and Portable values are read in their
+        // serialized form without a result entry per matching entry
+        boolean accumulateCursor = !nativeMemory && result instanceof AggregationResult
+                && ((AggregationResult) result).getAggregator() instanceof ExtractedValueAggregator;
+        boolean serializedScan = serializedScanEnabled || accumulateCursor;
+        // a paging query needs only the entries up to the end of the requested page
+        TopN<QueryableEntry> topEntries = pagingPredicate == null ? null
+                : new TopN<>(SortingUtil.newComparator(pagingPredicate),
+                (int) Math.min(Integer.MAX_VALUE, getPagingLimit(pagingPredicate, nearestAnchorEntry)));
+        PartitionScanCursor cursor = cursors.get();
+        long startNanos = System.nanoTime();
 
-        recordStore.forEachAfterLoad(new BiConsumer<Data, Record>() {
-            LazyMapEntry queryEntry = new LazyMapEntry();
-
+        ScanConsumer consumer = new ScanConsumer() {
             @Override
             public void accept(Data key, Record record) {
-                Object value = useCachedValues ? getValueOrCachedValue(record, ss) : record.getValue();
+                Object value = getValue(record, useCachedValues, serializedScan);
                 // TODO how can a value be null?
                 if (value == null) {
                     return;
                 }
 
-                queryEntry.init(ss, key, value, extractors);
-                queryEntry.setRecord(record);
-                queryEntry.setMetadata(recordStore.getOrCreateMetadataStore().get(key));
+                scannedEntries++;
+                cursor.reset(ss, key, value, extractors, serializedScan);
+                cursor.setRecord(record);
+                cursor.setMetadata(recordStore.getOrCreateMetadataStore().get(key));
 
-                if (predicate.apply(queryEntry)
-                        && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
+                if (evaluatedPredicate.apply(cursor)
+                        && compareAnchor(pagingPredicate, cursor, nearestAnchorEntry)
+                        && (topEntries == null || topEntries.accepts(cursor))) {
+                    if (accumulateCursor) {
+                        result.add(cursor);
+                        return;
+                    }
 
                     // always copy key&value to heap if map is backed by native memory
                     value = nativeMemory ? toHeapData((Data) value) : value;
-                    result.add(queryEntry.init(ss, toHeapData(key), value, extractors));
-
-                    // We can't reuse the existing entry after it was added to the
-                    // result. Allocate the new one.
-                    queryEntry = new LazyMapEntry();
+                    // the cursor is reused for the next entry, the result
+                    // gets its own entry
+                    LazyMapEntry resultEntry = new LazyMapEntry(toHeapData(key), value, ss, extractors);
+                    resultEntry.setRecord(record);
+                    resultEntry.setMetadata(cursor.getMetadata());
+                    if (topEntries == null) {
+                        result.add(resultEntry);
+                    } else {
+                        topEntries.offer(resultEntry);
+                    }
                 }
             }
-        }, false);
+        };
+        try {
+            recordStore.forEachAfterLoad(consumer, false);
+        } finally {
+            cursor.clear();
+            updateScanStats(mapContainer, consumer.scannedEntries, System.nanoTime() - startNanos,
+                    cursor.drainDeserializedBytes(), isFullyCompiled(evaluatedPredicate));
+        }
+        if (topEntries != null) {
+            for (QueryableEntry entry : topEntries.toSortedList()) {
+                result.add(entry);
+            }
+        }
         result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
     }
 
+    private Object getValue(Record record, boolean useCachedValues, boolean serializedScan) {
+        if (serializedScan) {
+            Object value = record.getValue();
+            if (value instanceof Data && (((Data) value).isCompact() || ((Data) value).isPortable())) {
+                // evaluated against the serialized form, a cached
+                // deserialized value is not needed
+                return value;
+            }
+        }
+        return useCachedValues ? getValueOrCachedValue(record, ss) : record.getValue();
+    }
+
+    /**
+     * Returns the compiled form of the given predicate if the predicate
+     * compilation is enabled, otherwise returns the predicate itself.
+     * <p>
+     * The paging predicates are evaluated by the interpreter, they
+     * evaluate their inner predicates in the user code namespace of the map.
+     */
+    private Predicate compile(MapContainer mapContainer, Predicate predicate) {
+        if (!predicateCompilationEnabled || predicate instanceof PagingPredicateImpl) {
+            return predicate;
+        }
+        return mapContainer.getCompiledPredicateCache().getOrCompile(predicate);
+    }
+
+    private static boolean isFullyCompiled(Predicate predicate) {
+        return predicate instanceof CompiledPredicate && ((CompiledPredicate) predicate).isFullyCompiled();
+    }
+
+    private void updateScanStats(MapContainer mapContainer, long scannedEntries, long scanNanos,
+                                 long deserializedBytes, boolean compiled) {
+        if (!mapContainer.getMapConfig().isStatisticsEnabled()) {
+            return;
+        }
+        LocalMapStatsImpl stats = mapServiceContext.getLocalMapStatsProvider()
+                .getLocalMapStatsImpl(mapContainer.getName());
+        stats.incrementQueryScanNanos(scannedEntries, scanNanos);
+        stats.incrementQueryDeserializedBytes(deserializedBytes);
+        stats.incrementQueryEvaluations(scannedEntries, compiled);
+    }
+
     /**
      * Executes the predicate on a partition chunk. The offset in the partition
      * is defined by the {@code pointers} and the soft limit is defined by the
@@ -149,6 +239,7 @@ public class PartitionScanRunner {
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        Predicate evaluatedPredicate = compile(recordStore.getMapContainer(), predicate);
 
         return NamespaceUtil.callWithNamespace(nodeEngine, MapService.lookupNamespace(nodeEngine, mapName), () -> {
             IterationPointer[] localPointers = pointers;
@@ -161,7 +252,7 @@ public class PartitionScanRunner {
                 }
                 for (Entry<Data, Data> entry : entries) {
                     QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors);
-                    if (predicate.apply(queryEntry)) {
+                    if (evaluatedPredicate.apply(queryEntry)) {
                         resultList.add(queryEntry);
                     }
                 }
@@ -173,4 +264,11 @@ public class PartitionScanRunner {
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         return mapContainer.isUseCachedDeserializedValuesEnabled(partitionId);
     }
+
+    /**
+     * Visits the entries of a partition and counts them.
+     */
+    private abstract static class ScanConsumer implements BiConsumer<Data, Record> {
+        long scannedEntries;
+    }
 }
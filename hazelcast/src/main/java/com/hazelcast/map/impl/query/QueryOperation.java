@@ -40,8 +40,10 @@ import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
@@ -89,38 +91,46 @@ public class QueryOperation extends AbstractNamedOperation implements ReadonlyOp
         switch (getMapInMemoryFormat()) {
             case BINARY:
             case OBJECT:
+                if (!getMapServiceContext().getMapContainer(getName()).isRecordStoreThreadSafe()) {
+                    return callOnPartitionThreads(queryRunner);
+                }
                 result = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query);
                 return RESPONSE;
             case NATIVE:
-                boolean useGlobalIndex = getMapServiceContext().getMapContainer(getName()).shouldUseGlobalIndex();
-
-                if (useGlobalIndex) {
-                    // Try to use HD global index
-                    // Don't do map scan because it is not thread-safe
-                    Result indexResult = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query, false);
-                    if (indexResult != null) {
-                        result = indexResult;
-                        return RESPONSE;
-                    }
-                }
-
-                // Offload query run on the partition threads.
-                BitSet queryPartitions = localPartitions();
-                if (query.getPartitionIdSet() != null) {
-                    queryPartitions.and(query.getPartitionIdSet().bitSetCopy());
-                }
-                if (queryPartitions.cardinality() == 0) {
-                    // important to deal with situation of not having any partitions
-                    result = queryRunner.populateEmptyResult(query, Collections.emptyList());
-                    return RESPONSE;
-                } else {
-                    return new OffloadedImpl(queryRunner, queryPartitions);
-                }
+                return callOnPartitionThreads(queryRunner);
             default:
                 throw new IllegalArgumentException("Unsupported in memory format");
         }
     }
 
+    @Nonnull
+    private CallStatus callOnPartitionThreads(QueryRunner queryRunner) {
+        boolean useGlobalIndex = getMapServiceContext().getMapContainer(getName()).shouldUseGlobalIndex();
+
+        if (useGlobalIndex) {
+            // Try to use HD global index
+            // Don't do map scan because it is not thread-safe
+            Result indexResult = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query, false);
+            if (indexResult != null) {
+                result = indexResult;
+                return RESPONSE;
+            }
+        }
+
+        // Offload query run on the partition threads.
+        BitSet queryPartitions = localPartitions();
+        if (query.getPartitionIdSet() != null) {
+            queryPartitions.and(query.getPartitionIdSet().bitSetCopy());
+        }
+        if (queryPartitions.cardinality() == 0) {
+            // important to deal with situation of not having any partitions
+            result = queryRunner.populateEmptyResult(query, Collections.emptyList());
+            return RESPONSE;
+        } else {
+            return new OffloadedImpl(queryRunner, queryPartitions);
+        }
+    }
+
     private int partitionCount() {
         return getNodeEngine().getPartitionService().getPartitionCount();
     }
@@ -325,13 +335,16 @@ public class QueryOperation extends AbstractNamedOperation implements ReadonlyOp
             }
         }
 
+        @SuppressWarnings("unchecked")
         private void populateResult(AtomicReferenceArray<Result> resultArray, Result combinedResult) {
+            List<Result> partitionResults = new ArrayList<>(resultArray.length());
             for (int k = 0; k < resultArray.length(); k++) {
                 Result partitionResult = resultArray.get(k);
                 if (partitionResult != null) {
-                    combinedResult.combine(partitionResult);
+                    partitionResults.add(partitionResult);
                 }
             }
+            combinedResult.combineAll(partitionResults);
         }
     }
 
@@ -31,6 +31,7 @@ import com.hazelcast.internal.util.collection.PartitionIdSet;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -206,6 +207,22 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         rows.addAll(result.rows);
     }
 
+    @Override
+    public void combineAll(Collection<QueryResult> results) {
+        if (rows instanceof ArrayList) {
+            int expectedSize = rows.size();
+            for (QueryResult result : results) {
+                if (result.getPartitionIds() != null) {
+                    expectedSize += result.rows.size();
+                }
+            }
+            ((ArrayList) rows).ensureCapacity(expectedSize);
+        }
+        for (QueryResult result : results) {
+            combine(result);
+        }
+    }
+
     @Override
     public void onCombineFinished() {
     }
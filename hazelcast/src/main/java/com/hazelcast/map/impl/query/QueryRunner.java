@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.IndexAwareAggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -31,15 +33,21 @@ import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.IndexedValues;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
+import com.hazelcast.query.impl.predicates.TruePredicate;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
 import java.util.Collection;
 
 import static com.hazelcast.internal.util.SetUtil.singletonPartitionIdSet;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
 
 /**
  * Runs query operations in the calling thread (thus blocking it)
@@ -129,6 +137,9 @@ public class QueryRunner {
         PartitionIdSet actualPartitions = query.getPartitionIdSet() != null
                 ? ownedPartitions.intersectCopy(query.getPartitionIdSet())
                 : ownedPartitions;
+        // the actual partitions are a subset of the owned ones, note that the
+        // cached owned partitions are immutable and never equal to a copy
+        boolean allOwnedPartitions = actualPartitions.size() == ownedPartitions.size();
 
         MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
 
@@ -140,11 +151,27 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexRegistry);
 
+        // an aggregation of all the entries may be answered by the index of the aggregated attribute
+        if (allOwnedPartitions) {
+            Result result = runAggregationUsingGlobalIndexSafely(query, predicate, mapContainer, migrationStamp,
+                    actualPartitions);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        // a repeated aggregation may be answered by its materialized partial aggregators
+        Result materializedResult = runAggregationUsingMaterializationSafely(query, predicate, mapContainer,
+                migrationStamp, actualPartitions);
+        if (materializedResult != null) {
+            return materializedResult;
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         Iterable<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer,
                 migrationStamp, ownedPartitions.size());
 
-        if (entries != null && !ownedPartitions.equals(actualPartitions)) {
+        if (entries != null && !allOwnedPartitions) {
             assert indexRegistry.isGlobal();
             // if the query runs on a subset of partitions, filter the results from a global index
             entries = IterableUtil.filter(entries,
@@ -297,6 +324,92 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * Performs the given aggregation of all the entries using the values kept
+     * by the global index built for the aggregated attribute, the entries are
+     * neither visited nor deserialized, see {@link IndexAwareAggregator}.
+     *
+     * @return the result of the aggregation or {@code null} if the
+     * aggregation can't be answered by an index or a migration was detected.
+     */
+    protected Result runAggregationUsingGlobalIndexSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                          int migrationStamp, PartitionIdSet partitions) {
+        if (!query.isAggregationQuery() || !(predicate instanceof TruePredicate)
+                || !(query.getAggregator() instanceof IndexAwareAggregator)) {
+            return null;
+        }
+        String attributePath = ((IndexAwareAggregator) query.getAggregator()).getAttributePath();
+        IndexRegistry indexRegistry = mapContainer.getGlobalIndexRegistry();
+        if (attributePath == null || indexRegistry == null || !indexRegistry.isGlobal()
+                || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        String attribute = canonicalizeAttribute(attributePath);
+        InternalIndex index = indexRegistry.matchIndex(attribute, IndexMatchHint.PREFER_ORDERED, partitions.size());
+        if (index == null) {
+            // bitmap indexes are able to count the entries
+            index = indexRegistry.matchIndex(attribute, EqualPredicate.class, IndexMatchHint.NONE, partitions.size());
+        }
+        IndexedValues values = index == null ? null : index.getIndexedValues();
+        if (values == null) {
+            return null;
+        }
+
+        AggregationResult result = (AggregationResult) populateEmptyResult(query, partitions);
+        Aggregator aggregator = result.getAggregator();
+        if (!((IndexAwareAggregator) aggregator).accumulateIndexedValues(values)) {
+            return null;
+        }
+        aggregator.onAccumulationFinished();
+
+        // see runUsingGlobalIndexSafely
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
+    /**
+     * Performs the given aggregation by combining the partial aggregators of
+     * the partitions kept by its materialization, the stale partial
+     * aggregators are rebuilt by partition scans, see
+     * {@link MaterializedAggregation}.
+     *
+     * @return the result of the aggregation or {@code null} if the
+     * aggregation is not materialized or a migration was detected.
+     */
+    @SuppressWarnings("unchecked")
+    protected Result runAggregationUsingMaterializationSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                              int migrationStamp, PartitionIdSet partitions) {
+        // the stale partitions are rebuilt by scans on the calling thread
+        if (!query.isAggregationQuery() || !mapContainer.isRecordStoreThreadSafe()
+                || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        MaterializedAggregation aggregation = mapContainer.getMaterializedAggregations()
+                .getOrMaterialize(query.getPredicate(), query.getAggregator());
+        if (aggregation == null) {
+            return null;
+        }
+
+        AggregationResult result = (AggregationResult) populateEmptyResult(query, partitions);
+        aggregation.read(partitions, result.getAggregator(), partitionId -> {
+            AggregationResult partial = new AggregationResult(aggregation.newAggregator(), serializationService);
+            partitionScanExecutor.execute(query.getMapName(), predicate,
+                    singletonPartitionIdSet(partitionCount, partitionId), partial);
+            return partial.getAggregator();
+        });
+
+        // see runUsingGlobalIndexSafely
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
     protected Result runUsingPartitionScanSafely(Query query, Predicate predicate,
                                                  PartitionIdSet partitions, int migrationStamp) {
 
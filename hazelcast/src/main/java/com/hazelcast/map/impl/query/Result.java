@@ -21,6 +21,7 @@ import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -51,6 +52,21 @@ public interface Result<T extends Result> extends IdentifiedDataSerializable {
      */
     void combine(T result);
 
+    /**
+     * Combines all the given results with this result modifying this result.
+     * <p>
+     * Implementations may use the results being known upfront to size their
+     * internal structures once instead of growing them per combined result.
+     *
+     * @param results the results to combine with.
+     * @see #combine(Result)
+     */
+    default void combineAll(Collection<T> results) {
+        for (T result : results) {
+            combine(result);
+        }
+    }
+
     /**
      * Invoked when the result combining phase is finished.
      * <p>
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * Flyweight {@link Record} over a slot of {@link RecordColumns}.
+ * <p>
+ * Instances are cheap views created on every access: they must only
+ * be used on the partition thread owning the record and must not be
+ * kept beyond the operation which obtained them.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class ColumnarRecord implements Record<Data> {
+
+    private final RecordColumns columns;
+    private final int slot;
+
+    public ColumnarRecord(RecordColumns columns, int slot) {
+        assert slot != RecordColumns.NO_SLOT;
+        this.columns = columns;
+        this.slot = slot;
+    }
+
+    public RecordColumns getColumns() {
+        return columns;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public Data getValue() {
+        return (Data) columns.getValue(slot);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        columns.setValue(slot, value);
+    }
+
+    @Override
+    public long getCost() {
+        Data value = getValue();
+        return RecordColumns.BYTES_PER_SLOT + (value == null ? 0 : value.getHeapCost());
+    }
+
+    @Override
+    public int getVersion() {
+        return columns.getVersion(slot);
+    }
+
+    @Override
+    public void setVersion(int version) {
+        columns.setVersion(slot, version);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return columns.getHits(slot);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        columns.setHits(slot, hits);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return columns.getCreationTime(slot);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        columns.setCreationTime(slot, creationTime);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return columns.getLastAccessTime(slot);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        columns.setLastAccessTime(slot, lastAccessTime);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return columns.getLastUpdateTime(slot);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        columns.setLastUpdateTime(slot, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return columns.getLastStoredTime(slot);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        columns.setLastStoredTime(slot, lastStoredTime);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColumnarRecord)) {
+            return false;
+        }
+        ColumnarRecord that = (ColumnarRecord) o;
+        return slot == that.slot && columns == that.columns;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(columns) + slot;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarRecord{"
+                + "slot=" + slot
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + '}';
+    }
+}
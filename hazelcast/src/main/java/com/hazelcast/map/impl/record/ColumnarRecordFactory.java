@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+import java.util.Arrays;
+
+import static com.hazelcast.map.impl.record.RecordColumns.STATE_CREATED;
+
+/**
+ * Creates {@link ColumnarRecord}s for a single partition's record store.
+ * <p>
+ * Slots are allocated before their records are put into the storage.
+ * Slots of records which never made it into the storage, e.g. because
+ * the operation creating them failed, are tracked here and released by
+ * {@link #disposePendingRecords()}.
+ */
+public class ColumnarRecordFactory implements RecordFactory<Data> {
+
+    private static final int INITIAL_PENDING_CAPACITY = 16;
+
+    private final RecordColumns columns = new RecordColumns();
+    private final SerializationService ss;
+
+    private int[] pending = new int[INITIAL_PENDING_CAPACITY];
+    private int pendingCount;
+
+    public ColumnarRecordFactory(SerializationService ss) {
+        this.ss = ss;
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        int slot = columns.allocate();
+        addPending(slot);
+
+        ColumnarRecord record = new ColumnarRecord(columns, slot);
+        record.setValue(ss.toData(value));
+        return record;
+    }
+
+    /**
+     * Creates a columnar copy of a record of another
+     * type, e.g. one received during replication.
+     */
+    public ColumnarRecord copyOf(Record record) {
+        ColumnarRecord copy = (ColumnarRecord) newRecord(null, record.getValue());
+        Records.copyMetadataFrom(record, copy);
+        return copy;
+    }
+
+    public RecordColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Releases the slots created since the last call whose
+     * records were not put into the storage.
+     */
+    public void disposePendingRecords() {
+        for (int i = 0; i < pendingCount; i++) {
+            int slot = pending[i];
+            if (columns.getState(slot) == STATE_CREATED) {
+                columns.release(slot);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    private void addPending(int slot) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length << 1);
+        }
+        pending[pendingCount++] = slot;
+    }
+}
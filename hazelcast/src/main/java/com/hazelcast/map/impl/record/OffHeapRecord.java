@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * Flyweight {@link Record} over a fixed-size block of native memory.
+ * <p>
+ * Block layout:
+ * <pre>
+ *   0: next record in the same bucket (long, owned by the storage)
+ *   8: address of the key blob (long)
+ *  16: address of the value blob (long)
+ *  24: key hash (int)
+ *  28: version (int)
+ *  32: hits (int)
+ *  36: creation time (int)
+ *  40: last access time (int)
+ *  44: last update time (int)
+ *  48: last stored time (int)
+ *  52: state (int)
+ * </pre>
+ * Keys and values are kept in separate blobs of the form
+ * {@code [int length][serialized bytes]}. Values are always returned
+ * as on-heap copies, so they stay valid after the record is removed.
+ * <p>
+ * Instances are cheap views created on every access: they must only
+ * be used on the partition thread owning the record and must not be
+ * kept beyond the operation which obtained them.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class OffHeapRecord implements Record<Data> {
+
+    /**
+     * Record block was allocated but not yet put into a storage.
+     */
+    public static final int STATE_CREATED = 0;
+    /**
+     * Record block is reachable from a storage.
+     */
+    public static final int STATE_STORED = 1;
+    /**
+     * Record block was unlinked from a storage and waits to be freed.
+     */
+    public static final int STATE_REMOVED = 2;
+
+    public static final int NEXT_OFFSET = 0;
+    public static final int KEY_OFFSET = 8;
+    public static final int VALUE_OFFSET = 16;
+    public static final int HASH_OFFSET = 24;
+    public static final int SIZE = 56;
+
+    private static final int VERSION_OFFSET = 28;
+    private static final int HITS_OFFSET = 32;
+    private static final int CREATION_TIME_OFFSET = 36;
+    private static final int LAST_ACCESS_TIME_OFFSET = 40;
+    private static final int LAST_UPDATE_TIME_OFFSET = 44;
+    private static final int LAST_STORED_TIME_OFFSET = 48;
+    private static final int STATE_OFFSET = 52;
+
+    private final MemoryManager memoryManager;
+    private final MemoryAccessor mem;
+    private final long address;
+
+    public OffHeapRecord(MemoryManager memoryManager, long address) {
+        assert address != NULL_ADDRESS;
+        this.memoryManager = memoryManager;
+        this.mem = memoryManager.getAccessor();
+        this.address = address;
+    }
+
+    /**
+     * Allocates and initializes a new record block.
+     *
+     * @return address of the new record block
+     */
+    public static long allocate(MemoryManager memoryManager) {
+        long address = memoryManager.getAllocator().allocate(SIZE);
+        MemoryAccessor mem = memoryManager.getAccessor();
+        mem.putInt(address + CREATION_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, UNSET);
+        return address;
+    }
+
+    /**
+     * Frees the record block together with its key and value blobs.
+     */
+    public static void free(MemoryManager memoryManager, long address) {
+        MemoryAccessor mem = memoryManager.getAccessor();
+        freeBlob(memoryManager, mem.getLong(address + KEY_OFFSET));
+        freeBlob(memoryManager, mem.getLong(address + VALUE_OFFSET));
+        memoryManager.getAllocator().free(address, SIZE);
+    }
+
+    /**
+     * Copies the given data into a newly allocated blob.
+     *
+     * @return address of the blob or {@link MemoryAllocator#NULL_ADDRESS}
+     * if data is {@code null}
+     */
+    public static long writeBlob(MemoryManager memoryManager, Data data) {
+        if (data == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = data.toByteArray();
+        long blob = memoryManager.getAllocator().allocate(INT_SIZE_IN_BYTES + bytes.length);
+        MemoryAccessor mem = memoryManager.getAccessor();
+        mem.putInt(blob, bytes.length);
+        mem.copyFromByteArray(bytes, 0, blob + INT_SIZE_IN_BYTES, bytes.length);
+        return blob;
+    }
+
+    /**
+     * @return on-heap copy of the blob or {@code null} for a null address
+     */
+    public static Data readBlob(MemoryAccessor mem, long blob) {
+        if (blob == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] bytes = new byte[mem.getInt(blob)];
+        mem.copyToByteArray(blob + INT_SIZE_IN_BYTES, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * @return {@code true} if the blob holds exactly the given bytes
+     */
+    public static boolean blobEquals(MemoryAccessor mem, long blob, byte[] bytes) {
+        if (mem.getInt(blob) != bytes.length) {
+            return false;
+        }
+        long base = blob + INT_SIZE_IN_BYTES;
+        for (int i = 0; i < bytes.length; i++) {
+            if (mem.getByte(base + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long blobSize(MemoryAccessor mem, long blob) {
+        return blob == NULL_ADDRESS ? 0 : INT_SIZE_IN_BYTES + mem.getInt(blob);
+    }
+
+    public static void freeBlob(MemoryManager memoryManager, long blob) {
+        if (blob != NULL_ADDRESS) {
+            memoryManager.getAllocator().free(blob, blobSize(memoryManager.getAccessor(), blob));
+        }
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    public MemoryManager getMemoryManager() {
+        return memoryManager;
+    }
+
+    public int getState() {
+        return mem.getInt(address + STATE_OFFSET);
+    }
+
+    public void setState(int state) {
+        mem.putInt(address + STATE_OFFSET, state);
+    }
+
+    /**
+     * @return on-heap copy of the key, {@code null} if the record was not stored yet
+     */
+    public Data getKey() {
+        return readBlob(mem, mem.getLong(address + KEY_OFFSET));
+    }
+
+    @Override
+    public Data getValue() {
+        return readBlob(mem, mem.getLong(address + VALUE_OFFSET));
+    }
+
+    @Override
+    public void setValue(Data value) {
+        // getValue() hands out copies only, so the old blob can go right away
+        freeBlob(memoryManager, mem.getLong(address + VALUE_OFFSET));
+        mem.putLong(address + VALUE_OFFSET, writeBlob(memoryManager, value));
+    }
+
+    @Override
+    public long getCost() {
+        return SIZE
+                + blobSize(mem, mem.getLong(address + KEY_OFFSET))
+                + blobSize(mem, mem.getLong(address + VALUE_OFFSET));
+    }
+
+    @Override
+    public int getVersion() {
+        return mem.getInt(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(int version) {
+        mem.putInt(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return mem.getInt(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        mem.putInt(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return mem.getInt(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        mem.putInt(address + CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return mem.getInt(address + LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return mem.getInt(address + LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return mem.getInt(address + LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, lastStoredTime);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OffHeapRecord)) {
+            return false;
+        }
+        return address == ((OffHeapRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(address);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapRecord{"
+                + "address=" + address
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + '}';
+    }
+}
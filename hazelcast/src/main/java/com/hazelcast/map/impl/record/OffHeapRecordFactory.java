@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.impl.UnsafeMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+import java.util.Arrays;
+
+import static com.hazelcast.map.impl.record.OffHeapRecord.STATE_CREATED;
+
+/**
+ * Creates {@link OffHeapRecord}s for a single partition's record store.
+ * <p>
+ * Records are allocated before they are put into the storage. Blocks
+ * of records which never made it into the storage, e.g. because the
+ * operation creating them failed, are tracked here and released by
+ * {@link #disposePendingRecords()}.
+ */
+public class OffHeapRecordFactory implements RecordFactory<Data> {
+
+    private static final int INITIAL_PENDING_CAPACITY = 16;
+
+    private final UnsafeMemoryManager memoryManager = new UnsafeMemoryManager();
+    private final SerializationService ss;
+
+    private long[] pending = new long[INITIAL_PENDING_CAPACITY];
+    private int pendingCount;
+
+    public OffHeapRecordFactory(SerializationService ss) {
+        this.ss = ss;
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        long address = OffHeapRecord.allocate(memoryManager);
+        addPending(address);
+
+        OffHeapRecord record = new OffHeapRecord(memoryManager, address);
+        record.setValue(ss.toData(value));
+        return record;
+    }
+
+    /**
+     * Creates an off-heap copy of an on-heap record, e.g. one received
+     * during replication.
+     */
+    public OffHeapRecord copyOf(Record record) {
+        OffHeapRecord copy = (OffHeapRecord) newRecord(null, record.getValue());
+        Records.copyMetadataFrom(record, copy);
+        return copy;
+    }
+
+    public UnsafeMemoryManager getMemoryManager() {
+        return memoryManager;
+    }
+
+    /**
+     * Frees the records created since the last call which were not put
+     * into the storage.
+     */
+    public void disposePendingRecords() {
+        for (int i = 0; i < pendingCount; i++) {
+            long address = pending[i];
+            if (new OffHeapRecord(memoryManager, address).getState() == STATE_CREATED) {
+                OffHeapRecord.free(memoryManager, address);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    private void addPending(long address) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length << 1);
+        }
+        pending[pendingCount++] = address;
+    }
+}
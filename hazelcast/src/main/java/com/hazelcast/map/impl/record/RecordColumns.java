@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Column-oriented holder of the records of a single partition's record
+ * store. Every record occupies one slot, and each record field lives in
+ * its own primitive array indexed by that slot, so a record costs no
+ * object header and no references apart from its key and value.
+ * <p>
+ * Besides the record fields, a slot keeps the expiry metadata of its key
+ * and the link used by the storage to chain records of a hash bucket.
+ * Released slots are chained through the same link column and reused by
+ * later allocations.
+ * <p>
+ * Not thread-safe, must only be accessed by the partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class RecordColumns {
+
+    /**
+     * Denotes the absence of a slot.
+     */
+    public static final int NO_SLOT = -1;
+
+    /**
+     * Slot is unused.
+     */
+    public static final byte STATE_FREE = 0;
+    /**
+     * Slot was allocated but its record not yet put into a storage.
+     */
+    public static final byte STATE_CREATED = 1;
+    /**
+     * Slot holds a record reachable from a storage.
+     */
+    public static final byte STATE_STORED = 2;
+    /**
+     * Slot holds a record unlinked from a storage and waits to be released.
+     */
+    public static final byte STATE_REMOVED = 3;
+
+    /**
+     * Heap cost of a single slot: key and value references, twelve int
+     * columns and the state byte.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    public static final int BYTES_PER_SLOT = 2 * REFERENCE_COST_IN_BYTES + 12 * INT_SIZE_IN_BYTES + 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte STATE_MASK = 0x0F;
+    private static final byte EXPIRABLE_FLAG = 0x10;
+
+    private Data[] keys = new Data[0];
+    private Object[] values = new Object[0];
+    private int[] hashes = new int[0];
+    private int[] links = new int[0];
+    private int[] versions = new int[0];
+    private int[] hits = new int[0];
+    private int[] creationTimes = new int[0];
+    private int[] lastAccessTimes = new int[0];
+    private int[] lastUpdateTimes = new int[0];
+    private int[] lastStoredTimes = new int[0];
+    private int[] ttls = new int[0];
+    private int[] maxIdles = new int[0];
+    private int[] expirationTimes = new int[0];
+    private int[] expiryLastUpdateTimes = new int[0];
+    private byte[] states = new byte[0];
+
+    private volatile int capacity;
+    private int highWaterMark;
+    private int freeHead = NO_SLOT;
+
+    /**
+     * Allocates a slot for a new record. Timestamps of
+     * the slot are set to {@link Record#UNSET}.
+     *
+     * @return the allocated slot
+     */
+    public int allocate() {
+        int slot;
+        if (freeHead != NO_SLOT) {
+            slot = freeHead;
+            freeHead = links[slot];
+        } else {
+            if (highWaterMark == capacity) {
+                grow();
+            }
+            slot = highWaterMark++;
+        }
+
+        links[slot] = NO_SLOT;
+        versions[slot] = 0;
+        hits[slot] = 0;
+        creationTimes[slot] = UNSET;
+        lastAccessTimes[slot] = UNSET;
+        lastUpdateTimes[slot] = UNSET;
+        lastStoredTimes[slot] = UNSET;
+        states[slot] = STATE_CREATED;
+        return slot;
+    }
+
+    /**
+     * Releases the slot for reuse and drops its key and value references.
+     */
+    public void release(int slot) {
+        keys[slot] = null;
+        values[slot] = null;
+        states[slot] = STATE_FREE;
+        links[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Drops all slots and the arrays holding them.
+     */
+    public void reset() {
+        keys = new Data[0];
+        values = new Object[0];
+        hashes = new int[0];
+        links = new int[0];
+        versions = new int[0];
+        hits = new int[0];
+        creationTimes = new int[0];
+        lastAccessTimes = new int[0];
+        lastUpdateTimes = new int[0];
+        lastStoredTimes = new int[0];
+        ttls = new int[0];
+        maxIdles = new int[0];
+        expirationTimes = new int[0];
+        expiryLastUpdateTimes = new int[0];
+        states = new byte[0];
+        capacity = 0;
+        highWaterMark = 0;
+        freeHead = NO_SLOT;
+    }
+
+    /**
+     * @return heap cost of all allocated slots, used or not
+     */
+    public long getFootprint() {
+        return (long) capacity * BYTES_PER_SLOT;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getState(int slot) {
+        return states[slot] & STATE_MASK;
+    }
+
+    public void setState(int slot, byte state) {
+        states[slot] = (byte) ((states[slot] & ~STATE_MASK) | state);
+    }
+
+    public boolean isExpirable(int slot) {
+        return (states[slot] & EXPIRABLE_FLAG) != 0;
+    }
+
+    public void setExpirable(int slot, boolean expirable) {
+        states[slot] = (byte) (expirable ? states[slot] | EXPIRABLE_FLAG : states[slot] & ~EXPIRABLE_FLAG);
+    }
+
+    public Data getKey(int slot) {
+        return keys[slot];
+    }
+
+    public void setKey(int slot, Data key) {
+        keys[slot] = key;
+    }
+
+    public Object getValue(int slot) {
+        return values[slot];
+    }
+
+    public void setValue(int slot, Object value) {
+        values[slot] = value;
+    }
+
+    public int getHash(int slot) {
+        return hashes[slot];
+    }
+
+    public void setHash(int slot, int hash) {
+        hashes[slot] = hash;
+    }
+
+    public int getLink(int slot) {
+        return links[slot];
+    }
+
+    public void setLink(int slot, int link) {
+        links[slot] = link;
+    }
+
+    public int getVersion(int slot) {
+        return versions[slot];
+    }
+
+    public void setVersion(int slot, int version) {
+        versions[slot] = version;
+    }
+
+    public int getHits(int slot) {
+        return hits[slot];
+    }
+
+    public void setHits(int slot, int hitCount) {
+        hits[slot] = hitCount;
+    }
+
+    public int getCreationTime(int slot) {
+        return creationTimes[slot];
+    }
+
+    public void setCreationTime(int slot, int creationTime) {
+        creationTimes[slot] = creationTime;
+    }
+
+    public int getLastAccessTime(int slot) {
+        return lastAccessTimes[slot];
+    }
+
+    public void setLastAccessTime(int slot, int lastAccessTime) {
+        lastAccessTimes[slot] = lastAccessTime;
+    }
+
+    public int getLastUpdateTime(int slot) {
+        return lastUpdateTimes[slot];
+    }
+
+    public void setLastUpdateTime(int slot, int lastUpdateTime) {
+        lastUpdateTimes[slot] = lastUpdateTime;
+    }
+
+    public int getLastStoredTime(int slot) {
+        return lastStoredTimes[slot];
+    }
+
+    public void setLastStoredTime(int slot, int lastStoredTime) {
+        lastStoredTimes[slot] = lastStoredTime;
+    }
+
+    public int getTtl(int slot) {
+        return ttls[slot];
+    }
+
+    public void setTtl(int slot, int ttl) {
+        ttls[slot] = ttl;
+    }
+
+    public int getMaxIdle(int slot) {
+        return maxIdles[slot];
+    }
+
+    public void setMaxIdle(int slot, int maxIdle) {
+        maxIdles[slot] = maxIdle;
+    }
+
+    public int getExpirationTime(int slot) {
+        return expirationTimes[slot];
+    }
+
+    public void setExpirationTime(int slot, int expirationTime) {
+        expirationTimes[slot] = expirationTime;
+    }
+
+    public int getExpiryLastUpdateTime(int slot) {
+        return expiryLastUpdateTimes[slot];
+    }
+
+    public void setExpiryLastUpdateTime(int slot, int lastUpdateTime) {
+        expiryLastUpdateTimes[slot] = lastUpdateTime;
+    }
+
+    /**
+     * Copies the expiry metadata of slot {@code from} into slot {@code to}.
+     */
+    public void copyExpiry(int from, int to) {
+        ttls[to] = ttls[from];
+        maxIdles[to] = maxIdles[from];
+        expirationTimes[to] = expirationTimes[from];
+        expiryLastUpdateTimes[to] = expiryLastUpdateTimes[from];
+        setExpirable(to, isExpirable(from));
+    }
+
+    private void grow() {
+        int newCapacity = capacity == 0 ? INITIAL_CAPACITY : capacity << 1;
+        keys = Arrays.copyOf(keys, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        links = Arrays.copyOf(links, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+        hits = Arrays.copyOf(hits, newCapacity);
+        creationTimes = Arrays.copyOf(creationTimes, newCapacity);
+        lastAccessTimes = Arrays.copyOf(lastAccessTimes, newCapacity);
+        lastUpdateTimes = Arrays.copyOf(lastUpdateTimes, newCapacity);
+        lastStoredTimes = Arrays.copyOf(lastStoredTimes, newCapacity);
+        ttls = Arrays.copyOf(ttls, newCapacity);
+        maxIdles = Arrays.copyOf(maxIdles, newCapacity);
+        expirationTimes = Arrays.copyOf(expirationTimes, newCapacity);
+        expiryLastUpdateTimes = Arrays.copyOf(expiryLastUpdateTimes, newCapacity);
+        states = Arrays.copyOf(states, newCapacity);
+        capacity = newCapacity;
+    }
+}
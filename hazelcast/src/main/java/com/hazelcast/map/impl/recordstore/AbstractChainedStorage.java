@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * Base of the {@link Storage} implementations which keep their own hash
+ * table of records instead of a {@link StorageSCHM}. Records are chained
+ * into a power-of-two bucket array and are referred to by a {@code long}
+ * handle, e.g. a native address or a slot number. Subclasses own the
+ * bucket array and the record layout and expose them through the
+ * abstract accessors; lookup, linking, resizing and iteration live here.
+ * <p>
+ * A record never moves between buckets except on resize, where a record
+ * in bucket {@code i} ends up in {@code i} or {@code i + oldCapacity}.
+ * This keeps the {@link IterationPointer} contract of {@link StorageSCHM}:
+ * iteration walks the buckets from the last one to the first and can be
+ * resumed across resizes.
+ * <p>
+ * Removed records are unlinked immediately but released only in {@link
+ * #disposeDeferredBlocks()}, which map operations call when they are
+ * done, so records and entry views obtained during an operation stay
+ * readable until its end.
+ * <p>
+ * Not thread-safe, must only be accessed by the partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public abstract class AbstractChainedStorage implements Storage<Data, Record> {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_REMOVED_CAPACITY = 16;
+
+    protected final ExpirySystem expirySystem;
+    protected final SerializationService serializationService;
+
+    private final long nil;
+    private final int initialCapacity;
+
+    private int size;
+    private int threshold;
+    private long[] removed = new long[INITIAL_REMOVED_CAPACITY];
+    private int removedCount;
+
+    /**
+     * @param nil             the handle which refers to no record
+     * @param initialCapacity the number of buckets allocated on first put
+     */
+    protected AbstractChainedStorage(long nil, int initialCapacity, ExpirySystem expirySystem,
+                                     SerializationService serializationService) {
+        this.nil = nil;
+        this.initialCapacity = initialCapacity;
+        this.expirySystem = expirySystem;
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Returns the number of buckets, {@code 0} if there is no bucket array.
+     */
+    protected abstract int capacity();
+
+    /**
+     * Replaces the bucket array with an empty one of the given capacity,
+     * releasing the current one. A capacity of {@code 0} only releases it.
+     */
+    protected abstract void replaceTable(int capacity);
+
+    protected abstract long getHead(int bucket);
+
+    protected abstract void setHead(int bucket, long record);
+
+    protected abstract long getNext(long record);
+
+    protected abstract void setNext(long record, long next);
+
+    protected abstract int getHash(long record);
+
+    protected abstract Data getKey(long record);
+
+    protected abstract Data getValue(long record);
+
+    protected abstract boolean keyEquals(long record, Data key);
+
+    protected abstract boolean isStored(long record);
+
+    /**
+     * Returns a {@link Record} view of the given record.
+     */
+    protected abstract Record toRecord(long record);
+
+    /**
+     * Called when the record is unlinked, before it is queued for release.
+     * Its next pointer must be kept intact so that cursors standing on the
+     * record can still move forward.
+     */
+    protected abstract void onRemoved(long record);
+
+    protected abstract void release(long record);
+
+    @Override
+    public Record get(Data key) {
+        long record = find(key);
+        return record == nil ? null : toRecord(record);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return find(key) != nil;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        int capacity = capacity();
+        for (int i = 0; i < capacity; i++) {
+            long record = getHead(i);
+            while (record != nil) {
+                long next = getNext(record);
+                markRemoved(record);
+                record = next;
+            }
+            setHead(i, nil);
+        }
+        size = 0;
+
+        if (isDuringShutdown) {
+            disposeDeferredBlocks();
+        }
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        disposeDeferredBlocks();
+        replaceTable(0);
+        threshold = 0;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < removedCount; i++) {
+            release(removed[i]);
+        }
+        removedCount = 0;
+        if (removed.length > INITIAL_REMOVED_CAPACITY) {
+            removed = new long[INITIAL_REMOVED_CAPACITY];
+        }
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        return new LazySamplingIterable(sampleCount);
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, record -> keys.add(getKey(record)));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                record -> entries.add(new AbstractMap.SimpleEntry<>(getKey(record), getValue(record))));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    /**
+     * Returns the stored record of the given key, {@code nil} if there is none.
+     */
+    protected final long find(Data key) {
+        if (size == 0) {
+            return nil;
+        }
+        int hash = key.hashCode();
+        long record = getHead(hash & (capacity() - 1));
+        while (record != nil) {
+            if (getHash(record) == hash && keyEquals(record, key)) {
+                return record;
+            }
+            record = getNext(record);
+        }
+        return nil;
+    }
+
+    /**
+     * Links a record whose key and hash are already set into its bucket.
+     */
+    protected final void insert(long record, int hash) {
+        if (capacity() == 0) {
+            replaceTable(initialCapacity);
+            threshold = (int) (initialCapacity * LOAD_FACTOR);
+        }
+        link(record, hash);
+
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Unlinks the stored record of the given key and queues it for release.
+     *
+     * @return {@code true} if there was a stored record for the key
+     */
+    protected final boolean unlink(Data key) {
+        if (size == 0) {
+            return false;
+        }
+        int hash = key.hashCode();
+        int bucket = hash & (capacity() - 1);
+        long prev = nil;
+        long record = getHead(bucket);
+        while (record != nil) {
+            if (getHash(record) == hash && keyEquals(record, key)) {
+                long next = getNext(record);
+                if (prev == nil) {
+                    setHead(bucket, next);
+                } else {
+                    setNext(prev, next);
+                }
+                markRemoved(record);
+                size--;
+                return true;
+            }
+            prev = record;
+            record = getNext(record);
+        }
+        return false;
+    }
+
+    private void markRemoved(long record) {
+        onRemoved(record);
+        if (removedCount == removed.length) {
+            removed = Arrays.copyOf(removed, removed.length << 1);
+        }
+        removed[removedCount++] = record;
+    }
+
+    private void link(long record, int hash) {
+        int bucket = hash & (capacity() - 1);
+        setNext(record, getHead(bucket));
+        setHead(bucket, record);
+    }
+
+    private void resize() {
+        int oldCapacity = capacity();
+        if (oldCapacity == MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        // chain all records together, so the old table can be released first
+        long records = nil;
+        for (int i = 0; i < oldCapacity; i++) {
+            long record = getHead(i);
+            while (record != nil) {
+                long next = getNext(record);
+                setNext(record, records);
+                records = record;
+                record = next;
+            }
+        }
+        int newCapacity = oldCapacity << 1;
+        replaceTable(newCapacity);
+        while (records != nil) {
+            long next = getNext(records);
+            link(records, getHash(records));
+            records = next;
+        }
+        threshold = (int) (newCapacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Walks the buckets downwards starting from the last pointer, in the
+     * same way as {@link com.hazelcast.internal.util.SampleableConcurrentHashMap}.
+     * Buckets are always consumed whole, so a batch can be larger than
+     * {@code size}.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size, LongConsumer recordConsumer) {
+        int capacity = capacity();
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextBucket = lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity
+                ? lastPointer.getIndex() : capacity - 1;
+        int counter = 0;
+        while (nextBucket >= 0 && counter < size) {
+            long record = getHead(nextBucket--);
+            while (record != nil) {
+                if (hasNotBeenObserved(getHash(record), pointers)) {
+                    recordConsumer.accept(record);
+                    counter++;
+                }
+                record = getNext(record);
+            }
+        }
+        lastPointer.setIndex(nextBucket);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentTableSize) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean tableResized = lastPointer.getSize() != currentTableSize;
+        // clone pointers to avoid mutating given reference
+        // add new pointer if resize happened during iteration
+        int newLength = !iterationStarted && tableResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        // reset last pointer if we haven't started iteration or there was a resize
+        if (iterationStarted || tableResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentTableSize);
+        }
+        return updatedPointers;
+    }
+
+    private static boolean hasNotBeenObserved(int hash, IterationPointer[] pointers) {
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer iterationPointer = pointers[i];
+            if ((hash & (iterationPointer.getSize() - 1)) > iterationPointer.getIndex()) {
+                // entry would have been located after in the table on the given size
+                // so we have observed it
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Weakly consistent iterator. It copies the keys of one bucket at a
+     * time and looks each key up again before returning it, so it never
+     * returns a record which has been removed in the meantime and can be
+     * kept across operations. Buckets are walked with the same iteration
+     * pointers as {@link #fetchKeys}, so a resize between two buckets
+     * neither skips nor repeats a key which is present all along.
+     */
+    private final class MutationTolerantIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private final List<Data> bucketKeys = new ArrayList<>();
+        private IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        private int cursor;
+        private Map.Entry<Data, Record> next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (cursor < bucketKeys.size()) {
+                    Data key = bucketKeys.get(cursor++);
+                    long record = find(key);
+                    if (record != nil) {
+                        next = new AbstractMap.SimpleEntry<>(key, toRecord(record));
+                    }
+                } else if (!loadNextBucket()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Data, Record> entry = next;
+            next = null;
+            return entry;
+        }
+
+        private boolean loadNextBucket() {
+            bucketKeys.clear();
+            cursor = 0;
+            if (pointers[pointers.length - 1].getIndex() < 0 || capacity() == 0) {
+                return false;
+            }
+            pointers = fetchNext(pointers, 1, record -> bucketKeys.add(getKey(record)));
+            return true;
+        }
+    }
+
+    /**
+     * Samples entries starting from a random bucket, see
+     * {@link com.hazelcast.internal.util.SampleableConcurrentHashMap#getRandomSamples(int)}.
+     */
+    private final class LazySamplingIterable implements Iterable<EntryView>, Iterator<EntryView> {
+
+        private final int maxEntryCount;
+        private final int firstBucket;
+        private int currentBucket;
+        private long currentRecord = nil;
+        private int returnedEntryCount;
+        private boolean reachedToEnd;
+        private EntryView currentSample;
+
+        private LazySamplingIterable(int maxEntryCount) {
+            this.maxEntryCount = maxEntryCount;
+            this.firstBucket = ThreadLocalRandomProvider.get().nextInt(Integer.MAX_VALUE) & (capacity() - 1);
+            this.currentBucket = firstBucket;
+        }
+
+        @Override
+        public Iterator<EntryView> iterator() {
+            return this;
+        }
+
+        private void iterate() {
+            if (returnedEntryCount >= maxEntryCount || reachedToEnd || capacity() == 0) {
+                currentSample = null;
+                return;
+            }
+            do {
+                currentRecord = currentRecord == nil ? getHead(currentBucket) : getNext(currentRecord);
+
+                while (currentRecord != nil) {
+                    if (isStored(currentRecord)) {
+                        Data key = getKey(currentRecord);
+                        currentSample = new LazyEvictableEntryView<>(key, toRecord(currentRecord),
+                                expirySystem.getExpiryMetadata(key), serializationService);
+                        returnedEntryCount++;
+                        return;
+                    }
+                    currentRecord = getNext(currentRecord);
+                }
+                currentBucket = (currentBucket + 1) & (capacity() - 1);
+            } while (currentBucket != firstBucket);
+
+            reachedToEnd = true;
+            currentSample = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (currentSample == null) {
+                iterate();
+            }
+            return currentSample != null;
+        }
+
+        @Override
+        public EntryView next() {
+            if (hasNext()) {
+                EntryView sample = currentSample;
+                currentSample = null;
+                return sample;
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing is not supported");
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.hazelcast.map.impl.eviction.Evictor;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryReason;
+import com.hazelcast.map.impl.recordstore.expiry.ColumnarExpirySystem;
 import com.hazelcast.map.impl.recordstore.expiry.ExpirySystemImpl;
 import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
 import com.hazelcast.spi.impl.NodeEngine;
@@ -71,6 +72,9 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     @Nonnull
     protected ExpirySystem createExpirySystem(MapContainer mapContainer) {
+        if (mapContainer.isColumnarRecordStore()) {
+            return new ColumnarExpirySystem(this, mapContainer, mapServiceContext);
+        }
         return new ExpirySystemImpl(this, mapContainer, mapServiceContext);
     }
 
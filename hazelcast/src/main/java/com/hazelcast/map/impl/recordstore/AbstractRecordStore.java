@@ -37,8 +37,10 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.record.ColumnarRecordFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
+import com.hazelcast.map.impl.record.OffHeapRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.RecordReaderWriter;
@@ -47,6 +49,10 @@ import com.hazelcast.wan.impl.CallerProvenance;
 
 import javax.annotation.Nonnull;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_LIVE_MIGRATION_ENABLED;
+
 /**
  * Contains record store common parts.
  */
@@ -89,9 +95,17 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         MapConfig mapConfig = mapContainer.getMapConfig();
         switch (mapConfig.getInMemoryFormat()) {
             case BINARY:
+                if (mapContainer.isColumnarRecordStore()) {
+                    return new ColumnarRecordFactory(serializationService);
+                }
                 return new DataRecordFactory(mapContainer, serializationService);
             case OBJECT:
                 return new ObjectRecordFactory(mapContainer, serializationService);
+            case NATIVE:
+                if (mapServiceContext.getNodeEngine().getProperties().getBoolean(MAP_OFF_HEAP_STORAGE_ENABLED)) {
+                    return new OffHeapRecordFactory(serializationService);
+                }
+                throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
             default:
                 throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
         }
@@ -130,6 +144,18 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for materialized aggregations
+        if (mapContainer.getMaterializedAggregations().isEnabled()) {
+            mutationObserver.add(new MaterializedAggregationMutationObserver(
+                    mapContainer.getMaterializedAggregations(), partitionId));
+        }
+
+        // Add observer for live partition migration
+        if (mapServiceContext.getNodeEngine().getProperties().getBoolean(PARTITION_LIVE_MIGRATION_ENABLED)) {
+            mutationObserver.add(new MigrationDeltaMutationObserver(name,
+                    mapServiceContext.getPartitionContainer(partitionId)));
+        }
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
@@ -175,6 +201,12 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == NATIVE) {
+            return new OffHeapStorage((OffHeapRecordFactory) recordFactory, getExpirySystem(), serializationService);
+        }
+        if (recordFactory instanceof ColumnarRecordFactory) {
+            return new ColumnarStorage((ColumnarRecordFactory) recordFactory, getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.record.ColumnarRecord;
+import com.hazelcast.map.impl.record.ColumnarRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordColumns;
+import com.hazelcast.map.impl.recordstore.expiry.ColumnarExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.map.impl.record.RecordColumns.NO_SLOT;
+import static com.hazelcast.map.impl.record.RecordColumns.STATE_REMOVED;
+import static com.hazelcast.map.impl.record.RecordColumns.STATE_STORED;
+
+/**
+ * {@link Storage} which keeps the records of a partition in the primitive
+ * columns of a {@link RecordColumns}, used for {@link
+ * com.hazelcast.config.InMemoryFormat#BINARY BINARY} maps when
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_COLUMNAR_RECORD_STORE_ENABLED}
+ * is set.
+ * <p>
+ * Records are referred to by their slot. The bucket array holds slot
+ * numbers and records of a bucket are chained through the link column,
+ * see {@link AbstractChainedStorage} for the hash table and its
+ * iteration. A record keeps its slot until it is released, a resize only
+ * relinks slots.
+ * <p>
+ * Expiry metadata of a key lives in the slot of its record and is exposed
+ * to the {@link com.hazelcast.map.impl.recordstore.expiry.ColumnarExpirySystem}
+ * through {@link #getExpiryMetadataView()}.
+ * <p>
+ * Not thread-safe, must only be accessed by the partition thread.
+ */
+public class ColumnarStorage extends AbstractChainedStorage {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ColumnarRecordFactory recordFactory;
+    private final RecordColumns columns;
+    private final ExpiryMetadataView expiryMetadataView = new ExpiryMetadataView();
+
+    private int[] buckets = new int[0];
+    private int expirableCount;
+
+    // not final for testing purposes.
+    private EntryCostEstimator entryCostEstimator = new ColumnarEntryCostEstimator();
+
+    public ColumnarStorage(ColumnarRecordFactory recordFactory, ExpirySystem expirySystem,
+                           SerializationService serializationService) {
+        super(NO_SLOT, INITIAL_CAPACITY, expirySystem, serializationService);
+        this.recordFactory = recordFactory;
+        this.columns = recordFactory.getColumns();
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        int slot = toStorableRecord(record).getSlot();
+        int existing = findSlot(key);
+        if (existing == slot) {
+            return;
+        }
+
+        if (existing == NO_SLOT) {
+            updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+        } else {
+            updateCostEstimate(-entryCostEstimator.calculateValueCost(new ColumnarRecord(columns, existing)));
+            updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+            // expiry metadata belongs to the key, not to the record
+            if (columns.isExpirable(existing)) {
+                columns.copyExpiry(existing, slot);
+                expirableCount++;
+            }
+            unlink(key);
+        }
+
+        int hash = key.hashCode();
+        columns.setKey(slot, key);
+        columns.setHash(slot, hash);
+        columns.setState(slot, STATE_STORED);
+        insert(slot, hash);
+    }
+
+    @Override
+    public Record updateRecordValue(Data key, Record record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+        record.setValue(serializationService.toData(value));
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        return record;
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        int slot = findSlot(key);
+        return slot == NO_SLOT || columns.getKey(slot) != key ? null : new ColumnarRecord(columns, slot);
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull Record record) {
+        if (unlink(dataKey)) {
+            updateCostEstimate(-entryCostEstimator.calculateEntryCost(dataKey, record));
+        }
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        entryCostEstimator.reset();
+        super.clear(isDuringShutdown);
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        super.destroy(isDuringShutdown);
+        columns.reset();
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        recordFactory.disposePendingRecords();
+        super.disposeDeferredBlocks();
+    }
+
+    /**
+     * Returns a map view of the expiry metadata of the expirable keys
+     * of this storage, backing the map of {@link ExpirySystem}.
+     * <p>
+     * The view is not a general purpose map: a mapping can only be
+     * added for a key which has a record in this storage, and values
+     * are flyweights over the record's slot. Its iterator is weakly
+     * consistent and can be kept across operations.
+     */
+    public Map<Data, ExpiryMetadata> getExpiryMetadataView() {
+        return expiryMetadataView;
+    }
+
+    @Override
+    protected int capacity() {
+        return buckets.length;
+    }
+
+    @Override
+    protected void replaceTable(int capacity) {
+        buckets = new int[capacity];
+        Arrays.fill(buckets, NO_SLOT);
+    }
+
+    @Override
+    protected long getHead(int bucket) {
+        return buckets[bucket];
+    }
+
+    @Override
+    protected void setHead(int bucket, long record) {
+        buckets[bucket] = (int) record;
+    }
+
+    @Override
+    protected long getNext(long record) {
+        return columns.getLink((int) record);
+    }
+
+    @Override
+    protected void setNext(long record, long next) {
+        columns.setLink((int) record, (int) next);
+    }
+
+    @Override
+    protected int getHash(long record) {
+        return columns.getHash((int) record);
+    }
+
+    @Override
+    protected Data getKey(long record) {
+        return columns.getKey((int) record);
+    }
+
+    @Override
+    protected Data getValue(long record) {
+        return (Data) columns.getValue((int) record);
+    }
+
+    @Override
+    protected boolean keyEquals(long record, Data key) {
+        return key.equals(columns.getKey((int) record));
+    }
+
+    @Override
+    protected boolean isStored(long record) {
+        return columns.getState((int) record) == STATE_STORED;
+    }
+
+    @Override
+    protected Record toRecord(long record) {
+        return new ColumnarRecord(columns, (int) record);
+    }
+
+    @Override
+    protected void onRemoved(long record) {
+        int slot = (int) record;
+        columns.setState(slot, STATE_REMOVED);
+        if (columns.isExpirable(slot)) {
+            columns.setExpirable(slot, false);
+            expirableCount--;
+        }
+    }
+
+    @Override
+    protected void release(long record) {
+        columns.release((int) record);
+    }
+
+    private int findSlot(Data key) {
+        return (int) find(key);
+    }
+
+    private ColumnarRecord toStorableRecord(Record record) {
+        if (record instanceof ColumnarRecord) {
+            ColumnarRecord columnarRecord = (ColumnarRecord) record;
+            if (columnarRecord.getColumns() == columns
+                    && columns.getState(columnarRecord.getSlot()) != STATE_REMOVED) {
+                return columnarRecord;
+            }
+        }
+        return recordFactory.copyOf(record);
+    }
+
+    private void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * Estimates the heap cost of this storage as the footprint of its
+     * columns and bucket array plus the heap cost of keys and values.
+     * Compared to {@link StorageImpl}, there is no per-entry cost for the
+     * hash entry, the record object and the expiry metadata object.
+     */
+    private final class ColumnarEntryCostEstimator implements EntryCostEstimator<Data, Record> {
+
+        private volatile long keyValueCost;
+
+        @Override
+        public long getEstimate() {
+            return columns.getFootprint() + (long) buckets.length * INT_SIZE_IN_BYTES + keyValueCost;
+        }
+
+        @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+                justification = "Only the partition thread changes the volatile field, other threads only read it.")
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+            keyValueCost += adjustment;
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            Data value = (Data) record.getValue();
+            return value == null ? 0 : value.getHeapCost();
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return key.getHeapCost() + calculateValueCost(record);
+        }
+
+        @Override
+        public void reset() {
+            keyValueCost = 0L;
+        }
+    }
+
+    /**
+     * Map view over the expiry columns of the stored records.
+     */
+    private final class ExpiryMetadataView extends AbstractMap<Data, ExpiryMetadata> {
+
+        private final Set<Map.Entry<Data, ExpiryMetadata>> entrySet = new AbstractSet<Map.Entry<Data, ExpiryMetadata>>() {
+            @Override
+            public Iterator<Map.Entry<Data, ExpiryMetadata>> iterator() {
+                return new ExpirableSlotIterator();
+            }
+
+            @Override
+            public int size() {
+                return expirableCount;
+            }
+        };
+
+        @Override
+        public ExpiryMetadata get(Object key) {
+            int slot = findSlot((Data) key);
+            return slot == NO_SLOT || !columns.isExpirable(slot) ? null : new ColumnarExpiryMetadata(columns, slot);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public ExpiryMetadata put(Data key, ExpiryMetadata expiryMetadata) {
+            int slot = findSlot(key);
+            if (slot == NO_SLOT) {
+                // no record, no expiry
+                return null;
+            }
+            ExpiryMetadata previous = null;
+            if (columns.isExpirable(slot)) {
+                previous = new ColumnarExpiryMetadata(columns, slot);
+            } else {
+                columns.setExpirable(slot, true);
+                expirableCount++;
+            }
+            columns.setTtl(slot, expiryMetadata.getRawTtl());
+            columns.setMaxIdle(slot, expiryMetadata.getRawMaxIdle());
+            columns.setExpirationTime(slot, expiryMetadata.getRawExpirationTime());
+            columns.setExpiryLastUpdateTime(slot, expiryMetadata.getRawLastUpdateTime());
+            return previous;
+        }
+
+        @Override
+        public ExpiryMetadata remove(Object key) {
+            int slot = findSlot((Data) key);
+            if (slot == NO_SLOT || !columns.isExpirable(slot)) {
+                return null;
+            }
+            columns.setExpirable(slot, false);
+            expirableCount--;
+            return new ColumnarExpiryMetadata(columns, slot);
+        }
+
+        @Override
+        public void clear() {
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                for (int slot = buckets[bucket]; slot != NO_SLOT; slot = columns.getLink(slot)) {
+                    columns.setExpirable(slot, false);
+                }
+            }
+            expirableCount = 0;
+        }
+
+        @Override
+        public int size() {
+            return expirableCount;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return expirableCount == 0;
+        }
+
+        @Override
+        public Set<Map.Entry<Data, ExpiryMetadata>> entrySet() {
+            return entrySet;
+        }
+    }
+
+    /**
+     * Scans the slots in ascending order. Slots are only re-checked on
+     * each step, so the iterator tolerates any mutation of the storage.
+     */
+    private final class ExpirableSlotIterator implements Iterator<Map.Entry<Data, ExpiryMetadata>> {
+
+        private int nextSlot;
+        private Map.Entry<Data, ExpiryMetadata> next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && nextSlot < columns.getCapacity()) {
+                int slot = nextSlot++;
+                if (columns.getState(slot) == STATE_STORED && columns.isExpirable(slot)) {
+                    next = new AbstractMap.SimpleEntry<>(columns.getKey(slot), new ColumnarExpiryMetadata(columns, slot));
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Data, ExpiryMetadata> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Data, ExpiryMetadata> entry = next;
+            next = null;
+            return entry;
+        }
+    }
+}
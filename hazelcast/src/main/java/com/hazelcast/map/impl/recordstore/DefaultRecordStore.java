@@ -1405,6 +1405,11 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         return keyLoader.isKeyLoadFinished();
     }
 
+    @Override
+    public MapKeyLoader getKeyLoader() {
+        return keyLoader;
+    }
+
     @Override
     public void checkIfLoaded() {
         if (mapDataStore == EMPTY_MAP_DATA_STORE
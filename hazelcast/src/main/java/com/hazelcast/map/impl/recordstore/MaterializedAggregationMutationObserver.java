@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.query.MaterializedAggregation;
+import com.hazelcast.map.impl.query.MaterializedAggregations;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reports the mutations of a partition to the materialized aggregations of
+ * the map. Only the mutations of the primary replica are accumulated, the
+ * mutations of a backup replica and the replication of the partition
+ * invalidate the partial aggregators, so they are rebuilt once the replica
+ * is promoted.
+ */
+public class MaterializedAggregationMutationObserver implements MutationObserver<Record> {
+
+    private final MaterializedAggregations aggregations;
+    private final int partitionId;
+
+    public MaterializedAggregationMutationObserver(MaterializedAggregations aggregations, int partitionId) {
+        this.aggregations = aggregations;
+        this.partitionId = partitionId;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        if (backup) {
+            invalidate();
+        } else if (oldValue == null) {
+            Object value = record.getValue();
+            aggregations.forEach(aggregation -> aggregation.onAdded(partitionId, key, value));
+        } else {
+            Object value = record.getValue();
+            aggregations.forEach(aggregation -> aggregation.onUpdated(partitionId, key, oldValue, value));
+        }
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        invalidate();
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        if (backup) {
+            invalidate();
+        } else {
+            aggregations.forEach(aggregation -> aggregation.onUpdated(partitionId, key, oldValue, newValue));
+        }
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        onRemoved(key, record, backup);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        onRemoved(key, record, backup);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        if (backup) {
+            invalidate();
+        } else {
+            Object value = record.getValue();
+            aggregations.forEach(aggregation -> aggregation.onAdded(partitionId, key, value));
+        }
+    }
+
+    @Override
+    public void onReset() {
+        invalidate();
+    }
+
+    @Override
+    public void onClear() {
+        invalidate();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        invalidate();
+    }
+
+    private void onRemoved(Data key, Record record, boolean backup) {
+        if (backup || record == null) {
+            invalidate();
+        } else {
+            Object value = record.getValue();
+            aggregations.forEach(aggregation -> aggregation.onRemoved(partitionId, key, value));
+        }
+    }
+
+    private void invalidate() {
+        aggregations.forEach(this::invalidate);
+    }
+
+    private void invalidate(MaterializedAggregation aggregation) {
+        aggregation.invalidate(partitionId);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapMigrationDeltaLog;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Tracks the mutated keys of a map partition in the {@link
+ * MapMigrationDeltaLog} of the partition while it is migrated in live mode.
+ */
+class MigrationDeltaMutationObserver implements MutationObserver<Record> {
+
+    private final String mapName;
+    private final PartitionContainer partitionContainer;
+
+    MigrationDeltaMutationObserver(String mapName, PartitionContainer partitionContainer) {
+        this.mapName = mapName;
+        this.partitionContainer = partitionContainer;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        onMutation(key, backup);
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        onMutation(key, false);
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        onMutation(key, backup);
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        onMutation(key, backup);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        onMutation(key, backup);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        onMutation(key, backup);
+    }
+
+    @Override
+    public void onReset() {
+        onFullMutation();
+    }
+
+    @Override
+    public void onClear() {
+        onFullMutation();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        onFullMutation();
+    }
+
+    private void onMutation(Data key, boolean backup) {
+        MapMigrationDeltaLog deltaLog = partitionContainer.getMigrationDeltaLog();
+        if (deltaLog != null && !backup) {
+            deltaLog.onMutation(mapName, key);
+        }
+    }
+
+    private void onFullMutation() {
+        MapMigrationDeltaLog deltaLog = partitionContainer.getMigrationDeltaLog();
+        if (deltaLog != null) {
+            deltaLog.onFullMutation(mapName);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.record.OffHeapRecord;
+import com.hazelcast.map.impl.record.OffHeapRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.map.impl.record.OffHeapRecord.HASH_OFFSET;
+import static com.hazelcast.map.impl.record.OffHeapRecord.KEY_OFFSET;
+import static com.hazelcast.map.impl.record.OffHeapRecord.NEXT_OFFSET;
+import static com.hazelcast.map.impl.record.OffHeapRecord.STATE_REMOVED;
+import static com.hazelcast.map.impl.record.OffHeapRecord.STATE_STORED;
+import static com.hazelcast.map.impl.record.OffHeapRecord.VALUE_OFFSET;
+import static com.hazelcast.map.impl.record.OffHeapRecord.blobEquals;
+import static com.hazelcast.map.impl.record.OffHeapRecord.freeBlob;
+import static com.hazelcast.map.impl.record.OffHeapRecord.readBlob;
+import static com.hazelcast.map.impl.record.OffHeapRecord.writeBlob;
+
+/**
+ * Open-source {@link Storage} which keeps keys, values and record
+ * metadata of a partition in native memory, used for {@link
+ * com.hazelcast.config.InMemoryFormat#NATIVE NATIVE} maps when
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_OFF_HEAP_STORAGE_ENABLED}
+ * is set.
+ * <p>
+ * Records are {@link OffHeapRecord} blocks, referred to by their address,
+ * chained into a bucket array which itself lives in native memory. See
+ * {@link AbstractChainedStorage} for the hash table and its iteration.
+ * <p>
+ * Not thread-safe, must only be accessed by the partition thread.
+ */
+public class OffHeapStorage extends AbstractChainedStorage {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final OffHeapRecordFactory recordFactory;
+    private final UnsafeMemoryManager memoryManager;
+    private final MemoryAccessor mem;
+
+    private long table = NULL_ADDRESS;
+    private int capacity;
+
+    // not final for testing purposes.
+    private EntryCostEstimator entryCostEstimator = new UsedMemoryEstimator();
+
+    public OffHeapStorage(OffHeapRecordFactory recordFactory, ExpirySystem expirySystem,
+                          SerializationService serializationService) {
+        super(NULL_ADDRESS, INITIAL_CAPACITY, expirySystem, serializationService);
+        this.recordFactory = recordFactory;
+        this.memoryManager = recordFactory.getMemoryManager();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        long address = toStorableRecord(record).getAddress();
+        long existing = find(key);
+        if (existing == address) {
+            return;
+        }
+        if (existing != NULL_ADDRESS) {
+            unlink(key);
+        }
+
+        int hash = key.hashCode();
+        freeBlob(memoryManager, mem.getLong(address + KEY_OFFSET));
+        mem.putLong(address + KEY_OFFSET, writeBlob(memoryManager, key));
+        mem.putInt(address + HASH_OFFSET, hash);
+        new OffHeapRecord(memoryManager, address).setState(STATE_STORED);
+        insert(address, hash);
+    }
+
+    @Override
+    public Record updateRecordValue(Data key, Record record, Object value) {
+        record.setValue(serializationService.toData(value));
+        return record;
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        // keys are always copied into native memory, equality is all we can offer
+        return get(key);
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull Record record) {
+        unlink(dataKey);
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        recordFactory.disposePendingRecords();
+        super.disposeDeferredBlocks();
+    }
+
+    @Override
+    protected int capacity() {
+        return capacity;
+    }
+
+    @Override
+    protected void replaceTable(int capacity) {
+        if (table != NULL_ADDRESS) {
+            memoryManager.getAllocator().free(table, (long) this.capacity * LONG_SIZE_IN_BYTES);
+            table = NULL_ADDRESS;
+        }
+        if (capacity > 0) {
+            // allocated memory is zeroed, every bucket starts out empty
+            table = memoryManager.getAllocator().allocate((long) capacity * LONG_SIZE_IN_BYTES);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected long getHead(int bucket) {
+        return mem.getLong(table + ((long) bucket << 3));
+    }
+
+    @Override
+    protected void setHead(int bucket, long record) {
+        mem.putLong(table + ((long) bucket << 3), record);
+    }
+
+    @Override
+    protected long getNext(long record) {
+        return mem.getLong(record + NEXT_OFFSET);
+    }
+
+    @Override
+    protected void setNext(long record, long next) {
+        mem.putLong(record + NEXT_OFFSET, next);
+    }
+
+    @Override
+    protected int getHash(long record) {
+        return mem.getInt(record + HASH_OFFSET);
+    }
+
+    @Override
+    protected Data getKey(long record) {
+        return readBlob(mem, mem.getLong(record + KEY_OFFSET));
+    }
+
+    @Override
+    protected Data getValue(long record) {
+        return readBlob(mem, mem.getLong(record + VALUE_OFFSET));
+    }
+
+    @Override
+    protected boolean keyEquals(long record, Data key) {
+        return blobEquals(mem, mem.getLong(record + KEY_OFFSET), key.toByteArray());
+    }
+
+    @Override
+    protected boolean isStored(long record) {
+        return new OffHeapRecord(memoryManager, record).getState() == STATE_STORED;
+    }
+
+    @Override
+    protected Record toRecord(long record) {
+        return new OffHeapRecord(memoryManager, record);
+    }
+
+    @Override
+    protected void onRemoved(long record) {
+        new OffHeapRecord(memoryManager, record).setState(STATE_REMOVED);
+    }
+
+    @Override
+    protected void release(long record) {
+        OffHeapRecord.free(memoryManager, record);
+    }
+
+    private OffHeapRecord toStorableRecord(Record record) {
+        if (record instanceof OffHeapRecord) {
+            OffHeapRecord offHeapRecord = (OffHeapRecord) record;
+            if (offHeapRecord.getMemoryManager() == memoryManager
+                    && offHeapRecord.getState() != STATE_REMOVED) {
+                return offHeapRecord;
+            }
+        }
+        return recordFactory.copyOf(record);
+    }
+
+    /**
+     * Reports the native memory allocated for this storage.
+     */
+    private final class UsedMemoryEstimator implements EntryCostEstimator<Data, Record> {
+
+        @Override
+        public long getEstimate() {
+            return memoryManager.getUsedMemory();
+        }
+
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+            // used memory is tracked by the memory manager
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public void reset() {
+            // used memory is tracked by the memory manager
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.hazelcast.map.IMap;
 import com.hazelcast.map.MapLoader;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.MapKeyLoader;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -561,6 +562,11 @@ public interface RecordStore<R extends Record> {
      */
     boolean isKeyLoadFinished();
 
+    /**
+     * @return the map key loader of this record store
+     */
+    MapKeyLoader getKeyLoader();
+
     /**
      * Returns {@code true} if all key and value loading tasks have completed
      * on this record store.
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import com.hazelcast.map.impl.record.RecordColumns;
+
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.ExpirationTimeSetter.toMillis;
+import static com.hazelcast.map.impl.ExpirationTimeSetter.toSeconds;
+
+/**
+ * Flyweight {@link ExpiryMetadata} over the expiry
+ * columns of a {@link RecordColumns} slot.
+ * <p>
+ * Same as {@link com.hazelcast.map.impl.record.ColumnarRecord},
+ * instances must not be kept beyond the operation which obtained them.
+ */
+public final class ColumnarExpiryMetadata implements ExpiryMetadata {
+
+    private final RecordColumns columns;
+    private final int slot;
+
+    public ColumnarExpiryMetadata(RecordColumns columns, int slot) {
+        this.columns = columns;
+        this.slot = slot;
+    }
+
+    @Override
+    public long getTtl() {
+        return toMillis(getRawTtl());
+    }
+
+    @Override
+    public int getRawTtl() {
+        return columns.getTtl(slot);
+    }
+
+    @Override
+    public ExpiryMetadata setTtl(long ttl) {
+        return setRawTtl(toSeconds(ttl));
+    }
+
+    @Override
+    public ExpiryMetadata setRawTtl(int ttl) {
+        columns.setTtl(slot, ttl);
+        return this;
+    }
+
+    @Override
+    public long getMaxIdle() {
+        return toMillis(getRawMaxIdle());
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return columns.getMaxIdle(slot);
+    }
+
+    @Override
+    public ExpiryMetadata setMaxIdle(long maxIdle) {
+        return setRawMaxIdle(toSeconds(maxIdle));
+    }
+
+    @Override
+    public ExpiryMetadata setRawMaxIdle(int maxIdle) {
+        columns.setMaxIdle(slot, maxIdle);
+        return this;
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return recomputeWithBaseTime(getRawExpirationTime());
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        return columns.getExpirationTime(slot);
+    }
+
+    @Override
+    public ExpiryMetadata setExpirationTime(long expirationTime) {
+        return setRawExpirationTime(stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public ExpiryMetadata setRawExpirationTime(int expirationTime) {
+        columns.setExpirationTime(slot, expirationTime);
+        return this;
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return columns.getExpiryLastUpdateTime(slot);
+    }
+
+    @Override
+    public ExpiryMetadata setLastUpdateTime(long lastUpdateTime) {
+        return setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public ExpiryMetadata setRawLastUpdateTime(int lastUpdateTime) {
+        columns.setExpiryLastUpdateTime(slot, lastUpdateTime);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarExpiryMetadata{"
+                + "slot=" + slot
+                + ", ttl=" + getTtl()
+                + ", maxIdle=" + getMaxIdle()
+                + ", expirationTime=" + getExpirationTime()
+                + ", lastUpdateTime=" + getLastUpdateTime()
+                + '}';
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.ColumnarStorage;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+
+import java.util.Map;
+
+/**
+ * {@link ExpirySystem} of record stores backed by a {@link ColumnarStorage}.
+ * <p>
+ * Expiry metadata is not kept in a map of its own but folded into the
+ * slot of the key's record, see {@link ColumnarStorage#getExpiryMetadataView()}.
+ * As a consequence, expiry metadata of a key only exists while the
+ * storage holds a record for it.
+ */
+public class ColumnarExpirySystem extends ExpirySystemImpl {
+
+    private final RecordStore recordStore;
+
+    public ColumnarExpirySystem(RecordStore recordStore, MapContainer mapContainer,
+                                MapServiceContext mapServiceContext) {
+        super(recordStore, mapContainer, mapServiceContext);
+        this.recordStore = recordStore;
+    }
+
+    @Override
+    protected Map<Data, ExpiryMetadata> createExpiryTimeByKeyMap() {
+        return ((ColumnarStorage) recordStore.getStorage()).getExpiryMetadataView();
+    }
+}
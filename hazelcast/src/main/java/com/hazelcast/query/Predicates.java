@@ -37,6 +37,8 @@ import com.hazelcast.query.impl.predicates.PartitionPredicateImpl;
 import com.hazelcast.query.impl.predicates.RegexPredicate;
 import com.hazelcast.query.impl.predicates.SqlPredicate;
 import com.hazelcast.query.impl.predicates.TruePredicate;
+import com.hazelcast.query.impl.predicates.VectorSimilarityComparator;
+import com.hazelcast.query.impl.predicates.VectorSimilarityPredicate;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
@@ -567,6 +569,35 @@ public final class Predicates {
         return new PagingPredicateImpl<>(predicate, comparator, pageSize);
     }
 
+    /**
+     * Creates a paging predicate selecting the {@code k} entries whose vector stored under the given {@code attribute}
+     * is the most similar to the given {@code vector}, ordered by the descending cosine similarity. The entries
+     * without a vector of the same dimension are not selected.
+     * <p>
+     * The vector attribute may be a {@code float[]} or a {@code double[]} field, including the array fields of
+     * Compact and Portable values. The search runs on the members: without an index, every member selects the exact
+     * nearest neighbors among its entries; with a {@link com.hazelcast.config.IndexType#VECTOR vector} index on the
+     * attribute, the members run an approximate nearest neighbor search over the index. The caller merges the results
+     * of the members.
+     * <p>
+     * An approximate search only yields the candidates for the first page, use a greater {@code k} instead of
+     * fetching the next pages.
+     *
+     * @param attribute the attribute holding the vectors.
+     * @param vector    the query vector.
+     * @param k         the number of the most similar entries to select.
+     * @param <K>       the type of keys the predicate operates on.
+     * @param <V>       the type of values the predicate operates on.
+     * @return the created paging predicate.
+     * @throws IllegalArgumentException if k is not greater than 0
+     * @since 5.4
+     */
+    public static <K, V> PagingPredicate<K, V> nearestNeighbors(String attribute, float[] vector, int k) {
+        checkNotNull(vector, "vector can't be null");
+        return new PagingPredicateImpl<K, V>(new VectorSimilarityPredicate(attribute, vector, k),
+                new VectorSimilarityComparator<>(attribute, vector), k);
+    }
+
     /**
      * Creates a new partition predicate that restricts the execution of the target predicate to a single partition.
      *
@@ -64,6 +64,7 @@ public abstract class AbstractIndex implements InternalIndex {
     private final IndexConfig config;
     private final boolean ordered;
     private final PerIndexStats stats;
+    private final IndexStatistics statistics;
 
     private volatile TypeConverter converter;
 
@@ -85,6 +86,7 @@ public abstract class AbstractIndex implements InternalIndex {
         this.copyBehavior = copyBehavior;
         this.indexStore = createIndexStore(node, config, stats, mapName, partitionId);
         this.stats = stats;
+        this.statistics = indexStore.isEvaluateOnly() ? null : new IndexStatistics(ordered);
     }
 
     protected abstract IndexStore createIndexStore(Node node, IndexConfig config,
@@ -137,10 +139,16 @@ public abstract class AbstractIndex implements InternalIndex {
         if (oldEntry == null) {
             indexStore.insert(newAttributeValue, newEntry, entryToStore, operationStats);
             stats.onInsert(timestamp, operationStats, operationSource);
+            if (statistics != null) {
+                statistics.onInsert(newAttributeValue);
+            }
         } else {
             Object oldAttributeValue = extractAttributeValue(oldEntry);
             indexStore.update(oldAttributeValue, newAttributeValue, newEntry, entryToStore, operationStats);
             stats.onUpdate(timestamp, operationStats, operationSource);
+            if (statistics != null) {
+                statistics.onUpdate(oldAttributeValue, newAttributeValue);
+            }
         }
     }
 
@@ -152,6 +160,9 @@ public abstract class AbstractIndex implements InternalIndex {
         Object attributeValue = extractAttributeValue(entry);
         indexStore.remove(attributeValue, entry, operationStats);
         stats.onRemove(timestamp, operationStats, operationSource);
+        if (statistics != null) {
+            statistics.onRemove(attributeValue);
+        }
     }
 
     @Override
@@ -175,6 +186,11 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public BitmapIndexStore getBitmapIndexStore() {
+        return indexStore instanceof BitmapIndexStore ? (BitmapIndexStore) indexStore : null;
+    }
+
     @Override
     public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
         if (converter == null) {
@@ -287,6 +303,9 @@ public abstract class AbstractIndex implements InternalIndex {
         indexStore.clear();
         converter = null;
         stats.onClear();
+        if (statistics != null) {
+            statistics.clear();
+        }
     }
 
     @Override
@@ -304,6 +323,16 @@ public abstract class AbstractIndex implements InternalIndex {
         return stats;
     }
 
+    @Override
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public IndexedValues getIndexedValues() {
+        return indexStore.getIndexedValues();
+    }
+
     @Override
     public Comparator<Data> getKeyComparator(boolean isDescending) {
         return indexStore.getKeyComparator(isDescending);
@@ -74,6 +74,14 @@ public abstract class BaseSingleValueIndexStore extends BaseIndexStore {
      */
     abstract Object removeInternal(Comparable value, Data recordKey);
 
+    /**
+     * @return {@code true} if a record may be associated with several values
+     * of this index store, i.e. if query results have to be deduplicated
+     */
+    final boolean isMultiValued() {
+        return multiResultHasToDetectDuplicates;
+    }
+
     final MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
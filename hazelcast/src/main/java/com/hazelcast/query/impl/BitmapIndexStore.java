@@ -33,9 +33,13 @@ import com.hazelcast.query.impl.predicates.NotEqualPredicate;
 import com.hazelcast.query.impl.predicates.NotPredicate;
 import com.hazelcast.query.impl.predicates.OrPredicate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -76,6 +80,12 @@ public final class BitmapIndexStore extends BaseIndexStore {
     private final Object2LongHashMap internalObjectKeys;
     private long internalKeyCounter;
 
+    /**
+     * Set to {@code true} once an entry is indexed by several values of a
+     * collection or array attribute.
+     */
+    private volatile boolean multiValued;
+
     public BitmapIndexStore(IndexConfig config) {
         super(IndexCopyBehavior.NEVER, true);
 
@@ -291,6 +301,11 @@ public final class BitmapIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public IndexedValues getIndexedValues() {
+        return new BitmapIndexedValues();
+    }
+
     @Override
     public boolean isEvaluateOnly() {
         return true;
@@ -311,6 +326,48 @@ public final class BitmapIndexStore extends BaseIndexStore {
         }
     }
 
+    /**
+     * Evaluates the given predicate spanning multiple bitmap index stores
+     * sharing the same unique key space as a bitmap algebra expression, see
+     * {@link Bitmap#evaluate(Predicate, Map, Map)}.
+     *
+     * @param predicate  the predicate to evaluate.
+     * @param stores     the stores to evaluate the predicate leaves with, keyed
+     *                   by index names.
+     * @param converters the converters to use for the predicate arguments
+     *                   conversion, keyed by index names.
+     * @return the entries matching the given predicate.
+     */
+    public static Set<QueryableEntry> evaluate(Predicate predicate, Map<String, BitmapIndexStore> stores,
+                                               Map<String, TypeConverter> converters) {
+        assert !stores.isEmpty();
+
+        // Lock the stores in a stable order to avoid deadlocks among
+        // concurrent evaluations.
+        List<String> indexNames = new ArrayList<>(stores.keySet());
+        Collections.sort(indexNames);
+
+        Map<String, Bitmap<QueryableEntry>> bitmaps = new LinkedHashMap<>();
+        Map<String, TypeConverter> canonicalizingConverters = new HashMap<>();
+        int locked = 0;
+        try {
+            for (String indexName : indexNames) {
+                BitmapIndexStore store = stores.get(indexName);
+                store.takeReadLock();
+                ++locked;
+                bitmaps.put(indexName, store.bitmap);
+                canonicalizingConverters.put(indexName, store.new CanonicalizingConverter(converters.get(indexName)));
+            }
+
+            BitmapIndexStore firstStore = stores.get(indexNames.get(0));
+            return firstStore.toSingleResultSet(toMap(Bitmap.evaluate(predicate, bitmaps, canonicalizingConverters)));
+        } finally {
+            for (int i = 0; i < locked; ++i) {
+                stores.get(indexNames.get(i)).releaseReadLock();
+            }
+        }
+    }
+
     @Override
     public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
         throw makeUnsupportedOperationException();
@@ -422,7 +479,7 @@ public final class BitmapIndexStore extends BaseIndexStore {
         return value;
     }
 
-    private Map<Data, QueryableEntry> toMap(Iterator<QueryableEntry> iterator) {
+    private static Map<Data, QueryableEntry> toMap(Iterator<QueryableEntry> iterator) {
         Map<Data, QueryableEntry> map = new HashMap<>();
         while (iterator.hasNext()) {
             QueryableEntry entry = iterator.next();
@@ -442,7 +499,11 @@ public final class BitmapIndexStore extends BaseIndexStore {
     }
 
     private Iterator makeIterator(Object value) {
-        return value instanceof MultiResult ? new MultiValueIterator((MultiResult) value) : new SingleValueIterator(value);
+        if (value instanceof MultiResult) {
+            multiValued = true;
+            return new MultiValueIterator((MultiResult) value);
+        }
+        return new SingleValueIterator(value);
     }
 
     private static Comparable canonicalizeLongRepresentable(long value) {
@@ -482,6 +543,49 @@ public final class BitmapIndexStore extends BaseIndexStore {
         return new IllegalArgumentException("negative keys are not supported: " + keyAttribute + " = " + key);
     }
 
+    /**
+     * The bitmap keeps no values, only the entries are counted.
+     */
+    @SuppressWarnings("rawtypes")
+    private final class BitmapIndexedValues implements IndexedValues {
+
+        @Override
+        public boolean isOrdered() {
+            return false;
+        }
+
+        @Override
+        public boolean isMultiValued() {
+            return multiValued;
+        }
+
+        @Override
+        public long getEntryCount() {
+            takeReadLock();
+            try {
+                return bitmap.getEntryCount();
+            } finally {
+                releaseReadLock();
+            }
+        }
+
+        @Override
+        public Comparable getMinValue() {
+            throw makeUnsupportedOperationException();
+        }
+
+        @Override
+        public Comparable getMaxValue() {
+            throw makeUnsupportedOperationException();
+        }
+
+        @Override
+        public Iterator<Comparable> getDistinctValues() {
+            throw makeUnsupportedOperationException();
+        }
+
+    }
+
     private final class MultiValueIterator implements Iterator {
 
         private final Iterator iterator;
@@ -144,6 +144,24 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public BitmapIndexStore getBitmapIndexStore() {
+            // the store is requested only to evaluate a predicate using it
+            BitmapIndexStore result = delegate.getBitmapIndexStore();
+            hasQueries = true;
+            return result;
+        }
+
+        @Override
+        public IndexStatistics getStatistics() {
+            return delegate.getStatistics();
+        }
+
+        @Override
+        public IndexedValues getIndexedValues() {
+            return delegate.getIndexedValues();
+        }
+
         @Override
         public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
             Iterator<IndexKeyEntries> result = delegate.getSqlRecordIteratorBatch(value, descending);
@@ -23,6 +23,10 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.query.impl.GlobalIndexPartitionTracker.PartitionStamp;
 import com.hazelcast.query.impl.getters.Extractors;
 
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_SORTED_PRIMITIVE_STORE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.INDEX_STRIPED_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_STEALING_ENABLED;
+
 /**
  * Provides implementation of on-heap indexes.
  */
@@ -49,16 +53,60 @@ public class IndexImpl extends AbstractIndex {
                                           PerIndexStats stats, String mapName, int ignored) {
         switch (config.getType()) {
             case SORTED:
-                return new OrderedIndexStore(copyBehavior);
+                if (isStripedStoreEnabled(node)) {
+                    return new StripedIndexStore(getPartitionThreadCount(node), getPartitionCount(node), true,
+                            () -> createSortedIndexStore(node, config));
+                }
+                return createSortedIndexStore(node, config);
             case HASH:
+                if (isStripedStoreEnabled(node)) {
+                    return new StripedIndexStore(getPartitionThreadCount(node), getPartitionCount(node), false,
+                            () -> new UnorderedIndexStore(copyBehavior));
+                }
                 return new UnorderedIndexStore(copyBehavior);
             case BITMAP:
                 return new BitmapIndexStore(config);
+            case NGRAM:
+                return new NgramIndexStore();
+            case VECTOR:
+                return new VectorIndexStore();
             default:
                 throw new IllegalArgumentException("unexpected index type: " + config.getType());
         }
     }
 
+    private IndexStore createSortedIndexStore(Node node, IndexConfig config) {
+        return isPrimitiveSortedStoreEnabled(node, config)
+                ? new PrimitiveOrderedIndexStore(copyBehavior)
+                : new OrderedIndexStore(copyBehavior);
+    }
+
+    /**
+     * The stripes follow the static partition to partition thread mapping,
+     * which doesn't hold when the partition threads steal partitions.
+     */
+    private static boolean isStripedStoreEnabled(Node node) {
+        return node != null && node.getProperties().getBoolean(INDEX_STRIPED_ENABLED)
+                && !node.getProperties().getBoolean(PARTITION_OPERATION_THREAD_STEALING_ENABLED);
+    }
+
+    private static int getPartitionThreadCount(Node node) {
+        return node.getNodeEngine().getOperationService().getPartitionThreadCount();
+    }
+
+    private static int getPartitionCount(Node node) {
+        return node.getPartitionService().getPartitionCount();
+    }
+
+    /**
+     * Composite values are not supported by the primitive store, so it's
+     * used for single attribute indexes only.
+     */
+    private static boolean isPrimitiveSortedStoreEnabled(Node node, IndexConfig config) {
+        return node != null && config.getAttributes().size() == 1
+                && node.getProperties().getBoolean(INDEX_SORTED_PRIMITIVE_STORE_ENABLED);
+    }
+
     @Override
     public final boolean hasPartitionIndexed(int partitionId) {
         return partitionTracker.isIndexed(partitionId);
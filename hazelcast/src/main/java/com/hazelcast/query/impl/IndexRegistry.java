@@ -79,6 +79,8 @@ public class IndexRegistry {
     private final Map<String, InternalIndex> indexesByName = new ConcurrentHashMap<>(3);
     private final AttributeIndexRegistry attributeIndexRegistry = new AttributeIndexRegistry();
     private final AttributeIndexRegistry evaluateOnlyAttributeIndexRegistry = new AttributeIndexRegistry();
+    // n-gram indexes are kept apart, so they may coexist with bitmap indexes on the same attribute
+    private final AttributeIndexRegistry ngramAttributeIndexRegistry = new AttributeIndexRegistry();
     private final ConverterCache converterCache = new ConverterCache(this);
     private final Map<String, IndexConfig> definitions = new ConcurrentHashMap<>();
 
@@ -182,7 +184,9 @@ public class IndexRegistry {
                 mapName);
 
         indexesByName.put(name, index);
-        if (index.isEvaluateOnly()) {
+        if (indexConfig.getType() == IndexType.NGRAM) {
+            ngramAttributeIndexRegistry.register(index);
+        } else if (index.isEvaluateOnly()) {
             evaluateOnlyAttributeIndexRegistry.register(index);
         } else {
             attributeIndexRegistry.register(index);
@@ -274,6 +278,7 @@ public class IndexRegistry {
         indexesByName.clear();
         attributeIndexRegistry.clear();
         evaluateOnlyAttributeIndexRegistry.clear();
+        ngramAttributeIndexRegistry.clear();
         converterCache.clear();
 
         for (InternalIndex index : indexesCopy) {
@@ -537,6 +542,12 @@ public class IndexRegistry {
             index = indexesByName.get(pattern);
         } else {
             index = evaluateOnlyAttributeIndexRegistry.match(pattern, matchHint);
+            if (index == null || !index.canEvaluate(predicateClass)) {
+                InternalIndex ngramIndex = ngramAttributeIndexRegistry.match(pattern, matchHint);
+                if (ngramIndex != null && ngramIndex.canEvaluate(predicateClass)) {
+                    index = ngramIndex;
+                }
+            }
             if (index == null) {
                 index = attributeIndexRegistry.match(pattern, matchHint);
             }
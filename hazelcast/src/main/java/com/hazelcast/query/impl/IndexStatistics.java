@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+
+/**
+ * Maintains cardinality statistics of the values indexed by an index, the
+ * statistics are used to estimate the selectivity of predicates while
+ * choosing a query plan.
+ * <p>
+ * The statistics are updated incrementally on every index insert, update and
+ * remove, so they never require a rescan of the index:
+ * <ul>
+ * <li>The frequencies of the indexed values are tracked by a count-min
+ * sketch, which is used to estimate the cardinality of equality lookups and
+ * the number of distinct indexed values.
+ * <li>For ordered indexes the numeric values are additionally tracked by a
+ * log-linear histogram, which is used to estimate the cardinality of range
+ * lookups. The histogram covers the magnitudes from 2^-32 to 2^64 with 8
+ * buckets per power of two, so the relative bucket width never exceeds 12.5%.
+ * </ul>
+ * The statistics are thread-safe and may be shared among the partitions of a
+ * global index. All the estimations are approximate: the statistics may lag
+ * behind concurrent updates and the estimations are never exact.
+ */
+public final class IndexStatistics {
+
+    /**
+     * The selectivity assumed for range lookups which can't be estimated using
+     * the histogram, e.g. ranges over non-numeric values.
+     */
+    public static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3.0;
+
+    private static final AtomicLongFieldUpdater<IndexStatistics> ENTRY_COUNT = newUpdater(IndexStatistics.class,
+            "entryCount");
+
+    private static final int SKETCH_DEPTH = 2;
+    private static final int SKETCH_WIDTH = 256;
+    private static final int SKETCH_MASK = SKETCH_WIDTH - 1;
+    private static final int SKETCH_SECOND_ROW_SEED = 0x9E3779B9;
+    private static final int LOW_CARDINALITY_FACTOR = 2;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -32;
+    private static final int MAX_EXPONENT = 63;
+    private static final int SIGNED_BUCKETS = (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+    private static final int ZERO_BUCKET = SIGNED_BUCKETS;
+    private static final int HISTOGRAM_BUCKETS = 2 * SIGNED_BUCKETS + 1;
+    private static final double MIN_MAGNITUDE = Math.scalb(1.0, MIN_EXPONENT);
+
+    private final AtomicLongArray sketch = new AtomicLongArray(SKETCH_DEPTH * SKETCH_WIDTH);
+    private final AtomicLongArray histogram;
+
+    private volatile long entryCount;
+
+    /**
+     * Constructs a new statistics instance.
+     *
+     * @param ordered {@code true} if the statistics are being created for an
+     *                ordered index and should support the estimation of
+     *                range lookups, {@code false} otherwise.
+     */
+    public IndexStatistics(boolean ordered) {
+        this.histogram = ordered ? new AtomicLongArray(HISTOGRAM_BUCKETS) : null;
+    }
+
+    /**
+     * @return the number of entries indexed by the index.
+     */
+    public long getEntryCount() {
+        return Math.max(0, entryCount);
+    }
+
+    /**
+     * @return {@code true} if these statistics support the estimation of range
+     * lookups, {@code false} otherwise.
+     */
+    public boolean isOrdered() {
+        return histogram != null;
+    }
+
+    /**
+     * Estimates the number of distinct values indexed by the index.
+     * <p>
+     * The estimation is done using the linear counting over the first row of
+     * the sketch, so it saturates at the sketch width times the logarithm of
+     * the sketch width for high-cardinality indexes.
+     *
+     * @return the estimated number of distinct indexed values.
+     */
+    public long estimateDistinctValueCount() {
+        int empty = 0;
+        for (int i = 0; i < SKETCH_WIDTH; ++i) {
+            if (sketch.get(i) <= 0) {
+                ++empty;
+            }
+        }
+
+        if (empty == SKETCH_WIDTH) {
+            return 0;
+        }
+        double estimate = empty == 0 ? SKETCH_WIDTH * Math.log(SKETCH_WIDTH)
+                : -SKETCH_WIDTH * Math.log((double) empty / SKETCH_WIDTH);
+        return Math.min(getEntryCount(), Math.max(1, Math.round(estimate)));
+    }
+
+    /**
+     * Estimates the number of entries having the indexed value equal to the
+     * given value.
+     *
+     * @param value the value to estimate for, already converted to the type
+     *              of the indexed attribute.
+     * @return the estimated number of matching entries.
+     */
+    public long estimateEqual(Comparable value) {
+        long entries = getEntryCount();
+        if (entries == 0) {
+            return 0;
+        }
+
+        int hash = hash(value);
+        long minimum = Long.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; ++row) {
+            minimum = Math.min(minimum, Math.max(0, sketch.get(sketchIndex(row, hash))));
+        }
+        if (minimum == 0 || estimateDistinctValueCount() <= SKETCH_WIDTH / LOW_CARDINALITY_FACTOR) {
+            // few distinct values rarely collide in all the rows
+            return Math.min(entries, minimum);
+        }
+
+        // Count-mean-min: the raw counters overestimate because of collisions,
+        // subtract the expected collision noise of every row and take the
+        // average of the debiased row estimations bounded by the raw minimum.
+        double debiased = 0;
+        for (int row = 0; row < SKETCH_DEPTH; ++row) {
+            long count = Math.max(0, sketch.get(sketchIndex(row, hash)));
+            double noise = (double) (entries - count) / (SKETCH_WIDTH - 1);
+            debiased += Math.max(0, count - noise);
+        }
+        debiased /= SKETCH_DEPTH;
+
+        // the value might be present, never report it as absent
+        long estimate = Math.max(1, Math.min(minimum, Math.round(Math.ceil(debiased))));
+        return Math.min(entries, estimate);
+    }
+
+    /**
+     * Estimates the number of entries having the indexed value satisfying the
+     * given comparison with the given value.
+     *
+     * @param comparison the comparison to estimate for.
+     * @param value      the value to estimate for, already converted to the
+     *                   type of the indexed attribute.
+     * @return the estimated number of matching entries.
+     */
+    public long estimateComparison(Comparison comparison, Comparable value) {
+        switch (comparison) {
+            case LESS:
+                return estimateRange(null, false, value, false);
+            case LESS_OR_EQUAL:
+                return estimateRange(null, false, value, true);
+            case GREATER:
+                return estimateRange(value, false, null, false);
+            case GREATER_OR_EQUAL:
+                return estimateRange(value, true, null, false);
+            default:
+                throw new IllegalArgumentException("Unexpected comparison: " + comparison);
+        }
+    }
+
+    /**
+     * Estimates the number of entries having the indexed value belonging to
+     * the given range.
+     *
+     * @param from          the beginning of the range or {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range or {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @return the estimated number of matching entries.
+     */
+    public long estimateRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        long entries = getEntryCount();
+        if (entries == 0) {
+            return 0;
+        }
+
+        double lower = from == null ? Double.NEGATIVE_INFINITY : toDouble(from);
+        double upper = to == null ? Double.POSITIVE_INFINITY : toDouble(to);
+        if (histogram == null || Double.isNaN(lower) || Double.isNaN(upper)) {
+            return Math.max(1, Math.round(entries * DEFAULT_RANGE_SELECTIVITY));
+        }
+        if (lower > upper) {
+            return 0;
+        }
+
+        double estimate = 0;
+        for (int bucket = bucket(lower); bucket <= bucket(upper); ++bucket) {
+            long count = histogram.get(bucket);
+            if (count <= 0) {
+                continue;
+            }
+            double bucketLower = bucketLowerBound(bucket);
+            double bucketUpper = bucketUpperBound(bucket);
+            double overlap = (Math.min(upper, bucketUpper) - Math.max(lower, bucketLower)) / (bucketUpper - bucketLower);
+            estimate += count * Math.min(1.0, Math.max(0.0, overlap));
+        }
+
+        long result = Math.round(Math.ceil(estimate));
+        if (fromInclusive && toInclusive && lower == upper) {
+            // a degenerate range is an equality lookup
+            result = Math.max(result, estimateEqual(from));
+        }
+        return Math.min(entries, result);
+    }
+
+    /**
+     * Accounts the given value being inserted into the index.
+     *
+     * @param value the inserted attribute value, might be a {@link
+     *              MultiResult}.
+     */
+    public void onInsert(Object value) {
+        ENTRY_COUNT.incrementAndGet(this);
+        update(value, 1);
+    }
+
+    /**
+     * Accounts the given value being updated in the index.
+     *
+     * @param oldValue the old attribute value, might be a {@link MultiResult}.
+     * @param newValue the new attribute value, might be a {@link MultiResult}.
+     */
+    public void onUpdate(Object oldValue, Object newValue) {
+        update(oldValue, -1);
+        update(newValue, 1);
+    }
+
+    /**
+     * Accounts the given value being removed from the index.
+     *
+     * @param value the removed attribute value, might be a {@link
+     *              MultiResult}.
+     */
+    public void onRemove(Object value) {
+        ENTRY_COUNT.decrementAndGet(this);
+        update(value, -1);
+    }
+
+    /**
+     * Resets these statistics to the empty index state.
+     */
+    public void clear() {
+        entryCount = 0;
+        for (int i = 0; i < sketch.length(); ++i) {
+            sketch.set(i, 0);
+        }
+        if (histogram != null) {
+            for (int i = 0; i < histogram.length(); ++i) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStatistics{entryCount=" + getEntryCount() + ", distinctValueCount=" + estimateDistinctValueCount()
+                + ", ordered=" + isOrdered() + '}';
+    }
+
+    private void update(Object value, int delta) {
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult<?>) value).getResults()) {
+                updateScalar(result, delta);
+            }
+        } else {
+            updateScalar(value, delta);
+        }
+    }
+
+    private void updateScalar(Object value, int delta) {
+        if (value != null && !(value instanceof Comparable)) {
+            // rejected by the index store anyway
+            return;
+        }
+        Comparable comparable = (Comparable) value;
+
+        int hash = hash(comparable);
+        for (int row = 0; row < SKETCH_DEPTH; ++row) {
+            sketch.addAndGet(sketchIndex(row, hash), delta);
+        }
+
+        if (histogram != null && comparable != null) {
+            double doubleValue = toDouble(comparable);
+            if (!Double.isNaN(doubleValue)) {
+                histogram.addAndGet(bucket(doubleValue), delta);
+            }
+        }
+    }
+
+    private static int hash(Comparable value) {
+        if (value instanceof CompositeValue) {
+            // hash the components one by one to canonicalize them in the same
+            // way no matter whether they were sanitized for storage or not
+            int hash = 1;
+            for (Comparable component : ((CompositeValue) value).getComponents()) {
+                hash = 31 * hash + scalarHash(component);
+            }
+            return hash;
+        }
+        return scalarHash(value);
+    }
+
+    private static int scalarHash(Comparable value) {
+        if (value == null || value == AbstractIndex.NULL) {
+            return 0;
+        }
+        if (value.getClass().isEnum()) {
+            value = TypeConverters.ENUM_CONVERTER.convert(value);
+        }
+        return Comparables.canonicalizeForHashLookup(value).hashCode();
+    }
+
+    private static int sketchIndex(int row, int hash) {
+        int mixed = row == 0 ? MurmurHash3_fmix(hash) : MurmurHash3_fmix(hash ^ SKETCH_SECOND_ROW_SEED);
+        return row * SKETCH_WIDTH + (mixed & SKETCH_MASK);
+    }
+
+    /**
+     * @return the given value as double or {@link Double#NaN} if the value is
+     * not numeric and can't be tracked by the histogram.
+     */
+    private static double toDouble(Comparable value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        } else if (value instanceof Character) {
+            return (Character) value;
+        } else {
+            return Double.NaN;
+        }
+    }
+
+    private static int bucket(double value) {
+        if (value == Double.NEGATIVE_INFINITY) {
+            return 0;
+        }
+        if (value == Double.POSITIVE_INFINITY) {
+            return HISTOGRAM_BUCKETS - 1;
+        }
+
+        double magnitude = Math.abs(value);
+        if (magnitude < MIN_MAGNITUDE) {
+            return ZERO_BUCKET;
+        }
+
+        int exponent = Math.getExponent(magnitude);
+        int offset;
+        if (exponent > MAX_EXPONENT) {
+            offset = SIGNED_BUCKETS - 1;
+        } else {
+            int subBucket = (int) ((magnitude / Math.scalb(1.0, exponent) - 1.0) * SUB_BUCKETS);
+            offset = (exponent - MIN_EXPONENT) * SUB_BUCKETS + Math.min(subBucket, SUB_BUCKETS - 1);
+        }
+        return value > 0 ? ZERO_BUCKET + 1 + offset : ZERO_BUCKET - 1 - offset;
+    }
+
+    private static double bucketLowerBound(int bucket) {
+        if (bucket == ZERO_BUCKET) {
+            return -MIN_MAGNITUDE;
+        }
+        return bucket > ZERO_BUCKET ? magnitudeLowerBound(bucket - ZERO_BUCKET - 1)
+                : -magnitudeUpperBound(ZERO_BUCKET - 1 - bucket);
+    }
+
+    private static double bucketUpperBound(int bucket) {
+        if (bucket == ZERO_BUCKET) {
+            return MIN_MAGNITUDE;
+        }
+        return bucket > ZERO_BUCKET ? magnitudeUpperBound(bucket - ZERO_BUCKET - 1)
+                : -magnitudeLowerBound(ZERO_BUCKET - 1 - bucket);
+    }
+
+    private static double magnitudeLowerBound(int offset) {
+        int exponent = offset / SUB_BUCKETS + MIN_EXPONENT;
+        int subBucket = offset % SUB_BUCKETS;
+        return Math.scalb(1.0 + (double) subBucket / SUB_BUCKETS, exponent);
+    }
+
+    private static double magnitudeUpperBound(int offset) {
+        int exponent = offset / SUB_BUCKETS + MIN_EXPONENT;
+        int subBucket = offset % SUB_BUCKETS;
+        return Math.scalb(1.0 + (double) (subBucket + 1) / SUB_BUCKETS, exponent);
+    }
+
+}
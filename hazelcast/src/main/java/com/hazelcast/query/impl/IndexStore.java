@@ -303,6 +303,15 @@ public interface IndexStore {
      */
     Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
 
+    /**
+     * @return the view of the values kept by this index store used to answer
+     * aggregations without visiting the indexed entries, or {@code null} if
+     * this index store can't answer aggregations.
+     */
+    default IndexedValues getIndexedValues() {
+        return null;
+    }
+
     /**
      * @param isDescending is the index used in descending order.
      * @return comparator ordering IMap keys stored for given index key.
@@ -84,6 +84,14 @@ public final class IndexUtils {
             throw new IllegalArgumentException("Composite bitmap indexes are not supported: " + config);
         }
 
+        if (config.getType() == IndexType.NGRAM && originalAttributeNames.size() > 1) {
+            throw new IllegalArgumentException("Composite n-gram indexes are not supported: " + config);
+        }
+
+        if (config.getType() == IndexType.VECTOR && originalAttributeNames.size() > 1) {
+            throw new IllegalArgumentException("Composite vector indexes are not supported: " + config);
+        }
+
         List<String> normalizedAttributeNames = new ArrayList<>(originalAttributeNames.size());
 
         for (String originalAttributeName : originalAttributeNames) {
@@ -392,6 +400,10 @@ public final class IndexUtils {
             return IndexType.HASH;
         } else if (equalsIgnoreCase(typeStr, IndexType.BITMAP.name())) {
             return IndexType.BITMAP;
+        } else if (equalsIgnoreCase(typeStr, IndexType.NGRAM.name())) {
+            return IndexType.NGRAM;
+        } else if (equalsIgnoreCase(typeStr, IndexType.VECTOR.name())) {
+            return IndexType.VECTOR;
         } else {
             throw new IllegalArgumentException("Unsupported index type: " + typeStr);
         }
@@ -464,6 +476,12 @@ public final class IndexUtils {
             case BITMAP:
                 return "bitmap";
 
+            case NGRAM:
+                return "ngram";
+
+            case VECTOR:
+                return "vector";
+
             default:
                 throw new IllegalArgumentException("Unsupported index type: " + type);
         }
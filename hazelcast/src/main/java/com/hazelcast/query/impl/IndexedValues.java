@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Iterator;
+
+/**
+ * Read-only view of the values kept by an index store. Used to answer
+ * aggregations on the indexed attribute without visiting, and deserializing,
+ * the indexed entries.
+ * <p>
+ * Like the query results of the index stores, the view is weakly consistent
+ * in the presence of concurrent updates.
+ */
+@SuppressWarnings("rawtypes")
+public interface IndexedValues {
+
+    /**
+     * @return {@code true} if the values are iterated in their natural order
+     * and keep the representation they were extracted with, {@code false} if
+     * the view supports only the {@link #getEntryCount() entry counting}.
+     */
+    boolean isOrdered();
+
+    /**
+     * @return {@code true} if an entry may be indexed by several values of a
+     * collection or array attribute, {@code false} if every entry is indexed
+     * by a single value.
+     */
+    boolean isMultiValued();
+
+    /**
+     * Returns the number of the indexed entries. Entries indexed by several
+     * values of a {@link #isMultiValued() multi-valued} attribute may be
+     * counted several times.
+     */
+    long getEntryCount();
+
+    /**
+     * @return the least non-null indexed value or {@code null} if there is no
+     * such value.
+     * @throws UnsupportedOperationException if this view is not {@link
+     *                                       #isOrdered() ordered}.
+     */
+    Comparable getMinValue();
+
+    /**
+     * @return the greatest non-null indexed value or {@code null} if there is
+     * no such value.
+     * @throws UnsupportedOperationException if this view is not {@link
+     *                                       #isOrdered() ordered}.
+     */
+    Comparable getMaxValue();
+
+    /**
+     * @return the distinct indexed values in their natural order, the entries
+     * having a {@code null} value are represented by a single {@code null}
+     * value.
+     * @throws UnsupportedOperationException if this view is not {@link
+     *                                       #isOrdered() ordered}.
+     */
+    Iterator<Comparable> getDistinctValues();
+
+}
@@ -128,6 +128,33 @@ public interface InternalIndex extends Index {
         return null;
     }
 
+    /**
+     * @return the bitmap index store backing this index or {@code null} if
+     * this index is not a bitmap index. Used to evaluate predicates spanning
+     * multiple bitmap indexes as a single bitmap algebra expression.
+     */
+    default BitmapIndexStore getBitmapIndexStore() {
+        return null;
+    }
+
+    /**
+     * @return the cardinality statistics of the values indexed by this index
+     * or {@code null} if this index doesn't maintain such statistics. Used by
+     * the cost-based query optimizer to estimate predicate selectivity.
+     */
+    default IndexStatistics getStatistics() {
+        return null;
+    }
+
+    /**
+     * @return the view of the values kept by this index or {@code null} if
+     * this index can't answer aggregations. Used to answer aggregations on the
+     * indexed attribute without visiting the indexed entries.
+     */
+    default IndexedValues getIndexedValues() {
+        return null;
+    }
+
     /**
      * @param isDescending whether the index is used in descending order.
      * @return comparator ordering IMap keys stored for given index key
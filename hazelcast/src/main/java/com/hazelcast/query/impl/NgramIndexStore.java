@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.json.NonTerminalJsonValue;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.predicates.ILikePredicate;
+import com.hazelcast.query.impl.predicates.LikePredicate;
+import com.hazelcast.query.impl.predicates.RegexPredicate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The store of n-gram indexes.
+ * <p>
+ * Maintains an inverted index from case-folded character trigrams of string
+ * attribute values to the keys of the entries containing them. {@code LIKE},
+ * {@code ILIKE} and regex predicates are evaluated by intersecting the posting
+ * sets of the trigrams every matching value must contain and then verifying
+ * the surviving candidates against the predicate itself. Predicates without
+ * any required trigrams are verified against all the indexed entries.
+ */
+@SuppressWarnings({"rawtypes", "checkstyle:MethodCount"})
+public final class NgramIndexStore extends BaseIndexStore {
+
+    private static final Set<Class<? extends Predicate>> EVALUABLE_PREDICATES = new HashSet<>();
+
+    static {
+        EVALUABLE_PREDICATES.add(LikePredicate.class);
+        EVALUABLE_PREDICATES.add(ILikePredicate.class);
+        EVALUABLE_PREDICATES.add(RegexPredicate.class);
+    }
+
+    private final Map<Data, QueryableEntry> records = new HashMap<>();
+    private final Long2ObjectHashMap<Set<Data>> postings = new Long2ObjectHashMap<>();
+
+    public NgramIndexStore() {
+        super(IndexCopyBehavior.NEVER, true);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return value;
+    }
+
+    @Override
+    public void insert(Object value, CachedQueryEntry entry, QueryableEntry entryToStore, IndexOperationStats operationStats) {
+        if (value == NonTerminalJsonValue.INSTANCE) {
+            return;
+        }
+
+        Data key = entry.getKeyData();
+        long[] grams = Ngrams.ofValue(value);
+
+        takeWriteLock();
+        try {
+            records.put(key, entryToStore);
+            addPostings(key, grams);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void update(Object oldValue, Object newValue, CachedQueryEntry entry, QueryableEntry entryToStore,
+                       IndexOperationStats operationStats) {
+        if (oldValue == NonTerminalJsonValue.INSTANCE) {
+            insert(newValue, entry, entryToStore, operationStats);
+            return;
+        }
+        if (newValue == NonTerminalJsonValue.INSTANCE) {
+            remove(oldValue, entry, operationStats);
+            return;
+        }
+
+        Data key = entry.getKeyData();
+        long[] oldGrams = Ngrams.ofValue(oldValue);
+        long[] newGrams = Ngrams.ofValue(newValue);
+
+        takeWriteLock();
+        try {
+            records.put(key, entryToStore);
+            removePostings(key, oldGrams);
+            addPostings(key, newGrams);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void remove(Object value, CachedQueryEntry entry, IndexOperationStats operationStats) {
+        if (value == NonTerminalJsonValue.INSTANCE) {
+            return;
+        }
+
+        Data key = entry.getKeyData();
+        long[] grams = Ngrams.ofValue(value);
+
+        takeWriteLock();
+        try {
+            if (records.remove(key) != null) {
+                removePostings(key, grams);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            records.clear();
+            postings.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return EVALUABLE_PREDICATES.contains(predicateClass);
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        long[] grams = requiredGrams(predicate);
+
+        takeReadLock();
+        try {
+            return toSingleResultSet(grams.length == 0 ? verifyAll(predicate) : verifyCandidates(predicate, grams));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparison comparison, Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        return value;
+    }
+
+    private void addPostings(Data key, long[] grams) {
+        for (long gram : grams) {
+            Set<Data> posting = postings.get(gram);
+            if (posting == null) {
+                posting = new HashSet<>();
+                postings.put(gram, posting);
+            }
+            posting.add(key);
+        }
+    }
+
+    private void removePostings(Data key, long[] grams) {
+        for (long gram : grams) {
+            Set<Data> posting = postings.get(gram);
+            if (posting != null && posting.remove(key) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private Map<Data, QueryableEntry> verifyAll(Predicate predicate) {
+        Map<Data, QueryableEntry> result = new HashMap<>();
+        for (Map.Entry<Data, QueryableEntry> record : records.entrySet()) {
+            if (predicate.apply(record.getValue())) {
+                result.put(record.getKey(), record.getValue());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Data, QueryableEntry> verifyCandidates(Predicate predicate, long[] grams) {
+        Set<Data>[] required = new Set[grams.length];
+        int smallest = 0;
+        for (int i = 0; i < grams.length; ++i) {
+            required[i] = postings.get(grams[i]);
+            if (required[i] == null) {
+                // some trigram is not present in any value
+                return new HashMap<>();
+            }
+            if (required[i].size() < required[smallest].size()) {
+                smallest = i;
+            }
+        }
+
+        Map<Data, QueryableEntry> result = new HashMap<>();
+        for (Data key : required[smallest]) {
+            if (containedInAll(key, required)) {
+                QueryableEntry record = records.get(key);
+                if (predicate.apply(record)) {
+                    result.put(key, record);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean containedInAll(Data key, Set<Data>[] postings) {
+        for (Set<Data> posting : postings) {
+            if (!posting.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] requiredGrams(Predicate predicate) {
+        if (predicate instanceof LikePredicate) {
+            return Ngrams.ofLikeExpression(((LikePredicate) predicate).getExpression());
+        } else if (predicate instanceof RegexPredicate) {
+            return Ngrams.ofRegex(((RegexPredicate) predicate).getRegex());
+        } else {
+            throw new IllegalArgumentException("unexpected predicate: " + predicate);
+        }
+    }
+
+    private static UnsupportedOperationException makeUnsupportedOperationException() {
+        return new UnsupportedOperationException("n-gram indexes support only direct predicate evaluation");
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Arrays;
+
+/**
+ * Extracts the character trigrams used by {@link NgramIndexStore}.
+ * <p>
+ * Every gram is packed into a {@code long} out of three case-folded UTF-16
+ * chars. Case folding is done the same way it is done by the case-insensitive
+ * Unicode-aware matching of {@link java.util.regex.Pattern}, so the same
+ * grams serve both case-sensitive and case-insensitive predicates. Grams
+ * involving surrogate chars are never produced.
+ * <p>
+ * The grams extracted from predicate expressions are the grams every
+ * matching value is guaranteed to contain. The extraction is conservative:
+ * whenever a construct isn't understood, fewer grams (possibly none) are
+ * returned, which only makes the index less selective.
+ */
+final class Ngrams {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final long[] NO_GRAMS = new long[0];
+    private static final int CHAR_BITS = 16;
+
+    private Ngrams() {
+    }
+
+    /**
+     * Returns the distinct grams of the given attribute value. Non-string
+     * values have no grams.
+     */
+    static long[] ofValue(Object value) {
+        if (value instanceof String) {
+            GramCollector collector = new GramCollector();
+            collector.addRun((String) value);
+            return collector.toArray();
+        }
+
+        if (value instanceof MultiResult) {
+            GramCollector collector = new GramCollector();
+            for (Object result : ((MultiResult<?>) value).getResults()) {
+                if (result instanceof String) {
+                    collector.addRun((String) result);
+                }
+            }
+            return collector.toArray();
+        }
+
+        return NO_GRAMS;
+    }
+
+    /**
+     * Returns the distinct grams every value matching the given {@code LIKE}
+     * expression contains.
+     */
+    static long[] ofLikeExpression(String expression) {
+        if (expression == null) {
+            return NO_GRAMS;
+        }
+
+        GramCollector collector = new GramCollector();
+        StringBuilder run = new StringBuilder();
+        for (int i = 0; i < expression.length(); ++i) {
+            char c = expression.charAt(i);
+            if (c == '%' || c == '_' || Character.isSurrogate(c)) {
+                collector.addRun(run);
+                run.setLength(0);
+            } else if (c == '\\') {
+                // don't bother with escaping rules, just skip the escaped char
+                collector.addRun(run);
+                run.setLength(0);
+                ++i;
+            } else {
+                run.append(c);
+            }
+        }
+        collector.addRun(run);
+        return collector.toArray();
+    }
+
+    /**
+     * Returns the distinct grams every value fully matching the given regular
+     * expression contains.
+     * <p>
+     * Only the literal runs outside of groups are considered. Expressions
+     * having top-level alternations, special constructs other than
+     * non-capturing groups or escapes other than the simple ones have no
+     * grams.
+     */
+    static long[] ofRegex(String regex) {
+        if (regex == null) {
+            return NO_GRAMS;
+        }
+
+        RegexLiterals literals = new RegexLiterals(regex);
+        return literals.scan() ? literals.collector.toArray() : NO_GRAMS;
+    }
+
+    static long gram(char c0, char c1, char c2) {
+        return (long) fold(c0) << (2 * CHAR_BITS) | (long) fold(c1) << CHAR_BITS | fold(c2);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class GramCollector {
+
+        private long[] grams = new long[GRAM_LENGTH];
+        private int size;
+
+        void addRun(CharSequence run) {
+            for (int i = 0; i <= run.length() - GRAM_LENGTH; ++i) {
+                char c0 = run.charAt(i);
+                char c1 = run.charAt(i + 1);
+                char c2 = run.charAt(i + 2);
+                if (Character.isSurrogate(c0) || Character.isSurrogate(c1) || Character.isSurrogate(c2)) {
+                    continue;
+                }
+
+                if (size == grams.length) {
+                    grams = Arrays.copyOf(grams, size * 2);
+                }
+                grams[size++] = gram(c0, c1, c2);
+            }
+        }
+
+        long[] toArray() {
+            if (size == 0) {
+                return NO_GRAMS;
+            }
+
+            Arrays.sort(grams, 0, size);
+            int distinct = 1;
+            for (int i = 1; i < size; ++i) {
+                if (grams[i] != grams[distinct - 1]) {
+                    grams[distinct++] = grams[i];
+                }
+            }
+            return Arrays.copyOf(grams, distinct);
+        }
+    }
+
+    /**
+     * Collects the literal runs of a regular expression which are required
+     * to be present in every matching value.
+     */
+    private static final class RegexLiterals {
+
+        private static final String SIMPLE_ESCAPES = "dDsSwWbBAGZzhHvVRXntrfae";
+
+        private final String regex;
+        private final GramCollector collector = new GramCollector();
+        private final StringBuilder run = new StringBuilder();
+        private int position;
+        private int depth;
+        // whether the last char of the run is the last scanned atom
+        private boolean lastIsLiteral;
+
+        RegexLiterals(String regex) {
+            this.regex = regex;
+        }
+
+        /**
+         * @return {@code false} if the expression can't be analysed.
+         */
+        boolean scan() {
+            while (position < regex.length()) {
+                if (!scan(regex.charAt(position++))) {
+                    return false;
+                }
+            }
+            endRun();
+            return depth == 0;
+        }
+
+        private boolean scan(char c) {
+            switch (c) {
+                case '*':
+                case '?':
+                case '{':
+                case '+':
+                    return scanQuantifier(c);
+                case '\\':
+                    return scanEscape();
+                case '[':
+                    endRun();
+                    return skipClass();
+                case '(':
+                    endRun();
+                    return openGroup();
+                case ')':
+                    endRun();
+                    return --depth >= 0;
+                case '|':
+                    endRun();
+                    return depth > 0;
+                case '.':
+                case '^':
+                case '$':
+                    endRun();
+                    return true;
+                default:
+                    literal(c);
+                    return true;
+            }
+        }
+
+        private boolean scanQuantifier(char c) {
+            if (c == '+') {
+                // the quantified atom is still required once
+                endRun();
+            } else {
+                if (lastIsLiteral) {
+                    run.setLength(run.length() - 1);
+                }
+                endRun();
+                if (c == '{') {
+                    int end = regex.indexOf('}', position);
+                    if (end < 0) {
+                        return false;
+                    }
+                    position = end + 1;
+                }
+            }
+
+            // skip reluctant and possessive modifiers
+            if (position < regex.length() && (regex.charAt(position) == '?' || regex.charAt(position) == '+')) {
+                ++position;
+            }
+            return true;
+        }
+
+        private boolean scanEscape() {
+            if (position == regex.length()) {
+                return false;
+            }
+
+            char c = regex.charAt(position++);
+            if (!Character.isLetterOrDigit(c)) {
+                literal(c);
+                return true;
+            }
+
+            endRun();
+            return SIMPLE_ESCAPES.indexOf(c) >= 0;
+        }
+
+        private boolean skipClass() {
+            int nesting = 1;
+            if (position < regex.length() && regex.charAt(position) == '^') {
+                ++position;
+            }
+            if (position < regex.length() && regex.charAt(position) == ']') {
+                ++position;
+            }
+
+            while (position < regex.length()) {
+                char c = regex.charAt(position++);
+                if (c == '\\') {
+                    ++position;
+                } else if (c == '[') {
+                    ++nesting;
+                } else if (c == ']' && --nesting == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean openGroup() {
+            if (position < regex.length() && regex.charAt(position) == '?') {
+                if (position + 1 < regex.length() && regex.charAt(position + 1) == ':') {
+                    position += 2;
+                } else {
+                    return false;
+                }
+            }
+            ++depth;
+            return true;
+        }
+
+        private void literal(char c) {
+            if (depth == 0 && !Character.isSurrogate(c)) {
+                run.append(c);
+                lastIsLiteral = true;
+            } else {
+                endRun();
+            }
+        }
+
+        private void endRun() {
+            collector.addRun(run);
+            run.setLength(0);
+            lastIsLiteral = false;
+        }
+    }
+}
@@ -121,6 +121,11 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    @Override
+    public IndexedValues getIndexedValues() {
+        return new SingleValueIndexedValues(this, true);
+    }
+
     @Override
     public boolean isEvaluateOnly() {
         return false;
@@ -426,11 +431,11 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
 
     }
 
-    private static final class IteratorFromBatch implements Iterator<QueryableEntry> {
+    static final class IteratorFromBatch implements Iterator<QueryableEntry> {
         private final Iterator<IndexKeyEntries> iterator;
         private Iterator<QueryableEntry> indexKeyIterator;
 
-        private IteratorFromBatch(@Nonnull Iterator<IndexKeyEntries> iterator) {
+        IteratorFromBatch(@Nonnull Iterator<IndexKeyEntries> iterator) {
             this.iterator = iterator;
             this.indexKeyIterator = iterator.hasNext() ? iterator.next().getEntries() : null;
         }
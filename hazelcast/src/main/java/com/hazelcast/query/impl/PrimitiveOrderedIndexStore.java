@@ -0,0 +1,1139 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.Predicate;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR_REVERSED;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+
+/**
+ * Store indexes rankly, keeping the values of numeric and date attributes
+ * encoded as primitive {@code long}s.
+ * <p>
+ * The entries are kept in leaves: sorted arrays of at most
+ * {@value #LEAF_CAPACITY} encoded values and entries, ordered by the value
+ * and then by the entry key. The leaves are found through a skip list keyed
+ * by their lowest entry. Unlike {@link OrderedIndexStore}, there is no boxed
+ * value, no skip list node and no nested map per distinct value.
+ * <p>
+ * Leaves are never modified, a mutation replaces the affected leaf by a
+ * copy. Readers therefore don't need any lock: an iterator moving to the
+ * next leaf looks it up again by the last entry it returned, so it neither
+ * repeats nor skips entries when leaves are split or merged concurrently.
+ * <p>
+ * The type of the values is decided by the first non-null value added to
+ * the store, see {@link KeyType}. When a value of another type is added,
+ * the entries are moved to an {@link OrderedIndexStore} which the store
+ * delegates to from then on.
+ */
+@SuppressWarnings("rawtypes")
+public class PrimitiveOrderedIndexStore extends BaseSingleValueIndexStore {
+
+    static final int LEAF_CAPACITY = 256;
+
+    private static final int MIN_LEAF_SIZE = LEAF_CAPACITY / 4;
+
+    private final IndexCopyBehavior copyOn;
+
+    private volatile ConcurrentSkipListMap<Position, Leaf> leaves = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<Data, QueryableEntry> nullRecords = new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+    private volatile KeyType keyType;
+    private volatile OrderedIndexStore fallback;
+
+    public PrimitiveOrderedIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, true);
+        assert copyOn != null;
+        this.copyOn = copyOn;
+    }
+
+    /**
+     * @return {@code true} if the store moved its entries to an {@link
+     * OrderedIndexStore} because values of different types were added
+     */
+    boolean isInflated() {
+        return fallback != null;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        if (fallback == null) {
+            if (value == NULL) {
+                return nullRecords.put(record.getKeyData(), record);
+            }
+            KeyType type = keyType;
+            if (type == null) {
+                type = KeyType.of(value);
+                keyType = type;
+            }
+            if (type != null && type.clazz == value.getClass()) {
+                return insert(type.encode(value), record);
+            }
+            inflate();
+        }
+        return fallback.insertInternal(value, record);
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.removeInternal(value, recordKey);
+        }
+        if (value == NULL) {
+            return nullRecords.remove(recordKey);
+        }
+        KeyType type = keyType;
+        if (type == null || type.clazz != value.getClass()) {
+            return null;
+        }
+        return remove(type.encode(value), recordKey);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            leaves = new ConcurrentSkipListMap<>();
+            nullRecords = new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+            keyType = null;
+            fallback = null;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public IndexedValues getIndexedValues() {
+        return new SingleValueIndexedValues(this, true);
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable searchedValue, boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(comparison, searchedValue, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return new OrderedIndexStore.IteratorFromBatch(
+                getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(value, descending);
+        }
+        if (value == POSITIVE_INFINITY) {
+            return emptyIterator();
+        }
+        Iterator<IndexKeyEntries> batches = getRangeIteratorBatch(value, true, value, true, descending);
+        if (!batches.hasNext()) {
+            return emptyIterator();
+        }
+        // the batch is keyed by the searched value like the one of OrderedIndexStore
+        return Collections.singletonList(new IndexKeyEntries(value, new OrderedIndexStore.IteratorFromBatch(batches))).iterator();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(descending);
+        }
+        return new BatchIterator(true, new Cursor(null, null, descending), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparison comparison,
+            Comparable searchedValue,
+            boolean descending
+    ) {
+        switch (comparison) {
+            case LESS:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, false, descending);
+            case LESS_OR_EQUAL:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, true, descending);
+            case GREATER:
+                return getSqlRecordIteratorBatch(searchedValue, false, POSITIVE_INFINITY, true, descending);
+            case GREATER_OR_EQUAL:
+                return getSqlRecordIteratorBatch(searchedValue, true, POSITIVE_INFINITY, true, descending);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending);
+        }
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptyIterator();
+            }
+            return getSqlRecordIteratorBatch(from, descending);
+        } else if (order > 0) {
+            return emptyIterator();
+        }
+        return getRangeIteratorBatch(from, fromInclusive, to, toInclusive, descending);
+    }
+
+    private Iterator<IndexKeyEntries> getRangeIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        KeyType type = keyType;
+        if (!isEncodable(type, from) || !isEncodable(type, to)) {
+            // the bounds can't be compared with the encoded values, filter all values
+            return new FilteringBatchIterator(getSqlRecordIteratorBatch(descending), from, fromInclusive, to, toInclusive);
+        }
+        boolean includeNulls = from == NULL && fromInclusive;
+        Cursor cursor = to == NULL || type == null
+                ? null
+                : newCursor(type, from, fromInclusive, to, toInclusive, descending);
+        return new BatchIterator(includeNulls, cursor, descending);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return getRecords(value, true, value, true);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(values);
+            }
+            LeafSliceResultSet records = new LeafSliceResultSet();
+            for (Comparable value : values) {
+                collectRecords(records, value, true, value, true);
+            }
+            return toResultSet(records);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        switch (comparison) {
+            case LESS:
+                return getRecords(NULL, false, searchedValue, false);
+            case LESS_OR_EQUAL:
+                return getRecords(NULL, false, searchedValue, true);
+            case GREATER:
+                return getRecords(searchedValue, false, POSITIVE_INFINITY, true);
+            case GREATER_OR_EQUAL:
+                return getRecords(searchedValue, true, POSITIVE_INFINITY, true);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(from, fromInclusive, to, toInclusive);
+            }
+            LeafSliceResultSet records = new LeafSliceResultSet();
+            collectRecords(records, from, fromInclusive, to, toInclusive);
+            return toResultSet(records);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Comparator<Data> getKeyComparator(boolean isDescending) {
+        return isDescending ? DATA_COMPARATOR_REVERSED : DATA_COMPARATOR;
+    }
+
+    /**
+     * Adds the records in the given range to the result set. The leaves
+     * can't change while the read lock is held, so the result set refers to
+     * slices of their arrays instead of copying them.
+     */
+    private void collectRecords(LeafSliceResultSet records,
+                                Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        if (isEmptyRange(from, fromInclusive, to, toInclusive)) {
+            return;
+        }
+        KeyType type = keyType;
+        if (!isEncodable(type, from) || !isEncodable(type, to)) {
+            List<QueryableEntry> filtered = new ArrayList<>();
+            getSqlRecordIterator(from, fromInclusive, to, toInclusive, false).forEachRemaining(filtered::add);
+            records.add(filtered.toArray(new QueryableEntry[0]));
+            return;
+        }
+        if (from == NULL && fromInclusive && !nullRecords.isEmpty()) {
+            records.add(nullRecords.values().toArray(new QueryableEntry[0]));
+        }
+        if (to != NULL && type != null) {
+            collectRecords(records, lowerBound(type, from, fromInclusive), upperBound(type, to, toInclusive));
+        }
+    }
+
+    private void collectRecords(LeafSliceResultSet records, Position lower, Position upper) {
+        Map.Entry<Position, Leaf> floor = lower == null ? null : leaves.floorEntry(lower);
+        Collection<Leaf> candidates = floor == null ? leaves.values() : leaves.tailMap(floor.getKey()).values();
+        for (Leaf leaf : candidates) {
+            int start = lower == null ? 0 : leaf.higher(lower);
+            int end = upper == null ? leaf.size() : leaf.ceiling(upper);
+            if (start < end) {
+                records.add(leaf.records, start, end);
+            }
+            if (end < leaf.size()) {
+                break;
+            }
+        }
+    }
+
+    private Set<QueryableEntry> toResultSet(LeafSliceResultSet records) {
+        if (records.isEmpty()) {
+            return emptySet();
+        }
+        if (!isMultiValued()) {
+            return records;
+        }
+        Map<Data, QueryableEntry> uniqueRecords = new HashMap<>();
+        for (QueryableEntry record : records) {
+            uniqueRecords.put(record.getKeyData(), record);
+        }
+        return new SingleResultSet(uniqueRecords);
+    }
+
+    private static boolean isEmptyRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        if (from == POSITIVE_INFINITY) {
+            return true;
+        }
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+        return order > 0 || order == 0 && (!fromInclusive || !toInclusive);
+    }
+
+    private static boolean isEncodable(KeyType type, Comparable value) {
+        return value == NULL || value == POSITIVE_INFINITY || type == null || type.canEncode(value);
+    }
+
+    private Cursor newCursor(KeyType type, Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                             boolean descending) {
+        Position lower = lowerBound(type, from, fromInclusive);
+        Position upper = upperBound(type, to, toInclusive);
+        return descending ? new Cursor(upper, lower, true) : new Cursor(lower, upper, false);
+    }
+
+    /**
+     * @return the position right before the entries having the given value
+     * if inclusive, right after them otherwise; {@code null} if unbounded
+     */
+    private static Position lowerBound(KeyType type, Comparable from, boolean fromInclusive) {
+        return from == NULL ? null : new Position(type.encode(from), fromInclusive ? -1 : 1);
+    }
+
+    /**
+     * @return the position right after the entries having the given value
+     * if inclusive, right before them otherwise; {@code null} if unbounded
+     */
+    private static Position upperBound(KeyType type, Comparable to, boolean toInclusive) {
+        return to == POSITIVE_INFINITY ? null : new Position(type.encode(to), toInclusive ? 1 : -1);
+    }
+
+    /**
+     * Moves all the entries to an {@link OrderedIndexStore} which serves all
+     * the following calls. Called under the write lock.
+     */
+    private void inflate() {
+        OrderedIndexStore store = new OrderedIndexStore(copyOn);
+        for (QueryableEntry record : nullRecords.values()) {
+            store.insertInternal(NULL, record);
+        }
+        KeyType type = keyType;
+        for (Leaf leaf : leaves.values()) {
+            for (int i = 0; i < leaf.size(); i++) {
+                store.insertInternal(type.decode(leaf.keys[i]), leaf.records[i]);
+            }
+        }
+        fallback = store;
+        // running iterators keep the old maps
+        leaves = new ConcurrentSkipListMap<>();
+        nullRecords = new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+        keyType = null;
+    }
+
+    private Object insert(long key, QueryableEntry record) {
+        ConcurrentSkipListMap<Position, Leaf> leaves = this.leaves;
+        Position position = new Position(key, record.getKeyData());
+        Map.Entry<Position, Leaf> floor = leaves.floorEntry(position);
+        if (floor == null) {
+            Map.Entry<Position, Leaf> first = leaves.firstEntry();
+            if (first == null) {
+                leaves.put(position, new Leaf(new long[]{key}, new QueryableEntry[]{record}));
+                return null;
+            }
+            // the entry goes before the first leaf, extend the leaf downwards
+            leaves.put(position, first.getValue());
+            leaves.remove(first.getKey());
+            floor = new AbstractMap.SimpleImmutableEntry<>(position, first.getValue());
+        }
+
+        Leaf leaf = floor.getValue();
+        int index = leaf.ceiling(position);
+        if (index < leaf.size() && position.compareTo(leaf.keys[index], leaf.records[index].getKeyData()) == 0) {
+            QueryableEntry oldRecord = leaf.records[index];
+            leaves.put(floor.getKey(), leaf.replace(index, record));
+            return oldRecord;
+        }
+
+        Leaf grown = leaf.insert(index, key, record);
+        if (grown.size() > LEAF_CAPACITY) {
+            int half = grown.size() / 2;
+            Leaf upper = grown.slice(half, grown.size());
+            // publish the upper half first, so that its entries are always reachable
+            leaves.put(upper.firstPosition(), upper);
+            leaves.put(floor.getKey(), grown.slice(0, half));
+        } else {
+            leaves.put(floor.getKey(), grown);
+        }
+        return null;
+    }
+
+    private Object remove(long key, Data recordKey) {
+        ConcurrentSkipListMap<Position, Leaf> leaves = this.leaves;
+        Position position = new Position(key, recordKey);
+        Map.Entry<Position, Leaf> floor = leaves.floorEntry(position);
+        if (floor == null) {
+            return null;
+        }
+        Leaf leaf = floor.getValue();
+        int index = leaf.ceiling(position);
+        if (index == leaf.size() || position.compareTo(leaf.keys[index], leaf.records[index].getKeyData()) != 0) {
+            return null;
+        }
+
+        QueryableEntry oldRecord = leaf.records[index];
+        Leaf shrunk = leaf.remove(index);
+        if (shrunk.size() == 0) {
+            leaves.remove(floor.getKey());
+            return oldRecord;
+        }
+        Map.Entry<Position, Leaf> next = shrunk.size() < MIN_LEAF_SIZE ? leaves.higherEntry(floor.getKey()) : null;
+        if (next != null && shrunk.size() + next.getValue().size() <= LEAF_CAPACITY / 2) {
+            // merge small neighbours, the merged leaf is published before
+            // the next one is removed to keep its entries reachable
+            leaves.put(floor.getKey(), shrunk.concat(next.getValue()));
+            leaves.remove(next.getKey());
+        } else {
+            leaves.put(floor.getKey(), shrunk);
+        }
+        return oldRecord;
+    }
+
+    /**
+     * The type of the values of the store. The values of a type are encoded
+     * as {@code long}s whose natural order is the order of the values.
+     */
+    enum KeyType {
+        LONG(Long.class) {
+            @Override
+            Comparable decode(long key) {
+                return key;
+            }
+        },
+        INTEGER(Integer.class) {
+            @Override
+            Comparable decode(long key) {
+                return (int) key;
+            }
+        },
+        SHORT(Short.class) {
+            @Override
+            Comparable decode(long key) {
+                return (short) key;
+            }
+        },
+        BYTE(Byte.class) {
+            @Override
+            Comparable decode(long key) {
+                return (byte) key;
+            }
+        },
+        DOUBLE(Double.class) {
+            @Override
+            boolean canEncode(Comparable value) {
+                return isFloatingPoint(value) || isIntegral(value) && isExactDouble(((Number) value).longValue());
+            }
+
+            @Override
+            long encode(Comparable value) {
+                return encodeDouble(((Number) value).doubleValue());
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return decodeDouble(key);
+            }
+        },
+        FLOAT(Float.class) {
+            @Override
+            boolean canEncode(Comparable value) {
+                return DOUBLE.canEncode(value);
+            }
+
+            @Override
+            long encode(Comparable value) {
+                return DOUBLE.encode(value);
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return (float) decodeDouble(key);
+            }
+        },
+        DATE(java.util.Date.class) {
+            @Override
+            long encode(Comparable value) {
+                return ((java.util.Date) value).getTime();
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return new java.util.Date(key);
+            }
+        },
+        SQL_DATE(java.sql.Date.class) {
+            @Override
+            long encode(Comparable value) {
+                return ((java.sql.Date) value).getTime();
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return new java.sql.Date(key);
+            }
+        },
+        LOCAL_DATE(LocalDate.class) {
+            @Override
+            long encode(Comparable value) {
+                return ((LocalDate) value).toEpochDay();
+            }
+
+            @Override
+            Comparable decode(long key) {
+                return LocalDate.ofEpochDay(key);
+            }
+        };
+
+        private static final long MAX_EXACT_DOUBLE = 1L << 53;
+        private static final long NEGATIVE_ZERO_BITS = Double.doubleToLongBits(-0.0);
+        private static final KeyType[] TYPES = values();
+
+        final Class<?> clazz;
+
+        KeyType(Class<?> clazz) {
+            this.clazz = clazz;
+        }
+
+        /**
+         * @return the type of the given value or {@code null} if values of
+         * its class are not supported
+         */
+        static KeyType of(Comparable value) {
+            for (KeyType type : TYPES) {
+                if (type.clazz == value.getClass()) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Tells whether the given query argument can be encoded keeping its
+         * order relative to the values of this type as defined by {@link
+         * Comparables#compare}.
+         */
+        boolean canEncode(Comparable value) {
+            if (clazz == value.getClass()) {
+                return true;
+            }
+            if (!Number.class.isAssignableFrom(clazz)) {
+                return false;
+            }
+            if (isIntegral(value)) {
+                return true;
+            }
+            if (!isFloatingPoint(value)) {
+                return false;
+            }
+            // whole numbers only, -0.0 is ordered before 0 by Comparables
+            double doubleValue = ((Number) value).doubleValue();
+            return doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < Long.MAX_VALUE
+                    && Double.doubleToLongBits(doubleValue) != NEGATIVE_ZERO_BITS;
+        }
+
+        long encode(Comparable value) {
+            Number number = (Number) value;
+            return isFloatingPoint(number) ? (long) number.doubleValue() : number.longValue();
+        }
+
+        abstract Comparable decode(long key);
+
+        private static boolean isIntegral(Object value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+
+        private static boolean isFloatingPoint(Object value) {
+            return value instanceof Double || value instanceof Float;
+        }
+
+        private static boolean isExactDouble(long value) {
+            return -MAX_EXACT_DOUBLE <= value && value <= MAX_EXACT_DOUBLE;
+        }
+
+        @SuppressWarnings("checkstyle:MagicNumber")
+        private static long encodeDouble(double value) {
+            // flip all the bits but the sign of negative values to have them
+            // ordered like Double.compare orders them
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+
+        @SuppressWarnings("checkstyle:MagicNumber")
+        private static double decodeDouble(long key) {
+            return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * A position in the order of the entries of the store. Either the
+     * position of an entry or, if the tie is non-zero, the position right
+     * before or after all the entries having the given value.
+     */
+    private static final class Position implements Comparable<Position> {
+
+        final long key;
+        final Data recordKey;
+        final int tie;
+
+        Position(long key, Data recordKey) {
+            this.key = key;
+            this.recordKey = recordKey;
+            this.tie = 0;
+        }
+
+        Position(long key, int tie) {
+            this.key = key;
+            this.recordKey = null;
+            this.tie = tie;
+        }
+
+        int compareTo(long otherKey, Data otherRecordKey) {
+            int order = Long.compare(key, otherKey);
+            if (order != 0) {
+                return order;
+            }
+            return tie != 0 ? tie : DATA_COMPARATOR.compare(recordKey, otherRecordKey);
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int order = Long.compare(key, other.key);
+            if (order != 0) {
+                return order;
+            }
+            if (tie != 0 || other.tie != 0) {
+                return Integer.compare(tie, other.tie);
+            }
+            return DATA_COMPARATOR.compare(recordKey, other.recordKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Position && compareTo((Position) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key);
+        }
+    }
+
+    /**
+     * An immutable sorted run of the entries of the store.
+     */
+    private static final class Leaf {
+
+        final long[] keys;
+        final QueryableEntry[] records;
+
+        Leaf(long[] keys, QueryableEntry[] records) {
+            this.keys = keys;
+            this.records = records;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        Position firstPosition() {
+            return new Position(keys[0], records[0].getKeyData());
+        }
+
+        /**
+         * @return the index of the first entry not before the given position
+         */
+        int ceiling(Position position) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (position.compareTo(keys[mid], records[mid].getKeyData()) > 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the index of the first entry after the given position
+         */
+        int higher(Position position) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (position.compareTo(keys[mid], records[mid].getKeyData()) >= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Leaf replace(int index, QueryableEntry record) {
+            QueryableEntry[] newRecords = records.clone();
+            newRecords[index] = record;
+            return new Leaf(keys, newRecords);
+        }
+
+        Leaf insert(int index, long key, QueryableEntry record) {
+            int size = keys.length;
+            long[] newKeys = new long[size + 1];
+            QueryableEntry[] newRecords = new QueryableEntry[size + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(records, 0, newRecords, 0, index);
+            newKeys[index] = key;
+            newRecords[index] = record;
+            System.arraycopy(keys, index, newKeys, index + 1, size - index);
+            System.arraycopy(records, index, newRecords, index + 1, size - index);
+            return new Leaf(newKeys, newRecords);
+        }
+
+        Leaf remove(int index) {
+            int size = keys.length;
+            long[] newKeys = new long[size - 1];
+            QueryableEntry[] newRecords = new QueryableEntry[size - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(records, 0, newRecords, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, size - index - 1);
+            System.arraycopy(records, index + 1, newRecords, index, size - index - 1);
+            return new Leaf(newKeys, newRecords);
+        }
+
+        Leaf slice(int from, int to) {
+            long[] newKeys = new long[to - from];
+            QueryableEntry[] newRecords = new QueryableEntry[to - from];
+            System.arraycopy(keys, from, newKeys, 0, newKeys.length);
+            System.arraycopy(records, from, newRecords, 0, newRecords.length);
+            return new Leaf(newKeys, newRecords);
+        }
+
+        Leaf concat(Leaf next) {
+            int size = keys.length;
+            long[] newKeys = new long[size + next.size()];
+            QueryableEntry[] newRecords = new QueryableEntry[size + next.size()];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            System.arraycopy(records, 0, newRecords, 0, size);
+            System.arraycopy(next.keys, 0, newKeys, size, next.size());
+            System.arraycopy(next.records, 0, newRecords, size, next.size());
+            return new Leaf(newKeys, newRecords);
+        }
+    }
+
+    /**
+     * Iterates the non-null entries between two positions. The leaf the
+     * cursor is on is looked up again by the last returned entry whenever
+     * the cursor leaves it.
+     */
+    private final class Cursor {
+
+        private final ConcurrentSkipListMap<Position, Leaf> leaves = PrimitiveOrderedIndexStore.this.leaves;
+        private final Position start;
+        private final Position end;
+        private final boolean descending;
+
+        private Leaf leaf;
+        private int index;
+        private boolean started;
+        private long key;
+        private QueryableEntry record;
+
+        /**
+         * @param start      the position to start after or {@code null} to
+         *                   start from the first entry
+         * @param end        the position to stop before or {@code null} to
+         *                   stop after the last entry
+         * @param descending whether to iterate in descending order
+         */
+        Cursor(Position start, Position end, boolean descending) {
+            this.start = start;
+            this.end = end;
+            this.descending = descending;
+        }
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return {@code false} if there are no more entries
+         */
+        boolean advance() {
+            if (leaf != null) {
+                index += descending ? -1 : 1;
+                if (index < 0 || index >= leaf.size()) {
+                    leaf = null;
+                }
+            }
+            if (leaf == null && !seek()) {
+                return false;
+            }
+            long nextKey = leaf.keys[index];
+            QueryableEntry nextRecord = leaf.records[index];
+            if (end != null && (end.compareTo(nextKey, nextRecord.getKeyData()) > 0) == descending) {
+                leaf = null;
+                return false;
+            }
+            key = nextKey;
+            record = nextRecord;
+            started = true;
+            return true;
+        }
+
+        private boolean seek() {
+            Position target = started ? new Position(key, record.getKeyData()) : start;
+            Map.Entry<Position, Leaf> entry;
+            if (target == null) {
+                entry = descending ? leaves.lastEntry() : leaves.firstEntry();
+            } else {
+                entry = leaves.floorEntry(target);
+                if (entry == null && !descending) {
+                    entry = leaves.firstEntry();
+                }
+            }
+            while (entry != null) {
+                Leaf candidate = entry.getValue();
+                int candidateIndex = firstIndex(candidate, target);
+                if (candidateIndex >= 0 && candidateIndex < candidate.size()) {
+                    leaf = candidate;
+                    index = candidateIndex;
+                    return true;
+                }
+                entry = descending ? leaves.lowerEntry(entry.getKey()) : leaves.higherEntry(entry.getKey());
+            }
+            return false;
+        }
+
+        /**
+         * @return the index of the first entry of the leaf after the target
+         * in the order of the iteration, out of the bounds of the leaf if
+         * there is none
+         */
+        private int firstIndex(Leaf candidate, Position target) {
+            if (descending) {
+                return (target == null ? candidate.size() : candidate.ceiling(target)) - 1;
+            }
+            return target == null ? 0 : candidate.higher(target);
+        }
+    }
+
+    /**
+     * Groups the entries of a cursor having the same value, preceded or
+     * followed by the null entries if requested.
+     */
+    private final class BatchIterator implements Iterator<IndexKeyEntries> {
+
+        private final ConcurrentSkipListMap<Data, QueryableEntry> nullRecords =
+                PrimitiveOrderedIndexStore.this.nullRecords;
+        private final KeyType type = keyType;
+        private final Cursor cursor;
+        private final boolean descending;
+
+        private boolean nullsPending;
+        private boolean entryPending;
+
+        BatchIterator(boolean includeNulls, Cursor cursor, boolean descending) {
+            this.cursor = type == null ? null : cursor;
+            this.descending = descending;
+            this.nullsPending = includeNulls && !nullRecords.isEmpty();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!descending && nullsPending) {
+                return true;
+            }
+            if (!entryPending && cursor != null) {
+                entryPending = cursor.advance();
+            }
+            return entryPending || nullsPending;
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (!entryPending) {
+                nullsPending = false;
+                return new IndexKeyEntries(NULL, (descending ? nullRecords.descendingMap() : nullRecords).values().iterator());
+            }
+            long key = cursor.key;
+            QueryableEntry first = cursor.record;
+            entryPending = cursor.advance();
+            if (!entryPending || cursor.key != key) {
+                return new IndexKeyEntries(type.decode(key), Collections.singletonList(first).iterator());
+            }
+            List<QueryableEntry> records = new ArrayList<>();
+            records.add(first);
+            do {
+                records.add(cursor.record);
+                entryPending = cursor.advance();
+            } while (entryPending && cursor.key == key);
+            return new IndexKeyEntries(type.decode(key), records.iterator());
+        }
+    }
+
+    /**
+     * The records found by a query, referring to slices of the arrays of
+     * the leaves. The keys of the records are hashed only if the set is
+     * asked whether it contains an entry.
+     */
+    private static final class LeafSliceResultSet extends AbstractSet<QueryableEntry> {
+
+        private final List<QueryableEntry[]> arrays = new ArrayList<>();
+        private int[] bounds = new int[2];
+        private int size;
+        private Set<Data> index;
+
+        void add(QueryableEntry[] records) {
+            add(records, 0, records.length);
+        }
+
+        void add(QueryableEntry[] records, int from, int to) {
+            int slice = arrays.size();
+            if (bounds.length < 2 * (slice + 1)) {
+                bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+            }
+            arrays.add(records);
+            bounds[2 * slice] = from;
+            bounds[2 * slice + 1] = to;
+            size += to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (index == null) {
+                Set<Data> keys = new HashSet<>();
+                for (QueryableEntry record : this) {
+                    keys.add(record.getKeyData());
+                }
+                index = keys;
+            }
+            return index.contains(((QueryableEntry) o).getKeyData());
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            return new Iterator<QueryableEntry>() {
+                private int slice;
+                private int position = arrays.isEmpty() ? 0 : bounds[0];
+
+                @Override
+                public boolean hasNext() {
+                    while (slice < arrays.size() && position == bounds[2 * slice + 1]) {
+                        slice++;
+                        position = slice < arrays.size() ? bounds[2 * slice] : 0;
+                    }
+                    return slice < arrays.size();
+                }
+
+                @Override
+                public QueryableEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return arrays.get(slice)[position++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Filters the batches of all the values by a range the values of the
+     * store can't be compared with in their encoded form.
+     */
+    private static final class FilteringBatchIterator implements Iterator<IndexKeyEntries> {
+
+        private final Iterator<IndexKeyEntries> iterator;
+        private final Comparable from;
+        private final boolean fromInclusive;
+        private final Comparable to;
+        private final boolean toInclusive;
+
+        private IndexKeyEntries next;
+
+        FilteringBatchIterator(Iterator<IndexKeyEntries> iterator,
+                               Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+            this.iterator = iterator;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && iterator.hasNext()) {
+                IndexKeyEntries candidate = iterator.next();
+                if (isInRange((Comparable) candidate.getIndexKey())) {
+                    next = candidate;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexKeyEntries result = next;
+            next = null;
+            return result;
+        }
+
+        private boolean isInRange(Comparable value) {
+            int fromOrder = SPECIAL_AWARE_COMPARATOR.compare(value, from);
+            if (fromOrder < 0 || fromOrder == 0 && !fromInclusive) {
+                return false;
+            }
+            int toOrder = SPECIAL_AWARE_COMPARATOR.compare(value, to);
+            return toOrder < 0 || toOrder == 0 && toInclusive;
+        }
+    }
+}
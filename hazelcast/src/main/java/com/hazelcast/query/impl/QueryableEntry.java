@@ -24,6 +24,7 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.CompiledExtractor;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
@@ -62,6 +63,34 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return extractAttributeValue(attributeName);
     }
 
+    /**
+     * Extracts the value of an attribute of the key or of the value of this
+     * entry using the given compiled extractor. The {@code __key} and {@code
+     * this} attributes and the {@code __key.} prefix are expected to be
+     * resolved by the caller.
+     *
+     * @param extractor the compiled extractor of the attribute.
+     * @param key       {@code true} if the attribute belongs to the key,
+     *                  {@code false} if it belongs to the value.
+     * @return the extracted attribute value.
+     * @throws QueryException if the extraction fails.
+     */
+    public Object getAttributeValue(CompiledExtractor extractor, boolean key) throws QueryException {
+        Object target = getTargetObject(key);
+        Object metadata = getMetadataOrNull(key);
+        Object result;
+        if (extractor.getExtractors() == extractors) {
+            result = extractor.extract(target, metadata);
+        } else {
+            // the extractor was compiled for another map
+            result = extractors.extract(target, extractor.getAttributeName(), metadata);
+        }
+        if (result instanceof HazelcastJsonValue) {
+            return Json.parse(result.toString());
+        }
+        return result;
+    }
+
     public abstract K getKey();
 
     public abstract Data getKeyData();
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Iterator;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+
+/**
+ * {@link IndexedValues} of a {@link BaseSingleValueIndexStore}, reads the
+ * values and the entry counts through the SQL record iterators of the store.
+ */
+@SuppressWarnings("rawtypes")
+final class SingleValueIndexedValues implements IndexedValues {
+
+    private final BaseSingleValueIndexStore store;
+    private final boolean ordered;
+
+    SingleValueIndexedValues(BaseSingleValueIndexStore store, boolean ordered) {
+        this.store = store;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public boolean isMultiValued() {
+        return store.isMultiValued();
+    }
+
+    @Override
+    public long getEntryCount() {
+        long count = 0;
+        Iterator<QueryableEntry> entries = store.getSqlRecordIterator(false);
+        while (entries.hasNext()) {
+            entries.next();
+            ++count;
+        }
+        return count;
+    }
+
+    @Override
+    public Comparable getMinValue() {
+        return firstNonNullValue(false);
+    }
+
+    @Override
+    public Comparable getMaxValue() {
+        return firstNonNullValue(true);
+    }
+
+    @Override
+    public Iterator<Comparable> getDistinctValues() {
+        checkOrdered();
+        Iterator<IndexKeyEntries> batches = store.getSqlRecordIteratorBatch(false);
+        return new Iterator<Comparable>() {
+            @Override
+            public boolean hasNext() {
+                return batches.hasNext();
+            }
+
+            @Override
+            public Comparable next() {
+                Comparable value = batches.next().getIndexKey();
+                return value == NULL ? null : value;
+            }
+        };
+    }
+
+    private Comparable firstNonNullValue(boolean descending) {
+        checkOrdered();
+        Iterator<IndexKeyEntries> batches = store.getSqlRecordIteratorBatch(descending);
+        while (batches.hasNext()) {
+            Comparable value = batches.next().getIndexKey();
+            if (value != NULL) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private void checkOrdered() {
+        if (!ordered) {
+            throw new UnsupportedOperationException("the values of an unordered index store are not available");
+        }
+    }
+
+}
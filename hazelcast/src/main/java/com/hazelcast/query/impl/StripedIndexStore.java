@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.FlatCompositeIterator;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.OrderedIndexStore.IteratorFromBatch;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptySet;
+
+/**
+ * Index store split into stripes, every stripe is a separate index store
+ * holding the entries of a subset of the partitions.
+ * <p>
+ * A partition is assigned to the stripe {@code partitionId % stripeCount},
+ * the same way partitions are assigned to the partition threads. With as
+ * many stripes as there are partition threads, each stripe is updated by a
+ * single partition thread, so the updates of different partition threads
+ * don't contend on the maps and locks of a single shared store.
+ * <p>
+ * The single updater per stripe is an optimization, not a requirement:
+ * the stripes are concurrent index stores like the unstriped global index
+ * stores, so a stripe updated from another thread stays consistent. For
+ * instance, partition threads stealing partitions break the static
+ * mapping, that's why the stripes aren't used then. Running the tasks of
+ * a partition inline on a partition thread keeps the mapping, since they
+ * are run inline only on the thread the partition is mapped to.
+ * <p>
+ * Queries visit all the stripes. Since the stripes hold disjoint sets of
+ * entries, the results of lookups are the unions of the stripe results, and
+ * the ordered iterations lazily merge the ordered iterations of the stripes:
+ * the index keys are merged in the key order and the entries of the same
+ * key in the order of the {@link #getKeyComparator key comparator}.
+ */
+@SuppressWarnings("rawtypes")
+public class StripedIndexStore implements IndexStore {
+
+    private final IndexStore[] stripes;
+    private final int partitionCount;
+    private final boolean ordered;
+
+    /**
+     * @param stripeCount    the number of the stripes.
+     * @param partitionCount the number of the partitions.
+     * @param ordered        {@code true} if the stripes are ordered index
+     *                       stores supporting the batched SQL iterators.
+     * @param stripeFactory  creates the index store of a stripe.
+     */
+    public StripedIndexStore(int stripeCount, int partitionCount, boolean ordered, Supplier<IndexStore> stripeFactory) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive: " + stripeCount);
+        }
+        this.stripes = new IndexStore[stripeCount];
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = stripeFactory.get();
+        }
+        this.partitionCount = partitionCount;
+        this.ordered = ordered;
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    private IndexStore stripeOf(CachedQueryEntry entry) {
+        int partitionId = hashToIndex(entry.getKeyData().getPartitionHash(), partitionCount);
+        return stripes[partitionId % stripes.length];
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return stripes[0].canonicalizeQueryArgumentScalar(value);
+    }
+
+    @Override
+    public void insert(Object value, CachedQueryEntry entry, QueryableEntry entryToStore,
+                       IndexOperationStats operationStats) {
+        stripeOf(entry).insert(value, entry, entryToStore, operationStats);
+    }
+
+    @Override
+    public void update(Object oldValue, Object newValue, CachedQueryEntry entry, QueryableEntry entryToStore,
+                       IndexOperationStats operationStats) {
+        stripeOf(entry).update(oldValue, newValue, entry, entryToStore, operationStats);
+    }
+
+    @Override
+    public void remove(Object value, CachedQueryEntry entry, IndexOperationStats operationStats) {
+        stripeOf(entry).remove(value, entry, operationStats);
+    }
+
+    @Override
+    public void clear() {
+        for (IndexStore stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (IndexStore stripe : stripes) {
+            stripe.destroy();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        if (ordered) {
+            return new IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+        }
+        return concat(stripe -> stripe.getSqlRecordIterator(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        if (ordered) {
+            return new IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+        }
+        return concat(stripe -> stripe.getSqlRecordIterator(value));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable value, boolean descending) {
+        checkOrdered();
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(comparison, value, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparable from, boolean fromInclusive,
+                                                         Comparable to, boolean toInclusive, boolean descending) {
+        checkOrdered();
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(@Nonnull Comparable value, boolean descending) {
+        return merge(stripe -> stripe.getSqlRecordIteratorBatch(value, descending), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        return merge(stripe -> stripe.getSqlRecordIteratorBatch(descending), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(@Nonnull Comparison comparison,
+                                                               @Nonnull Comparable value,
+                                                               boolean descending) {
+        return merge(stripe -> stripe.getSqlRecordIteratorBatch(comparison, value, descending), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparable from,
+            boolean fromInclusive,
+            @Nonnull Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return merge(stripe -> stripe.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending),
+                descending);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return union(stripe -> stripe.getRecords(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        return union(stripe -> stripe.getRecords(values));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        return union(stripe -> stripe.getRecords(comparison, value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        return union(stripe -> stripe.getRecords(from, fromInclusive, to, toInclusive));
+    }
+
+    @Override
+    public IndexedValues getIndexedValues() {
+        IndexedValues[] values = new IndexedValues[stripes.length];
+        for (int i = 0; i < stripes.length; ++i) {
+            values[i] = stripes[i].getIndexedValues();
+            if (values[i] == null) {
+                return null;
+            }
+        }
+        return new StripedIndexedValues(values);
+    }
+
+    @Override
+    public Comparator<Data> getKeyComparator(boolean isDescending) {
+        return stripes[0].getKeyComparator(isDescending);
+    }
+
+    private void checkOrdered() {
+        if (!ordered) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private Iterator<QueryableEntry> concat(Function<IndexStore, Iterator<QueryableEntry>> query) {
+        List<Iterator<QueryableEntry>> iterators = new ArrayList<>(stripes.length);
+        for (IndexStore stripe : stripes) {
+            iterators.add(query.apply(stripe));
+        }
+        return new FlatCompositeIterator<>(iterators.iterator());
+    }
+
+    private Iterator<IndexKeyEntries> merge(Function<IndexStore, Iterator<IndexKeyEntries>> query, boolean descending) {
+        checkOrdered();
+        List<Iterator<IndexKeyEntries>> iterators = new ArrayList<>(stripes.length);
+        for (IndexStore stripe : stripes) {
+            iterators.add(query.apply(stripe));
+        }
+        return new MergingBatchIterator(iterators, descending, getKeyComparator(descending));
+    }
+
+    private Set<QueryableEntry> union(Function<IndexStore, Set<QueryableEntry>> query) {
+        List<Set<QueryableEntry>> results = new ArrayList<>(stripes.length);
+        for (IndexStore stripe : stripes) {
+            Set<QueryableEntry> result = query.apply(stripe);
+            if (!result.isEmpty()) {
+                results.add(result);
+            }
+        }
+        switch (results.size()) {
+            case 0:
+                return emptySet();
+            case 1:
+                return results.get(0);
+            default:
+                return new UnionResultSet(results);
+        }
+    }
+
+    /**
+     * Union of the disjoint results of the stripes.
+     */
+    private static final class UnionResultSet extends AbstractSet<QueryableEntry> {
+
+        private final List<Set<QueryableEntry>> results;
+
+        UnionResultSet(List<Set<QueryableEntry>> results) {
+            this.results = results;
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            List<Iterator<QueryableEntry>> iterators = new ArrayList<>(results.size());
+            for (Set<QueryableEntry> result : results) {
+                iterators.add(result.iterator());
+            }
+            return new FlatCompositeIterator<>(iterators.iterator());
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (Set<QueryableEntry> result : results) {
+                if (result.contains(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Set<QueryableEntry> result : results) {
+                size += result.size();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * The current element of one of the merged iterators.
+     */
+    private static final class Head<E> {
+
+        private final Iterator<E> iterator;
+        private E current;
+
+        Head(Iterator<E> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        boolean advance() {
+            if (iterator.hasNext()) {
+                current = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Merges sorted iterators, keeps the current elements of the iterators
+     * in a heap.
+     */
+    private static class MergingIterator<E> implements Iterator<E> {
+
+        final PriorityQueue<Head<E>> heads;
+
+        MergingIterator(List<Iterator<E>> iterators, Comparator<? super E> comparator) {
+            heads = new PriorityQueue<>(Math.max(1, iterators.size()),
+                    (left, right) -> comparator.compare(left.current, right.current));
+            for (Iterator<E> iterator : iterators) {
+                if (iterator.hasNext()) {
+                    heads.add(new Head<>(iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            Head<E> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            E element = head.current;
+            if (head.advance()) {
+                heads.add(head);
+            }
+            return element;
+        }
+    }
+
+    /**
+     * Merges the sorted batches of the stripes, the batches of the same
+     * index key are merged into a single batch.
+     */
+    private static final class MergingBatchIterator extends MergingIterator<IndexKeyEntries> {
+
+        private final Comparator<Comparable> keyComparator;
+        private final Comparator<QueryableEntry> entryComparator;
+
+        MergingBatchIterator(List<Iterator<IndexKeyEntries>> iterators, boolean descending,
+                             Comparator<Data> dataComparator) {
+            this(iterators, descending ? SPECIAL_AWARE_COMPARATOR.reversed() : SPECIAL_AWARE_COMPARATOR,
+                    dataComparator);
+        }
+
+        private MergingBatchIterator(List<Iterator<IndexKeyEntries>> iterators, Comparator<Comparable> keyComparator,
+                                     Comparator<Data> dataComparator) {
+            super(iterators, (left, right) -> keyComparator.compare(left.getIndexKey(), right.getIndexKey()));
+            this.keyComparator = keyComparator;
+            this.entryComparator = (left, right) -> dataComparator.compare(left.getKeyData(), right.getKeyData());
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            IndexKeyEntries batch = super.next();
+            Head<IndexKeyEntries> head = heads.peek();
+            if (head == null || keyComparator.compare(batch.getIndexKey(), head.current.getIndexKey()) != 0) {
+                return batch;
+            }
+
+            List<Iterator<QueryableEntry>> entries = new ArrayList<>();
+            entries.add(batch.getEntries());
+            do {
+                entries.add(super.next().getEntries());
+                head = heads.peek();
+            } while (head != null && keyComparator.compare(batch.getIndexKey(), head.current.getIndexKey()) == 0);
+            return new IndexKeyEntries(batch.getIndexKey(), new MergingIterator<>(entries, entryComparator));
+        }
+    }
+
+    /**
+     * Combines the {@link IndexedValues} of the stripes.
+     */
+    private final class StripedIndexedValues implements IndexedValues {
+
+        private final IndexedValues[] values;
+
+        StripedIndexedValues(IndexedValues[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return Arrays.stream(values).allMatch(IndexedValues::isOrdered);
+        }
+
+        @Override
+        public boolean isMultiValued() {
+            return Arrays.stream(values).anyMatch(IndexedValues::isMultiValued);
+        }
+
+        @Override
+        public long getEntryCount() {
+            long count = 0;
+            for (IndexedValues stripeValues : values) {
+                count += stripeValues.getEntryCount();
+            }
+            return count;
+        }
+
+        @Override
+        public Comparable getMinValue() {
+            Comparable min = null;
+            for (IndexedValues stripeValues : values) {
+                Comparable value = stripeValues.getMinValue();
+                if (value != null && (min == null || SPECIAL_AWARE_COMPARATOR.compare(value, min) < 0)) {
+                    min = value;
+                }
+            }
+            return min;
+        }
+
+        @Override
+        public Comparable getMaxValue() {
+            Comparable max = null;
+            for (IndexedValues stripeValues : values) {
+                Comparable value = stripeValues.getMaxValue();
+                if (value != null && (max == null || SPECIAL_AWARE_COMPARATOR.compare(value, max) > 0)) {
+                    max = value;
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public Iterator<Comparable> getDistinctValues() {
+            if (!isOrdered()) {
+                throw new UnsupportedOperationException("the values of an unordered index store are not available");
+            }
+            Iterator<IndexKeyEntries> batches = getSqlRecordIteratorBatch(false);
+            return new Iterator<Comparable>() {
+                @Override
+                public boolean hasNext() {
+                    return batches.hasNext();
+                }
+
+                @Override
+                public Comparable next() {
+                    Comparable value = batches.next().getIndexKey();
+                    return value == NULL ? null : value;
+                }
+            };
+        }
+    }
+}
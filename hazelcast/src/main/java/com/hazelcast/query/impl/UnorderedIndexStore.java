@@ -124,6 +124,11 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    @Override
+    public IndexedValues getIndexedValues() {
+        return new SingleValueIndexedValues(this, false);
+    }
+
     @Override
     public boolean isEvaluateOnly() {
         return false;
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.predicates.VectorSimilarityPredicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The store of vector indexes.
+ * <p>
+ * Keeps the normalized vectors of the indexed entries in a hierarchical
+ * navigable small world (HNSW) graph for the cosine distance and evaluates
+ * {@link VectorSimilarityPredicate}s by an approximate nearest neighbor
+ * search over the graph. The search yields the candidates for the nearest
+ * neighbors, the paging of the query orders and limits them.
+ * <p>
+ * The first indexed vector defines the dimension of the graph. The vectors
+ * of other dimensions are kept aside and searched exhaustively. Removed
+ * entries stay in the graph as deleted nodes, still used for the navigation
+ * but never returned, until they outnumber the live ones and the graph is
+ * rebuilt.
+ */
+@SuppressWarnings({"rawtypes", "checkstyle:MethodCount"})
+public final class VectorIndexStore extends BaseIndexStore {
+
+    /**
+     * The number of the neighbors a node is connected to on insertion, nodes
+     * may have up to twice as many neighbors on the bottom level.
+     */
+    static final int MAX_CONNECTIONS = 16;
+    /**
+     * The minimal number of the candidates a search yields.
+     */
+    static final int EF_SEARCH = 64;
+
+    private static final int MAX_CONNECTIONS_LEVEL_0 = 2 * MAX_CONNECTIONS;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final double LEVEL_MULTIPLIER = 1 / Math.log(MAX_CONNECTIONS);
+    private static final int MAX_LEVEL = 16;
+    private static final int MIN_REBUILD_DELETED_COUNT = 1000;
+    private static final long SEED = 42;
+    private static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparingDouble(candidate -> candidate.distance);
+
+    private final Map<Data, Node> nodes = new HashMap<>();
+    private final Map<Data, Node> otherDimensionNodes = new HashMap<>();
+    private final Random random = new Random(SEED);
+
+    private int dimension = -1;
+    private Node entryPoint;
+    private int deletedCount;
+
+    public VectorIndexStore() {
+        super(IndexCopyBehavior.NEVER, true);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return value;
+    }
+
+    @Override
+    public void insert(Object value, CachedQueryEntry entry, QueryableEntry entryToStore, IndexOperationStats operationStats) {
+        float[] vector = Vectors.toVector(value);
+        float[] normalized = vector == null ? null : Vectors.normalize(vector);
+        Data key = entry.getKeyData();
+
+        takeWriteLock();
+        try {
+            Node existing = nodes.get(key);
+            if (existing != null && Arrays.equals(existing.vector, normalized)) {
+                // the vector did not change, keep the node
+                existing.entry = entryToStore;
+                return;
+            }
+            removeNode(key);
+            if (normalized != null) {
+                addNode(key, normalized, entryToStore);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void update(Object oldValue, Object newValue, CachedQueryEntry entry, QueryableEntry entryToStore,
+                       IndexOperationStats operationStats) {
+        insert(newValue, entry, entryToStore, operationStats);
+    }
+
+    @Override
+    public void remove(Object value, CachedQueryEntry entry, IndexOperationStats operationStats) {
+        Data key = entry.getKeyData();
+
+        takeWriteLock();
+        try {
+            removeNode(key);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            nodes.clear();
+            otherDimensionNodes.clear();
+            dimension = -1;
+            entryPoint = null;
+            deletedCount = 0;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return predicateClass == VectorSimilarityPredicate.class;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        VectorSimilarityPredicate similarityPredicate = (VectorSimilarityPredicate) predicate;
+        float[] query = Vectors.normalize(similarityPredicate.getVector());
+        int ef = Math.max(EF_SEARCH, similarityPredicate.getK());
+
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> result = new HashMap<>();
+            if (entryPoint != null && query.length == dimension) {
+                Node closest = entryPoint;
+                for (int level = entryPoint.level(); level > 0; --level) {
+                    closest = greedySearch(query, closest, level);
+                }
+                for (Candidate candidate : search(query, closest, ef, 0, true)) {
+                    result.put(candidate.node.key, candidate.node.entry);
+                }
+            }
+            for (Node node : otherDimensionNodes.values()) {
+                if (node.vector.length == query.length) {
+                    result.put(node.key, node.entry);
+                }
+            }
+            return toSingleResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparison comparison, Comparable value, boolean descending) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        throw makeUnsupportedOperationException();
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        return value;
+    }
+
+    /**
+     * @return the number of the deleted nodes still present in the graph.
+     */
+    int getDeletedCount() {
+        takeReadLock();
+        try {
+            return deletedCount;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private void addNode(Data key, float[] normalizedVector, QueryableEntry entry) {
+        if (dimension < 0) {
+            dimension = normalizedVector.length;
+        }
+        if (normalizedVector.length != dimension) {
+            otherDimensionNodes.put(key, new Node(key, normalizedVector, entry, -1));
+            return;
+        }
+
+        Node node = new Node(key, normalizedVector, entry, randomLevel());
+        nodes.put(key, node);
+        link(node);
+    }
+
+    private void removeNode(Data key) {
+        if (otherDimensionNodes.remove(key) != null) {
+            resetDimensionIfEmpty();
+            return;
+        }
+
+        Node node = nodes.remove(key);
+        if (node == null) {
+            return;
+        }
+        node.entry = null;
+        ++deletedCount;
+
+        if (nodes.isEmpty()) {
+            entryPoint = null;
+            deletedCount = 0;
+            resetDimensionIfEmpty();
+        } else if (deletedCount >= MIN_REBUILD_DELETED_COUNT && deletedCount > nodes.size()) {
+            rebuild();
+        }
+    }
+
+    private void resetDimensionIfEmpty() {
+        if (nodes.isEmpty() && otherDimensionNodes.isEmpty()) {
+            dimension = -1;
+        }
+    }
+
+    private void rebuild() {
+        List<Node> live = new ArrayList<>(nodes.values());
+        nodes.clear();
+        entryPoint = null;
+        deletedCount = 0;
+        for (Node node : live) {
+            Node copy = new Node(node.key, node.vector, node.entry, randomLevel());
+            nodes.put(copy.key, copy);
+            link(copy);
+        }
+    }
+
+    private void link(Node node) {
+        if (entryPoint == null) {
+            entryPoint = node;
+            return;
+        }
+
+        int topLevel = entryPoint.level();
+        Node closest = entryPoint;
+        for (int level = topLevel; level > node.level(); --level) {
+            closest = greedySearch(node.vector, closest, level);
+        }
+        for (int level = Math.min(topLevel, node.level()); level >= 0; --level) {
+            List<Candidate> candidates = search(node.vector, closest, EF_CONSTRUCTION, level, false);
+            for (Node neighbor : selectNeighbors(candidates, MAX_CONNECTIONS)) {
+                node.neighbors[level].add(neighbor);
+                List<Node> neighborLinks = neighbor.neighbors[level];
+                neighborLinks.add(node);
+                if (neighborLinks.size() > maxConnections(level)) {
+                    shrink(neighbor, level);
+                }
+            }
+            closest = candidates.get(0).node;
+        }
+        if (node.level() > topLevel) {
+            entryPoint = node;
+        }
+    }
+
+    private void shrink(Node node, int level) {
+        List<Node> links = node.neighbors[level];
+        List<Candidate> candidates = new ArrayList<>(links.size());
+        for (Node neighbor : links) {
+            candidates.add(new Candidate(neighbor, distance(node.vector, neighbor)));
+        }
+        candidates.sort(CLOSEST_FIRST);
+        links.clear();
+        links.addAll(selectNeighbors(candidates, maxConnections(level)));
+    }
+
+    /**
+     * Selects up to {@code count} neighbors among the given candidates sorted
+     * by the distance. Prefers the candidates closer to the node than to the
+     * already selected neighbors, which keeps the graph navigable across
+     * clusters, and fills the rest with the closest remaining candidates.
+     */
+    private static List<Node> selectNeighbors(List<Candidate> candidates, int count) {
+        List<Node> selected = new ArrayList<>(count);
+        List<Node> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() == count) {
+                break;
+            }
+            if (isCloserThanSelected(candidate, selected)) {
+                selected.add(candidate.node);
+            } else {
+                pruned.add(candidate.node);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < count; ++i) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private static boolean isCloserThanSelected(Candidate candidate, List<Node> selected) {
+        for (Node node : selected) {
+            if (distance(candidate.node.vector, node) < candidate.distance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Node greedySearch(float[] query, Node start, int level) {
+        Node closest = start;
+        double closestDistance = distance(query, closest);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (Node neighbor : closest.neighbors[level]) {
+                double neighborDistance = distance(query, neighbor);
+                if (neighborDistance < closestDistance) {
+                    closest = neighbor;
+                    closestDistance = neighborDistance;
+                    improved = true;
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Searches the given level of the graph for the {@code ef} nodes closest
+     * to the query.
+     *
+     * @param liveOnly {@code true} to traverse the deleted nodes without
+     *                 returning them.
+     * @return the found nodes sorted by the distance.
+     */
+    private static List<Candidate> search(float[] query, Node start, int ef, int level, boolean liveOnly) {
+        Set<Node> visited = new HashSet<>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(CLOSEST_FIRST.reversed());
+
+        Candidate first = new Candidate(start, distance(query, start));
+        visited.add(start);
+        candidates.add(first);
+        if (!liveOnly || !start.isDeleted()) {
+            results.add(first);
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.distance > results.peek().distance) {
+                break;
+            }
+            for (Node neighbor : current.node.neighbors[level]) {
+                if (!visited.add(neighbor)) {
+                    continue;
+                }
+                double neighborDistance = distance(query, neighbor);
+                if (results.size() < ef || neighborDistance < results.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, neighborDistance);
+                    candidates.add(candidate);
+                    if (!liveOnly || !neighbor.isDeleted()) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(CLOSEST_FIRST);
+        return sorted;
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1 - random.nextDouble()) * LEVEL_MULTIPLIER;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    private static int maxConnections(int level) {
+        return level == 0 ? MAX_CONNECTIONS_LEVEL_0 : MAX_CONNECTIONS;
+    }
+
+    /**
+     * @return the cosine distance of the given normalized vector to the
+     * vector of the given node.
+     */
+    private static double distance(float[] vector, Node node) {
+        return 1 - Vectors.dot(vector, node.vector);
+    }
+
+    private static UnsupportedOperationException makeUnsupportedOperationException() {
+        return new UnsupportedOperationException("vector indexes support only direct predicate evaluation");
+    }
+
+    private static final class Node {
+
+        private final Data key;
+        private final float[] vector;
+        private final List<Node>[] neighbors;
+        /**
+         * The indexed entry, {@code null} once the node is deleted.
+         */
+        private QueryableEntry entry;
+
+        @SuppressWarnings("unchecked")
+        Node(Data key, float[] vector, QueryableEntry entry, int level) {
+            this.key = key;
+            this.vector = vector;
+            this.entry = entry;
+            this.neighbors = new List[level + 1];
+            for (int i = 0; i <= level; ++i) {
+                neighbors[i] = new ArrayList<>(maxConnections(i) + 1);
+            }
+        }
+
+        int level() {
+            return neighbors.length - 1;
+        }
+
+        boolean isDeleted() {
+            return entry == null;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final Node node;
+        private final double distance;
+
+        Candidate(Node node, double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.List;
+
+/**
+ * Utilities for the vector attributes used by the similarity search: the
+ * conversion of attribute values to vectors and the cosine similarity.
+ */
+public final class Vectors {
+
+    private Vectors() {
+    }
+
+    /**
+     * Converts the given attribute value to a vector.
+     *
+     * @param value the attribute value: a {@code float[]}, a {@code double[]},
+     *              an array or a list of {@link Number}s.
+     * @return the vector or {@code null} if the value is {@code null}, is not
+     * a vector or has {@code null} components.
+     */
+    @SuppressWarnings("checkstyle:ReturnCount")
+    public static float[] toVector(Object value) {
+        if (value instanceof float[]) {
+            return (float[]) value;
+        } else if (value instanceof double[]) {
+            double[] doubles = (double[]) value;
+            float[] vector = new float[doubles.length];
+            for (int i = 0; i < doubles.length; ++i) {
+                vector[i] = (float) doubles[i];
+            }
+            return vector;
+        } else if (value instanceof Number[]) {
+            return toVector((Number[]) value);
+        } else if (value instanceof List) {
+            Object[] components = ((List<?>) value).toArray();
+            Number[] numbers = new Number[components.length];
+            for (int i = 0; i < components.length; ++i) {
+                if (!(components[i] instanceof Number)) {
+                    return null;
+                }
+                numbers[i] = (Number) components[i];
+            }
+            return toVector(numbers);
+        } else {
+            return null;
+        }
+    }
+
+    private static float[] toVector(Number[] numbers) {
+        float[] vector = new float[numbers.length];
+        for (int i = 0; i < numbers.length; ++i) {
+            if (numbers[i] == null) {
+                return null;
+            }
+            vector[i] = numbers[i].floatValue();
+        }
+        return vector;
+    }
+
+    /**
+     * Computes the cosine similarity of the given vectors of the same
+     * dimension. The similarity involving a zero vector is {@code 0}.
+     *
+     * @return the similarity in the {@code [-1, 1]} range.
+     */
+    public static double cosineSimilarity(float[] left, float[] right) {
+        assert left.length == right.length;
+        double dot = 0;
+        double leftNorm = 0;
+        double rightNorm = 0;
+        for (int i = 0; i < left.length; ++i) {
+            dot += (double) left[i] * right[i];
+            leftNorm += (double) left[i] * left[i];
+            rightNorm += (double) right[i] * right[i];
+        }
+        if (leftNorm == 0 || rightNorm == 0) {
+            return 0;
+        }
+        return dot / Math.sqrt(leftNorm * rightNorm);
+    }
+
+    /**
+     * @return a copy of the given vector scaled to the unit length, or a copy
+     * of the zero vector.
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float component : vector) {
+            norm += (double) component * component;
+        }
+        if (norm == 0) {
+            return vector.clone();
+        }
+        double scale = 1 / Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; ++i) {
+            normalized[i] = (float) (vector[i] * scale);
+        }
+        return normalized;
+    }
+
+    /**
+     * @return the dot product of the given vectors of the same dimension.
+     */
+    static double dot(float[] left, float[] right) {
+        double dot = 0;
+        for (int i = 0; i < left.length; ++i) {
+            dot += (double) left[i] * right[i];
+        }
+        return dot;
+    }
+}
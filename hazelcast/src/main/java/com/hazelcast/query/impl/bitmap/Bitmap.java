@@ -19,16 +19,21 @@ package com.hazelcast.query.impl.bitmap;
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexHeapMemoryCostUtil;
 import com.hazelcast.query.impl.predicates.AndPredicate;
 import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.EvaluatePredicate;
 import com.hazelcast.query.impl.predicates.InPredicate;
 import com.hazelcast.query.impl.predicates.NotEqualPredicate;
 import com.hazelcast.query.impl.predicates.NotPredicate;
 import com.hazelcast.query.impl.predicates.OrPredicate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Provides indexing and querying capabilities for a single attribute of entries
@@ -38,19 +43,25 @@ import java.util.Map;
  * Internally, each bitmap manages a set of sparse bit sets, one for each
  * possible attribute value, and a sparse array to map from unique {@code long}
  * entry keys back to entries.
+ * <p>
+ * Bitmaps sharing the same unique {@code long} key space might be queried
+ * together, see {@link #evaluate(Predicate, Map, Map)}.
  *
  * @param <E> the type of entries being indexed.
  */
 @SuppressWarnings("rawtypes")
 public final class Bitmap<E> {
 
+    // the rough cost of a hash map node and its table slot
+    private static final int BIT_SET_ENTRY_COST = 40;
+
     private final Map<Object, SparseBitSet> bitSets = new HashMap<>();
 
     private final SparseArray<E> entries = new SparseArray<>();
 
-    // Note! At the moment bitmap index doesn't support memory statistics,
-    // because we cannot produce precise memory estimate.
-    // Instead, we provide zero memory consumption estimation.
+    // The values themselves are reported as costless, the memory cost of
+    // the values and their bit sets is reported separately using the
+    // memory cost estimates provided by the bit sets.
     private enum ZeroCost { ZERO_COST }
 
     /**
@@ -66,9 +77,7 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.computeIfAbsent(value, x -> new SparseBitSet());
-            operationStats.onEntryAdded(ZeroCost.ZERO_COST);
-            bitSet.add(key);
+            add(value, key, operationStats);
         }
 
         entries.set(key, entry);
@@ -88,20 +97,14 @@ public final class Bitmap<E> {
             Object value = oldValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
-            if (bitSet != null) {
-                bitSet.remove(key);
-            }
-            operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+            remove(value, key, operationStats);
         }
 
         while (newValues.hasNext()) {
             Object value = newValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.computeIfAbsent(value, x -> new SparseBitSet());
-            operationStats.onEntryAdded(ZeroCost.ZERO_COST);
-            bitSet.add(key);
+            add(value, key, operationStats);
         }
 
         entries.set(key, entry);
@@ -119,18 +122,25 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
-            if (bitSet != null) {
-                if (bitSet.remove(key)) {
-                    bitSets.remove(value);
-                }
-            }
-            operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+            remove(value, key, operationStats);
         }
 
         entries.clear(key);
     }
 
+    /**
+     * @return the number of entries in this bitmap, the entries are counted
+     * by walking their unique keys.
+     */
+    public long getEntryCount() {
+        long count = 0;
+        for (SparseArray.Iterator<E> iterator = entries.iterator(); iterator.getIndex() != AscendingLongIterator.END;
+             iterator.advance()) {
+            ++count;
+        }
+        return count;
+    }
+
     /**
      * Clears this bitmap.
      */
@@ -156,6 +166,123 @@ public final class Bitmap<E> {
         return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
     }
 
+    /**
+     * Evaluates the given predicate spanning multiple bitmaps sharing the same
+     * unique {@code long} key space.
+     * <p>
+     * The given predicate is a combination of {@link AndPredicate}, {@link
+     * OrPredicate} and {@link NotPredicate} predicates having {@link
+     * EvaluatePredicate} predicates as leaves. Each leaf is evaluated by the
+     * bitmap associated with the leaf index name and the results are combined
+     * on the bit set level, entries are resolved only for the final result.
+     *
+     * @param predicate  the predicate to evaluate.
+     * @param bitmaps    the bitmaps to evaluate the leaves with, keyed by index
+     *                   names.
+     * @param converters the converters to use for the leaf predicate arguments
+     *                   conversion, keyed by index names.
+     * @param <E>        the type of entries being indexed.
+     * @return an iterator containing entries matching the given predicate.
+     */
+    public static <E> Iterator<E> evaluate(Predicate predicate, Map<String, Bitmap<E>> bitmaps,
+                                           Map<String, TypeConverter> converters) {
+        List<SparseArray.Iterator<E>> universes = new ArrayList<>(bitmaps.size());
+        for (Bitmap<E> bitmap : bitmaps.values()) {
+            universes.add(bitmap.entries.iterator());
+        }
+        return new MultiEntryIterator<>(expressionIterator(predicate, bitmaps, converters), universes);
+    }
+
+    private static <E> AscendingLongIterator expressionIterator(Predicate predicate, Map<String, Bitmap<E>> bitmaps,
+                                                                Map<String, TypeConverter> converters) {
+        if (predicate instanceof EvaluatePredicate) {
+            EvaluatePredicate evaluatePredicate = (EvaluatePredicate) predicate;
+            String indexName = evaluatePredicate.getIndexName();
+            Bitmap<E> bitmap = bitmaps.get(indexName);
+            return bitmap.predicateIterator(evaluatePredicate.getPredicate(), converters.get(indexName));
+        }
+
+        if (predicate instanceof AndPredicate) {
+            Predicate[] predicates = ((AndPredicate) predicate).getPredicates();
+            assert predicates.length > 0;
+            return BitmapAlgorithms.and(expressionIterators(predicates, bitmaps, converters));
+        }
+
+        if (predicate instanceof OrPredicate) {
+            Predicate[] predicates = ((OrPredicate) predicate).getPredicates();
+            assert predicates.length > 0;
+            return BitmapAlgorithms.or(expressionIterators(predicates, bitmaps, converters));
+        }
+
+        if (predicate instanceof NotPredicate) {
+            Predicate subPredicate = ((NotPredicate) predicate).getPredicate();
+            // All the bitmaps index the same entries, so the entries of any
+            // bitmap referenced by the sub-predicate may serve as the universe.
+            Bitmap<E> universe = bitmaps.get(firstIndexName(subPredicate));
+            return BitmapAlgorithms.not(expressionIterator(subPredicate, bitmaps, converters), universe.entries);
+        }
+
+        throw new IllegalArgumentException("unexpected predicate: " + predicate);
+    }
+
+    private static <E> AscendingLongIterator[] expressionIterators(Predicate[] predicates, Map<String, Bitmap<E>> bitmaps,
+                                                                   Map<String, TypeConverter> converters) {
+        AscendingLongIterator[] iterators = new AscendingLongIterator[predicates.length];
+        for (int i = 0; i < predicates.length; ++i) {
+            iterators[i] = expressionIterator(predicates[i], bitmaps, converters);
+        }
+        return iterators;
+    }
+
+    private static String firstIndexName(Predicate predicate) {
+        if (predicate instanceof EvaluatePredicate) {
+            return ((EvaluatePredicate) predicate).getIndexName();
+        }
+        if (predicate instanceof AndPredicate) {
+            return firstIndexName(((AndPredicate) predicate).getPredicates()[0]);
+        }
+        if (predicate instanceof OrPredicate) {
+            return firstIndexName(((OrPredicate) predicate).getPredicates()[0]);
+        }
+        if (predicate instanceof NotPredicate) {
+            return firstIndexName(((NotPredicate) predicate).getPredicate());
+        }
+        throw new IllegalArgumentException("unexpected predicate: " + predicate);
+    }
+
+    private void add(Object value, long key, IndexOperationStats operationStats) {
+        SparseBitSet bitSet = bitSets.get(value);
+        long memoryCostDelta;
+        if (bitSet == null) {
+            bitSet = new SparseBitSet();
+            bitSets.put(value, bitSet);
+            memoryCostDelta = BIT_SET_ENTRY_COST + IndexHeapMemoryCostUtil.estimateValueCost(value);
+        } else {
+            memoryCostDelta = -bitSet.getMemoryCost();
+        }
+
+        bitSet.add(key);
+        memoryCostDelta += bitSet.getMemoryCost();
+
+        operationStats.onEntryAdded(ZeroCost.ZERO_COST);
+        operationStats.onMemoryCostChanged(memoryCostDelta);
+    }
+
+    private void remove(Object value, long key, IndexOperationStats operationStats) {
+        SparseBitSet bitSet = bitSets.get(value);
+        if (bitSet != null) {
+            long memoryCost = bitSet.getMemoryCost();
+            if (bitSet.remove(key)) {
+                bitSets.remove(value);
+                operationStats.onMemoryCostChanged(
+                        -(memoryCost + BIT_SET_ENTRY_COST + IndexHeapMemoryCostUtil.estimateValueCost(value)));
+            } else {
+                operationStats.onMemoryCostChanged(bitSet.getMemoryCost() - memoryCost);
+            }
+        }
+        operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     private AscendingLongIterator predicateIterator(Predicate predicate, TypeConverter converter) {
         if (predicate instanceof AndPredicate) {
@@ -255,4 +382,43 @@ public final class Bitmap<E> {
 
     }
 
+    /**
+     * Maps unique entry keys back to entries using multiple bitmaps sharing
+     * the same unique key space.
+     */
+    private static final class MultiEntryIterator<E> implements Iterator<E> {
+
+        private final AscendingLongIterator iterator;
+        private final List<SparseArray.Iterator<E>> universes;
+
+        MultiEntryIterator(AscendingLongIterator iterator, List<SparseArray.Iterator<E>> universes) {
+            this.iterator = iterator;
+            this.universes = universes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.getIndex() != AscendingLongIterator.END;
+        }
+
+        @Override
+        public E next() {
+            long member = iterator.advance();
+            // Usually, the very first bitmap knows the entry, others are
+            // consulted only if the bitmaps are not fully in sync.
+            for (SparseArray.Iterator<E> universe : universes) {
+                if (universe.advanceAtLeastTo(member) == member) {
+                    return universe.getValue();
+                }
+            }
+            throw new NoSuchElementException("no entry for key " + member);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("bitmap iterators are read-only");
+        }
+
+    }
+
 }
@@ -21,6 +21,7 @@ import static com.hazelcast.query.impl.bitmap.BitmapUtils.capacityDeltaShort;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedInt;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedLong;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.unsignedBinarySearch;
+import static java.lang.Long.bitCount;
 import static java.lang.Long.numberOfTrailingZeros;
 import static java.lang.System.arraycopy;
 import static java.util.Arrays.copyOf;
@@ -42,16 +43,19 @@ import static java.util.Arrays.copyOf;
  * the low 16 bits.
  * </ul>
  * <p>
- * {@link Storage16 Storage16} also goes in two flavors:
+ * {@link Storage16 Storage16} goes in three flavors:
  * <ul>
  * <li>{@link ArrayStorage16 ArrayStorage16} which manages sorted short array of
  * 16-bit postfixes.
  * <li>{@link BitSetStorage16 BitSetStorage16} which manages directly indexable
  * long array of bits.
+ * <li>{@link RunStorage16 RunStorage16} which manages sorted short array of
+ * runs of consecutive 16-bit postfixes.
  * </ul>
  * <p>
  * The implementation (which was inspired by Roaring Bitmap) switches between
- * various storage flavors once certain thresholds on storage size are reached.
+ * various storage flavors once certain thresholds on storage size or on the
+ * number of runs of consecutive members are reached.
  * <p>
  * Empty storages are never stored by the implementation.
  */
@@ -71,6 +75,33 @@ final class SparseBitSet {
      */
     public static final int ARRAY_STORAGE_16_MAX_SIZE = 4096;
 
+    /**
+     * The run count at which RunStorage16 is converted to BitSetStorage16. At
+     * this run count the memory cost of having sorted array of runs is equal
+     * to the cost of having directly indexable long array of bits.
+     */
+    public static final int RUN_STORAGE_16_MAX_RUNS = 2048;
+
+    /**
+     * The run count at which BitSetStorage16 is converted to RunStorage16. At
+     * this run count the memory cost of having sorted array of runs is half
+     * of the cost of having directly indexable long array of bits. The gap
+     * between the thresholds prevents frequent conversions back and forth.
+     */
+    public static final int BIT_SET_STORAGE_16_MIN_RUNS = RUN_STORAGE_16_MAX_RUNS / 2;
+
+    // The costs below assume compressed references and 8-byte alignment of
+    // objects on the heap.
+    private static final int BASE_ARRAY_COST = 16;
+    private static final int OBJECT_ALIGNMENT_MASK = 7;
+    // the bit set itself, its root storage and the cached storage reference
+    private static final int SPARSE_BIT_SET_COST = 64;
+    // the rough cost of a reference to Storage32 kept by the root storage
+    private static final int STORAGE_32_SLOT_COST = 8;
+    private static final int ARRAY_STORAGE_32_COST = 24;
+    private static final int PREFIX_STORAGE_32_COST = 40;
+    private static final int STORAGE_16_COST = 24;
+
     private static final long INT_PREFIX_MASK = 0xFFFFFFFF00000000L;
     private static final long INT_POSTFIX_MASK = 0x00000000FFFFFFFFL;
     private static final long SHORT_PREFIX_MASK = 0x00000000FFFF0000L;
@@ -84,6 +115,8 @@ final class SparseBitSet {
     private int lastPrefix = -1;
     private Storage32 lastStorage;
 
+    private long memoryCost = SPARSE_BIT_SET_COST;
+
     /**
      * Adds the given member to this bit set.
      *
@@ -94,8 +127,11 @@ final class SparseBitSet {
         int prefix = (int) (member >>> Integer.SIZE);
 
         if (prefix == lastPrefix) {
-            Storage32 newStorage = lastStorage.add((int) member);
-            if (newStorage != lastStorage) {
+            Storage32 storage = lastStorage;
+            long storageCost = storage.memoryCost();
+            Storage32 newStorage = storage.add((int) member);
+            memoryCost += newStorage.memoryCost() - storageCost;
+            if (newStorage != storage) {
                 // storage was upgraded
                 lastStorage = newStorage;
                 storages.set(prefix, newStorage);
@@ -105,10 +141,13 @@ final class SparseBitSet {
             Storage32 storage = storages.get(prefix);
             if (storage == null) {
                 Storage32 createdStorage = new ArrayStorage32((int) member);
+                memoryCost += createdStorage.memoryCost() + STORAGE_32_SLOT_COST;
                 lastStorage = createdStorage;
                 storages.set(prefix, createdStorage);
             } else {
+                long storageCost = storage.memoryCost();
                 Storage32 newStorage = storage.add((int) member);
+                memoryCost += newStorage.memoryCost() - storageCost;
                 if (newStorage == storage) {
                     lastStorage = storage;
                 } else {
@@ -132,11 +171,15 @@ final class SparseBitSet {
         int prefix = (int) (member >>> Integer.SIZE);
 
         if (prefix == lastPrefix) {
-            if (lastStorage.remove((int) member)) {
+            Storage32 storage = lastStorage;
+            long storageCost = storage.memoryCost();
+            if (storage.remove((int) member)) {
+                memoryCost -= storageCost + STORAGE_32_SLOT_COST;
                 lastPrefix = -1;
                 lastStorage = null;
                 return storages.clear(prefix);
             } else {
+                memoryCost += storage.memoryCost() - storageCost;
                 return false;
             }
         } else {
@@ -144,11 +187,14 @@ final class SparseBitSet {
             if (storage == null) {
                 return false;
             }
+            long storageCost = storage.memoryCost();
             if (storage.remove((int) member)) {
+                memoryCost -= storageCost + STORAGE_32_SLOT_COST;
                 lastPrefix = -1;
                 lastStorage = null;
                 return storages.clear(prefix);
             } else {
+                memoryCost += storage.memoryCost() - storageCost;
                 lastPrefix = prefix;
                 lastStorage = storage;
                 return false;
@@ -156,6 +202,18 @@ final class SparseBitSet {
         }
     }
 
+    /**
+     * Returns the estimated on-heap memory cost of this bit set in bytes.
+     * <p>
+     * The cost is maintained incrementally while members are added and
+     * removed, so the method is cheap to call.
+     *
+     * @return the estimated memory cost.
+     */
+    public long getMemoryCost() {
+        return memoryCost;
+    }
+
     /**
      * @return an iterator that iterates over all the indexes of bits set in
      * this sparse bit set.
@@ -164,6 +222,69 @@ final class SparseBitSet {
         return new IteratorImpl(storages);
     }
 
+    private static long arrayCost(int length, int elementSize) {
+        return (BASE_ARRAY_COST + (long) length * elementSize + OBJECT_ALIGNMENT_MASK) & ~OBJECT_ALIGNMENT_MASK;
+    }
+
+    /**
+     * @return the change in the number of runs of consecutive members caused
+     * by adding a member which is immediately preceded and/or followed by the
+     * existing members; negate to get the change caused by removing it.
+     */
+    private static int runCountDelta(boolean joinsPrevious, boolean joinsNext) {
+        if (joinsPrevious && joinsNext) {
+            // two runs are merged into one
+            return -1;
+        } else if (joinsPrevious || joinsNext) {
+            // an existing run is extended
+            return 0;
+        } else {
+            // a new run is started
+            return 1;
+        }
+    }
+
+    private static int countRuns(long[] bits) {
+        int count = 0;
+        long carry = 0;
+        for (long word : bits) {
+            // a run starts at every set bit not preceded by another set bit
+            count += bitCount(word & ~(word << 1 | carry));
+            carry = word >>> (Long.SIZE - 1);
+        }
+        return count;
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int longIndex = from >>> BitSetStorage16.BIT_SET_LONG_SHIFT;
+        if (longIndex == bits.length) {
+            return -1;
+        }
+
+        long word = bits[longIndex] & -1L << from;
+        while (word == 0) {
+            ++longIndex;
+            if (longIndex == bits.length) {
+                return -1;
+            }
+            word = bits[longIndex];
+        }
+        return longIndex << BitSetStorage16.BIT_SET_LONG_SHIFT | numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] bits, int from) {
+        int longIndex = from >>> BitSetStorage16.BIT_SET_LONG_SHIFT;
+        long word = ~bits[longIndex] & -1L << from;
+        while (word == 0) {
+            ++longIndex;
+            if (longIndex == bits.length) {
+                return bits.length << BitSetStorage16.BIT_SET_LONG_SHIFT;
+            }
+            word = ~bits[longIndex];
+        }
+        return longIndex << BitSetStorage16.BIT_SET_LONG_SHIFT | numberOfTrailingZeros(word);
+    }
+
     /**
      * Defines internal contract of storages responsible for storing of 32-bit
      * postfixes.
@@ -234,6 +355,12 @@ final class SparseBitSet {
          */
         boolean advanceAtLeastTo(int member, IteratorImpl iterator);
 
+        /**
+         * @return the estimated memory cost of this storage in bytes including
+         * the costs of all its nested storages.
+         */
+        long memoryCost();
+
     }
 
     /**
@@ -376,6 +503,11 @@ final class SparseBitSet {
             return true;
         }
 
+        @Override
+        public long memoryCost() {
+            return ARRAY_STORAGE_32_COST + arrayCost(members.length, Integer.BYTES);
+        }
+
     }
 
     /**
@@ -395,6 +527,9 @@ final class SparseBitSet {
         private int lastPrefix = -1;
         private Storage16 lastStorage;
 
+        // the total memory cost of all the 16-bit postfix storages
+        private long childrenCost;
+
         /**
          * Constructs a new prefix storage for the given sorted members array
          * and the given member to insert at the given index.
@@ -410,6 +545,10 @@ final class SparseBitSet {
             for (int i = index; i < members.length; ++i) {
                 append(members[i]);
             }
+
+            for (int i = 0; i < size; ++i) {
+                childrenCost += storages[i].memoryCost();
+            }
         }
 
         @Override
@@ -423,8 +562,10 @@ final class SparseBitSet {
             if (unsignedPrefix == lastPrefix) {
                 // We are lucky: just add the member to the cached storage.
 
+                long storageCost = lastStorage.memoryCost();
                 Storage16 newStorage = lastStorage.add((short) member);
-                // handle potential storage upgrade
+                childrenCost += newStorage.memoryCost() - storageCost;
+                // handle potential storage conversion
                 if (newStorage != lastStorage) {
                     int index = unsignedBinarySearch(prefixes, size, unsignedPrefix);
                     assert index >= 0;
@@ -439,8 +580,10 @@ final class SparseBitSet {
                 // The storage already exists: just add the member to it.
 
                 Storage16 storage = storages[index];
+                long storageCost = storage.memoryCost();
                 Storage16 newStorage = storage.add((short) member);
-                // handle potential storage upgrade
+                childrenCost += newStorage.memoryCost() - storageCost;
+                // handle potential storage conversion
                 if (newStorage != storage) {
                     storages[index] = newStorage;
                 }
@@ -475,6 +618,7 @@ final class SparseBitSet {
             }
 
             ArrayStorage16 createdStorage = new ArrayStorage16((short) member);
+            childrenCost += createdStorage.memoryCost();
             prefixes[index] = prefix;
             storages[index] = createdStorage;
             lastPrefix = unsignedPrefix;
@@ -492,14 +636,17 @@ final class SparseBitSet {
             // 16-bit prefix.
 
             Storage16 newStorage;
+            long storageCost;
             int index;
 
             if (unsignedPrefix == lastPrefix) {
                 // We are lucky: just remove the member from the cached storage.
 
                 Storage16 storage = lastStorage;
+                storageCost = storage.memoryCost();
                 newStorage = storage.remove((short) member);
                 if (newStorage == storage) {
+                    childrenCost += storage.memoryCost() - storageCost;
                     return false;
                 }
                 // To handle the storage downgrade or removal we need to know
@@ -514,21 +661,24 @@ final class SparseBitSet {
                 }
 
                 Storage16 storage = storages[index];
+                storageCost = storage.memoryCost();
                 newStorage = storage.remove((short) member);
                 if (newStorage == storage) {
+                    childrenCost += storage.memoryCost() - storageCost;
                     lastStorage = storage;
                     lastPrefix = unsignedPrefix;
                     return false;
                 }
             }
 
-            // The 16-bit postfix storage is either emptied or downgraded at
+            // The 16-bit postfix storage is either emptied or converted at
             // this point.
 
             if (newStorage == null) {
                 // The postfix storage is emptied: remove it from this prefix
                 // storage.
 
+                childrenCost -= storageCost;
                 --size;
                 lastStorage = null;
                 lastPrefix = -1;
@@ -559,8 +709,9 @@ final class SparseBitSet {
                     arraycopy(storages, index + 1, storages, index, size - index);
                 }
             } else {
-                // The postfix storage is downgraded: update the records.
+                // The postfix storage is converted: update the records.
 
+                childrenCost += newStorage.memoryCost() - storageCost;
                 lastStorage = newStorage;
                 lastPrefix = unsignedPrefix;
                 storages[index] = newStorage;
@@ -648,6 +799,12 @@ final class SparseBitSet {
             return iterateAtLeastFrom(member, position, iterator);
         }
 
+        @Override
+        public long memoryCost() {
+            return PREFIX_STORAGE_32_COST + arrayCost(prefixes.length, Short.BYTES)
+                    + arrayCost(storages.length, Integer.BYTES) + childrenCost;
+        }
+
         private void append(int member) {
             short prefix = (short) (member >>> Short.SIZE);
 
@@ -780,6 +937,11 @@ final class SparseBitSet {
          */
         boolean advanceAtLeastTo(short member, IteratorImpl iterator);
 
+        /**
+         * @return the estimated memory cost of this storage in bytes.
+         */
+        long memoryCost();
+
     }
 
     /**
@@ -791,10 +953,13 @@ final class SparseBitSet {
 
         private int size;
         private short[] members;
+        // the number of runs of consecutive members
+        private int runCount;
 
         ArrayStorage16(short member) {
             this.size = 1;
             this.members = new short[MIN_CAPACITY];
+            this.runCount = 1;
             members[0] = member;
         }
 
@@ -802,9 +967,10 @@ final class SparseBitSet {
          * Constructs a new storage by downgrading from the given {@link
          * BitSetStorage16} data.
          */
-        ArrayStorage16(long[] bits, int size) {
+        ArrayStorage16(long[] bits, int size, int runCount) {
             assert size == BitSetStorage16.MIN_SIZE;
             this.size = size;
+            this.runCount = runCount;
 
             short[] members = new short[ARRAY_STORAGE_16_MAX_SIZE];
             int index = 0;
@@ -823,21 +989,49 @@ final class SparseBitSet {
             this.members = members;
         }
 
+        /**
+         * Constructs a new storage by expanding the runs of the given {@link
+         * RunStorage16}.
+         */
+        ArrayStorage16(RunStorage16 storage) {
+            assert storage.size <= ARRAY_STORAGE_16_MAX_SIZE;
+            this.size = storage.size;
+            this.runCount = storage.runCount;
+
+            short[] members = new short[Math.max(MIN_CAPACITY, size)];
+            int index = 0;
+            for (int run = 0; run < runCount; ++run) {
+                int end = storage.end(run);
+                for (int member = storage.start(run); member <= end; ++member) {
+                    members[index++] = (short) member;
+                }
+            }
+            assert index == size;
+
+            this.members = members;
+        }
+
         @Override
         public Storage16 add(short member) {
-            int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
+            int unsignedMember = toUnsignedInt(member);
+            int index = unsignedBinarySearch(members, size, unsignedMember);
             if (index >= 0) {
                 // already in the array
                 return this;
             }
             index = -(index + 1);
 
-            if (size == members.length) {
-                // No space left: try to grow members array.
+            if (size == ARRAY_STORAGE_16_MAX_SIZE) {
+                // No space left and the array can't grow anymore: upgrade.
+                return new BitSetStorage16(members, member, index).compact();
+            }
 
-                if (size == ARRAY_STORAGE_16_MAX_SIZE) {
-                    return new BitSetStorage16(members, member, index);
-                }
+            boolean joinsPrevious = index > 0 && toUnsignedInt(members[index - 1]) == unsignedMember - 1;
+            boolean joinsNext = index < size && toUnsignedInt(members[index]) == unsignedMember + 1;
+            runCount += runCountDelta(joinsPrevious, joinsNext);
+
+            if (size == members.length) {
+                // No space left: grow members array.
 
                 int newCapacity = Math.min(ARRAY_STORAGE_16_MAX_SIZE, size + capacityDeltaShort(members.length));
                 short[] newMembers = new short[newCapacity];
@@ -850,17 +1044,22 @@ final class SparseBitSet {
             }
             members[index] = member;
             ++size;
-            return this;
+            return compact();
         }
 
         @Override
         public Storage16 remove(short member) {
-            int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
+            int unsignedMember = toUnsignedInt(member);
+            int index = unsignedBinarySearch(members, size, unsignedMember);
             if (index < 0) {
                 // not a member
                 return this;
             }
 
+            boolean joinsPrevious = index > 0 && toUnsignedInt(members[index - 1]) == unsignedMember - 1;
+            boolean joinsNext = index < size - 1 && toUnsignedInt(members[index + 1]) == unsignedMember + 1;
+            runCount -= runCountDelta(joinsPrevious, joinsNext);
+
             --size;
             if (size == 0) {
                 // emptied
@@ -881,7 +1080,7 @@ final class SparseBitSet {
                 // shift members left to fill the gap
                 arraycopy(members, index + 1, members, index, size - index);
             }
-            return this;
+            return compact();
         }
 
         @Override
@@ -946,11 +1145,19 @@ final class SparseBitSet {
             return true;
         }
 
+        @Override
+        public long memoryCost() {
+            return STORAGE_16_COST + arrayCost(members.length, Short.BYTES);
+        }
+
         /**
          * Appends the given member to this storage. The given member must be
          * greater than any member already known by this storage.
          */
         public void append(short member) {
+            if (toUnsignedInt(members[size - 1]) != toUnsignedInt(member) - 1) {
+                ++runCount;
+            }
             if (size == members.length) {
                 int newCapacity = size + capacityDeltaShort(members.length);
                 assert newCapacity <= ARRAY_STORAGE_16_MAX_SIZE;
@@ -960,6 +1167,15 @@ final class SparseBitSet {
             ++size;
         }
 
+        /**
+         * @return a run storage if the members of this storage are better
+         * represented as runs; this storage otherwise.
+         */
+        private Storage16 compact() {
+            // the runs take at most a half of the memory the members take
+            return runCount << 2 <= size ? new RunStorage16(this) : this;
+        }
+
     }
 
     /**
@@ -972,12 +1188,15 @@ final class SparseBitSet {
 
         private static final int MIN_SIZE = ARRAY_STORAGE_16_MAX_SIZE - 1;
         private static final int SIZE = 1024;
+        private static final int MAX_MEMBER = (SIZE << BIT_SET_LONG_SHIFT) - 1;
 
         // masks lower 6 bits
         private static final long POSTFIX_MASK = 0xFFFFFFFFFFFFFFC0L;
 
         private final long[] members = new long[SIZE];
         private int size;
+        // the number of runs of consecutive members
+        private int runCount;
 
         /**
          * Constructs a new bit set storage for the given sorted members array
@@ -992,6 +1211,22 @@ final class SparseBitSet {
                 append(members[i]);
             }
             this.size = members.length + 1;
+            this.runCount = countRuns(this.members);
+        }
+
+        /**
+         * Constructs a new bit set storage by expanding the runs of the given
+         * {@link RunStorage16}.
+         */
+        BitSetStorage16(RunStorage16 storage) {
+            for (int run = 0; run < storage.runCount; ++run) {
+                int end = storage.end(run);
+                for (int member = storage.start(run); member <= end; ++member) {
+                    members[member >>> BIT_SET_LONG_SHIFT] |= 1L << member;
+                }
+            }
+            this.size = storage.size;
+            this.runCount = storage.runCount;
         }
 
         @Override
@@ -1005,6 +1240,8 @@ final class SparseBitSet {
 
             if (newBitSet != bitSet) {
                 ++size;
+                runCount += runCountDelta(contains(bitIndex - 1), contains(bitIndex + 1));
+                return compact();
             }
             return this;
         }
@@ -1020,8 +1257,12 @@ final class SparseBitSet {
 
             if (newBitSet != bitSet) {
                 --size;
+                runCount -= runCountDelta(contains(bitIndex - 1), contains(bitIndex + 1));
+                if (runCount <= BIT_SET_STORAGE_16_MIN_RUNS) {
+                    return new RunStorage16(this);
+                }
                 if (size == MIN_SIZE) {
-                    return new ArrayStorage16(members, size);
+                    return new ArrayStorage16(members, size, runCount);
                 }
             }
             return this;
@@ -1095,6 +1336,26 @@ final class SparseBitSet {
             return advance(iterator);
         }
 
+        @Override
+        public long memoryCost() {
+            return STORAGE_16_COST + arrayCost(SIZE, Long.BYTES);
+        }
+
+        /**
+         * @return a run storage if the members of this storage are better
+         * represented as runs; this storage otherwise.
+         */
+        private Storage16 compact() {
+            return runCount <= BIT_SET_STORAGE_16_MIN_RUNS ? new RunStorage16(this) : this;
+        }
+
+        private boolean contains(int bitIndex) {
+            if (bitIndex < 0 || bitIndex > MAX_MEMBER) {
+                return false;
+            }
+            return (members[bitIndex >>> BIT_SET_LONG_SHIFT] & 1L << bitIndex) != 0;
+        }
+
         private void append(short member) {
             int bitIndex = toUnsignedInt(member);
             members[bitIndex >>> BIT_SET_LONG_SHIFT] |= 1L << bitIndex;
@@ -1102,6 +1363,286 @@ final class SparseBitSet {
 
     }
 
+    /**
+     * Manages sorted short array of runs of consecutive indexes of set bits.
+     * Each run occupies two consecutive array slots: its first member followed
+     * by its last member.
+     */
+    private static final class RunStorage16 implements Storage16 {
+
+        // measured in runs
+        private static final int MIN_CAPACITY = 1;
+
+        private int size;
+        private int runCount;
+        private short[] runs;
+
+        /**
+         * Constructs a new storage by collapsing the members of the given
+         * {@link ArrayStorage16} into runs.
+         */
+        RunStorage16(ArrayStorage16 storage) {
+            this.size = storage.size;
+            this.runCount = storage.runCount;
+
+            short[] members = storage.members;
+            short[] runs = new short[runCount << 1];
+            int index = 0;
+            int start = toUnsignedInt(members[0]);
+            int end = start;
+            for (int i = 1; i < size; ++i) {
+                int member = toUnsignedInt(members[i]);
+                if (member != end + 1) {
+                    runs[index++] = (short) start;
+                    runs[index++] = (short) end;
+                    start = member;
+                }
+                end = member;
+            }
+            runs[index++] = (short) start;
+            runs[index++] = (short) end;
+            assert index == runs.length;
+
+            this.runs = runs;
+        }
+
+        /**
+         * Constructs a new storage by collapsing the bits of the given {@link
+         * BitSetStorage16} into runs.
+         */
+        RunStorage16(BitSetStorage16 storage) {
+            this.size = storage.size;
+            this.runCount = storage.runCount;
+
+            long[] bits = storage.members;
+            short[] runs = new short[runCount << 1];
+            int index = 0;
+            int start = nextSetBit(bits, 0);
+            while (start != -1) {
+                int end = nextClearBit(bits, start) - 1;
+                runs[index++] = (short) start;
+                runs[index++] = (short) end;
+                start = nextSetBit(bits, end + 1);
+            }
+            assert index == runs.length;
+
+            this.runs = runs;
+        }
+
+        @Override
+        public Storage16 add(short member) {
+            int unsignedMember = toUnsignedInt(member);
+            int run = findRun(unsignedMember, 0);
+            if (run >= 0 && unsignedMember <= end(run)) {
+                // already in a run
+                return this;
+            }
+
+            boolean joinsPrevious = run >= 0 && end(run) == unsignedMember - 1;
+            boolean joinsNext = run + 1 < runCount && start(run + 1) == unsignedMember + 1;
+            if (joinsPrevious && joinsNext) {
+                // the member fills the gap between two runs: merge them
+                runs[(run << 1) + 1] = runs[(run << 1) + 3];
+                removeRun(run + 1);
+            } else if (joinsPrevious) {
+                runs[(run << 1) + 1] = member;
+            } else if (joinsNext) {
+                runs[(run + 1) << 1] = member;
+            } else {
+                insertRun(run + 1, member, member);
+            }
+            ++size;
+            return compact();
+        }
+
+        @Override
+        public Storage16 remove(short member) {
+            int unsignedMember = toUnsignedInt(member);
+            int run = findRun(unsignedMember, 0);
+            if (run < 0 || unsignedMember > end(run)) {
+                // not a member
+                return this;
+            }
+
+            --size;
+            if (size == 0) {
+                // emptied
+                return null;
+            }
+
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                removeRun(run);
+            } else if (unsignedMember == start) {
+                runs[run << 1] = (short) (unsignedMember + 1);
+            } else if (unsignedMember == end) {
+                runs[(run << 1) + 1] = (short) (unsignedMember - 1);
+            } else {
+                // split the run in two
+                runs[(run << 1) + 1] = (short) (unsignedMember - 1);
+                insertRun(run + 1, (short) (unsignedMember + 1), (short) end);
+            }
+            return compact();
+        }
+
+        @Override
+        public void iterate(IteratorImpl iterator) {
+            assert size > 0;
+            iterator.position16 = 0;
+            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | start(0);
+        }
+
+        @Override
+        public boolean advance(IteratorImpl iterator) {
+            long current = iterator.index;
+            int run = iterator.position16;
+
+            if ((int) (current & SHORT_POSTFIX_MASK) < end(run)) {
+                // still within the current run
+                iterator.index = current + 1;
+                return true;
+            }
+
+            ++run;
+            if (run < runCount) {
+                iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | start(run);
+                iterator.position16 = run;
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
+            return iterateAtLeastFrom(toUnsignedInt(member), 0, iterator);
+        }
+
+        @Override
+        public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
+            int unsignedMember = toUnsignedInt(member);
+            long current = iterator.index;
+            assert (current & SHORT_POSTFIX_MASK) < unsignedMember;
+
+            int run = iterator.position16;
+            if (unsignedMember <= end(run)) {
+                // still within the current run
+                iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+                return true;
+            }
+            return iterateAtLeastFrom(unsignedMember, run + 1, iterator);
+        }
+
+        @Override
+        public long memoryCost() {
+            return STORAGE_16_COST + arrayCost(runs.length, Short.BYTES);
+        }
+
+        private int start(int run) {
+            return toUnsignedInt(runs[run << 1]);
+        }
+
+        private int end(int run) {
+            return toUnsignedInt(runs[(run << 1) + 1]);
+        }
+
+        /**
+         * Finds the last run starting at or before the given member among the
+         * runs starting from the given run.
+         *
+         * @return the found run or {@code fromRun - 1} if there is no such run.
+         */
+        private int findRun(int unsignedMember, int fromRun) {
+            int low = fromRun;
+            int high = runCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (start(middle) <= unsignedMember) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low - 1;
+        }
+
+        private boolean iterateAtLeastFrom(int unsignedMember, int fromRun, IteratorImpl iterator) {
+            int run = findRun(unsignedMember, fromRun);
+            if (run < fromRun || unsignedMember > end(run)) {
+                // the member falls into a gap: iterate from the next run
+                ++run;
+                if (run == runCount) {
+                    return false;
+                }
+                unsignedMember = start(run);
+            }
+
+            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+            iterator.position16 = run;
+            return true;
+        }
+
+        private void insertRun(int run, short start, short end) {
+            int length = runCount << 1;
+            int offset = run << 1;
+
+            if (length == runs.length) {
+                // No space left: grow the runs array.
+
+                int newCapacity = runCount + capacityDeltaShort(runCount);
+                short[] newRuns = new short[newCapacity << 1];
+                arraycopy(runs, 0, newRuns, 0, offset);
+                arraycopy(runs, offset, newRuns, offset + 2, length - offset);
+                runs = newRuns;
+            } else {
+                // shift runs right to free a slot for the new run
+                arraycopy(runs, offset, runs, offset + 2, length - offset);
+            }
+            runs[offset] = start;
+            runs[offset + 1] = end;
+            ++runCount;
+        }
+
+        private void removeRun(int run) {
+            --runCount;
+            int length = runCount << 1;
+            int offset = run << 1;
+
+            int capacity = runs.length >>> 1;
+            int delta = capacityDeltaShort(capacity);
+            int wasted = capacity - runCount;
+            int newCapacity = capacity - delta;
+            if (wasted >= delta && newCapacity >= MIN_CAPACITY) {
+                // We are wasting too much: shrink the array.
+
+                short[] newRuns = new short[newCapacity << 1];
+                arraycopy(runs, 0, newRuns, 0, offset);
+                arraycopy(runs, offset + 2, newRuns, offset, length - offset);
+                runs = newRuns;
+            } else {
+                // shift runs left to fill the gap
+                arraycopy(runs, offset + 2, runs, offset, length - offset);
+            }
+        }
+
+        /**
+         * @return an array or a bit set storage if the members of this storage
+         * are better represented by one of them; this storage otherwise.
+         */
+        private Storage16 compact() {
+            if (size <= ARRAY_STORAGE_16_MAX_SIZE && runCount << 1 > size) {
+                // the members take less memory than the runs
+                return new ArrayStorage16(this);
+            }
+            if (runCount > RUN_STORAGE_16_MAX_RUNS) {
+                return new BitSetStorage16(this);
+            }
+            return this;
+        }
+
+    }
+
     /**
      * Iterates over sparse bit sets.
      */
@@ -1120,7 +1661,7 @@ final class SparseBitSet {
 
         // the current Storage16
         private Storage16 storage16;
-        // its position
+        // its position, the current run for RunStorage16
         private int position16;
         // the current bit set of BitSetStorage16
         private long bitSet16;
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.namespace.NamespaceUtil;
+import com.hazelcast.query.QueryException;
+
+/**
+ * Extracts the value of a single attribute using compiled getters.
+ * <p>
+ * Compared to {@link Extractors#extract} the getter resolution is bound to
+ * the attribute upfront: the getter used for the last seen target class is
+ * remembered in a monomorphic inline cache, so the getter cache lookup is
+ * skipped as long as the target class stays the same, which is the common
+ * case for the values of a map. The reflective getters are compiled to
+ * {@link MethodHandleGetter}s. Targets not handled by the reflective getters,
+ * e.g. Portable, Compact and JSON values or attributes backed by custom
+ * {@link com.hazelcast.query.extractor.ValueExtractor}s, are extracted using
+ * the regular getters.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class CompiledExtractor {
+
+    private final Extractors extractors;
+    private final String attributeName;
+
+    private volatile CachedGetter cachedGetter;
+
+    CompiledExtractor(Extractors extractors, String attributeName) {
+        this.extractors = extractors;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * @return the extractors this extractor belongs to.
+     */
+    public Extractors getExtractors() {
+        return extractors;
+    }
+
+    /**
+     * @return the name of the extracted attribute.
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Extracts the attribute value from the given target.
+     *
+     * @param target   the target to extract the value from.
+     * @param metadata the metadata of the target, if any.
+     * @return the extracted value.
+     * @throws QueryException if the extraction fails.
+     */
+    public Object extract(Object target, Object metadata) {
+        Object targetObject = extractors.getTargetObject(target);
+        if (targetObject == null) {
+            return null;
+        }
+
+        Getter getter;
+        CachedGetter cached = cachedGetter;
+        if (cached != null && cached.targetClass == targetObject.getClass()) {
+            getter = cached.getter;
+        } else {
+            getter = extractors.getCompiledGetter(targetObject, attributeName);
+            if (getter.isCacheable()) {
+                cachedGetter = new CachedGetter(targetObject.getClass(), getter);
+            }
+        }
+
+        try {
+            if (getter instanceof MethodHandleGetter) {
+                // never runs any custom extractor code, no need to switch the class loader
+                return getter.getValue(targetObject);
+            }
+            Getter finalGetter = getter;
+            return NamespaceUtil.callWithOwnClassLoader(getter,
+                    () -> finalGetter.getValue(targetObject, attributeName, metadata));
+        } catch (Exception ex) {
+            throw new QueryException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledExtractor{attributeName='" + attributeName + "', getter=" + cachedGetter + '}';
+    }
+
+    private static final class CachedGetter {
+
+        final Class<?> targetClass;
+        final Getter getter;
+
+        CachedGetter(Class<?> targetClass, Getter getter) {
+            this.targetClass = targetClass;
+            this.getter = getter;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(getter);
+        }
+
+    }
+
+}
@@ -44,6 +44,12 @@ import static com.hazelcast.query.impl.getters.GetterCache.EVICTABLE_GETTER_CACH
 public final class Extractors {
 
     final GetterCache getterCache;
+    /**
+     * Caches the getters used by {@link CompiledExtractor}s: the reflective
+     * getters are compiled to {@link MethodHandleGetter}s, the rest of the
+     * getters are cached as is.
+     */
+    final GetterCache compiledGetterCache;
 
     private volatile PortableGetter portableGetter;
     private volatile JsonDataGetter jsonDataGetter;
@@ -68,6 +74,7 @@ public final class Extractors {
                 ? Collections.<String, ValueExtractor>emptyMap()
                 : instantiateExtractors(attributeConfigs, classLoader);
         this.getterCache = getterCacheSupplier.get();
+        this.compiledGetterCache = getterCacheSupplier.get();
         this.argumentsParser = new DefaultArgumentParser();
         this.ss = ss;
     }
@@ -93,6 +100,18 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Returns an extractor of the given attribute which reflective getters are
+     * compiled, see {@link CompiledExtractor}.
+     *
+     * @param attributeName the attribute name, may not refer to the
+     *                      {@code __key} prefix.
+     * @return the compiled extractor.
+     */
+    public CompiledExtractor compile(String attributeName) {
+        return new CompiledExtractor(this, attributeName);
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
@@ -104,7 +123,7 @@ public final class Extractors {
      *
      * @return Data or Object
      */
-    private Object getTargetObject(Object target) {
+    Object getTargetObject(Object target) {
         Data targetData;
         if (target instanceof Portable) {
             targetData = ss.toData(target);
@@ -136,6 +155,19 @@ public final class Extractors {
         return getter;
     }
 
+    Getter getCompiledGetter(Object targetObject, String attributeName) {
+        Getter getter = compiledGetterCache.getGetter(targetObject.getClass(), attributeName);
+        if (getter == null) {
+            getter = getGetter(targetObject, attributeName, true);
+            if (getter.isCacheable()) {
+                MethodHandleGetter compiledGetter = MethodHandleGetter.compile(getter);
+                getter = compiledGetterCache.putGetter(targetObject.getClass(), attributeName,
+                        compiledGetter == null ? getter : compiledGetter);
+            }
+        }
+        return getter;
+    }
+
     private Getter instantiateGetter(Object targetObject, String attributeName, boolean failOnMissingReflectiveAttribute) {
         String attributeNameWithoutArguments = extractAttributeNameNameWithoutArguments(attributeName);
         ValueExtractor valueExtractor = extractors.get(attributeNameWithoutArguments);
@@ -46,6 +46,10 @@ public final class FieldGetter extends AbstractMultiValueGetter {
         return true;
     }
 
+    Field getField() {
+        return field;
+    }
+
     @Override
     public String toString() {
         return "FieldGetter [parent=" + parent + ", field=" + field + ", modifier = " + getModifier() + "]";
@@ -47,6 +47,10 @@ public final class MethodGetter extends AbstractMultiValueGetter {
         return true;
     }
 
+    Method getMethod() {
+        return method;
+    }
+
     @Override
     public String toString() {
         return "MethodGetter [parent=" + parent + ", method=" + method.getName() + ", modifier = " + getModifier() + "]";
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static com.hazelcast.query.impl.getters.AbstractMultiValueGetter.DO_NOT_REDUCE;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.unwrapIfOptional;
+
+/**
+ * Compiled form of a chain of {@link FieldGetter}s and {@link MethodGetter}s
+ * having no reducer modifiers, e.g. {@code address.city.name}.
+ * <p>
+ * Every link of the chain is bound to a direct method handle instead of going
+ * through {@link java.lang.reflect.Field#get} or {@link
+ * java.lang.reflect.Method#invoke}, so the JIT is able to inline the accesses
+ * into the compiled predicate evaluating them. No intermediate {@link
+ * MultiResult}s are ever produced since there are no modifiers.
+ */
+final class MethodHandleGetter extends Getter {
+
+    private static final MethodType LINK_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final MethodHandle[] links;
+    private final Class returnType;
+
+    private MethodHandleGetter(MethodHandle[] links, Class returnType) {
+        super(null);
+        this.links = links;
+        this.returnType = returnType;
+    }
+
+    /**
+     * Compiles the given getter.
+     *
+     * @param getter the getter to compile.
+     * @return the compiled getter or {@code null} if the getter can't be
+     * compiled.
+     */
+    static MethodHandleGetter compile(Getter getter) {
+        Deque<MethodHandle> links = new ArrayDeque<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (Getter current = getter; current != null; current = current.parent) {
+                if (current instanceof FieldGetter && ((FieldGetter) current).getModifier() == DO_NOT_REDUCE) {
+                    links.addFirst(lookup.unreflectGetter(((FieldGetter) current).getField()).asType(LINK_TYPE));
+                } else if (current instanceof MethodGetter && ((MethodGetter) current).getModifier() == DO_NOT_REDUCE) {
+                    links.addFirst(lookup.unreflect(((MethodGetter) current).getMethod()).asType(LINK_TYPE));
+                } else {
+                    return null;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            // the member is not accessible for us, stay with the reflective getter
+            return null;
+        }
+        return new MethodHandleGetter(links.toArray(new MethodHandle[0]), getter.getReturnType());
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        Object value = obj;
+        for (MethodHandle link : links) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = unwrapIfOptional(link.invokeExact(value));
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    Class getReturnType() {
+        return returnType;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "MethodHandleGetter [links=" + links.length + ", returnType=" + returnType + "]";
+    }
+
+}
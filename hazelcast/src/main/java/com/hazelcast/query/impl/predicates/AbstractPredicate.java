@@ -61,7 +61,18 @@ public abstract class AbstractPredicate<K, V> implements Predicate<K, V>, Identi
 
     @Override
     public boolean apply(Map.Entry<K, V> mapEntry) {
-        Object attributeValue = readAttributeValue(mapEntry);
+        return applyForAttributeValue(readAttributeValue(mapEntry));
+    }
+
+    /**
+     * Applies this predicate to the already extracted value of its attribute.
+     * Used by {@link CompiledPredicate} which does the extraction on its own.
+     *
+     * @param attributeValue the extracted attribute value.
+     * @return {@code true} if the attribute value satisfies this predicate,
+     * {@code false} otherwise.
+     */
+    boolean applyForAttributeValue(Object attributeValue) {
         if (attributeValue instanceof MultiResult) {
             return applyForMultiResult((MultiResult) attributeValue);
         } else if (attributeValue instanceof Collection || attributeValue instanceof Object[]) {
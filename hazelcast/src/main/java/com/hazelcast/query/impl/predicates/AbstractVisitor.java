@@ -60,4 +60,19 @@ public abstract class AbstractVisitor implements Visitor {
         return predicate;
     }
 
+    @Override
+    public Predicate visit(LikePredicate predicate, IndexRegistry indexes) {
+        return predicate;
+    }
+
+    @Override
+    public Predicate visit(RegexPredicate predicate, IndexRegistry indexes) {
+        return predicate;
+    }
+
+    @Override
+    public Predicate visit(VectorSimilarityPredicate predicate, IndexRegistry indexes) {
+        return predicate;
+    }
+
 }
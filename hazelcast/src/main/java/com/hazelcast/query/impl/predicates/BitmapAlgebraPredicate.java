@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapIndexStore;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wraps a combination of {@link AndPredicate}, {@link OrPredicate} and {@link
+ * NotPredicate} predicates having {@link EvaluatePredicate} predicates as
+ * leaves, all the leaves are evaluable by bitmap indexes sharing the same
+ * unique key space.
+ * <p>
+ * Such a combination is evaluated as a single bitmap algebra expression:
+ * entries are resolved only for the final result instead of materializing the
+ * result of every leaf and combining the materialized results.
+ * <p>
+ * Used during predicate tree optimization done by {@link EvaluateVisitor}.
+ * Never transferred over the wire.
+ */
+public final class BitmapAlgebraPredicate implements Predicate, IndexAwarePredicate {
+
+    private final Predicate expression;
+    private final String[] indexNames;
+
+    /**
+     * Constructs {@link BitmapAlgebraPredicate} instance for the given bitmap
+     * algebra expression.
+     *
+     * @param expression the expression to wrap.
+     */
+    public BitmapAlgebraPredicate(Predicate expression) {
+        this.expression = expression;
+
+        Set<String> indexNames = new LinkedHashSet<>();
+        collectIndexNames(expression, indexNames);
+        this.indexNames = indexNames.toArray(new String[0]);
+    }
+
+    /**
+     * @return the wrapped bitmap algebra expression.
+     */
+    public Predicate getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the distinct names of the indexes referenced by the wrapped
+     * expression.
+     */
+    public String[] getIndexNames() {
+        return indexNames;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return expression.apply(mapEntry);
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Map<String, BitmapIndexStore> stores = new HashMap<>(indexNames.length);
+        Map<String, TypeConverter> converters = new HashMap<>(indexNames.length);
+        List<PerIndexStats> stats = new ArrayList<>(indexNames.length);
+
+        for (String indexName : indexNames) {
+            Index index = queryContext.matchIndex(indexName, QueryContext.IndexMatchHint.EXACT_NAME);
+            if (!(index instanceof InternalIndex)) {
+                return null;
+            }
+
+            InternalIndex internalIndex = (InternalIndex) index;
+            BitmapIndexStore store = internalIndex.getBitmapIndexStore();
+            TypeConverter converter = internalIndex.getConverter();
+            if (store == null || converter == null) {
+                return null;
+            }
+
+            stores.put(indexName, store);
+            converters.put(indexName, converter);
+            stats.add(internalIndex.getPerIndexStats());
+        }
+
+        long timestamp = stats.get(0).makeTimestamp();
+        Set<QueryableEntry> result = BitmapIndexStore.evaluate(expression, stores, converters);
+        for (PerIndexStats indexStats : stats) {
+            indexStats.onIndexHit(timestamp, result.size());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "bitmap(" + expression.toString() + ")";
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        throw new UnsupportedOperationException("can't be serialized");
+    }
+
+    private static void collectIndexNames(Predicate predicate, Set<String> indexNames) {
+        if (predicate instanceof EvaluatePredicate) {
+            indexNames.add(((EvaluatePredicate) predicate).getIndexName());
+        } else if (predicate instanceof AndPredicate) {
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                collectIndexNames(subPredicate, indexNames);
+            }
+        } else if (predicate instanceof OrPredicate) {
+            for (Predicate subPredicate : ((OrPredicate) predicate).getPredicates()) {
+                collectIndexNames(subPredicate, indexNames);
+            }
+        } else if (predicate instanceof NotPredicate) {
+            collectIndexNames(((NotPredicate) predicate).getPredicate(), indexNames);
+        } else {
+            throw new IllegalArgumentException("unexpected predicate: " + predicate);
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.CompiledExtractor;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Compiled form of a predicate evaluated by full partition scans.
+ * <p>
+ * The predicate tree is compiled into a tree of closures: conjunctions,
+ * disjunctions and negations are evaluated directly without going through
+ * the virtual {@link Predicate#apply} of every node, and the attribute
+ * predicates read their attributes using {@link CompiledExtractor}s which
+ * resolve the {@code __key.} prefix upfront and access the fields and getters
+ * of the map values using method handles instead of reflection. The attribute
+ * values are compared by the original predicates, so the semantics including
+ * the conversions of the literals stay the same.
+ * <p>
+ * The nodes which can't be compiled, e.g. custom predicates, are evaluated by
+ * the interpreter using their {@link Predicate#apply}, see {@link
+ * #isFullyCompiled()}.
+ * <p>
+ * Compiled predicates are bound to the {@link Extractors} of a map, they are
+ * local to the member and never sent over the wire.
+ *
+ * @see CompiledPredicateCache
+ */
+public final class CompiledPredicate implements Predicate {
+
+    private final Predicate predicate;
+    private final Evaluator evaluator;
+    private final boolean fullyCompiled;
+
+    private CompiledPredicate(Predicate predicate, Evaluator evaluator, boolean fullyCompiled) {
+        this.predicate = predicate;
+        this.evaluator = evaluator;
+        this.fullyCompiled = fullyCompiled;
+    }
+
+    /**
+     * Compiles the given predicate.
+     *
+     * @param predicate  the predicate to compile.
+     * @param extractors the extractors of the map the predicate is evaluated on.
+     * @return the compiled predicate.
+     */
+    public static CompiledPredicate compile(Predicate predicate, Extractors extractors) {
+        Compiler compiler = new Compiler(extractors);
+        Evaluator evaluator = compiler.compile(predicate);
+        return new CompiledPredicate(predicate, evaluator, compiler.fullyCompiled);
+    }
+
+    /**
+     * @return the original predicate.
+     */
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * @return {@code true} if every node of the predicate tree is compiled,
+     * {@code false} if some of the nodes are evaluated by the interpreter.
+     */
+    public boolean isFullyCompiled() {
+        return fullyCompiled;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return evaluator.evaluate(mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return "Compiled(" + predicate + (fullyCompiled ? ")" : ", partially)");
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        throw new UnsupportedOperationException("can't be serialized");
+    }
+
+    @FunctionalInterface
+    private interface Evaluator {
+
+        boolean evaluate(Map.Entry entry);
+
+    }
+
+    private static final class Compiler {
+
+        private static final String KEY_PREFIX = KEY_ATTRIBUTE_NAME.value() + ".";
+
+        private final Extractors extractors;
+        // the readers of the same attribute share their inline caches
+        private final Map<String, AttributeReader> readers = new HashMap<>();
+        private boolean fullyCompiled = true;
+
+        Compiler(Extractors extractors) {
+            this.extractors = extractors;
+        }
+
+        @SuppressWarnings({"checkstyle:returncount", "checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity"})
+        Evaluator compile(Predicate predicate) {
+            if (predicate instanceof AbstractPredicate) {
+                AbstractPredicate attributePredicate = (AbstractPredicate) predicate;
+                AttributeReader reader = reader(attributePredicate.attributeName);
+                return entry -> attributePredicate.applyForAttributeValue(reader.read(entry));
+            } else if (predicate instanceof AndPredicate) {
+                return and(compile(((AndPredicate) predicate).predicates));
+            } else if (predicate instanceof CostBasedAndPredicate) {
+                CostBasedAndPredicate costBasedAndPredicate = (CostBasedAndPredicate) predicate;
+                List<Predicate> predicates = new ArrayList<>();
+                predicates.add(costBasedAndPredicate.getDriver());
+                predicates.addAll(costBasedAndPredicate.getResiduals());
+                return and(compile(predicates.toArray(new Predicate[0])));
+            } else if (predicate instanceof OrPredicate) {
+                return or(compile(((OrPredicate) predicate).predicates));
+            } else if (predicate instanceof NotPredicate) {
+                Evaluator negated = compile(((NotPredicate) predicate).getPredicate());
+                return entry -> !negated.evaluate(entry);
+            } else if (predicate instanceof SqlPredicate) {
+                return compile(((SqlPredicate) predicate).getPredicate());
+            } else if (predicate instanceof SkipIndexPredicate) {
+                return compile(((SkipIndexPredicate) predicate).getTarget());
+            } else if (predicate instanceof EvaluatePredicate) {
+                return compile(((EvaluatePredicate) predicate).getPredicate());
+            } else if (predicate instanceof TruePredicate) {
+                return entry -> true;
+            } else if (predicate instanceof FalsePredicate) {
+                return entry -> false;
+            }
+
+            fullyCompiled = false;
+            return predicate::apply;
+        }
+
+        private Evaluator[] compile(Predicate[] predicates) {
+            Evaluator[] evaluators = new Evaluator[predicates.length];
+            for (int i = 0; i < predicates.length; ++i) {
+                evaluators[i] = compile(predicates[i]);
+            }
+            return evaluators;
+        }
+
+        private static Evaluator and(Evaluator[] evaluators) {
+            if (evaluators.length == 2) {
+                Evaluator first = evaluators[0];
+                Evaluator second = evaluators[1];
+                return entry -> first.evaluate(entry) && second.evaluate(entry);
+            }
+            return entry -> {
+                for (Evaluator evaluator : evaluators) {
+                    if (!evaluator.evaluate(entry)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        private static Evaluator or(Evaluator[] evaluators) {
+            if (evaluators.length == 2) {
+                Evaluator first = evaluators[0];
+                Evaluator second = evaluators[1];
+                return entry -> first.evaluate(entry) || second.evaluate(entry);
+            }
+            return entry -> {
+                for (Evaluator evaluator : evaluators) {
+                    if (evaluator.evaluate(entry)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        private AttributeReader reader(String attributeName) {
+            return readers.computeIfAbsent(attributeName, name -> {
+                if (KEY_ATTRIBUTE_NAME.value().equals(name) || THIS_ATTRIBUTE_NAME.value().equals(name)) {
+                    return new AttributeReader(name, false, null);
+                } else if (name.startsWith(KEY_PREFIX)) {
+                    return new AttributeReader(name, true, extractors.compile(name.substring(KEY_PREFIX.length())));
+                } else {
+                    return new AttributeReader(name, false, extractors.compile(name));
+                }
+            });
+        }
+
+    }
+
+    private static final class AttributeReader {
+
+        private final String attributeName;
+        private final boolean key;
+        private final CompiledExtractor extractor;
+
+        AttributeReader(String attributeName, boolean key, CompiledExtractor extractor) {
+            this.attributeName = attributeName;
+            this.key = key;
+            this.extractor = extractor;
+        }
+
+        Object read(Map.Entry entry) {
+            if (extractor != null && entry instanceof QueryableEntry) {
+                return ((QueryableEntry) entry).getAttributeValue(extractor, key);
+            }
+            return ((Extractable) entry).getAttributeValue(attributeName);
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType;
+import com.hazelcast.internal.util.SampleableConcurrentHashMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.GetterCache;
+
+/**
+ * Caches the {@link CompiledPredicate}s of a map keyed by the predicates they
+ * are compiled from. Repeatedly executed queries, e.g. the same SQL predicate
+ * string, produce equal predicate trees, so they are compiled only once.
+ * <p>
+ * The cache is bounded and uses soft references like the evictable getter
+ * cache, see {@link GetterCache#EVICTABLE_GETTER_CACHE_SUPPLIER}.
+ */
+public final class CompiledPredicateCache {
+
+    static final int MAX_PREDICATES_IN_CACHE = 100;
+
+    private final Extractors extractors;
+    private final SampleableConcurrentHashMap<Predicate, CompiledPredicate> cache = new SampleableConcurrentHashMap<>(
+            MAX_PREDICATES_IN_CACHE, ReferenceType.SOFT, ReferenceType.SOFT);
+    private final int afterEvictionPredicateCount =
+            (int) (MAX_PREDICATES_IN_CACHE * (1 - GetterCache.EVICTABLE_CACHE_EVICTION_PERCENTAGE));
+
+    public CompiledPredicateCache(Extractors extractors) {
+        this.extractors = extractors;
+    }
+
+    /**
+     * Returns the compiled form of the given predicate, compiling it if it's
+     * not cached yet.
+     *
+     * @param predicate the predicate to compile.
+     * @return the compiled predicate.
+     */
+    public CompiledPredicate getOrCompile(Predicate predicate) {
+        if (predicate instanceof CompiledPredicate) {
+            return (CompiledPredicate) predicate;
+        }
+
+        CompiledPredicate compiledPredicate = cache.get(predicate);
+        if (compiledPredicate == null) {
+            compiledPredicate = CompiledPredicate.compile(predicate, extractors);
+            CompiledPredicate foundPredicate = cache.putIfAbsent(predicate, compiledPredicate);
+            if (foundPredicate != null) {
+                return foundPredicate;
+            }
+            evict();
+        }
+        return compiledPredicate;
+    }
+
+    /**
+     * It works on best effort basis, the same as the eviction of the
+     * evictable getter cache.
+     */
+    private void evict() {
+        cache.purgeStaleEntries();
+        int size = cache.size();
+        if (size - MAX_PREDICATES_IN_CACHE >= 0) {
+            for (SampleableConcurrentHashMap.SamplingEntry<?, ?> entry : cache.getRandomSamples(
+                    size - afterEvictionPredicateCount)) {
+                cache.remove(entry.getEntryKey());
+            }
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+}
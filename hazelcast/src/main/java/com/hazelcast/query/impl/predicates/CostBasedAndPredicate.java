@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.IndexRegistry.SKIP_PARTITIONS_COUNT_CHECK;
+import static com.hazelcast.query.impl.predicates.SelectivityEstimator.NOT_INDEXED;
+
+/**
+ * A conjunction planned by {@link CostBasedQueryOptimizer}: the first
+ * predicate, the most selective one according to the index statistics, drives
+ * the evaluation using its index and the rest of the predicates are applied as
+ * residual filters to the entries produced by the driving index, ordered from
+ * the most selective to the least selective.
+ * <p>
+ * Unlike {@link AndPredicate}, the results of the residual index lookups are
+ * never materialized and intersected. The {@link #toString} representation
+ * describes the chosen plan along with the estimations it was chosen by.
+ * <p>
+ * Never transferred over the wire.
+ */
+public final class CostBasedAndPredicate implements IndexAwarePredicate {
+
+    private final Predicate[] predicates;
+    private final long[] estimates;
+
+    /**
+     * Constructs a new planned conjunction.
+     *
+     * @param predicates the predicates of the conjunction, the first one is
+     *                   the driving index-aware predicate.
+     * @param estimates  the estimated index lookup cardinalities of the
+     *                   predicates or {@link SelectivityEstimator#NOT_INDEXED}
+     *                   for the predicates which are not indexed.
+     */
+    CostBasedAndPredicate(Predicate[] predicates, long[] estimates) {
+        assert predicates.length == estimates.length && predicates[0] instanceof IndexAwarePredicate;
+        this.predicates = predicates;
+        this.estimates = estimates;
+    }
+
+    /**
+     * @return the predicate driving the evaluation using its index.
+     */
+    public Predicate getDriver() {
+        return predicates[0];
+    }
+
+    /**
+     * @return the estimated number of entries produced by the driving index.
+     */
+    public long getDriverEstimate() {
+        return estimates[0];
+    }
+
+    /**
+     * @return the residual predicates applied to the entries produced by the
+     * driving index, in the order of their application.
+     */
+    public List<Predicate> getResiduals() {
+        return Arrays.asList(predicates).subList(1, predicates.length);
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        // Avoid checking indexed partitions count twice, see AndPredicate.
+        int ownedPartitionsCount = queryContext.getOwnedPartitionCount();
+        queryContext.setOwnedPartitionCount(SKIP_PARTITIONS_COUNT_CHECK);
+        Set<QueryableEntry> driverResult = ((IndexAwarePredicate) predicates[0]).filter(queryContext);
+        queryContext.setOwnedPartitionCount(ownedPartitionsCount);
+
+        if (driverResult == null) {
+            return null;
+        }
+        return new AndResultSet(driverResult, null, getResiduals());
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return ((IndexAwarePredicate) predicates[0]).isIndexed(queryContext);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        for (int i = 0; i < predicates.length; ++i) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(predicates[i]).append(i == 0 ? " [index scan" : " [residual");
+            if (estimates[i] != NOT_INDEXED) {
+                sb.append(", est. ").append(estimates[i]);
+            }
+            sb.append(']');
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        throw new UnsupportedOperationException("can't be serialized");
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.IndexStatistics;
+
+/**
+ * Cost based optimizer. It rewrites the query using the rules of {@link
+ * RuleBasedQueryOptimizer} first and then plans the conjunctions using the
+ * {@link IndexStatistics} maintained by the indexes, see {@link
+ * CostBasedVisitor}.
+ * <p>
+ * The chosen plans are logged on the finest level.
+ */
+public final class CostBasedQueryOptimizer implements QueryOptimizer {
+
+    private static final ILogger LOGGER = Logger.getLogger(CostBasedQueryOptimizer.class);
+
+    private final QueryOptimizer ruleBasedOptimizer = new RuleBasedQueryOptimizer();
+    private final Visitor costBasedVisitor = new CostBasedVisitor();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, IndexRegistry indexes) {
+        Predicate optimized = ruleBasedOptimizer.optimize(predicate, indexes);
+        if (optimized instanceof VisitablePredicate) {
+            optimized = ((VisitablePredicate) optimized).accept(costBasedVisitor, indexes);
+        }
+
+        if (LOGGER.isFinestEnabled()) {
+            LOGGER.finest("Query plan for " + predicate + ": " + optimized);
+        }
+        return optimized;
+    }
+
+}
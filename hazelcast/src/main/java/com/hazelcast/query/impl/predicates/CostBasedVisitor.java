@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexRegistry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static com.hazelcast.query.impl.predicates.SelectivityEstimator.NOT_INDEXED;
+import static com.hazelcast.query.impl.predicates.SelectivityEstimator.UNKNOWN;
+
+/**
+ * Plans conjunctions using the index statistics: the estimated most selective
+ * indexed predicate drives the evaluation and the rest of the predicates are
+ * evaluated as residual filters, see {@link CostBasedAndPredicate}.
+ * <p>
+ * Conjunctions having less than two indexed predicates have nothing to choose
+ * from and left intact. Conjunctions having indexed predicates which
+ * selectivity can't be estimated are left intact too, they are evaluated by
+ * {@link AndPredicate} intersecting the index lookup results.
+ */
+public class CostBasedVisitor extends AbstractVisitor {
+
+    /**
+     * Orders the indexed predicates by their estimations, the non-indexed
+     * predicates go last preserving their original order.
+     */
+    private static final Comparator<Planned> PLAN_ORDER = (left, right) -> {
+        if (left.estimate == NOT_INDEXED || right.estimate == NOT_INDEXED) {
+            return Boolean.compare(left.estimate == NOT_INDEXED, right.estimate == NOT_INDEXED);
+        }
+        return Long.compare(left.estimate, right.estimate);
+    };
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, IndexRegistry indexes) {
+        Predicate[] predicates = andPredicate.predicates;
+
+        Planned[] planned = new Planned[predicates.length];
+        int indexed = 0;
+        for (int i = 0; i < predicates.length; ++i) {
+            long estimate = SelectivityEstimator.estimate(predicates[i], indexes);
+            if (estimate == UNKNOWN) {
+                return andPredicate;
+            }
+            if (estimate != NOT_INDEXED) {
+                ++indexed;
+            }
+            planned[i] = new Planned(predicates[i], estimate);
+        }
+
+        if (indexed < 2) {
+            return andPredicate;
+        }
+
+        // the sort is stable, ties preserve the original order
+        Arrays.sort(planned, PLAN_ORDER);
+
+        Predicate[] orderedPredicates = new Predicate[planned.length];
+        long[] estimates = new long[planned.length];
+        for (int i = 0; i < planned.length; ++i) {
+            orderedPredicates[i] = planned[i].predicate;
+            estimates[i] = planned[i].estimate;
+        }
+        return new CostBasedAndPredicate(orderedPredicates, estimates);
+    }
+
+    private static final class Planned {
+
+        final Predicate predicate;
+        final long estimate;
+
+        Planned(Predicate predicate, long estimate) {
+            this.predicate = predicate;
+            this.estimate = estimate;
+        }
+
+    }
+
+}
@@ -16,6 +16,9 @@
 
 package com.hazelcast.query.impl.predicates;
 
+import com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Index;
@@ -24,6 +27,7 @@ import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +36,9 @@ import static com.hazelcast.query.impl.IndexRegistry.SKIP_PARTITIONS_COUNT_CHECK
 /**
  * Tries to divide the predicate tree into isolated subtrees every of which can
  * be evaluated by {@link Index#evaluate} method in a single go.
+ * <p>
+ * Subtrees evaluable by different bitmap indexes sharing the same unique key
+ * space are further combined into {@link BitmapAlgebraPredicate} predicates.
  */
 public class EvaluateVisitor extends AbstractVisitor {
 
@@ -73,8 +80,8 @@ public class EvaluateVisitor extends AbstractVisitor {
         }
 
         if (!requiresGeneration) {
-            // no changes to the predicates required
-            return andPredicate;
+            // no grouping required, but bitmap indexes might be combined
+            return combineBitmapIndexes(andPredicate, predicates, true, indexes);
         }
 
         // Add non-evaluable predicates to the output.
@@ -113,7 +120,11 @@ public class EvaluateVisitor extends AbstractVisitor {
             output.add(new EvaluatePredicate(new AndPredicate(groupPredicates), indexName));
         }
 
-        return output.size() == 1 ? output.get(0) : new AndPredicate(output.toArray(EMPTY_PREDICATES));
+        if (output.size() == 1) {
+            return output.get(0);
+        }
+        Predicate[] outputPredicates = output.toArray(EMPTY_PREDICATES);
+        return combineBitmapIndexes(new AndPredicate(outputPredicates), outputPredicates, true, indexes);
     }
 
     @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity"})
@@ -152,8 +163,8 @@ public class EvaluateVisitor extends AbstractVisitor {
         }
 
         if (!requiresGeneration) {
-            // no changes to the predicates required
-            return orPredicate;
+            // no grouping required, but bitmap indexes might be combined
+            return combineBitmapIndexes(orPredicate, predicates, false, indexes);
         }
 
         // Add non-evaluable predicates to the output.
@@ -192,12 +203,20 @@ public class EvaluateVisitor extends AbstractVisitor {
             output.add(new EvaluatePredicate(new OrPredicate(groupPredicates), indexName));
         }
 
-        return output.size() == 1 ? output.get(0) : new OrPredicate(output.toArray(EMPTY_PREDICATES));
+        if (output.size() == 1) {
+            return output.get(0);
+        }
+        Predicate[] outputPredicates = output.toArray(EMPTY_PREDICATES);
+        return combineBitmapIndexes(new OrPredicate(outputPredicates), outputPredicates, false, indexes);
     }
 
     @Override
     public Predicate visit(NotPredicate notPredicate, IndexRegistry indexes) {
         Predicate subPredicate = notPredicate.getPredicate();
+        if (subPredicate instanceof BitmapAlgebraPredicate) {
+            Predicate expression = ((BitmapAlgebraPredicate) subPredicate).getExpression();
+            return new BitmapAlgebraPredicate(new NotPredicate(expression));
+        }
         if (!(subPredicate instanceof EvaluatePredicate)) {
             return notPredicate;
         }
@@ -261,4 +280,133 @@ public class EvaluateVisitor extends AbstractVisitor {
         return new EvaluatePredicate(predicate, index.getName());
     }
 
+    @Override
+    public Predicate visit(LikePredicate predicate, IndexRegistry indexes) {
+        if (predicate.getClass() == LikePredicate.class && predicate.expressionCanBeUsedAsIndexPrefix()) {
+            // prefix queries are served better by a range scan over a sorted index
+            Index orderedIndex = indexes.matchIndex(predicate.attributeName, IndexMatchHint.PREFER_ORDERED,
+                    SKIP_PARTITIONS_COUNT_CHECK);
+            if (orderedIndex != null && orderedIndex.isOrdered()) {
+                return predicate;
+            }
+        }
+
+        return visitEvaluable(predicate, predicate.attributeName, indexes);
+    }
+
+    @Override
+    public Predicate visit(RegexPredicate predicate, IndexRegistry indexes) {
+        return visitEvaluable(predicate, predicate.attributeName, indexes);
+    }
+
+    @Override
+    public Predicate visit(VectorSimilarityPredicate predicate, IndexRegistry indexes) {
+        return visitEvaluable(predicate, predicate.attributeName, indexes);
+    }
+
+    /**
+     * Combines the given sub-predicates of the given predicate evaluable by
+     * bitmap indexes sharing the same unique key space into {@link
+     * BitmapAlgebraPredicate} predicates.
+     *
+     * @return the given predicate if nothing was combined, a new predicate
+     * otherwise.
+     */
+    private static Predicate combineBitmapIndexes(Predicate predicate, Predicate[] predicates, boolean conjunction,
+                                                  IndexRegistry indexes) {
+        Map<String, List<Predicate>> keySpaces = null;
+        boolean requiresGeneration = false;
+        for (Predicate subPredicate : predicates) {
+            String keySpace = bitmapKeySpace(subPredicate, indexes);
+            if (keySpace == null) {
+                continue;
+            }
+
+            if (keySpaces == null) {
+                keySpaces = new LinkedHashMap<>();
+            }
+            List<Predicate> group = keySpaces.get(keySpace);
+            if (group == null) {
+                group = new ArrayList<>(predicates.length);
+                keySpaces.put(keySpace, group);
+            } else {
+                requiresGeneration = true;
+            }
+            group.add(subPredicate);
+        }
+
+        if (!requiresGeneration) {
+            return predicate;
+        }
+
+        List<Predicate> output = new ArrayList<>(predicates.length);
+        for (Predicate subPredicate : predicates) {
+            if (bitmapKeySpace(subPredicate, indexes) == null) {
+                output.add(subPredicate);
+            }
+        }
+
+        for (List<Predicate> group : keySpaces.values()) {
+            if (group.size() == 1) {
+                output.add(group.get(0));
+                continue;
+            }
+
+            Predicate[] groupPredicates = new Predicate[group.size()];
+            for (int i = 0; i < groupPredicates.length; ++i) {
+                Predicate groupPredicate = group.get(i);
+                groupPredicates[i] = groupPredicate instanceof BitmapAlgebraPredicate
+                        ? ((BitmapAlgebraPredicate) groupPredicate).getExpression() : groupPredicate;
+            }
+            Predicate expression = conjunction ? new AndPredicate(groupPredicates) : new OrPredicate(groupPredicates);
+            output.add(new BitmapAlgebraPredicate(expression));
+        }
+
+        if (output.size() == 1) {
+            return output.get(0);
+        }
+        Predicate[] outputPredicates = output.toArray(EMPTY_PREDICATES);
+        return conjunction ? new AndPredicate(outputPredicates) : new OrPredicate(outputPredicates);
+    }
+
+    /**
+     * @return the unique key attribute of the bitmap indexes evaluating the
+     * given predicate if the indexes share the raw unique key space, {@code
+     * null} otherwise.
+     */
+    private static String bitmapKeySpace(Predicate predicate, IndexRegistry indexes) {
+        String indexName;
+        if (predicate instanceof EvaluatePredicate) {
+            indexName = ((EvaluatePredicate) predicate).getIndexName();
+        } else if (predicate instanceof BitmapAlgebraPredicate) {
+            indexName = ((BitmapAlgebraPredicate) predicate).getIndexNames()[0];
+        } else {
+            return null;
+        }
+
+        Index index = indexes.matchIndex(indexName, IndexMatchHint.EXACT_NAME, SKIP_PARTITIONS_COUNT_CHECK);
+        if (index == null) {
+            return null;
+        }
+        IndexConfig config = index.getConfig();
+        if (config == null || config.getType() != IndexType.BITMAP) {
+            return null;
+        }
+        if (config.getBitmapIndexOptions().getUniqueKeyTransformation() != UniqueKeyTransformation.RAW) {
+            // the keys are remapped per index, so they can't be shared
+            return null;
+        }
+        return config.getBitmapIndexOptions().getUniqueKey();
+    }
+
+    private static Predicate visitEvaluable(Predicate predicate, String attributeName, IndexRegistry indexes) {
+        Index index = indexes.matchIndex(attributeName, predicate.getClass(), IndexMatchHint.PREFER_UNORDERED,
+                SKIP_PARTITIONS_COUNT_CHECK);
+        if (index == null || index.getConverter() == null) {
+            return predicate;
+        }
+
+        return new EvaluatePredicate(predicate, index.getName());
+    }
+
 }
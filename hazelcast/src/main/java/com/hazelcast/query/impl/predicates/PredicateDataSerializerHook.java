@@ -57,8 +57,10 @@ public class PredicateDataSerializerHook implements DataSerializerHook {
     public static final int NEGATIVE_INFINITY = 19;
     public static final int POSITIVE_INFINITY = 20;
     public static final int MULTI_PARTITION_PREDICATE = 21;
+    public static final int VECTOR_SIMILARITY_PREDICATE = 22;
+    public static final int VECTOR_SIMILARITY_COMPARATOR = 23;
 
-    public static final int LEN = MULTI_PARTITION_PREDICATE + 1;
+    public static final int LEN = VECTOR_SIMILARITY_COMPARATOR + 1;
 
     @Override
     public int getFactoryId() {
@@ -91,6 +93,8 @@ public class PredicateDataSerializerHook implements DataSerializerHook {
         constructors[NEGATIVE_INFINITY] = () -> CompositeValue.NEGATIVE_INFINITY;
         constructors[POSITIVE_INFINITY] = () -> CompositeValue.POSITIVE_INFINITY;
         constructors[MULTI_PARTITION_PREDICATE] = MultiPartitionPredicateImpl::new;
+        constructors[VECTOR_SIMILARITY_PREDICATE] = VectorSimilarityPredicate::new;
+        constructors[VECTOR_SIMILARITY_COMPARATOR] = VectorSimilarityComparator::new;
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
+
+import static com.hazelcast.query.impl.IndexRegistry.SKIP_PARTITIONS_COUNT_CHECK;
+
+/**
+ * Estimates the number of entries an index lookup performed for a predicate
+ * is going to produce using the {@link IndexStatistics} of the matched index.
+ * <p>
+ * The indexes are matched using the same hints the predicates use while
+ * filtering, so the estimation is done for the index the predicate is going
+ * to query.
+ */
+final class SelectivityEstimator {
+
+    /**
+     * Indicates that the predicate can't be evaluated using an index.
+     */
+    static final long NOT_INDEXED = -1;
+
+    /**
+     * Indicates that the predicate might be evaluated using an index, but its
+     * selectivity can't be estimated.
+     */
+    static final long UNKNOWN = -2;
+
+    private SelectivityEstimator() {
+    }
+
+    /**
+     * Estimates the number of entries the index lookup for the given
+     * predicate is going to produce.
+     *
+     * @param predicate the predicate to estimate.
+     * @param indexes   the indexes to match the index for the predicate in.
+     * @return the estimated number of entries, {@link #NOT_INDEXED} if there
+     * is no index for the given predicate or {@link #UNKNOWN} if the estimation
+     * is not possible.
+     */
+    static long estimate(Predicate predicate, IndexRegistry indexes) {
+        if (predicate instanceof EqualPredicate) {
+            EqualPredicate equalPredicate = (EqualPredicate) predicate;
+            return estimateEqual(equalPredicate.attributeName, IndexMatchHint.PREFER_UNORDERED, equalPredicate.value,
+                    indexes);
+        } else if (predicate instanceof InPredicate) {
+            return estimateIn((InPredicate) predicate, indexes);
+        } else if (predicate instanceof GreaterLessPredicate || predicate instanceof BetweenPredicate
+                || predicate instanceof BoundedRangePredicate) {
+            return estimateRange((RangePredicate) predicate, indexes);
+        } else if (predicate instanceof CompositeEqualPredicate) {
+            CompositeEqualPredicate compositePredicate = (CompositeEqualPredicate) predicate;
+            return estimateEqual(compositePredicate.indexName, IndexMatchHint.EXACT_NAME, compositePredicate.value,
+                    indexes);
+        } else if (predicate instanceof OrPredicate) {
+            return estimateOr((OrPredicate) predicate, indexes);
+        } else if (predicate instanceof CostBasedAndPredicate) {
+            return ((CostBasedAndPredicate) predicate).getDriverEstimate();
+        } else if (predicate instanceof IndexAwarePredicate && predicate instanceof AbstractPredicate) {
+            return estimateIndexAware((AbstractPredicate) predicate, indexes);
+        } else if (predicate instanceof IndexAwarePredicate) {
+            return UNKNOWN;
+        } else {
+            return NOT_INDEXED;
+        }
+    }
+
+    private static long estimateEqual(String pattern, IndexMatchHint matchHint, Comparable value, IndexRegistry indexes) {
+        InternalIndex index = indexes.matchIndex(pattern, matchHint, SKIP_PARTITIONS_COUNT_CHECK);
+        if (index == null) {
+            return NOT_INDEXED;
+        }
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return UNKNOWN;
+        }
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            // nothing is indexed yet
+            return 0;
+        }
+
+        try {
+            return statistics.estimateEqual(converter.convert(value));
+        } catch (RuntimeException e) {
+            // the filtering is going to report the conversion problem
+            return UNKNOWN;
+        }
+    }
+
+    private static long estimateIn(InPredicate predicate, IndexRegistry indexes) {
+        long total = 0;
+        for (Comparable value : predicate.values) {
+            long estimate = estimateEqual(predicate.attributeName, IndexMatchHint.PREFER_UNORDERED, value, indexes);
+            if (estimate < 0) {
+                return estimate;
+            }
+            total += estimate;
+        }
+        return total;
+    }
+
+    private static long estimateRange(RangePredicate predicate, IndexRegistry indexes) {
+        InternalIndex index = indexes.matchIndex(predicate.getAttribute(), IndexMatchHint.PREFER_ORDERED,
+                SKIP_PARTITIONS_COUNT_CHECK);
+        if (index == null) {
+            return NOT_INDEXED;
+        }
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return UNKNOWN;
+        }
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            // nothing is indexed yet
+            return 0;
+        }
+
+        try {
+            Comparable from = predicate.getFrom() == null ? null : converter.convert(predicate.getFrom());
+            Comparable to = predicate.getTo() == null ? null : converter.convert(predicate.getTo());
+            return statistics.estimateRange(from, predicate.isFromInclusive(), to, predicate.isToInclusive());
+        } catch (RuntimeException e) {
+            // the filtering is going to report the conversion problem
+            return UNKNOWN;
+        }
+    }
+
+    private static long estimateIndexAware(AbstractPredicate predicate, IndexRegistry indexes) {
+        // the other index-aware predicates don't report their selectivity,
+        // they might use an index only if there is one for their attribute
+        InternalIndex index = indexes.matchIndex(predicate.attributeName, IndexMatchHint.NONE, SKIP_PARTITIONS_COUNT_CHECK);
+        return index == null ? NOT_INDEXED : UNKNOWN;
+    }
+
+    private static long estimateOr(OrPredicate predicate, IndexRegistry indexes) {
+        // OrPredicate is evaluated using indexes only if all of its
+        // sub-predicates are indexed, the union is bounded by the sum.
+        long total = 0;
+        for (Predicate subPredicate : predicate.predicates) {
+            long estimate = estimate(subPredicate, indexes);
+            if (estimate < 0) {
+                return estimate;
+            }
+            total += estimate;
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.Vectors;
+import com.hazelcast.query.impl.getters.ReflectionHelper;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+import static com.hazelcast.query.impl.predicates.PredicateDataSerializerHook.F_ID;
+
+/**
+ * Orders the entries by the descending cosine similarity of their vector
+ * attribute to the query vector. The entries without a vector of the query
+ * dimension are ordered last.
+ * <p>
+ * Used by the paging predicates created by {@link
+ * com.hazelcast.query.Predicates#nearestNeighbors}. On the members the
+ * vectors are extracted from the queryable entries; on the caller, where the
+ * results are merged, from the deserialized keys and values: from the fields
+ * of {@link GenericRecord}s or by reflection.
+ *
+ * @param <K> the type of keys.
+ * @param <V> the type of values.
+ */
+public class VectorSimilarityComparator<K, V> implements Comparator<Map.Entry<K, V>>, IdentifiedDataSerializable {
+
+    private String attributeName;
+    private float[] vector;
+
+    public VectorSimilarityComparator() {
+    }
+
+    public VectorSimilarityComparator(String attributeName, float[] vector) {
+        this.attributeName = canonicalizeAttribute(attributeName);
+        this.vector = vector;
+    }
+
+    @Override
+    public int compare(Map.Entry<K, V> left, Map.Entry<K, V> right) {
+        return Double.compare(similarity(right), similarity(left));
+    }
+
+    private double similarity(Map.Entry<K, V> entry) {
+        float[] value = Vectors.toVector(extractAttributeValue(entry));
+        if (value == null || value.length != vector.length) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Vectors.cosineSimilarity(value, vector);
+    }
+
+    private Object extractAttributeValue(Map.Entry<K, V> entry) {
+        if (entry instanceof Extractable) {
+            return ((Extractable) entry).getAttributeValue(attributeName);
+        }
+
+        String keyPrefix = KEY_ATTRIBUTE_NAME.value();
+        Object target;
+        String path;
+        if (attributeName.equals(keyPrefix)) {
+            return entry.getKey();
+        } else if (attributeName.startsWith(keyPrefix + ".")) {
+            target = entry.getKey();
+            path = attributeName.substring(keyPrefix.length() + 1);
+        } else if (attributeName.equals(THIS_ATTRIBUTE_NAME.value())) {
+            return entry.getValue();
+        } else {
+            target = entry.getValue();
+            path = attributeName;
+        }
+
+        if (target instanceof GenericRecord) {
+            return extractFromRecord((GenericRecord) target, path);
+        }
+        try {
+            return target == null ? null : ReflectionHelper.extractValue(target, path, false);
+        } catch (Exception e) {
+            throw new QueryException(e);
+        }
+    }
+
+    private static Object extractFromRecord(GenericRecord record, String path) {
+        int dot = path.indexOf('.');
+        if (dot >= 0) {
+            String field = path.substring(0, dot);
+            if (record.getFieldKind(field) != FieldKind.COMPACT && record.getFieldKind(field) != FieldKind.PORTABLE) {
+                return null;
+            }
+            GenericRecord nested = record.getGenericRecord(field);
+            return nested == null ? null : extractFromRecord(nested, path.substring(dot + 1));
+        }
+
+        switch (record.getFieldKind(path)) {
+            case ARRAY_OF_FLOAT32:
+                return record.getArrayOfFloat32(path);
+            case ARRAY_OF_FLOAT64:
+                return record.getArrayOfFloat64(path);
+            case ARRAY_OF_NULLABLE_FLOAT32:
+                return record.getArrayOfNullableFloat32(path);
+            case ARRAY_OF_NULLABLE_FLOAT64:
+                return record.getArrayOfNullableFloat64(path);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(attributeName);
+        out.writeFloatArray(vector);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        attributeName = in.readString();
+        vector = in.readFloatArray();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return PredicateDataSerializerHook.VECTOR_SIMILARITY_COMPARATOR;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.Vectors;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Vector similarity predicate. Passes the entries having a vector attribute
+ * of the same dimension as the query vector.
+ * <p>
+ * It's the inner predicate of the paging predicates created by {@link
+ * com.hazelcast.query.Predicates#nearestNeighbors}, which order the passed
+ * entries by their similarity to the query vector and limit them to the
+ * {@code k} most similar ones. A {@link com.hazelcast.config.IndexType#VECTOR
+ * vector} index evaluates this predicate by an approximate nearest neighbor
+ * search, which passes only the candidates for the most similar entries.
+ */
+public class VectorSimilarityPredicate extends AbstractPredicate implements VisitablePredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    private float[] vector;
+    private int k;
+
+    public VectorSimilarityPredicate() {
+    }
+
+    public VectorSimilarityPredicate(String attributeName, float[] vector, int k) {
+        super(attributeName);
+        this.vector = vector;
+        this.k = k;
+    }
+
+    /**
+     * @return the query vector.
+     */
+    public float[] getVector() {
+        return vector;
+    }
+
+    /**
+     * @return the number of the most similar entries the query asks for.
+     */
+    public int getK() {
+        return k;
+    }
+
+    @Override
+    boolean applyForAttributeValue(Object attributeValue) {
+        float[] value = Vectors.toVector(attributeValue);
+        return value != null && value.length == vector.length;
+    }
+
+    @Override
+    protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
+        return applyForAttributeValue(attributeValue);
+    }
+
+    @Override
+    public Predicate accept(Visitor visitor, IndexRegistry indexes) {
+        return visitor.visit(this, indexes);
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeFloatArray(vector);
+        out.writeInt(k);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        vector = in.readFloatArray();
+        k = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return attributeName + " NEAREST " + k + " TO " + Arrays.toString(vector);
+    }
+
+    @Override
+    public int getClassId() {
+        return PredicateDataSerializerHook.VECTOR_SIMILARITY_PREDICATE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        if (!(o instanceof VectorSimilarityPredicate)) {
+            return false;
+        }
+
+        VectorSimilarityPredicate that = (VectorSimilarityPredicate) o;
+        if (!that.canEqual(this)) {
+            return false;
+        }
+
+        return k == that.k && Arrays.equals(vector, that.vector);
+    }
+
+    @Override
+    public boolean canEqual(Object other) {
+        return (other instanceof VectorSimilarityPredicate);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + Arrays.hashCode(vector);
+        result = 31 * result + k;
+        return result;
+    }
+}
@@ -42,4 +42,10 @@ public interface Visitor {
 
     Predicate visit(BetweenPredicate predicate, IndexRegistry indexes);
 
+    Predicate visit(LikePredicate predicate, IndexRegistry indexes);
+
+    Predicate visit(RegexPredicate predicate, IndexRegistry indexes);
+
+    Predicate visit(VectorSimilarityPredicate predicate, IndexRegistry indexes);
+
 }
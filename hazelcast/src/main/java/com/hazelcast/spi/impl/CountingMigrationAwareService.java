@@ -19,6 +19,7 @@ package com.hazelcast.spi.impl;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
+import com.hazelcast.internal.partition.LiveMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -27,6 +28,8 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -34,7 +37,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * migrations concerning the partition owner (either as current or new replica index) currently in-flight.
  */
 public class CountingMigrationAwareService
-        implements ChunkedMigrationAwareService, OffloadedReplicationPreparation {
+        implements LiveMigrationAwareService, OffloadedReplicationPreparation {
 
     static final int PRIMARY_REPLICA_INDEX = 0;
     static final int IN_FLIGHT_MIGRATION_STAMP = -1;
@@ -153,4 +156,31 @@ public class CountingMigrationAwareService
         }
         return ((ChunkedMigrationAwareService) migrationAwareService).newChunkSupplier(event, namespace);
     }
+
+    @Override
+    public boolean startLiveMigration(PartitionReplicationEvent event) {
+        return migrationAwareService instanceof LiveMigrationAwareService
+                && ((LiveMigrationAwareService) migrationAwareService).startLiveMigration(event);
+    }
+
+    @Override
+    public boolean isAllowedDuringLiveMigration(Operation op) {
+        return migrationAwareService instanceof LiveMigrationAwareService
+                && ((LiveMigrationAwareService) migrationAwareService).isAllowedDuringLiveMigration(op);
+    }
+
+    @Override
+    public Map<ServiceNamespace, Operation> finishLiveMigration(PartitionReplicationEvent event) {
+        if (!(migrationAwareService instanceof LiveMigrationAwareService)) {
+            return Collections.emptyMap();
+        }
+        return ((LiveMigrationAwareService) migrationAwareService).finishLiveMigration(event);
+    }
+
+    @Override
+    public void cancelLiveMigration(int partitionId) {
+        if (migrationAwareService instanceof LiveMigrationAwareService) {
+            ((LiveMigrationAwareService) migrationAwareService).cancelLiveMigration(partitionId);
+        }
+    }
 }
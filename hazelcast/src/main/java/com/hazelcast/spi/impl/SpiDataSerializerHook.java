@@ -80,6 +80,11 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int SIMPLE_TOKEN_CRED = 24;
     public static final int DISTRIBUTED_OBJECT_EVENT_PACKET = 25;
     public static final int APPEND_TENANT_CONTROL_OPERATION = 26;
+    /**
+     * The type ID of a packet carrying a batch of responses. It is only
+     * written and read by the response handlers, so it has no factory entry.
+     */
+    public static final int RESPONSE_BATCH = 27;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
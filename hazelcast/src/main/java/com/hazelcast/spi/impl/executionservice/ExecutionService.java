@@ -111,6 +111,22 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * The name of the executor that loads the keys of a single shard and
+     * dispatches them to the partition owners for value loading.
+     *
+     * @see com.hazelcast.map.MapLoaderShardingSupport#loadAllKeys(int)
+     */
+    String MAP_LOAD_KEY_SHARD_EXECUTOR = "hz:map-loadKeyShard";
+
+    /**
+     * The name of the executor that runs the store workers which flush the
+     * write-behind queues of the maps to their map stores.
+     *
+     * @see com.hazelcast.config.MapStoreConfig#setWriteDelaySeconds(int)
+     */
+    String MAP_WRITE_BEHIND_EXECUTOR = "hz:map-writeBehind";
+
     /**
      * Name of the Management Center executor. Used to execute blocking tasks
      * related with operations run by Management Center.
@@ -159,6 +159,22 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
      */
     void runOrExecute(Operation op);
 
+    /**
+     * Runs the {@link PartitionSpecificRunnable} on the calling thread if it is
+     * the partition thread owning the partition of the task, it isn't running
+     * another task and its queue has no pending work, which the task would
+     * otherwise overtake. Otherwise the task is submitted for executing using
+     * {@link #execute(PartitionSpecificRunnable)}.
+     * <p>
+     * This lets a TPC reactor, which is also a partition thread, run the tasks
+     * it decoded for its own partitions without passing them through its
+     * operation queue.
+     *
+     * @param task the task to run or execute.
+     * @throws java.lang.NullPointerException if task is null.
+     */
+    void runOrExecuteTask(PartitionSpecificRunnable task);
+
     /**
      * Checks if the {@link Operation} is allowed to run on the current thread.
      *
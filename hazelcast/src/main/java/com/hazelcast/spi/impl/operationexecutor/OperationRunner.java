@@ -120,7 +120,9 @@ public abstract class OperationRunner {
      * <p>
      * For example, the {@link OperationExecutorImpl} will never unset this
      * field since each OperationRunner is bound to a single OperationThread;
-     * so this field is initialized when the OperationRunner is created.
+     * so this field is initialized when the OperationRunner is created. Only
+     * when partition thread stealing is enabled, the field is updated when the
+     * partition is handed over to another partition thread.
      * <p>
      * The returned value could be null. When it is null, currently no thread
      * is running this OperationRunner.
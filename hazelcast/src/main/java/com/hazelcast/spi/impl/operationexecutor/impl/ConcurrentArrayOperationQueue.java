@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.LatencyDistribution;
+import com.hazelcast.internal.util.QuickMath;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+
+/**
+ * An {@link OperationQueue} for a {@link PartitionOperationThread} backed by
+ * bounded many-to-one arrays, so in the common case neither enqueueing nor
+ * dequeueing a task allocates and no lock is involved.
+ * <p>
+ * Normal tasks are offered into a ring which remembers the enqueue time of
+ * every {@link #LATENCY_SAMPLE_INTERVAL}-th task, so the time tasks spend in
+ * the queue is recorded in a {@link LatencyDistribution}. The consumer drains
+ * the ring in batches of up to {@link #DRAIN_BATCH_SIZE} tasks to reduce the
+ * traffic on the head sequence. Priority tasks are offered into a
+ * {@link ManyToOneConcurrentArrayQueue} and are always taken before the normal
+ * ones.
+ * <p>
+ * The arrays are bounded, but an operation queue must never reject a task, so
+ * a task which doesn't fit is added to an unbounded overflow queue instead.
+ * As long as the overflow queue isn't empty, new tasks are added to it as
+ * well, and a task taken from it is only handed out when the array is still
+ * empty after the task was taken, so the FIFO ordering of the tasks added by
+ * a single producer is preserved.
+ * <p>
+ * When there is no work, the consumer idles using the configured
+ * {@link IdleStrategy} until the strategy reaches its longest pause and then
+ * parks until a producer wakes it up. Without an idle strategy the consumer
+ * parks right away.
+ * <p>
+ * Only a single consumer thread is supported.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class ConcurrentArrayOperationQueue implements OperationQueue {
+
+    /**
+     * The maximum number of normal tasks moved from the ring to the consumer
+     * at once.
+     */
+    static final int DRAIN_BATCH_SIZE = 64;
+
+    /**
+     * The queue latency is recorded for every {@code LATENCY_SAMPLE_INTERVAL}-th
+     * normal task that passes through the ring.
+     */
+    static final int LATENCY_SAMPLE_INTERVAL = 16;
+
+    private static final int LATENCY_SAMPLE_MASK = LATENCY_SAMPLE_INTERVAL - 1;
+
+    private static final AtomicLongFieldUpdater<ConcurrentArrayOperationQueue> TAIL
+            = AtomicLongFieldUpdater.newUpdater(ConcurrentArrayOperationQueue.class, "tail");
+    private static final AtomicLongFieldUpdater<ConcurrentArrayOperationQueue> HEAD
+            = AtomicLongFieldUpdater.newUpdater(ConcurrentArrayOperationQueue.class, "head");
+    private static final AtomicIntegerFieldUpdater<ConcurrentArrayOperationQueue> NORMAL_OVERFLOW_SIZE
+            = AtomicIntegerFieldUpdater.newUpdater(ConcurrentArrayOperationQueue.class, "normalOverflowSize");
+    private static final AtomicIntegerFieldUpdater<ConcurrentArrayOperationQueue> PRIORITY_OVERFLOW_SIZE
+            = AtomicIntegerFieldUpdater.newUpdater(ConcurrentArrayOperationQueue.class, "priorityOverflowSize");
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Object> ring;
+    private final long[] enqueueNanos;
+    private final Queue<Object> normalOverflow = new ConcurrentLinkedQueue<>();
+    private final ManyToOneConcurrentArrayQueue<Object> priorityQueue;
+    private final Queue<Object> priorityOverflow = new ConcurrentLinkedQueue<>();
+    private final IdleStrategy idleStrategy;
+    private final LatencyDistribution latencyDistribution = new LatencyDistribution();
+    private final SwCounter parkCount = newSwCounter();
+
+    // the following fields are only accessed by the consumer thread,
+    // other threads read the batch bounds for monitoring only.
+    private final Object[] batch = new Object[DRAIN_BATCH_SIZE];
+    private int batchIndex;
+    private int batchLength;
+    // the tasks taken from the overflow queues but not handed out yet,
+    // they are still included in the overflow sizes
+    private Object normalOverflowTask;
+    private Object priorityOverflowTask;
+
+    private volatile long tail;
+    private volatile long head;
+    private volatile long headCache;
+    private volatile int normalOverflowSize;
+    private volatile int priorityOverflowSize;
+    private volatile boolean parked;
+    private volatile Thread consumerThread;
+
+    /**
+     * @param capacity     the capacity of the normal and of the priority
+     *                     array, rounded up to the next power of two.
+     * @param idleStrategy the strategy to idle with before parking, or
+     *                     {@code null} to park right away.
+     */
+    public ConcurrentArrayOperationQueue(int capacity, IdleStrategy idleStrategy) {
+        checkPositive("capacity", capacity);
+        this.capacity = QuickMath.nextPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+        this.enqueueNanos = new long[this.capacity];
+        this.priorityQueue = new ManyToOneConcurrentArrayQueue<>(this.capacity);
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the thread which takes the tasks from this queue and which is
+     * unparked when a task is added while it waits.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    /**
+     * Returns the distribution of the time the sampled normal tasks spent
+     * in this queue before they were drained by the consumer.
+     */
+    public LatencyDistribution getLatencyDistribution() {
+        return latencyDistribution;
+    }
+
+    /**
+     * Returns the number of times the consumer parked because there was no
+     * work.
+     */
+    public long getParkCount() {
+        return parkCount.get();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            if (priorityOverflowSize > 0 || !priorityQueue.offer(task)) {
+                PRIORITY_OVERFLOW_SIZE.incrementAndGet(this);
+                priorityOverflow.add(task);
+            }
+        } else {
+            if (normalOverflowSize > 0 || !offerNormal(task)) {
+                NORMAL_OVERFLOW_SIZE.incrementAndGet(this);
+                normalOverflow.add(task);
+            }
+        }
+
+        // the tail or the overflow size has been updated using a CAS, so
+        // either we see the consumer parked or the consumer sees the task
+        if (parked) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    private boolean offerNormal(Object task) {
+        long limit = headCache + capacity;
+        long sequence;
+        do {
+            sequence = tail;
+            if (sequence >= limit) {
+                long currentHead = head;
+                limit = currentHead + capacity;
+                if (sequence >= limit) {
+                    return false;
+                }
+                headCache = currentHead;
+            }
+        } while (!TAIL.compareAndSet(this, sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        if ((sequence & LATENCY_SAMPLE_MASK) == 0) {
+            // published by the ordered write of the task below
+            enqueueNanos[index] = System.nanoTime();
+        }
+        ring.lazySet(index, task);
+        return true;
+    }
+
+    @Override
+    public Object poll() {
+        Object task = pollPriority();
+        return task != null ? task : pollNormal();
+    }
+
+    // A task taken from an overflow queue is only handed out when the array is empty after it was taken.
+    // A producer adds a task to the overflow queue only after its earlier tasks have claimed their slots,
+    // so these are either consumed already or still visible in the array then. Checking the array before
+    // taking the task is not enough: the array can be filled and the task added in between.
+    // The array is not empty either when the producer which claimed the head slot didn't publish its task
+    // yet: tasks behind that slot can be older than the ones in the overflow queue.
+
+    private Object pollPriority() {
+        if (priorityQueue.addedCount() != priorityQueue.removedCount()) {
+            return priorityQueue.poll();
+        }
+        if (priorityOverflowSize == 0) {
+            return null;
+        }
+        if (priorityOverflowTask == null) {
+            priorityOverflowTask = priorityOverflow.poll();
+        }
+        if (priorityOverflowTask == null || priorityQueue.addedCount() != priorityQueue.removedCount()) {
+            return priorityQueue.poll();
+        }
+        Object task = priorityOverflowTask;
+        priorityOverflowTask = null;
+        PRIORITY_OVERFLOW_SIZE.decrementAndGet(this);
+        return task;
+    }
+
+    private Object pollNormal() {
+        if (batchIndex == batchLength && drainNormal() == 0) {
+            Object task = pollNormalOverflow();
+            if (task != null || drainNormal() == 0) {
+                return task;
+            }
+        }
+
+        Object task = batch[batchIndex];
+        batch[batchIndex++] = null;
+        return task;
+    }
+
+    private Object pollNormalOverflow() {
+        if (normalOverflowSize == 0) {
+            return null;
+        }
+        if (normalOverflowTask == null) {
+            normalOverflowTask = normalOverflow.poll();
+        }
+        if (normalOverflowTask == null || tail != head) {
+            return null;
+        }
+        Object task = normalOverflowTask;
+        normalOverflowTask = null;
+        NORMAL_OVERFLOW_SIZE.decrementAndGet(this);
+        return task;
+    }
+
+    private int drainNormal() {
+        long currentHead = head;
+        long nowNanos = 0;
+        int length = 0;
+        while (length < DRAIN_BATCH_SIZE) {
+            long sequence = currentHead + length;
+            int index = (int) sequence & mask;
+            Object task = ring.get(index);
+            if (task == null) {
+                break;
+            }
+
+            if ((sequence & LATENCY_SAMPLE_MASK) == 0) {
+                if (nowNanos == 0) {
+                    nowNanos = System.nanoTime();
+                }
+                latencyDistribution.recordNanos(nowNanos - enqueueNanos[index]);
+            }
+            ring.lazySet(index, null);
+            batch[length++] = task;
+        }
+
+        batchIndex = 0;
+        batchLength = length;
+        if (length > 0) {
+            HEAD.lazySet(this, currentHead + length);
+        }
+        return length;
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        long idleCount = 0;
+        for (; ; ) {
+            Object task = priorityOnly ? pollPriority() : poll();
+            if (task != null) {
+                return task;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (idleStrategy != null && !idleStrategy.idle(idleCount++)) {
+                continue;
+            }
+
+            parked = true;
+            try {
+                // re-check after publishing the parked flag, so we can't miss the wakeup of a producer
+                if (isEmpty(priorityOnly)) {
+                    parkCount.inc();
+                    LockSupport.park(this);
+                }
+            } finally {
+                parked = false;
+            }
+        }
+    }
+
+    private boolean isEmpty(boolean priorityOnly) {
+        boolean priorityEmpty = priorityQueue.addedCount() == priorityQueue.removedCount()
+                && priorityOverflowSize == 0;
+        return priorityOnly ? priorityEmpty : priorityEmpty && normalSize() == 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isEmpty(false);
+    }
+
+    @Override
+    public int normalSize() {
+        return (int) (tail - head) + (batchLength - batchIndex) + normalOverflowSize;
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size() + priorityOverflowSize;
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+}
@@ -52,6 +52,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PARTITION_THREAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_PRIORITY_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_EXECUTOR_QUEUE_SIZE;
@@ -67,13 +68,18 @@ import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandle
 import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_QUEUE_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_QUEUE_TYPE;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_STEALING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_STEALING_THRESHOLD;
 import static com.hazelcast.spi.properties.ClusterProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * An {@link OperationExecutor} that schedules:
  * <ol>
- * <li>partition-specific operations to a specific-partition operation thread (using a mod on the partition ID)</li>
+ * <li>partition-specific operations to a specific-partition operation thread (using a mod on the partition ID, or
+ * the {@link PartitionThreadAffinity} when partitions are allowed to move between partition threads)</li>
  * <li>non-specific operations to generic operation threads</li>
  * </ol>
  * The {@link #execute(Object, int, boolean)} accepts an Object instead of a runnable to prevent needing to
@@ -102,6 +108,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
+    // null unless partition threads are allowed to steal partitions from each other
+    private final PartitionThreadAffinity affinity;
 
     private final OperationQueue genericQueue
             = new OperationQueueImpl(new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>());
@@ -134,8 +142,10 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         if (!tpcServerBootstrap.isEnabled()) {
+            this.affinity = initAffinity(properties);
             this.partitionThreads = initClassicPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
         } else {
+            this.affinity = null;
             this.partitionThreads = initTpcPartitionThreads(tpcServerBootstrap, hzName, nodeExtension, configClassLoader);
         }
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
@@ -148,6 +158,15 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return partitionThreads;
     }
 
+    /**
+     * Returns the affinity that tracks which partition thread owns which
+     * partition, or {@code null} if partitions are statically bound to
+     * partition threads.
+     */
+    public PartitionThreadAffinity getPartitionThreadAffinity() {
+        return affinity;
+    }
+
     private OperationRunner[] initPartitionOperationRunners(HazelcastProperties properties,
                                                             OperationRunnerFactory runnerFactory) {
         OperationRunner[] operationRunners = new OperationRunner[properties.getInteger(PARTITION_COUNT)];
@@ -157,6 +176,21 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return operationRunners;
     }
 
+    private PartitionThreadAffinity initAffinity(HazelcastProperties properties) {
+        if (!properties.getBoolean(PARTITION_OPERATION_THREAD_STEALING_ENABLED)) {
+            return null;
+        }
+
+        return new PartitionThreadAffinity(partitionOperationRunners, getClassicPartitionThreadCount(properties),
+                properties.getInteger(PARTITION_OPERATION_THREAD_STEALING_THRESHOLD));
+    }
+
+    private int getClassicPartitionThreadCount(HazelcastProperties properties) {
+        return threadAffinity.isEnabled()
+                ? threadAffinity.getThreadCount()
+                : properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
+    }
+
     private OperationRunner[] initGenericOperationRunners(HazelcastProperties properties, OperationRunnerFactory runnerFactory) {
         int threadCount = properties.getInteger(GENERIC_OPERATION_THREAD_COUNT);
         OperationRunner[] operationRunners = new OperationRunner[threadCount + priorityThreadCount];
@@ -170,25 +204,33 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private PartitionOperationThread[] initClassicPartitionThreads(HazelcastProperties properties, String hzName,
                                                                    NodeExtension nodeExtension, ClassLoader configClassLoader) {
 
-        int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
-        if (threadAffinity.isEnabled()) {
-            threadCount = threadAffinity.getThreadCount();
-        }
+        int threadCount = getClassicPartitionThreadCount(properties);
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        boolean arrayQueue = isArrayQueue(properties);
+        int queueCapacity = properties.getInteger(PARTITION_OPERATION_THREAD_QUEUE_CAPACITY);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
+            PartitionOperationThread partitionThread;
+            if (arrayQueue) {
+                ConcurrentArrayOperationQueue operationQueue = new ConcurrentArrayOperationQueue(queueCapacity, idleStrategy);
+                partitionThread = new PartitionOperationThread(threadName, threadId,
+                        operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                operationQueue.setConsumerThread(partitionThread);
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
 
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
+                OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
 
-            PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId,
-                    operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                partitionThread = new PartitionOperationThread(threadName, threadId,
+                        operationQueue, logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                normalQueue.setConsumerThread(partitionThread);
+            }
             partitionThread.setThreadAffinity(threadAffinity);
+            partitionThread.affinity = affinity;
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -199,9 +241,24 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
             runner.setCurrentThread(thread);
         }
 
+        if (affinity != null) {
+            affinity.init(threads);
+        }
         return threads;
     }
 
+    private static boolean isArrayQueue(HazelcastProperties properties) {
+        String queueType = properties.getString(PARTITION_OPERATION_THREAD_QUEUE_TYPE);
+        if ("linked".equals(queueType)) {
+            return false;
+        } else if ("array".equals(queueType)) {
+            return true;
+        } else {
+            throw new IllegalStateException("Unrecognized " + PARTITION_OPERATION_THREAD_QUEUE_TYPE.getName()
+                    + " value=" + queueType);
+        }
+    }
+
     private PartitionOperationThread[] initTpcPartitionThreads(TpcServerBootstrap tpcServerBootstrap,
                                                                String hzName,
                                                                NodeExtension nodeExtension,
@@ -386,6 +443,11 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return partitionThreads.length;
     }
 
+    @Probe(name = OPERATION_METRIC_EXECUTOR_PARTITION_STEAL_COUNT)
+    private long getPartitionStealCount() {
+        return affinity == null ? 0 : affinity.getStealCount();
+    }
+
     @Override
     @Probe(name = OPERATION_METRIC_EXECUTOR_GENERIC_THREAD_COUNT)
     public int getGenericThreadCount() {
@@ -394,7 +456,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public int getPartitionThreadId(int partitionId) {
-        return getPartitionThreadId(partitionId, partitionThreads.length);
+        return toPartitionThreadIndex(partitionId);
     }
 
     @Override
@@ -409,12 +471,33 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         checkNotNull(taskFactory, "taskFactory can't be null");
         checkNotNull(partitions, "partitions can't be null");
 
+        if (affinity != null) {
+            executeOnAcquiredPartitions(taskFactory, partitions);
+            return;
+        }
+
         for (PartitionOperationThread partitionThread : partitionThreads) {
             TaskBatch batch = new TaskBatch(taskFactory, partitions, partitionThread.threadId, partitionThreads.length);
             partitionThread.queue.add(batch, false);
         }
     }
 
+    private void executeOnAcquiredPartitions(PartitionTaskFactory taskFactory, BitSet partitions) {
+        // the partitions are pinned to their current owner until the batch has processed them
+        BitSet[] partitionsPerThread = new BitSet[partitionThreads.length];
+        for (int threadId = 0; threadId < partitionsPerThread.length; threadId++) {
+            partitionsPerThread[threadId] = new BitSet(partitionOperationRunners.length);
+        }
+        for (int partitionId = partitions.nextSetBit(0); partitionId >= 0; partitionId = partitions.nextSetBit(partitionId + 1)) {
+            partitionsPerThread[affinity.acquire(partitionId)].set(partitionId);
+        }
+
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            TaskBatch batch = new TaskBatch(taskFactory, partitionsPerThread[partitionThread.threadId], affinity);
+            partitionThread.queue.add(batch, false);
+        }
+    }
+
     @Override
     public void execute(PartitionSpecificRunnable task) {
         checkNotNull(task, "task can't be null");
@@ -431,7 +514,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         if (partitionId < 0) {
             genericQueue.add(task, priority);
         } else {
-            OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
+            int threadIndex = affinity == null ? toPartitionThreadIndex(partitionId) : affinity.acquire(partitionId);
+            OperationThread partitionThread = partitionThreads[threadIndex];
             partitionThread.queue.add(task, priority);
         }
     }
@@ -522,6 +606,27 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
     }
 
+    @Override
+    public void runOrExecuteTask(PartitionSpecificRunnable task) {
+        checkNotNull(task, "task can't be null");
+
+        Thread currentThread = Thread.currentThread();
+        int partitionId = task.getPartitionId();
+        // with the partition affinity, the partitions are handed over between the threads by execute
+        if (affinity == null && partitionId >= 0 && currentThread instanceof PartitionOperationThread) {
+            PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+            // a non null runner means the thread is in the middle of another task, and the
+            // task must not overtake the normal or priority tasks already queued on the thread
+            if (partitionThread.currentRunner == null && toPartitionThreadIndex(partitionId) == partitionThread.threadId
+                    && partitionThread.queue.isEmpty()) {
+                partitionThread.process(task);
+                return;
+            }
+        }
+
+        execute(task);
+    }
+
     @Override
     public boolean isInvocationAllowed(Operation op, boolean isAsync) {
         checkNotNull(op, "op can't be null");
@@ -561,6 +666,9 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     // public for testing purposes
     public int toPartitionThreadIndex(int partitionId) {
+        if (affinity != null) {
+            return affinity.getPartitionThreadId(partitionId);
+        }
         return partitionId % partitionThreads.length;
     }
 
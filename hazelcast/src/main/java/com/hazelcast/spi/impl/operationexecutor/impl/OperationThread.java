@@ -213,6 +213,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                 throw new IllegalStateException("Unhandled task: " + task + " from " + batch.taskFactory());
             }
         } finally {
+            batch.taskCompleted();
             queue.add(batch, false);
         }
     }
@@ -18,12 +18,25 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.LatencyDistribution;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionThreadAffinity.ForwardedTask;
+import com.hazelcast.spi.impl.operationservice.Operation;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_DONATED_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_AVG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_MAX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_PARK_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.US;
 
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
@@ -32,6 +45,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 public class PartitionOperationThread extends OperationThread {
 
     OperationRunner[] partitionOperationRunners;
+    // null unless partitions are allowed to move between partition threads
+    PartitionThreadAffinity affinity;
+    private long processedCount;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
@@ -54,6 +70,99 @@ public class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    @SuppressWarnings("java:S112")
+    @Override
+    protected void loop() throws Exception {
+        if (affinity == null) {
+            super.loop();
+            return;
+        }
+
+        while (!isShutdown()) {
+            Object task = queue.poll();
+            if (task == null) {
+                // we ran out of work, so other partition threads are allowed to hand over partitions
+                affinity.markStealing(threadId, true);
+                try {
+                    task = queue.take(false);
+                } catch (InterruptedException e) {
+                    continue;
+                } finally {
+                    affinity.markStealing(threadId, false);
+                }
+            }
+
+            process(task);
+            affinity.afterTask(this, ++processedCount);
+        }
+    }
+
+    @Override
+    void process(Object task) {
+        if (affinity == null) {
+            super.process(task);
+            return;
+        }
+
+        if (task instanceof ForwardedTask) {
+            ForwardedTask forwardedTask = (ForwardedTask) task;
+            try {
+                super.process(forwardedTask.task);
+            } finally {
+                affinity.forwardedTaskCompleted(forwardedTask.partitionId);
+            }
+            return;
+        }
+
+        int partitionId = acquiredPartitionId(task);
+        if (partitionId >= 0 && affinity.forward(partitionId, task)) {
+            return;
+        }
+        try {
+            super.process(task);
+        } finally {
+            if (partitionId >= 0) {
+                affinity.release(partitionId);
+            }
+        }
+    }
+
+    /**
+     * Returns the partition the task has acquired when it was offered to
+     * this thread, or -1 if the task didn't acquire a partition.
+     */
+    private static int acquiredPartitionId(Object task) {
+        if (task.getClass() == Packet.class) {
+            return ((Packet) task).getPartitionId();
+        } else if (task instanceof Operation) {
+            return ((Operation) task).getPartitionId();
+        } else if (task instanceof PartitionSpecificRunnable) {
+            return ((PartitionSpecificRunnable) task).getPartitionId();
+        }
+        return -1;
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_OWNED_PARTITION_COUNT)
+    int ownedPartitionCount() {
+        int count = 0;
+        for (OperationRunner runner : partitionOperationRunners) {
+            if (runner.currentThread() == this) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_STOLEN_PARTITION_COUNT)
+    long stolenPartitionCount() {
+        return affinity == null ? 0 : affinity.getStolenPartitionCount(threadId);
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_DONATED_PARTITION_COUNT)
+    long donatedPartitionCount() {
+        return affinity == null ? 0 : affinity.getDonatedPartitionCount(threadId);
+    }
+
     @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT)
     int priorityPendingCount() {
         return queue.prioritySize();
@@ -63,4 +172,39 @@ public class PartitionOperationThread extends OperationThread {
     int normalPendingCount() {
         return queue.normalSize();
     }
+
+    /**
+     * Returns the distribution of the time operations spend in the queue of
+     * this thread, or {@code null} if the queue doesn't record it.
+     */
+    public LatencyDistribution queueLatencyDistribution() {
+        return queue instanceof ConcurrentArrayOperationQueue
+                ? ((ConcurrentArrayOperationQueue) queue).getLatencyDistribution()
+                : null;
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_COUNT)
+    long queueLatencyCount() {
+        LatencyDistribution distribution = queueLatencyDistribution();
+        return distribution == null ? 0 : distribution.count();
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_AVG, unit = US)
+    long queueLatencyAvg() {
+        LatencyDistribution distribution = queueLatencyDistribution();
+        return distribution == null ? 0 : distribution.avgMicros();
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_LATENCY_MAX, unit = US)
+    long queueLatencyMax() {
+        LatencyDistribution distribution = queueLatencyDistribution();
+        return distribution == null ? 0 : distribution.maxMicros();
+    }
+
+    @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_QUEUE_PARK_COUNT)
+    long queueParkCount() {
+        return queue instanceof ConcurrentArrayOperationQueue
+                ? ((ConcurrentArrayOperationQueue) queue).getParkCount()
+                : 0;
+    }
 }
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of the partition to partition-thread mapping when partitions
+ * are allowed to move between partition threads at runtime.
+ * <p>
+ * Initially every partition is owned by the thread
+ * {@code partitionId % threadCount}. Partition threads that run out of work
+ * advertise that they are willing to steal; an overloaded partition thread
+ * checks for such thieves between two tasks and hands over whole partitions
+ * to them. If at least two of its partitions have pending tasks, the busiest
+ * one is handed over, otherwise one without pending tasks.
+ * <p>
+ * Every task offered to a partition thread first {@link #acquire(int)
+ * acquires} its partition from the owner, which increments the pending count
+ * of the partition, and the owner {@link #release(int) releases} it once it
+ * has consumed the task. Ordering within a partition is preserved because:
+ * <ol>
+ * <li>the hand-over is done by the owning thread itself between two tasks.
+ * Operations for a partition are only run on the thread running the
+ * partition, so nothing can be running at that moment.</li>
+ * <li>a partition with a pending count of 0 is locked (-1) while its owner
+ * changes, so a concurrent submitter either sees the old owner before the
+ * hand-over starts or the new owner after it completed.</li>
+ * <li>a partition with pending tasks keeps its owner, so submitters keep
+ * queueing its tasks behind the pending ones, but it is run by the new
+ * thread. The old owner forwards the tasks of the partition it takes from its
+ * queue to the new thread in the order it takes them. Once nothing is pending
+ * on the old owner, the partition is locked and its owner changes as above,
+ * so the tasks queued on the new owner from then on are behind all the
+ * forwarded ones.</li>
+ * </ol>
+ * Tasks of a {@link TaskBatch} are created from the batch when the old owner
+ * takes it, so they are forwarded the same way. Forwarded tasks are queued
+ * as normal tasks on the new thread.
+ */
+public final class PartitionThreadAffinity {
+
+    private static final int LOCKED = -1;
+    private static final int NO_THREAD = -1;
+    // the overload check is done once every CHECK_INTERVAL tasks to keep the
+    // cost for the common case negligible.
+    private static final int CHECK_INTERVAL = 16;
+
+    private final AtomicIntegerArray owners;
+    private final AtomicIntegerArray pending;
+    // the thread a partition is being handed over to, while its owner still forwards its tasks
+    private final AtomicIntegerArray forwardTargets;
+    // the number of forwarded tasks which the new thread didn't process yet
+    private final AtomicIntegerArray forwarded;
+    private final AtomicIntegerArray stealing;
+    private final AtomicLongArray stolenCounts;
+    private final AtomicLongArray donatedCounts;
+    private final AtomicLong stealCount = new AtomicLong();
+    private final OperationRunner[] partitionOperationRunners;
+    private final int threshold;
+    private PartitionOperationThread[] threads;
+
+    PartitionThreadAffinity(OperationRunner[] partitionOperationRunners, int threadCount, int threshold) {
+        this.partitionOperationRunners = partitionOperationRunners;
+        this.threshold = threshold;
+        this.owners = new AtomicIntegerArray(partitionOperationRunners.length);
+        this.pending = new AtomicIntegerArray(partitionOperationRunners.length);
+        this.forwardTargets = new AtomicIntegerArray(partitionOperationRunners.length);
+        this.forwarded = new AtomicIntegerArray(partitionOperationRunners.length);
+        this.stealing = new AtomicIntegerArray(threadCount);
+        this.stolenCounts = new AtomicLongArray(threadCount);
+        this.donatedCounts = new AtomicLongArray(threadCount);
+        for (int partitionId = 0; partitionId < owners.length(); partitionId++) {
+            owners.set(partitionId, OperationExecutorImpl.getPartitionThreadId(partitionId, threadCount));
+            forwardTargets.set(partitionId, NO_THREAD);
+        }
+    }
+
+    void init(PartitionOperationThread[] threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the ID of the partition thread currently running the given
+     * partition. While a partition is being handed over, this is the new
+     * thread, even though its tasks are still queued on the old owner. The
+     * result may be stale as soon as it is returned, unless the caller is
+     * the running thread.
+     *
+     * @param partitionId the partition ID
+     * @return the ID of the partition thread running the partition
+     */
+    public int getPartitionThreadId(int partitionId) {
+        // the owner is updated before the forward target is cleared
+        int forwardTarget = forwardTargets.get(partitionId);
+        return forwardTarget != NO_THREAD ? forwardTarget : owners.get(partitionId);
+    }
+
+    /**
+     * Returns the number of partitions currently run by the given partition
+     * thread.
+     *
+     * @param threadId the ID of the partition thread
+     * @return the number of owned partitions
+     */
+    public int getOwnedPartitionCount(int threadId) {
+        int count = 0;
+        for (int partitionId = 0; partitionId < owners.length(); partitionId++) {
+            if (getPartitionThreadId(partitionId) == threadId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of partitions the given partition thread has taken
+     * over from other partition threads.
+     *
+     * @param threadId the ID of the partition thread
+     * @return the number of stolen partitions
+     */
+    public long getStolenPartitionCount(int threadId) {
+        return stolenCounts.get(threadId);
+    }
+
+    /**
+     * Returns the number of partitions the given partition thread has handed
+     * over to other partition threads.
+     *
+     * @param threadId the ID of the partition thread
+     * @return the number of donated partitions
+     */
+    public long getDonatedPartitionCount(int threadId) {
+        return donatedCounts.get(threadId);
+    }
+
+    /**
+     * Returns the total number of partition hand-overs.
+     *
+     * @return the total number of partition hand-overs
+     */
+    public long getStealCount() {
+        return stealCount.get();
+    }
+
+    /**
+     * Pins the partition to its current owner until {@link #release(int)} is
+     * called, or until the owner has forwarded the task.
+     *
+     * @param partitionId the partition ID
+     * @return the ID of the partition thread owning the partition
+     */
+    int acquire(int partitionId) {
+        for (; ; ) {
+            int count = pending.get(partitionId);
+            if (count != LOCKED && pending.compareAndSet(partitionId, count, count + 1)) {
+                return owners.get(partitionId);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    void release(int partitionId) {
+        pending.decrementAndGet(partitionId);
+    }
+
+    /**
+     * Called by the owner of the partition for a task it has taken from its
+     * queue. If the partition is being handed over, the task is forwarded to
+     * the new thread instead of being processed, and the partition is
+     * released.
+     *
+     * @param partitionId the partition the task has acquired
+     * @param task        the task
+     * @return {@code true} if the task has been forwarded
+     */
+    boolean forward(int partitionId, Object task) {
+        int target = forwardTargets.get(partitionId);
+        if (target == NO_THREAD) {
+            return false;
+        }
+
+        forwarded.incrementAndGet(partitionId);
+        threads[target].queue.add(new ForwardedTask(task, partitionId), false);
+        if (pending.decrementAndGet(partitionId) == 0 && pending.compareAndSet(partitionId, 0, LOCKED)) {
+            // nothing is left to forward, from now on the tasks are queued on the new thread directly
+            owners.set(partitionId, target);
+            forwardTargets.set(partitionId, NO_THREAD);
+            pending.set(partitionId, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Called by the new thread of a partition once it has processed a
+     * forwarded task.
+     */
+    void forwardedTaskCompleted(int partitionId) {
+        forwarded.decrementAndGet(partitionId);
+    }
+
+    void markStealing(int threadId, boolean value) {
+        stealing.lazySet(threadId, value ? 1 : 0);
+    }
+
+    /**
+     * Called by a partition thread between two tasks. If the thread is
+     * overloaded and there is a partition thread willing to steal, one of
+     * its partitions is handed over.
+     *
+     * @param thread    the calling partition thread
+     * @param taskCount the number of tasks processed by the calling thread
+     */
+    void afterTask(PartitionOperationThread thread, long taskCount) {
+        if (taskCount % CHECK_INTERVAL != 0 || thread.queue.size() < threshold) {
+            return;
+        }
+
+        PartitionOperationThread thief = findThief(thread.threadId);
+        if (thief != null) {
+            handOver(thread, thief, taskCount);
+        }
+    }
+
+    private PartitionOperationThread findThief(int victimId) {
+        for (PartitionOperationThread candidate : threads) {
+            if (candidate.threadId != victimId
+                    && stealing.get(candidate.threadId) == 1
+                    && candidate.queue.isEmpty()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void handOver(PartitionOperationThread victim, PartitionOperationThread thief, long seed) {
+        int partitionCount = owners.length();
+        int start = (int) (seed % partitionCount);
+        int idlePartitionId = -1;
+        int busiestPartitionId = -1;
+        int busiestCount = 0;
+        int busyPartitions = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            int partitionId = (start + i) % partitionCount;
+            if (owners.get(partitionId) != victim.threadId
+                    || forwardTargets.get(partitionId) != NO_THREAD
+                    || forwarded.get(partitionId) != 0) {
+                // not ours, or its forwarded tasks are still queued
+                continue;
+            }
+
+            int count = pending.get(partitionId);
+            if (count == 0) {
+                idlePartitionId = idlePartitionId == -1 ? partitionId : idlePartitionId;
+            } else if (count > 0) {
+                busyPartitions++;
+                if (count > busiestCount) {
+                    busiestCount = count;
+                    busiestPartitionId = partitionId;
+                }
+            }
+        }
+
+        // moving the only busy partition would only move the overload to the thief
+        if (busyPartitions >= 2) {
+            handOverBusy(busiestPartitionId, victim, thief);
+        } else if (idlePartitionId != -1) {
+            handOverIdle(idlePartitionId, victim, thief);
+        }
+    }
+
+    private void handOverBusy(int partitionId, PartitionOperationThread victim, PartitionOperationThread thief) {
+        // only the victim consumes the pending tasks, so they stay pending until it forwards them
+        partitionOperationRunners[partitionId].setCurrentThread(thief);
+        forwardTargets.set(partitionId, thief.threadId);
+        handedOver(victim, thief);
+    }
+
+    private void handOverIdle(int partitionId, PartitionOperationThread victim, PartitionOperationThread thief) {
+        if (!pending.compareAndSet(partitionId, 0, LOCKED)) {
+            return;
+        }
+
+        partitionOperationRunners[partitionId].setCurrentThread(thief);
+        owners.set(partitionId, thief.threadId);
+        // unlocking publishes the new owner to the submitters
+        pending.set(partitionId, 0);
+        handedOver(victim, thief);
+    }
+
+    private void handedOver(PartitionOperationThread victim, PartitionOperationThread thief) {
+        stolenCounts.incrementAndGet(thief.threadId);
+        donatedCounts.incrementAndGet(victim.threadId);
+        stealCount.incrementAndGet();
+    }
+
+    /**
+     * A task taken from the queue of the old owner of a partition which is
+     * being handed over, queued on the new thread of the partition.
+     */
+    static final class ForwardedTask {
+
+        final Object task;
+        final int partitionId;
+
+        ForwardedTask(Object task, int partitionId) {
+            this.task = task;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public String toString() {
+            return "ForwardedTask{task=" + task + ", partitionId=" + partitionId + '}';
+        }
+    }
+}
@@ -31,13 +31,29 @@ public class TaskBatch {
     private final BitSet partitions;
     private final int threadId;
     private final int partitionThreadCount;
+    private final PartitionThreadAffinity affinity;
     private int nextPartitionId;
+    private int currentPartitionId = -1;
 
     public TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, int threadId, int partitionThreadCount) {
         this.taskFactory = taskFactory;
         this.partitions = partitions;
         this.threadId = threadId;
         this.partitionThreadCount = partitionThreadCount;
+        this.affinity = null;
+    }
+
+    /**
+     * Creates a batch for partitions that have already been acquired from
+     * the given affinity. Each partition is released once its task has
+     * been processed.
+     */
+    TaskBatch(PartitionTaskFactory taskFactory, BitSet partitions, PartitionThreadAffinity affinity) {
+        this.taskFactory = taskFactory;
+        this.partitions = partitions;
+        this.threadId = -1;
+        this.partitionThreadCount = -1;
+        this.affinity = affinity;
     }
 
     public PartitionTaskFactory taskFactory() {
@@ -50,8 +66,31 @@ public class TaskBatch {
      * @return the task to execute, or null if the batch is complete.
      */
     public Object next() {
-        int partitionId = nextPartitionId();
-        return partitionId == -1 ? null : taskFactory.create(partitionId);
+        for (; ; ) {
+            int partitionId = nextPartitionId();
+            if (partitionId == -1) {
+                return null;
+            }
+
+            Object task = taskFactory.create(partitionId);
+            if (affinity != null && affinity.forward(partitionId, task)) {
+                // the partition is being handed over to another thread, which runs the task
+                continue;
+            }
+            currentPartitionId = partitionId;
+            return task;
+        }
+    }
+
+    /**
+     * Signals that the task returned by the last {@link #next()} call has
+     * been processed.
+     */
+    void taskCompleted() {
+        if (affinity != null && currentPartitionId != -1) {
+            affinity.release(currentPartitionId);
+        }
+        currentPartitionId = -1;
     }
 
     private int nextPartitionId() {
@@ -63,8 +102,9 @@ public class TaskBatch {
 
             nextPartitionId = partitionId + 1;
 
-            if (getPartitionThreadId(partitionId, partitionThreadCount) == threadId) {
-                // only selected partitions that belong to the right partition thread.
+            if (affinity != null || getPartitionThreadId(partitionId, partitionThreadCount) == threadId) {
+                // only selected partitions that belong to the right partition thread. With an
+                // affinity, the partitions have been selected when the batch was created.
                 return partitionId;
             }
         }
@@ -28,16 +28,21 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.ERROR_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.RESPONSE_BATCH;
+import static com.hazelcast.spi.impl.operationservice.impl.ResponseBatcher.OFFSET_BATCH_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.ResponseBatcher.OFFSET_BATCH_RESPONSES;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_CALL_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
@@ -82,8 +87,42 @@ public final class InboundResponseHandler implements Consumer<Packet> {
 
         byte[] bytes = packet.toByteArray();
         int typeId = Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian);
-        long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
         Address sender = packet.getConn().getRemoteAddress();
+        if (typeId == RESPONSE_BATCH) {
+            acceptBatch(bytes, sender);
+        } else {
+            accept(packet, bytes, typeId, sender);
+        }
+    }
+
+    /**
+     * Processes the responses packed by the {@link ResponseBatcher} of the sender.
+     * Every response is processed as if it was received in its own packet.
+     */
+    private void acceptBatch(byte[] bytes, Address sender) {
+        int count = Bits.readInt(bytes, OFFSET_BATCH_COUNT, useBigEndian);
+        int offset = OFFSET_BATCH_RESPONSES;
+        for (int i = 0; i < count; i++) {
+            int length = Bits.readInt(bytes, offset, useBigEndian);
+            offset += INT_SIZE_IN_BYTES;
+            int typeId = Bits.readInt(bytes, offset + OFFSET_TYPE_ID, useBigEndian);
+            if (typeId == BACKUP_ACK_RESPONSE) {
+                // the most common response in a batch doesn't need its own packet
+                notifyBackupComplete(Bits.readLong(bytes, offset + OFFSET_CALL_ID, useBigEndian));
+            } else {
+                // the packet of a normal response becomes the value of the invocation, so it gets its own bytes
+                byte[] responseBytes = Arrays.copyOfRange(bytes, offset, offset + length);
+                Packet response = new Packet(responseBytes)
+                        .setPacketType(OPERATION)
+                        .raiseFlags(FLAG_OP_RESPONSE);
+                accept(response, responseBytes, typeId, sender);
+            }
+            offset += length;
+        }
+    }
+
+    private void accept(Packet packet, byte[] bytes, int typeId, Address sender) {
+        long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
         try {
             switch (typeId) {
                 case NORMAL_RESPONSE:
@@ -38,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_OVERFLOW;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_USED_PERCENTAGE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_INVOCATIONS;
@@ -45,6 +46,8 @@ import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_REGISTRY_RING_CAPACITY;
+import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_REGISTRY_TYPE;
 
 /**
  * Responsible for the registration of all pending invocations.
@@ -55,12 +58,13 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
+ * The invocations are stored either in a CHM keyed by the call ID or, when the
+ * {@link com.hazelcast.spi.properties.ClusterProperty#INVOCATION_REGISTRY_TYPE} is {@code ring}, in an
+ * {@link InvocationRing} which doesn't allocate when an invocation is registered or deregistered.
+ * <p>
  * Some ideas:
  * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
+ * <li>Pre-allocate all invocations. Because the ring has a fixed capacity, pre-allocation should be easy. Also
  * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
  * </ul>
  */
@@ -73,9 +77,11 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     private static final int INITIAL_CAPACITY = 1000;
     private static final float LOAD_FACTOR = 0.75f;
     private static final double HUNDRED_PERCENT = 100d;
+    private static final int DEFAULT_RING_CAPACITY = 1 << 16;
 
-    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
+    // exactly one of invocations and ring is set
     private final ConcurrentMap<Long, Invocation> invocations;
+    private final InvocationRing ring;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
     private final boolean profilerEnabled;
@@ -90,10 +96,37 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        if (isRing(properties)) {
+            this.invocations = null;
+            this.ring = new InvocationRing(getRingCapacity(properties, callIdSequence));
+        } else {
+            this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+            this.ring = null;
+        }
         this.profilerEnabled = properties.getInteger(InvocationProfilerPlugin.PERIOD_SECONDS) > 0;
     }
 
+    private static boolean isRing(HazelcastProperties properties) {
+        String type = properties.getString(INVOCATION_REGISTRY_TYPE);
+        if ("map".equals(type)) {
+            return false;
+        } else if ("ring".equals(type)) {
+            return true;
+        } else {
+            throw new IllegalStateException("Unrecognized " + INVOCATION_REGISTRY_TYPE.getName() + " value=" + type);
+        }
+    }
+
+    private static int getRingCapacity(HazelcastProperties properties, CallIdSequence callIdSequence) {
+        int capacity = properties.getInteger(INVOCATION_REGISTRY_RING_CAPACITY);
+        if (capacity > 0) {
+            return capacity;
+        }
+
+        int maxConcurrentInvocations = callIdSequence.getMaxConcurrentInvocations();
+        return maxConcurrentInvocations == Integer.MAX_VALUE ? DEFAULT_RING_CAPACITY : maxConcurrentInvocations;
+    }
+
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, OPERATION_PREFIX_INVOCATIONS);
@@ -106,7 +139,17 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
+    }
+
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
+    private int pendingInvocations() {
+        return size();
+    }
+
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_OVERFLOW)
+    private int overflowInvocations() {
+        return ring == null ? 0 : ring.overflowSize();
     }
 
     @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID)
@@ -135,7 +178,11 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             callIdSequence.complete();
             throw e;
         }
-        invocations.put(callId, invocation);
+        if (ring != null) {
+            ring.put(callId, invocation);
+        } else {
+            invocations.put(callId, invocation);
+        }
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -154,7 +201,11 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        if (ring != null) {
+            ring.remove(invocation.op.getCallId(), invocation);
+        } else {
+            invocations.remove(invocation.op.getCallId());
+        }
         callIdSequence.complete();
         return true;
     }
@@ -184,21 +235,22 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the number of pending invocations
      */
     public int size() {
-        return invocations.size();
+        return ring != null ? ring.size() : invocations.size();
     }
 
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        return ring != null ? ring.iterator() : invocations.values().iterator();
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Intention to expose the entry set is to mutate it. When the invocations
+     * are stored in a ring, a snapshot is returned instead.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        return ring != null ? ring.entrySet() : invocations.entrySet();
     }
 
     /**
@@ -208,7 +260,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        return ring != null ? ring.get(callId) : invocations.get(callId);
     }
 
     public void reset(Throwable cause) {
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.util.QuickMath;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Stores the pending invocations of the {@link InvocationRegistry} in a
+ * fixed-size, power-of-two array of slots indexed by the call ID modulo the
+ * capacity.
+ * <p>
+ * The call ID of the operation of the invocation in a slot acts as the
+ * generation stamp of the slot: the low bits of a call ID select the slot and
+ * the high bits tell apart the call IDs sharing the slot. So a response for a
+ * call ID which has already been deregistered, and whose slot may already be
+ * reused by another invocation, doesn't find an invocation.
+ * <p>
+ * Since the number of pending invocations is bounded by the backpressure
+ * (apart from the urgent operations and retries), the slot of a new call ID
+ * is normally empty and registering and deregistering an invocation doesn't
+ * allocate. When the slot is still taken by a long-running invocation, the
+ * invocation is stored in an overflow map instead.
+ */
+final class InvocationRing implements Iterable<Invocation> {
+
+    private final int mask;
+    private final AtomicReferenceArray<Invocation> slots;
+    private final ConcurrentMap<Long, Invocation> overflow = new ConcurrentHashMap<>();
+    private final LongAdder size = new LongAdder();
+
+    InvocationRing(int capacity) {
+        checkPositive("capacity", capacity);
+        int slotCount = QuickMath.nextPowerOfTwo(capacity);
+        this.mask = slotCount - 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Stores the invocation under the call ID of its operation.
+     */
+    void put(long callId, Invocation invocation) {
+        if (!slots.compareAndSet(index(callId), null, invocation)) {
+            overflow.put(callId, invocation);
+        }
+        size.increment();
+    }
+
+    /**
+     * Removes the invocation stored under the given call ID.
+     */
+    void remove(long callId, Invocation invocation) {
+        if (slots.compareAndSet(index(callId), invocation, null) || overflow.remove(callId, invocation)) {
+            size.decrement();
+        }
+    }
+
+    Invocation get(long callId) {
+        Invocation invocation = slots.get(index(callId));
+        if (invocation != null && invocation.op.getCallId() == callId) {
+            return invocation;
+        }
+        return overflow.isEmpty() ? null : overflow.get(callId);
+    }
+
+    int size() {
+        return (int) size.sum();
+    }
+
+    int overflowSize() {
+        return overflow.size();
+    }
+
+    private int index(long callId) {
+        return (int) callId & mask;
+    }
+
+    /**
+     * Returns a snapshot of the pending invocations by call ID.
+     */
+    Set<Map.Entry<Long, Invocation>> entrySet() {
+        Set<Map.Entry<Long, Invocation>> entries = new HashSet<>();
+        for (Invocation invocation : this) {
+            entries.add(new SimpleImmutableEntry<>(invocation.op.getCallId(), invocation));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the pending invocations:
+     * the slots are scanned in order, followed by the overflow map.
+     */
+    @Override
+    public Iterator<Invocation> iterator() {
+        return new InvocationIterator();
+    }
+
+    private final class InvocationIterator implements Iterator<Invocation> {
+        private final Iterator<Invocation> overflowIterator = overflow.values().iterator();
+        private int index = -1;
+        private Invocation next;
+
+        InvocationIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (++index < slots.length()) {
+                next = slots.get(index);
+                if (next != null) {
+                    return;
+                }
+            }
+            if (overflowIterator.hasNext()) {
+                next = overflowIterator.next();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Invocation invocation = next;
+            advance();
+            return invocation;
+        }
+    }
+}
@@ -32,7 +32,9 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.partition.AllowedDuringLiveMigration;
 import com.hazelcast.internal.partition.InternalPartition;
+import com.hazelcast.internal.partition.LiveMigrationAwareService;
 import com.hazelcast.internal.partition.PartitionReplica;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
@@ -406,7 +408,8 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
             internalPartition = nodeEngine.getPartitionService().getPartition(partitionId);
         }
 
-        if (!isAllowedToRetryDuringMigration(op) && internalPartition.isMigrating()) {
+        if (!isAllowedToRetryDuringMigration(op) && internalPartition.isMigrating()
+                && !isAllowedDuringLiveMigration(op, partitionId)) {
             throw new PartitionMigratingException(thisAddress, partitionId,
                     op.getClass().getName(), op.getServiceName());
         }
@@ -423,6 +426,16 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
         return (op instanceof ReadonlyOperation && staleReadOnMigrationEnabled) || isMigrationOperation(op);
     }
 
+    private boolean isAllowedDuringLiveMigration(Operation op, int partitionId) {
+        if (!(op instanceof AllowedDuringLiveMigration)
+                || !node.partitionService.getPartitionStateManager().isLiveMigrating(partitionId)) {
+            return false;
+        }
+        Object service = op.getService();
+        return service instanceof LiveMigrationAwareService
+                && ((LiveMigrationAwareService) service).isAllowedDuringLiveMigration(op);
+    }
+
     public void handleOperationError(Operation operation, Throwable e) {
         if (e instanceof OutOfMemoryError) {
             OutOfMemoryErrorDispatcher.onOutOfMemory((OutOfMemoryError) e);
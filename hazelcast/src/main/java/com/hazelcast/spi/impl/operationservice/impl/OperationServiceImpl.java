@@ -164,8 +164,9 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.backpressureRegulator = new BackpressureRegulator(
                 properties, node.getLogger(BackpressureRegulator.class));
 
+        String hzName = nodeEngine.getHazelcastInstance().getName();
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
-                node.getLogger(OutboundResponseHandler.class));
+                nodeEngine, properties, hzName, node.getLogger(OutboundResponseHandler.class));
 
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class),
@@ -180,7 +181,6 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
         this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler);
 
-        String hzName = nodeEngine.getHazelcastInstance().getName();
         ClassLoader configClassLoader = node.getConfigClassLoader();
         this.inboundResponseHandlerSupplier = new InboundResponseHandlerSupplier(
                 configClassLoader, invocationRegistry, hzName, nodeEngine);
@@ -496,6 +496,7 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
     public void onMemberLeft(MemberImpl member) {
         invocationMonitor.onMemberLeft(member);
+        outboundResponseHandler.onMemberLeft(member);
     }
 
     @Override
@@ -511,7 +512,8 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, OPERATION_PREFIX);
-        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                outboundResponseHandler);
     }
 
     public void start() {
@@ -521,6 +523,7 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         invocationMonitor.start();
         operationExecutor.start();
         inboundResponseHandlerSupplier.start();
+        outboundResponseHandler.start();
         slowOperationDetector.start();
     }
 
@@ -575,6 +578,8 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         logger.finest("Shutting down operation executors");
 
         operationExecutor.shutdown();
+        // flushes the responses batched by the operation threads
+        outboundResponseHandler.shutdown();
         slowOperationDetector.shutdown();
     }
 }
@@ -66,9 +66,11 @@ public class OutboundOperationHandler {
     }
 
     private Packet toPacket(Operation op) {
-        byte[] bytes = serializationService.toBytes(op);
         int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        // the serialization buffer of a large operation becomes the payload
+        // of the packet instead of being copied into it
+        Packet packet = serializationService.toBytes(op, (bytes, length) -> new Packet(bytes, length, partitionId))
+                .setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
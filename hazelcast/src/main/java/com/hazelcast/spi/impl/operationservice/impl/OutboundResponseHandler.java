@@ -16,7 +16,11 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.cluster.impl.MemberImpl;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializedBytesFunction;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.server.ServerConnectionManager;
@@ -24,14 +28,18 @@ import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.SpiDataSerializerHook;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.concurrent.ThreadLocalRandom;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
@@ -43,6 +51,8 @@ import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.RESPONSE_BATCH;
+import static com.hazelcast.spi.impl.operationservice.impl.ResponseBatcher.OFFSET_BATCH_COUNT;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse.BACKUP_RESPONSE_SIZE_IN_BYTES;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_LENGTH;
@@ -56,19 +66,29 @@ import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OF
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_URGENT;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCHING_ENABLED;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 
 /**
  * An {@link OperationResponseHandler} that is used for a remotely executed Operation. So when a calling member
  * sends an Operation to the receiving member, the receiving member attaches this OutboundResponseHandler
  * to that operation so that the response is returned to the right machine.
+ * <p>
+ * When {@link com.hazelcast.spi.properties.ClusterProperty#RESPONSE_BATCHING_ENABLED} is set, the
+ * non-urgent normal responses and backup acks are packed by a {@link ResponseBatcher} into a single
+ * packet per target member, once the cluster version is 5.4 or later.
  */
-public final class OutboundResponseHandler implements OperationResponseHandler {
+public final class OutboundResponseHandler implements OperationResponseHandler, StaticMetricsProvider {
+
+    private static final SerializedBytesFunction<Packet> PACKET_FACTORY
+            = (bytes, length) -> new Packet(bytes, length, -1);
 
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final boolean useBigEndian;
     private final ILogger logger;
+    private final NodeEngine nodeEngine;
+    private final ResponseBatcher batcher;
 
     OutboundResponseHandler(Address thisAddress,
                             InternalSerializationService serializationService,
@@ -77,6 +97,54 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
         this.logger = logger;
+        this.nodeEngine = null;
+        this.batcher = null;
+    }
+
+    OutboundResponseHandler(Address thisAddress,
+                            InternalSerializationService serializationService,
+                            NodeEngine nodeEngine,
+                            HazelcastProperties properties,
+                            String hzName,
+                            ILogger logger) {
+        this.thisAddress = thisAddress;
+        this.serializationService = serializationService;
+        this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
+        this.logger = logger;
+        this.nodeEngine = nodeEngine;
+        this.batcher = properties.getBoolean(RESPONSE_BATCHING_ENABLED)
+                ? new ResponseBatcher(this, properties, hzName, useBigEndian, logger)
+                : null;
+    }
+
+    void start() {
+        if (batcher != null) {
+            batcher.start();
+        }
+    }
+
+    void shutdown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    void onMemberLeft(MemberImpl member) {
+        if (batcher != null) {
+            batcher.onMemberLeft(member);
+        }
+    }
+
+    // for testing
+    ResponseBatcher getBatcher() {
+        return batcher;
+    }
+
+    @Override
+    public void provideStaticMetrics(MetricsRegistry registry) {
+        if (batcher != null) {
+            registry.registerStaticMetrics(batcher, OPERATION_PREFIX);
+        }
     }
 
     @Override
@@ -113,9 +181,8 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", response: " + response);
         }
 
-        byte[] bytes = serializationService.toBytes(response);
-
-        Packet packet = newResponsePacket(bytes, response.isUrgent());
+        Packet packet = serializationService.toBytes(response, PACKET_FACTORY);
+        initResponsePacket(packet, response.isUrgent());
 
         return transmit(target, packet, connectionManager);
     }
@@ -126,10 +193,11 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
 
-        return transmit(target, packet, connectionManager);
+        return transmitOrBatch(target, packet, urgent, connectionManager);
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
+        Packet packet;
         byte[] bytes;
         boolean isData = value instanceof Data;
         if (isData) {
@@ -143,16 +211,18 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             // byte-array to be created and a intermediate copy of the data, we immediately copy the NativeMemoryData
             // into the bytes for the packet.
             data.copyTo(bytes, OFFSET_DATA_PAYLOAD);
+            packet = new Packet(bytes, -1);
         } else if (value == null) {
             // since there are many 'null' responses we optimize this case as well.
             bytes = new byte[OFFSET_NOT_DATA + INT_SIZE_IN_BYTES];
             writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_NULL, useBigEndian);
+            packet = new Packet(bytes, -1);
         } else {
             // for regular object we currently can't guess how big the bytes will be; so we just hand it
-            // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            // over to the serializationService to deal with it. The serialization buffer of a large object
+            // becomes the payload of the packet, otherwise this leads to an intermediate copy of the data.
+            packet = serializationService.toBytes(value, OFFSET_NOT_DATA, false, PACKET_FACTORY);
+            bytes = packet.toByteArray();
         }
 
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
@@ -163,7 +233,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return initResponsePacket(packet, urgent);
     }
 
     public void sendBackupAck(ServerConnectionManager connectionManager, Address target, long callId, boolean urgent) {
@@ -171,7 +241,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toBackupAckPacket(callId, urgent);
 
-        transmit(target, packet, connectionManager);
+        transmitOrBatch(target, packet, urgent, connectionManager);
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
@@ -182,6 +252,23 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return newResponsePacket(bytes, urgent);
     }
 
+    /**
+     * Creates the packet holding the responses added to the given batch buffer.
+     * The buffer begins with the space reserved for the prologue and the count.
+     */
+    Packet toBatchPacket(byte[] bytes, int count) {
+        writeResponsePrologueBytes(bytes, RESPONSE_BATCH, 0, false);
+        writeInt(bytes, OFFSET_BATCH_COUNT, count, useBigEndian);
+        return newResponsePacket(bytes, false);
+    }
+
+    /**
+     * Creates the packet holding the given bytes of a single non-urgent response.
+     */
+    Packet toResponsePacket(byte[] bytes) {
+        return newResponsePacket(bytes, false);
+    }
+
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
         // partition hash (which is always 0 in case of response)
         writeIntB(bytes, 0, 0);
@@ -200,8 +287,11 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private Packet newResponsePacket(byte[] bytes, boolean urgent) {
-        Packet packet = new Packet(bytes, -1)
-                .setPacketType(OPERATION)
+        return initResponsePacket(new Packet(bytes, -1), urgent);
+    }
+
+    private Packet initResponsePacket(Packet packet, boolean urgent) {
+        packet.setPacketType(OPERATION)
                 .raiseFlags(FLAG_OP_RESPONSE);
 
         if (urgent) {
@@ -210,7 +300,22 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return packet;
     }
 
-    private boolean transmit(Address target, Packet packet, ServerConnectionManager connectionManager) {
+    private boolean transmitOrBatch(Address target, Packet packet, boolean urgent,
+                                    ServerConnectionManager connectionManager) {
+        if (batcher != null && !urgent && isBatchingSupported() && batcher.add(connectionManager, target, packet)) {
+            return true;
+        }
+        return transmit(target, packet, connectionManager);
+    }
+
+    // RU_COMPAT_5_3
+    private boolean isBatchingSupported() {
+        // members before 5.4 can't decode the batches, batching members
+        // and the members with batching disabled decode them alike
+        return !nodeEngine.getClusterService().getClusterVersion().isUnknownOrLessThan(V5_4);
+    }
+
+    boolean transmit(Address target, Packet packet, ServerConnectionManager connectionManager) {
         // The response is send over an arbitrary stream id. It needs to be arbitrary so that
         // responses don't end up at stream 0 and the connection this stream belongs to, becomes
         // a bottleneck.
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.impl.MemberImpl;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.internal.util.executor.HazelcastManagedThread;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_RESPONSE_BATCHER_AVG_BATCH_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_RESPONSE_BATCHER_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_RESPONSE_BATCHER_RESPONSE_COUNT;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.writeInt;
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.RESPONSE_SIZE_IN_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCH_MAX_LATENCY_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCH_MAX_SIZE;
+
+/**
+ * Packs the responses destined for the same member into a single packet.
+ * <p>
+ * A batch packet starts with the usual response prologue with the
+ * {@link com.hazelcast.spi.impl.SpiDataSerializerHook#RESPONSE_BATCH} type ID,
+ * followed by the number of responses and, for every response, its length and
+ * the bytes of the response packet it would be sent as on its own. It is
+ * decoded by the {@link InboundResponseHandler}.
+ * <p>
+ * A batch is sent by the thread adding the response when it is full, or by
+ * the flush thread when its oldest response has waited the maximum latency.
+ * A batch holding a single response is sent as a regular response packet.
+ * <p>
+ * The batches are kept per connection manager and target address, so the
+ * responses are sent through the connection manager they were issued for.
+ * The batches of a member are dropped when it leaves the cluster.
+ */
+final class ResponseBatcher {
+
+    /**
+     * Responses larger than this are not batched.
+     */
+    static final int MAX_BATCHED_RESPONSE_BYTES = 8 * 1024;
+
+    static final int OFFSET_BATCH_COUNT = RESPONSE_SIZE_IN_BYTES;
+    static final int OFFSET_BATCH_RESPONSES = OFFSET_BATCH_COUNT + INT_SIZE_IN_BYTES;
+
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+    private static final int INITIAL_BUFFER_BYTES = 1024;
+
+    @Probe(name = OPERATION_METRIC_RESPONSE_BATCHER_BATCH_COUNT)
+    private final MwCounter batchCount = newMwCounter();
+    @Probe(name = OPERATION_METRIC_RESPONSE_BATCHER_RESPONSE_COUNT)
+    private final MwCounter responseCount = newMwCounter();
+
+    private final OutboundResponseHandler responseHandler;
+    private final ILogger logger;
+    private final boolean useBigEndian;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final ConcurrentMap<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+    // the batches waiting for the flush thread, in the order of their deadlines
+    private final BlockingQueue<Batch> scheduledBatches = new LinkedBlockingQueue<>();
+    private final FlushThread flushThread;
+
+    ResponseBatcher(OutboundResponseHandler responseHandler,
+                    HazelcastProperties properties,
+                    String hzName,
+                    boolean useBigEndian,
+                    ILogger logger) {
+        this.responseHandler = responseHandler;
+        this.logger = logger;
+        this.useBigEndian = useBigEndian;
+        this.maxBatchSize = properties.getInteger(RESPONSE_BATCH_MAX_SIZE);
+        this.maxLatencyNanos = properties.getNanos(RESPONSE_BATCH_MAX_LATENCY_MICROS);
+        if (maxBatchSize < 2) {
+            throw new IllegalArgumentException(RESPONSE_BATCH_MAX_SIZE.getName() + " can't be smaller than 2");
+        }
+        this.flushThread = new FlushThread(hzName);
+    }
+
+    void start() {
+        flushThread.start();
+    }
+
+    void shutdown() {
+        flushThread.shutdown();
+        for (Batch batch : batches.values()) {
+            batch.flushScheduled();
+        }
+    }
+
+    /**
+     * Adds the response packet to the batch of the target.
+     *
+     * @return {@code false} if the response is too large to be batched and
+     * should be sent on its own, {@code true} otherwise
+     */
+    boolean add(ServerConnectionManager connectionManager, Address target, Packet response) {
+        // the payload array of an outbound packet may be longer than the packet
+        int length = response.totalSize();
+        if (length > MAX_BATCHED_RESPONSE_BYTES) {
+            return false;
+        }
+
+        Batch batch = batches.computeIfAbsent(new BatchKey(connectionManager, target), Batch::new);
+        batch.add(response.toByteArray(), length);
+        return true;
+    }
+
+    /**
+     * Drops the batches of the member which left the cluster. The responses
+     * pending in them, if any, are still flushed by the flush thread, there's
+     * no connection to send them through anymore though.
+     */
+    void onMemberLeft(MemberImpl member) {
+        Set<Address> addresses = new HashSet<>(member.getAddressMap().values());
+        addresses.add(member.getAddress());
+        batches.keySet().removeIf(key -> addresses.contains(key.target));
+    }
+
+    int batchCount() {
+        return batches.size();
+    }
+
+    @Probe(name = OPERATION_METRIC_RESPONSE_BATCHER_AVG_BATCH_SIZE)
+    double avgBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : (double) responseCount.get() / batches;
+    }
+
+    private static final class BatchKey {
+        private final ServerConnectionManager connectionManager;
+        private final Address target;
+
+        BatchKey(ServerConnectionManager connectionManager, Address target) {
+            this.connectionManager = connectionManager;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return connectionManager == that.connectionManager && target.equals(that.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(connectionManager) + target.hashCode();
+        }
+    }
+
+    private final class Batch {
+        private final Address target;
+        private final ServerConnectionManager connectionManager;
+        private byte[] buffer = new byte[INITIAL_BUFFER_BYTES];
+        private int position = OFFSET_BATCH_RESPONSES;
+        private int count;
+        // true while the batch is in the scheduledBatches
+        private boolean scheduled;
+        private long deadlineNanos;
+
+        Batch(BatchKey key) {
+            this.target = key.target;
+            this.connectionManager = key.connectionManager;
+        }
+
+        void add(byte[] response, int length) {
+            Packet packet = null;
+            boolean schedule = false;
+            synchronized (this) {
+                ensureCapacity(INT_SIZE_IN_BYTES + length);
+                writeInt(buffer, position, length, useBigEndian);
+                System.arraycopy(response, 0, buffer, position + INT_SIZE_IN_BYTES, length);
+                position += INT_SIZE_IN_BYTES + length;
+                count++;
+
+                if (count >= maxBatchSize || position >= MAX_BATCH_BYTES) {
+                    // the scheduled flush, if any, stays scheduled and takes care of the responses added later
+                    packet = drain();
+                } else if (!scheduled) {
+                    scheduled = true;
+                    deadlineNanos = System.nanoTime() + maxLatencyNanos;
+                    schedule = true;
+                }
+            }
+
+            if (schedule) {
+                scheduledBatches.add(this);
+            }
+            if (packet != null) {
+                transmit(packet);
+            }
+        }
+
+        void flushScheduled() {
+            Packet packet;
+            synchronized (this) {
+                scheduled = false;
+                packet = count == 0 ? null : drain();
+            }
+
+            if (packet != null) {
+                transmit(packet);
+            }
+        }
+
+        synchronized long deadlineNanos() {
+            return deadlineNanos;
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private Packet drain() {
+            Packet packet;
+            if (count == 1) {
+                byte[] response = Arrays.copyOfRange(buffer, OFFSET_BATCH_RESPONSES + INT_SIZE_IN_BYTES, position);
+                packet = responseHandler.toResponsePacket(response);
+            } else {
+                packet = responseHandler.toBatchPacket(Arrays.copyOf(buffer, position), count);
+            }
+
+            batchCount.inc();
+            responseCount.inc(count);
+            position = OFFSET_BATCH_RESPONSES;
+            count = 0;
+            return packet;
+        }
+
+        private void transmit(Packet packet) {
+            if (!responseHandler.transmit(target, packet, connectionManager)) {
+                logger.warning("Cannot send batched responses to " + target);
+            }
+        }
+    }
+
+    private final class FlushThread extends HazelcastManagedThread implements OperationHostileThread {
+
+        private volatile boolean shutdown;
+
+        private FlushThread(String hzName) {
+            super(createThreadName(hzName, "response-batch-flusher"));
+        }
+
+        @Override
+        public void executeRun() {
+            while (!shutdown) {
+                try {
+                    Batch batch = scheduledBatches.take();
+                    long delayNanos;
+                    while ((delayNanos = batch.deadlineNanos() - System.nanoTime()) > 0 && !shutdown) {
+                        LockSupport.parkNanos(delayNanos);
+                    }
+                    batch.flushScheduled();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable t) {
+                    inspectOutOfMemoryError(t);
+                    logger.severe("Failed to flush responses on:" + getName(), t);
+                }
+            }
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            interrupt();
+        }
+    }
+}
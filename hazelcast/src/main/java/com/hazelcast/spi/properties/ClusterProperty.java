@@ -532,6 +532,36 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB
             = new HazelcastProperty("hazelcast.partition.migration.chunks.max.migrating.data.in.mb", 250);
 
+    /**
+     * Enable to keep serving map operations on the migration source while
+     * the chunks of a partition are streamed to its new owner.
+     * <p>
+     * Mutations made on the source during the streaming are tracked and
+     * replayed on the destination in the last migration fragment. Only
+     * the replay blocks the operations of the partition. Maps with a map
+     * store, an event journal, WAN replication or {@code NATIVE} in-memory
+     * format are migrated as usual.
+     * <p>
+     * Requires {@link #PARTITION_CHUNKED_MIGRATION_ENABLED}. Default disabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_LIVE_MIGRATION_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.live.enabled", false);
+
+    /**
+     * Maximum number of keys tracked per map and partition during a live
+     * migration. If more keys are mutated, the whole map partition is sent
+     * again in the last migration fragment instead of the mutated keys.
+     * <p>
+     * Default is 100000.
+     *
+     * @see #PARTITION_LIVE_MIGRATION_ENABLED
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_LIVE_MIGRATION_MAX_DELTA_KEYS
+            = new HazelcastProperty("hazelcast.partition.migration.live.max.delta.keys", 100_000);
+
     /**
      * The time that a newly-appointed master node waits before forming a cluster.
      * Once a cluster is being started, a newly-appointed master node may receive
@@ -998,6 +1028,78 @@ public final class ClusterProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Evaluates full partition scan predicates directly against the serialized
+     * form of Compact and Portable values.
+     * <p>
+     * When enabled, every entry visited by a full partition scan is parsed at
+     * most once into a lazily reading generic record which is then shared by
+     * all attribute accesses of the predicate, instead of re-reading the
+     * serialized value per attribute or deserializing it into a domain object.
+     * The entry used for the evaluation is reused across entries and partitions
+     * scanned by the same thread.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty QUERY_SERIALIZED_SCAN_ENABLED
+            = new HazelcastProperty("hazelcast.query.serialized.scan.enabled", false);
+
+    /**
+     * Compiles the predicates evaluated by full partition scans.
+     * <p>
+     * When enabled, the predicate tree is compiled into closures evaluating
+     * the conjunctions, disjunctions and negations directly, and the
+     * attributes of the map keys and values are read using method handles
+     * bound to their fields and getters instead of reflection. The compiled
+     * predicates are cached per map. Predicate nodes which can't be compiled,
+     * e.g. custom predicates, are evaluated by the interpreter.
+     * <p>
+     * The number of evaluations performed by compiled and interpreted
+     * predicates is reported by the map statistics.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty QUERY_PREDICATE_COMPILATION_ENABLED
+            = new HazelcastProperty("hazelcast.query.predicate.compilation.enabled", false);
+
+    /**
+     * The maximal number of aggregations materialized per map on a member,
+     * {@code 0} disables the materialization.
+     * <p>
+     * An aggregation run for the second time with an equal predicate and an
+     * equal aggregator is materialized: the member keeps a partial aggregator
+     * per partition and accumulates the added and updated entries into it as
+     * the map is mutated. The next runs of the aggregation combine the partial
+     * aggregators instead of scanning the partitions. Removals and updates of
+     * the matching entries invalidate the partial aggregator of the partition,
+     * it is rebuilt by a partition scan on the next run.
+     * <p>
+     * Keeping the partial aggregators up to date costs a predicate evaluation
+     * per mutation of the map, the cost is reported by the
+     * {@code map.materializedAggregation} metrics.
+     * <p>
+     * The default is {@code 0}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT
+            = new HazelcastProperty("hazelcast.query.materialized.aggregations.max.count", 0);
+
+    /**
+     * The time after which a materialized aggregation which hasn't been run is
+     * dropped, see {@link #QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT}.
+     * <p>
+     * The default is 5 minutes.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty QUERY_MATERIALIZED_AGGREGATIONS_IDLE_TIMEOUT_SECONDS
+            = new HazelcastProperty("hazelcast.query.materialized.aggregations.idle.timeout.seconds", 300, SECONDS);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -1087,6 +1189,8 @@ public final class ClusterProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules followed by choosing
+     * the most selective index of conjunctions using the index statistics</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p>
@@ -1159,6 +1263,39 @@ public final class ClusterProperty {
     public static final HazelcastProperty INDEX_COPY_BEHAVIOR
             = new HazelcastProperty("hazelcast.index.copy.behavior", IndexCopyBehavior.COPY_ON_READ.toString());
 
+    /**
+     * Enable to store the values of single attribute {@code SORTED} indexes
+     * on numeric and date attributes encoded as primitive {@code long}s in
+     * sorted arrays instead of a skip list of boxed values.
+     * <p>
+     * The type of the values is decided by the first value added to the
+     * index. If a value of another type is added later, the index falls back
+     * to the default sorted index store. Default disabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty INDEX_SORTED_PRIMITIVE_STORE_ENABLED
+            = new HazelcastProperty("hazelcast.index.sorted.primitive.store.enabled", false);
+
+    /**
+     * Enable to split the on-heap {@code SORTED} and {@code HASH} indexes of
+     * a member into one stripe per partition thread.
+     * <p>
+     * Each stripe holds the entries of the partitions of a single partition
+     * thread, so the index updates of different partition threads don't
+     * contend on a single shared index structure. Queries visit all the
+     * stripes and merge their results, which makes index reads slightly
+     * more expensive. Default disabled.
+     * <p>
+     * The stripes follow the default partition to partition thread mapping,
+     * so this has no effect when {@link #PARTITION_OPERATION_THREAD_STEALING_ENABLED}
+     * is set.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty INDEX_STRIPED_ENABLED
+            = new HazelcastProperty("hazelcast.index.striped.enabled", false);
+
     /**
      * The number of threads that the client engine has available for processing
      * requests that are related to the query engine.
@@ -1307,6 +1444,98 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Enables the open-source off-heap storage for maps configured with
+     * {@link com.hazelcast.config.InMemoryFormat#NATIVE NATIVE} in-memory-format.
+     * <p>
+     * Keys, values and record metadata of such maps are kept in native memory
+     * allocated straight from the operating system, which takes them out of
+     * the reach of the garbage collector. Only {@code PER_NODE},
+     * {@code PER_PARTITION} and {@code USED_NATIVE_MEMORY_SIZE} max-size
+     * policies are supported. Ignored in Hazelcast Enterprise, which always
+     * uses its own High-Density Memory Store for NATIVE maps.
+     */
+    public static final HazelcastProperty MAP_OFF_HEAP_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.map.off.heap.storage.enabled", false);
+
+    /**
+     * Enables the columnar record store for maps configured with
+     * {@link com.hazelcast.config.InMemoryFormat#BINARY BINARY} in-memory-format.
+     * <p>
+     * Instead of one record object and one expiry metadata object per entry,
+     * record metadata, expiry metadata and key/value references of a
+     * partition are kept in primitive arrays indexed by slot. This removes
+     * most of the per-entry object header and reference overhead, which
+     * dominates the heap usage of maps with many small entries. Queries on
+     * such maps run on partition threads and deserialized values are never
+     * cached.
+     */
+    public static final HazelcastProperty MAP_COLUMNAR_RECORD_STORE_ENABLED
+            = new HazelcastProperty("hazelcast.map.columnar.record.store.enabled", false);
+
+    /**
+     * Enables coalescing of concurrent member-side
+     * {@link com.hazelcast.map.IMap#set(Object, Object)} calls of different
+     * threads which are bound for the same partition, so that they are sent
+     * and applied as a single batched operation with a single backup
+     * operation.
+     * <p>
+     * A set call is sent right away when no batch of its partition is in
+     * flight, so an uncontended set doesn't wait. The set calls arriving
+     * while a batch is in flight are sent together once it completes, so
+     * the batches grow with the contention. Only set calls without TTL and
+     * max-idle are coalesced. Coalescing is disabled by default.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_SET_COALESCING_ENABLED
+            = new HazelcastProperty("hazelcast.map.set.coalescing.enabled", false);
+
+    /**
+     * The maximum number of set calls coalesced into a single batched
+     * operation. A batch is sent as soon as it reaches this size, without
+     * waiting for the batch in flight to complete, see
+     * {@link #MAP_SET_COALESCING_ENABLED}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_SET_COALESCING_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.map.set.coalescing.max.batch.size", 64);
+
+    /**
+     * The number of workers which flush the write-behind queues of a map
+     * to its {@link com.hazelcast.map.MapStore}. Each worker owns a disjoint
+     * subset of the partitions and flushes them independently of the other
+     * workers, so the store methods of a map may be called concurrently
+     * when more than one worker is configured. The value is capped by the
+     * partition count.
+     * <p>
+     * The default value is 1, which flushes all partitions of a map
+     * sequentially.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_WORKER_COUNT
+            = new HazelcastProperty("hazelcast.map.write.behind.worker.count", 1);
+
+    /**
+     * The target latency in milliseconds of a single batch store call
+     * ({@link com.hazelcast.map.MapStore#storeAll(java.util.Map)} or
+     * {@link com.hazelcast.map.MapStore#deleteAll(java.util.Collection)})
+     * issued by a write-behind worker.
+     * <p>
+     * If set to a positive value, each write-behind worker adapts the size
+     * of its batches to the observed latency of its batch store calls: the
+     * size is halved when a call takes longer than the target and doubled,
+     * up to the configured write batch size, when a call completes within
+     * half of the target. If set to 0, which is the default, the configured
+     * write batch size is always used.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS
+            = new HazelcastProperty("hazelcast.map.write.behind.target.batch.latency.millis", 0, MILLISECONDS);
+
     /*
      * INVOCATION / OPERATION SYSTEM PROPERTIES
      */
@@ -1350,6 +1579,35 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.invocation.retry.pause.millis",
             InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS, MILLISECONDS);
 
+    /**
+     * The structure the pending invocations of a member are stored in:
+     * <ul>
+     * <li>{@code map}: a concurrent hash map keyed by the call ID. This is
+     * the default.</li>
+     * <li>{@code ring}: a fixed-size array of slots indexed by the call ID
+     * modulo its capacity, which doesn't allocate when an invocation is
+     * registered or deregistered. An invocation whose slot is still taken
+     * by a long-running invocation is stored in an overflow map.</li>
+     * </ul>
+     *
+     * @see #INVOCATION_REGISTRY_RING_CAPACITY
+     * @since 5.4
+     */
+    public static final HazelcastProperty INVOCATION_REGISTRY_TYPE
+            = new HazelcastProperty("hazelcast.invocation.registry.type", "map");
+
+    /**
+     * The number of slots of the invocation registry when
+     * {@link #INVOCATION_REGISTRY_TYPE} is {@code ring}. The value is rounded
+     * up to the next power of two. If not positive, which is the default, the
+     * maximum number of concurrent invocations allowed by the backpressure is
+     * used, or 65536 if the backpressure is disabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty INVOCATION_REGISTRY_RING_CAPACITY
+            = new HazelcastProperty("hazelcast.invocation.registry.ring.capacity", -1);
+
     /**
      * Using back pressure, you can prevent an overload of pending asynchronous
      * backups. With a map with a single asynchronous backup, producing asynchronous
@@ -1448,6 +1706,70 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.operation.thread.count",
             (Function<HazelcastProperties, Integer>) properties -> max(2, RuntimeAvailableProcessors.get()));
 
+    /**
+     * Enables adaptive partition thread affinity.
+     * <p>
+     * By default a partition is pinned to the partition thread
+     * {@code partitionId % threadCount}, so a few hot partitions can leave
+     * other partition threads idle while the queue of the hot thread grows.
+     * When enabled, idle partition threads advertise that they are willing
+     * to steal work and an overloaded partition thread hands over whole
+     * partitions to them. If at least two of its partitions have pending
+     * operations, the busiest one is handed over: the overloaded thread
+     * forwards the operations already queued for it to the new thread in
+     * their original order, until none are left. Otherwise a partition
+     * without pending operations is handed over. Either way the ordering of
+     * operations within a partition is preserved.
+     * <p>
+     * This has no effect when TPC is enabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.thread.stealing.enabled", false);
+
+    /**
+     * The number of pending operations in the queue of a partition thread
+     * above which the thread is considered overloaded and starts handing over
+     * partitions to idle partition threads. Only used when
+     * {@link #PARTITION_OPERATION_THREAD_STEALING_ENABLED} is set.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_STEALING_THRESHOLD
+            = new HazelcastProperty("hazelcast.operation.thread.stealing.threshold", 64);
+
+    /**
+     * The type of the queue the partition operation threads take their
+     * operations from:
+     * <ul>
+     * <li>{@code linked}: an unbounded linked queue which allocates a node
+     * for every operation. This is the default.</li>
+     * <li>{@code array}: bounded many-to-one arrays which don't allocate on
+     * enqueue, drain the operations in batches and record the time
+     * operations spend in the queue. An idle partition thread idles using
+     * {@code hazelcast.operation.partitionthread.idlestrategy} before it
+     * parks. Operations which don't fit into the arrays are kept in an
+     * unbounded overflow queue, so operations are never rejected.</li>
+     * </ul>
+     * <p>
+     * This has no effect when TPC is enabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_QUEUE_TYPE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue.type", "linked");
+
+    /**
+     * The capacity of the arrays of each partition operation thread when
+     * {@link #PARTITION_OPERATION_THREAD_QUEUE_TYPE} is {@code array}. The
+     * value is rounded up to the next power of two.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue.capacity", 16384);
+
     /**
      * The number of generic operation handler threads per member.
      * <p>
@@ -1488,6 +1810,43 @@ public final class ClusterProperty {
     public static final HazelcastProperty RESPONSE_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.response.thread.count", 2);
 
+    /**
+     * Enables the batching of the responses sent to other members. When
+     * enabled, the normal responses and backup acknowledgements destined for
+     * the same member are packed into a single packet, which is sent when it
+     * holds {@link #RESPONSE_BATCH_MAX_SIZE} responses or when its oldest
+     * response has waited {@link #RESPONSE_BATCH_MAX_LATENCY_MICROS}. Urgent,
+     * error and large responses are never batched.
+     * <p>
+     * This reduces the framing and the system call cost under high fan-in at
+     * the expense of some latency. Members decode the batches whether they
+     * have batching enabled or not, but members before 5.4 can't, so the
+     * responses are only batched once the cluster version is 5.4 or later.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty RESPONSE_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.response.batching.enabled", false);
+
+    /**
+     * The maximum number of responses in a batch. Only used when
+     * {@link #RESPONSE_BATCHING_ENABLED} is set.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty RESPONSE_BATCH_MAX_SIZE
+            = new HazelcastProperty("hazelcast.operation.response.batch.max.size", 64);
+
+    /**
+     * The maximum time in microseconds a response waits in a batch before
+     * the batch is sent. Only used when {@link #RESPONSE_BATCHING_ENABLED} is
+     * set.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty RESPONSE_BATCH_MAX_LATENCY_MICROS
+            = new HazelcastProperty("hazelcast.operation.response.batch.max.latency.micros", 50, MICROSECONDS);
+
     /*
      * ICACHE / JCACHE PROPERTIES
      */
@@ -97,6 +97,8 @@ public class EnumCompatibilityTest {
         mappings.put(IndexType.SORTED, 0);
         mappings.put(IndexType.HASH, 1);
         mappings.put(IndexType.BITMAP, 2);
+        mappings.put(IndexType.NGRAM, 3);
+        mappings.put(IndexType.VECTOR, 4);
         verifyCompatibility(IndexType.values(), IndexType::getId, mappings);
     }
 
@@ -42,9 +42,13 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -84,6 +88,40 @@ public class AbstractSerializationServiceTest {
         }
     }
 
+    @Test
+    public void toBytes_withFunction_smallObject() {
+        String payload = "somepayload";
+        byte[] expected = abstractSerializationService.toBytes(payload);
+
+        byte[] actual = abstractSerializationService.toBytes(payload, (bytes, length) -> {
+            assertEquals(bytes.length, length);
+            return bytes;
+        });
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void toBytes_withFunction_largeObject_handsOverBuffer() {
+        byte[] payload = new byte[1 << 20];
+        ThreadLocalRandom.current().nextBytes(payload);
+        byte[] expected = abstractSerializationService.toBytes(payload, 10, false);
+
+        byte[][] handedOver = new byte[2][];
+        for (int i = 0; i < handedOver.length; i++) {
+            int index = i;
+            int length = abstractSerializationService.toBytes(payload, 10, false, (bytes, len) -> {
+                handedOver[index] = bytes;
+                return len;
+            });
+
+            assertEquals(expected.length, length);
+            assertArrayEquals(expected, Arrays.copyOf(handedOver[i], length));
+        }
+        // the pooled output buffer is not reused after being handed over
+        assertNotSame(handedOver[0], handedOver[1]);
+    }
+
     @Test
     public void testExternalizable() {
         ExternalizableValue original = new ExternalizableValue(100);
@@ -30,9 +30,12 @@ import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.predicates.BitmapAlgebraPredicate;
 import com.hazelcast.query.impl.predicates.BoundedRangePredicate;
+import com.hazelcast.query.impl.predicates.CompiledPredicate;
 import com.hazelcast.query.impl.predicates.CompositeEqualPredicate;
 import com.hazelcast.query.impl.predicates.CompositeRangePredicate;
+import com.hazelcast.query.impl.predicates.CostBasedAndPredicate;
 import com.hazelcast.query.impl.predicates.EvaluatePredicate;
 import com.hazelcast.query.impl.predicates.SkipIndexPredicate;
 import com.hazelcast.spi.annotation.PrivateApi;
@@ -390,10 +393,13 @@ public class DataSerializableConventionsTest {
      */
     protected Set<Class> getWhitelistedClasses() {
         Set<Class> whiteList = new HashSet<>();
+        whiteList.add(BitmapAlgebraPredicate.class);
         whiteList.add(BoundedRangePredicate.class);
         whiteList.add(CachedQueryEntry.class);
+        whiteList.add(CompiledPredicate.class);
         whiteList.add(CompositeEqualPredicate.class);
         whiteList.add(CompositeRangePredicate.class);
+        whiteList.add(CostBasedAndPredicate.class);
         whiteList.add(EvaluatePredicate.class);
         whiteList.add(EventObject.class);
         whiteList.add(FinalizeMigrationOperation.class);
@@ -411,6 +417,7 @@ public class DataSerializableConventionsTest {
             whiteList.add(Class.forName("com.hazelcast.query.impl.predicates.RangeVisitor$Ranges"));
             whiteList.add(Class.forName("com.hazelcast.internal.partition.operation.BeforePromotionOperation"));
             whiteList.add(Class.forName("com.hazelcast.internal.partition.operation.FinalizePromotionOperation"));
+            whiteList.add(Class.forName("com.hazelcast.map.impl.query.PartitionScanCursor"));
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
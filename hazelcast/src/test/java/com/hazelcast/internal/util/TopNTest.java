@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TopNTest {
+
+    @Test
+    public void testSelect() {
+        List<Integer> elements = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            elements.add(random.nextInt(100));
+        }
+        List<Integer> sorted = new ArrayList<>(elements);
+        Collections.sort(sorted);
+
+        assertEquals(sorted.subList(0, 10), TopN.select(elements, Comparator.naturalOrder(), 10));
+        assertEquals(sorted, TopN.select(elements, Comparator.naturalOrder(), 1000));
+        assertEquals(sorted, TopN.select(elements, Comparator.naturalOrder(), Long.MAX_VALUE));
+        assertEquals(Collections.emptyList(), TopN.select(elements, Comparator.naturalOrder(), 0));
+        assertEquals(asList(99, 99), TopN.select(elements, Comparator.<Integer>reverseOrder(), 2));
+    }
+
+    @Test
+    public void testOfferAndAccepts() {
+        TopN<Integer> topN = new TopN<>(Comparator.naturalOrder(), 3);
+        assertTrue(topN.offer(5));
+        assertTrue(topN.offer(3));
+        assertTrue(topN.offer(7));
+        assertEquals(3, topN.size());
+
+        assertFalse(topN.accepts(7));
+        assertFalse(topN.offer(8));
+        assertTrue(topN.accepts(6));
+        assertTrue(topN.offer(1));
+        assertEquals(3, topN.size());
+        assertEquals(asList(1, 3, 5), topN.toSortedList());
+    }
+
+    @Test
+    public void testZeroLimit() {
+        TopN<Integer> topN = new TopN<>(Comparator.naturalOrder(), 0);
+        assertFalse(topN.accepts(1));
+        assertFalse(topN.offer(1));
+        assertEquals(Collections.emptyList(), topN.toSortedList());
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.config.EvictionPolicy.LFU;
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_TASK_PERIOD_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarRecordStoreMapTest extends HazelcastTestSupport {
+
+    @Test
+    public void basicOperations() {
+        IMap<Integer, String> map = createHazelcastInstance().getMap("columnar");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.set(1, "updated");
+        map.remove(2);
+
+        assertEquals(999, map.size());
+        assertEquals("updated", map.get(1));
+        assertNull(map.get(2));
+        assertEquals("value-3", map.get(3));
+        assertEquals(999, map.keySet().size());
+        assertEquals(1, map.values(Predicates.equal("this", "value-500")).size());
+
+        Set<Integer> iterated = new HashSet<>();
+        map.forEach((key, value) -> iterated.add(key));
+        assertEquals(999, iterated.size());
+    }
+
+    @Test
+    public void indexedQuery() {
+        HazelcastInstance instance = createHazelcastInstance();
+        IMap<Integer, Integer> map = instance.getMap("columnar");
+        map.addIndex(IndexType.SORTED, "this");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(10, map.keySet(Predicates.lessThan("this", 10)).size());
+    }
+
+    @Test
+    public void repeatedAggregation_isNotMaterialized() {
+        // the materialized aggregations are rebuilt by scans on the query threads
+        Config config = getConfig().setProperty(QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("columnar");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(900, (long) map.aggregate(Aggregators.count(), Predicates.greaterEqual("this", 100)));
+        }
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        assertTrue(mapService.getMapServiceContext().getMapContainer("columnar")
+                .getMaterializedAggregations().getAll().isEmpty());
+    }
+
+    @Test
+    public void entryView_reportsRecordAndExpiryMetadata() {
+        IMap<Integer, Integer> map = createHazelcastInstance().getMap("columnar");
+
+        map.put(1, 1, 1, TimeUnit.HOURS);
+        map.get(1);
+        map.put(1, 2, 1, TimeUnit.HOURS);
+
+        EntryView<Integer, Integer> entryView = map.getEntryView(1);
+        assertEquals(2, (int) entryView.getValue());
+        assertEquals(1, entryView.getVersion());
+        assertEquals(TimeUnit.HOURS.toMillis(1), entryView.getTtl());
+        assertTrue(entryView.getExpirationTime() > entryView.getCreationTime());
+    }
+
+    @Test
+    public void expiredEntries_areRemoved() {
+        Config config = getConfig().setProperty(PROP_TASK_PERIOD_SECONDS, "1");
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap("columnar");
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i, 1, TimeUnit.SECONDS);
+        }
+        map.put(100, 100);
+
+        assertTrueEventually(() -> assertEquals(1, map.size()));
+        assertEquals(100, (int) map.get(100));
+    }
+
+    @Test
+    public void eviction() {
+        Config config = getConfig();
+        config.getMapConfig("evicted").getEvictionConfig()
+                .setEvictionPolicy(LFU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("evicted");
+
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+
+        int partitionCount = instance.getPartitionService().getPartitions().size();
+        assertTrue(map.size() <= 10 * partitionCount);
+    }
+
+    @Test
+    public void dataAndExpirySurviveMigrationAndBackups() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap("columnar");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i, 1, TimeUnit.HOURS);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> map2 = instance2.getMap("columnar");
+        assertEquals(1000, map2.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) map2.get(i));
+        }
+        assertEquals(TimeUnit.HOURS.toMillis(1), map2.getEntryView(1).getTtl());
+    }
+
+    @Test
+    public void ownedEntryMemoryCost_isReported() {
+        IMap<Integer, Integer> map = createHazelcastInstance().getMap("columnar");
+
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i, 1, TimeUnit.HOURS);
+        }
+        long cost = map.getLocalMapStats().getOwnedEntryMemoryCost();
+        map.clear();
+
+        assertTrue(cost > 0);
+        // allocated columns are kept
+        long costAfterClear = map.getLocalMapStats().getOwnedEntryMemoryCost();
+        assertTrue(costAfterClear > 0);
+        assertTrue(costAfterClear < cost);
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.MAP_COLUMNAR_RECORD_STORE_ENABLED.getName(), "true");
+        return config;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_SET_COALESCING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_SET_COALESCING_MAX_BATCH_SIZE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapSetCoalescingTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int KEYS_PER_THREAD = 500;
+
+    @Test
+    public void concurrentSets_areAppliedAndBackedUp() throws Exception {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(getConfig());
+        IMap<Integer, Integer> map = instances[0].getMap("coalesced");
+
+        List<Future> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            int threadIndex = t;
+            futures.add(spawn(() -> {
+                for (int k = 0; k < KEYS_PER_THREAD; k++) {
+                    int key = threadIndex * KEYS_PER_THREAD + k;
+                    map.set(key, key);
+                }
+            }));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        int entryCount = THREAD_COUNT * KEYS_PER_THREAD;
+        assertEquals(entryCount, map.size());
+        for (int key = 0; key < entryCount; key++) {
+            assertEquals(key, (int) map.get(key));
+        }
+        assertTrueEventually(() -> assertEquals(entryCount,
+                instances[0].getMap("coalesced").getLocalMapStats().getBackupEntryCount()
+                        + instances[1].getMap("coalesced").getLocalMapStats().getBackupEntryCount()));
+    }
+
+    @Test
+    public void events_distinguishAddedAndUpdated() {
+        IMap<Integer, String> map = createHazelcastInstance().getMap("coalesced");
+        Queue<EntryEvent<Integer, String>> events = new ConcurrentLinkedQueue<>();
+        map.addEntryListener((EntryAddedListener<Integer, String>) events::add, true);
+        map.addEntryListener((EntryUpdatedListener<Integer, String>) events::add, true);
+
+        map.set(1, "a");
+        map.set(1, "b");
+
+        assertTrueEventually(() -> assertEquals(2, events.size()));
+        EntryEvent<Integer, String> added = events.poll();
+        assertEquals(EntryEventType.ADDED, added.getEventType());
+        assertNull(added.getOldValue());
+        EntryEvent<Integer, String> updated = events.poll();
+        assertEquals(EntryEventType.UPDATED, updated.getEventType());
+        assertEquals("a", updated.getOldValue());
+        assertEquals("b", updated.getValue());
+    }
+
+    @Test
+    public void set_waitsForLockedKey() throws Exception {
+        IMap<Integer, String> map = createHazelcastInstance().getMap("coalesced");
+        map.lock(1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        Future future = spawn(() -> {
+            started.countDown();
+            map.set(1, "other-thread");
+            map.set(2, "other-thread");
+        });
+        assertOpenEventually(started);
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 2);
+
+        // the lock owner itself is allowed to set
+        map.set(1, "lock-owner");
+        assertEquals("lock-owner", map.get(1));
+
+        map.unlock(1);
+        future.get();
+        assertEquals("other-thread", map.get(1));
+        assertEquals("other-thread", map.get(2));
+    }
+
+    @Test
+    public void lockedKey_doesNotBlockBatch() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance();
+        IMap<String, String> map = instance.getMap("coalesced");
+        String lockedKey = "locked";
+        String otherKey = generateKeyForPartition(instance, getPartitionId(instance, lockedKey));
+        map.lock(lockedKey);
+
+        Future lockedSet = spawn(() -> map.set(lockedKey, "locked"));
+        Future otherSet = spawn(() -> map.set(otherKey, "other"));
+
+        // the set of the other key completes although the locked key may
+        // have been coalesced into the same batch
+        otherSet.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+        assertEquals("other", map.get(otherKey));
+        assertFalse(lockedSet.isDone());
+
+        map.unlock(lockedKey);
+        lockedSet.get();
+        assertEquals("locked", map.get(lockedKey));
+    }
+
+    @Override
+    protected Config getConfig() {
+        return smallInstanceConfig()
+                .setProperty(MAP_SET_COALESCING_ENABLED.getName(), "true")
+                .setProperty(MAP_SET_COALESCING_MAX_BATCH_SIZE.getName(), "16");
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.config.EvictionPolicy.LRU;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageMapTest extends HazelcastTestSupport {
+
+    @Test
+    public void basicOperations() {
+        IMap<Integer, String> map = createHazelcastInstance().getMap("offHeap");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.set(1, "updated");
+        map.remove(2);
+
+        assertEquals(999, map.size());
+        assertEquals("updated", map.get(1));
+        assertNull(map.get(2));
+        assertEquals("value-3", map.get(3));
+        assertEquals(999, map.keySet().size());
+        assertEquals(1, map.values(Predicates.equal("this", "value-500")).size());
+
+        Set<Integer> iterated = new HashSet<>();
+        map.forEach((key, value) -> iterated.add(key));
+        assertEquals(999, iterated.size());
+    }
+
+    @Test
+    public void ownedEntryMemoryCost_isReported() {
+        IMap<Integer, String> map = createHazelcastInstance().getMap("offHeap");
+
+        map.put(1, "value");
+
+        assertTrue(map.getLocalMapStats().getOwnedEntryMemoryCost() > 0);
+        assertEquals(0, map.getLocalMapStats().getHeapCost());
+    }
+
+    @Test
+    public void eviction() {
+        Config config = getConfig();
+        config.getMapConfig("evicted").getEvictionConfig()
+                .setEvictionPolicy(LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("evicted");
+
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+
+        int partitionCount = instance.getPartitionService().getPartitions().size();
+        assertTrue(map.size() <= 10 * partitionCount);
+    }
+
+    @Test
+    public void dataSurvivesMigrationAndBackups() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap("offHeap");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> map2 = instance2.getMap("offHeap");
+        assertEquals(1000, map2.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) map2.get(i));
+        }
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void nativeMap_whenPropertyNotSet() {
+        Config config = smallInstanceConfig();
+        config.addMapConfig(new MapConfig("offHeap").setInMemoryFormat(InMemoryFormat.NATIVE));
+
+        createHazelcastInstance(config).getMap("offHeap");
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void nativeMap_whenHeapMaxSizePolicy() {
+        Config config = getConfig();
+        config.getMapConfig("offHeap").getEvictionConfig()
+                .setMaxSizePolicy(MaxSizePolicy.USED_HEAP_SIZE);
+
+        createHazelcastInstance(config).getMap("offHeap");
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.MAP_OFF_HEAP_STORAGE_ENABLED.getName(), "true");
+        config.addMapConfig(new MapConfig("offHeap").setInMemoryFormat(InMemoryFormat.NATIVE));
+        config.addMapConfig(new MapConfig("evicted").setInMemoryFormat(InMemoryFormat.NATIVE));
+        return config;
+    }
+}
@@ -206,6 +206,25 @@ public class PagingPredicateTest extends HazelcastTestSupport {
         assertEquals(0, values.size());
     }
 
+    @Test
+    public void testDeepPageMatchesSequentialPaging() {
+        TestComparator comparator = new TestComparator(false, IterationType.VALUE);
+        PagingPredicate<Integer, Integer> sequential = Predicates.pagingPredicate(comparator, pageSize);
+        int lastPage = size / pageSize - 1;
+        for (int page = 0; page < lastPage; page++) {
+            assertEquals(pageSize, map.values(sequential).size());
+            sequential.nextPage();
+        }
+
+        // the anchor of the previous page limits the entries each partition returns
+        assertIterableEquals(map.values(sequential), 4, 3, 2, 1, 0);
+
+        // without anchors the pages in between are selected
+        PagingPredicate<Integer, Integer> jump = Predicates.pagingPredicate(comparator, pageSize);
+        jump.setPage(lastPage);
+        assertIterableEquals(map.values(jump), 4, 3, 2, 1, 0);
+    }
+
     @Test
     public void testKeyPaging() {
         map.clear();
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionStateManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapLiveMigrationTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 20_000;
+    private static final String PADDING = new String(new char[1_000]);
+
+    @Test
+    public void entriesWrittenDuringMigration_areMigrated() throws Exception {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, String> map = instance1.getMap("test");
+        Map<Integer, String> expected = new ConcurrentHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            map.set(i, value(i));
+            expected.put(i, value(i));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> writer = spawn(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (!stop.get()) {
+                int key = random.nextInt(KEY_COUNT);
+                if (random.nextInt(4) == 0) {
+                    map.delete(key);
+                    expected.remove(key);
+                } else {
+                    String value = value(random.nextInt());
+                    map.set(key, value);
+                    expected.put(key, value);
+                }
+            }
+        });
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(instance1, instance2);
+        stop.set(true);
+        writer.get();
+
+        instance1.shutdown();
+
+        IMap<Integer, String> map2 = instance2.getMap("test");
+        assertEquals(expected.size(), map2.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map2.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void entriesAddedDuringMigration_areMigrated_withColumnarRecordStore() throws Exception {
+        // two partitions, so each one is migrated in several chunks
+        Config config = getConfig()
+                .setProperty(ClusterProperty.MAP_COLUMNAR_RECORD_STORE_ENABLED.getName(), "true")
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "2");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        PartitionService partitionService = instance1.getPartitionService();
+        IMap<Integer, String> map = instance1.getMap("test");
+        // fill both record stores up to their resize threshold of 16384 buckets
+        int fillCount = 12_288;
+        int[] partitionSizes = new int[2];
+        List<Integer> filledKeys = new ArrayList<>();
+        int key = 0;
+        while (filledKeys.size() < 2 * fillCount) {
+            int partitionId = partitionService.getPartition(key).getPartitionId();
+            if (partitionSizes[partitionId] < fillCount) {
+                map.set(key, value(key));
+                filledKeys.add(key);
+                partitionSizes[partitionId]++;
+            }
+            key++;
+        }
+
+        // add keys to a partition only once its first chunk has been migrated,
+        // the first one resizes its record store while the migration iterates
+        // it. Only new keys are added, the keys filled before are never mutated.
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        PartitionStateManager partitionStateManager =
+                ((InternalPartitionServiceImpl) getPartitionService(instance1)).getPartitionStateManager();
+        MapServiceContext mapServiceContext2 =
+                ((MapService) getNodeEngineImpl(instance2).getService(MapService.SERVICE_NAME)).getMapServiceContext();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger nextKey = new AtomicInteger(key);
+        Map<Integer, String> addedEntries = new ConcurrentHashMap<>();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            int partitionId = i;
+            writers.add(spawn(() -> {
+                while (!stop.get() && !isFirstChunkMigrated(partitionStateManager, mapServiceContext2, partitionId)) {
+                    Thread.yield();
+                }
+                while (!stop.get()) {
+                    int addedKey = nextKey.getAndIncrement();
+                    if (partitionService.getPartition(addedKey).getPartitionId() == partitionId) {
+                        map.set(addedKey, Integer.toString(addedKey));
+                        addedEntries.put(addedKey, Integer.toString(addedKey));
+                    }
+                }
+            }));
+        }
+
+        waitAllForSafeState(instance1, instance2);
+        stop.set(true);
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+
+        instance1.shutdown();
+
+        IMap<Integer, String> map2 = instance2.getMap("test");
+        assertEquals(filledKeys.size() + addedEntries.size(), map2.size());
+        for (int filledKey : filledKeys) {
+            assertEquals(value(filledKey), map2.get(filledKey));
+        }
+        for (Map.Entry<Integer, String> entry : addedEntries.entrySet()) {
+            assertEquals(entry.getValue(), map2.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void deltaLog_tracksMutatedKeys() {
+        MapMigrationDeltaLog log = new MapMigrationDeltaLog(new HashSet<>(asList("a", "b")), 10);
+
+        log.onMutation("a", key(1));
+        log.onMutation("a", key(1));
+        log.onMutation("a", key(2));
+
+        assertEquals(new HashSet<>(asList(key(1), key(2))), log.getMutatedKeysByMapName().get("a"));
+        assertTrue(log.getFullyMutatedMapNames().isEmpty());
+    }
+
+    @Test
+    public void deltaLog_fullyMutatesMap_whenMaxKeysExceeded() {
+        MapMigrationDeltaLog log = new MapMigrationDeltaLog(singleton("a"), 2);
+
+        log.onMutation("a", key(1));
+        log.onMutation("a", key(2));
+        log.onMutation("a", key(3));
+        log.onMutation("a", key(4));
+
+        assertEquals(singleton("a"), log.getFullyMutatedMapNames());
+        assertTrue(log.getMutatedKeysByMapName().isEmpty());
+    }
+
+    @Test
+    public void deltaLog_fullyMutatesMap_whenCreatedDuringMigration() {
+        MapMigrationDeltaLog log = new MapMigrationDeltaLog(singleton("a"), 10);
+
+        log.onMutation("b", key(1));
+
+        assertEquals(singleton("b"), log.getFullyMutatedMapNames());
+        assertTrue(log.getMutatedKeysByMapName().isEmpty());
+    }
+
+    @Test
+    public void deltaLog_fullMutation_dropsTrackedKeys() {
+        MapMigrationDeltaLog log = new MapMigrationDeltaLog(singleton("a"), 10);
+
+        log.onMutation("a", key(1));
+        log.onFullMutation("a");
+        log.onMutation("a", key(2));
+
+        assertEquals(singleton("a"), log.getFullyMutatedMapNames());
+        assertTrue(log.getMutatedKeysByMapName().isEmpty());
+    }
+
+    private static boolean isFirstChunkMigrated(PartitionStateManager sourceStateManager,
+                                                MapServiceContext destinationContext, int partitionId) {
+        RecordStore recordStore = destinationContext.getExistingRecordStore(partitionId, "test");
+        return sourceStateManager.isLiveMigrating(partitionId) && recordStore != null && !recordStore.isEmpty();
+    }
+
+    private static String value(int i) {
+        return i + PADDING;
+    }
+
+    private static Data key(int i) {
+        return new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) i});
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.PARTITION_LIVE_MIGRATION_ENABLED.getName(), "true");
+        // make the migration span multiple fragments
+        config.setProperty(ClusterProperty.PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB.getName(), "1");
+        return config;
+    }
+}
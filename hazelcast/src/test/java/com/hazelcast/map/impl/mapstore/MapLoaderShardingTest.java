@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.MapLoaderShardingSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.config.MapStoreConfig.InitialLoadMode.EAGER;
+import static com.hazelcast.config.MapStoreConfig.InitialLoadMode.LAZY;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapLoaderShardingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 10000;
+    private static final int SHARD_COUNT = 7;
+    private static final int NODE_COUNT = 3;
+
+    @Test
+    public void testLoadsAllShards_whenMapCreatedEager() {
+        ShardedMapLoader mapLoader = new ShardedMapLoader();
+        IMap<Integer, Integer> map = createMap(mapLoader, EAGER);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(ENTRY_COUNT - 1, (int) map.get(ENTRY_COUNT - 1));
+        assertEquals(0, mapLoader.loadAllKeysInvocations.get());
+        assertEquals(SHARD_COUNT, mapLoader.loadedShards.size());
+    }
+
+    @Test
+    public void testLoadsAllShardsAgain_whenLoadAll() {
+        ShardedMapLoader mapLoader = new ShardedMapLoader();
+        IMap<Integer, Integer> map = createMap(mapLoader, LAZY);
+        map.loadAll(true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(0, mapLoader.loadAllKeysInvocations.get());
+        assertEquals(SHARD_COUNT, mapLoader.loadedShards.size());
+
+        map.clear();
+        map.loadAll(true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(0, mapLoader.loadAllKeysInvocations.get());
+    }
+
+    @Test
+    public void testLoadsAllKeys_whenShardCountIsZero() {
+        ShardedMapLoader mapLoader = new ShardedMapLoader(0);
+        IMap<Integer, Integer> map = createMap(mapLoader, EAGER);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(1, mapLoader.loadAllKeysInvocations.get());
+        assertEquals(0, mapLoader.loadedShards.size());
+    }
+
+    private IMap<Integer, Integer> createMap(MapLoader<Integer, Integer> mapLoader,
+                                             MapStoreConfig.InitialLoadMode initialLoadMode) {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("default").getMapStoreConfig()
+                .setEnabled(true)
+                .setInitialLoadMode(initialLoadMode)
+                .setImplementation(mapLoader);
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(NODE_COUNT);
+        HazelcastInstance[] instances = factory.newInstances(config);
+        return instances[0].getMap(randomMapName());
+    }
+
+    private static class ShardedMapLoader implements MapLoader<Integer, Integer>,
+            MapLoaderShardingSupport<Integer> {
+
+        final int shardCount;
+        final AtomicInteger loadAllKeysInvocations = new AtomicInteger();
+        final Set<Integer> loadedShards = ConcurrentHashMap.newKeySet();
+
+        ShardedMapLoader() {
+            this(SHARD_COUNT);
+        }
+
+        ShardedMapLoader(int shardCount) {
+            this.shardCount = shardCount;
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            return key;
+        }
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            Map<Integer, Integer> result = new HashMap<>();
+            for (Integer key : keys) {
+                result.put(key, key);
+            }
+            return result;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            loadAllKeysInvocations.incrementAndGet();
+            List<Integer> keys = new ArrayList<>(ENTRY_COUNT);
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                keys.add(i);
+            }
+            return keys;
+        }
+
+        @Override
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys(int shardId) {
+            loadedShards.add(shardId);
+            List<Integer> keys = new ArrayList<>();
+            for (int i = shardId; i < ENTRY_COUNT; i += shardCount) {
+                keys.add(i);
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.mapstore.writebehind.AdaptiveWriteBatchSize.MIN_BATCH_SIZE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveWriteBatchSizeTest {
+
+    private static final long TARGET_NANOS = MILLISECONDS.toNanos(100);
+    private static final long SLOW_NANOS = MILLISECONDS.toNanos(200);
+    private static final long FAST_NANOS = MILLISECONDS.toNanos(10);
+
+    @Test
+    public void configuredSizeIsUsed_whenNoTargetLatency() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(64, 0);
+
+        batchSize.onBatchStored(64, SLOW_NANOS);
+
+        assertEquals(64, batchSize.get());
+    }
+
+    @Test
+    public void sizeIsHalved_whenBatchIsSlow() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(64, TARGET_NANOS);
+
+        batchSize.onBatchStored(64, SLOW_NANOS);
+        assertEquals(32, batchSize.get());
+
+        batchSize.onBatchStored(32, SLOW_NANOS);
+        assertEquals(16, batchSize.get());
+    }
+
+    @Test
+    public void sizeIsNotHalvedBelowMinimum() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(4, TARGET_NANOS);
+
+        for (int i = 0; i < 10; i++) {
+            batchSize.onBatchStored(batchSize.get(), SLOW_NANOS);
+        }
+
+        assertEquals(MIN_BATCH_SIZE, batchSize.get());
+    }
+
+    @Test
+    public void sizeIsDoubledUpToConfiguredSize_whenFullBatchIsFast() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(100, TARGET_NANOS);
+        batchSize.onBatchStored(100, SLOW_NANOS);
+        batchSize.onBatchStored(50, SLOW_NANOS);
+        assertEquals(25, batchSize.get());
+
+        batchSize.onBatchStored(25, FAST_NANOS);
+        assertEquals(50, batchSize.get());
+
+        batchSize.onBatchStored(50, FAST_NANOS);
+        assertEquals(100, batchSize.get());
+    }
+
+    @Test
+    public void sizeIsNotDoubled_whenBatchIsNotFull() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(100, TARGET_NANOS);
+        batchSize.onBatchStored(100, SLOW_NANOS);
+
+        batchSize.onBatchStored(10, FAST_NANOS);
+
+        assertEquals(50, batchSize.get());
+    }
+
+    @Test
+    public void unlimitedSizeIsLimitedByObservedBatch_whenBatchIsSlow() {
+        AdaptiveWriteBatchSize batchSize = new AdaptiveWriteBatchSize(1, TARGET_NANOS);
+
+        batchSize.onBatchStored(1000, SLOW_NANOS);
+
+        assertEquals(500, batchSize.get());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static com.hazelcast.map.impl.mapstore.writebehind.AdaptiveWriteBatchSize.MIN_BATCH_SIZE;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class WriteBehindWorkersTest extends HazelcastTestSupport {
+
+    private static final int WORKER_COUNT = 4;
+    private static final int WRITE_BATCH_SIZE = 64;
+
+    @Test
+    public void entriesAreStored_byAllWorkers() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        HazelcastInstance instance = createHazelcastInstance(newConfig(mapStore, 8, 0));
+        IMap<Integer, Integer> map = instance.getMap("map");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(1000, mapStore.store.size()));
+        Collection<StoreWorkerStats> stats = getStoreWorkerStats(instance, map.getName());
+        assertEquals(WORKER_COUNT, stats.size());
+        for (StoreWorkerStats workerStats : stats) {
+            assertTrue(workerStats.toString(), workerStats.getBatchCount() > 0);
+            assertTrue(workerStats.toString(), workerStats.getStoredEntryCount() >= workerStats.getBatchCount());
+            assertTrue(workerStats.toString(), workerStats.getLastBatchSize() <= 8);
+        }
+    }
+
+    @Test
+    public void flush_storesEntriesOfAllWorkers() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<>();
+        Config config = newConfig(mapStore, 1, 0);
+        config.getMapConfig("map").getMapStoreConfig().setWriteDelaySeconds(3600);
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap("map");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        map.flush();
+
+        assertEquals(1000, mapStore.store.size());
+    }
+
+    @Test
+    public void batchSizeAdapts_toSlowStore() {
+        MapStoreWithCounter<Integer, Integer> mapStore = new MapStoreWithCounter<Integer, Integer>() {
+            @Override
+            public void storeAll(Map<Integer, Integer> map) {
+                sleepMillis(20);
+                super.storeAll(map);
+            }
+        };
+        HazelcastInstance instance = createHazelcastInstance(newConfig(mapStore, WRITE_BATCH_SIZE, 1));
+        IMap<Integer, Integer> map = instance.getMap("map");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(1000, mapStore.store.size()));
+        // the stats are updated after the store call returns, and how many
+        // batches a worker stores depends on how the puts fall into the
+        // flush rounds, so only the trend is asserted
+        assertTrueEventually(() -> {
+            for (StoreWorkerStats workerStats : getStoreWorkerStats(instance, map.getName())) {
+                assertTrue(workerStats.toString(), workerStats.getBatchSize() < WRITE_BATCH_SIZE);
+                assertTrue(workerStats.toString(), workerStats.getBatchSize() >= MIN_BATCH_SIZE);
+                assertTrue(workerStats.toString(), workerStats.getMaxBatchLatency() >= 20);
+            }
+        });
+    }
+
+    private static Config newConfig(MapStoreWithCounter<Integer, Integer> mapStore, int writeBatchSize,
+                                    long targetBatchLatencyMillis) {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.MAP_WRITE_BEHIND_WORKER_COUNT.getName(), String.valueOf(WORKER_COUNT));
+        config.setProperty(ClusterProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS.getName(),
+                String.valueOf(targetBatchLatencyMillis));
+        config.getMapConfig("map").setMapStoreConfig(new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(mapStore)
+                .setWriteDelaySeconds(1)
+                .setWriteBatchSize(writeBatchSize));
+        return config;
+    }
+
+    private static Collection<StoreWorkerStats> getStoreWorkerStats(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        WriteBehindManager manager = (WriteBehindManager) mapServiceContext.getMapContainer(mapName)
+                .getMapStoreContext().getMapStoreManager();
+        return manager.getStoreWorkerStats();
+    }
+}
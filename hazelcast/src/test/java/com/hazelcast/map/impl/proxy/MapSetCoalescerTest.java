@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.proxy;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapSetCoalescerTest extends HazelcastTestSupport {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private MapProxySupport<?, ?> proxy;
+    private ExecutionService executionService;
+    private InternalCompletableFuture<int[]> invocationFuture;
+    private MapSetCoalescer coalescer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        proxy = mock(MapProxySupport.class);
+        executionService = mock(ExecutionService.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(executionService).execute(eq(ASYNC_EXECUTOR), any());
+        invocationFuture = new InternalCompletableFuture<>();
+        when(proxy.invokeCoalescedSet(anyInt(), any(), any())).thenReturn(invocationFuture);
+        coalescer = new MapSetCoalescer(proxy, executionService, 2, MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void whenUncontended_thenSentImmediately() {
+        InternalCompletableFuture<Boolean> f1 = coalescer.set(1, data(1), data(1), 10);
+
+        ArgumentCaptor<long[]> threadIds = ArgumentCaptor.forClass(long[].class);
+        verify(proxy).invokeCoalescedSet(eq(1), any(), threadIds.capture());
+        assertArrayEquals(new long[]{10}, threadIds.getValue());
+
+        invocationFuture.complete(new int[0]);
+        assertTrue(f1.join());
+    }
+
+    @Test
+    public void whenBatchInFlight_thenNextBatchSentOnCompletion() {
+        InternalCompletableFuture<Boolean> f1 = coalescer.set(1, data(1), data(1), 10);
+        InternalCompletableFuture<Boolean> f2 = coalescer.set(1, data(2), data(2), 11);
+        InternalCompletableFuture<Boolean> f3 = coalescer.set(1, data(3), data(3), 12);
+        verify(proxy, times(1)).invokeCoalescedSet(anyInt(), any(), any());
+
+        invocationFuture.complete(new int[0]);
+
+        verify(executionService).execute(eq(ASYNC_EXECUTOR), any());
+        ArgumentCaptor<long[]> threadIds = ArgumentCaptor.forClass(long[].class);
+        verify(proxy, times(2)).invokeCoalescedSet(eq(1), any(), threadIds.capture());
+        assertArrayEquals(new long[]{11, 12}, threadIds.getValue());
+        assertTrue(f1.join() && f2.join() && f3.join());
+    }
+
+    @Test
+    public void whenBatchFull_thenSentWithoutWaitingForBatchInFlight() {
+        InternalCompletableFuture<int[]> inFlight = new InternalCompletableFuture<>();
+        when(proxy.invokeCoalescedSet(anyInt(), any(), any())).thenReturn(inFlight, invocationFuture);
+        coalescer.set(0, data(0), data(0), 9);
+
+        InternalCompletableFuture<Boolean> f1 = coalescer.set(0, data(1), data(1), 10);
+        InternalCompletableFuture<Boolean> f2 = coalescer.set(0, data(2), data(2), 11);
+        verify(proxy, times(1)).invokeCoalescedSet(anyInt(), any(), any());
+
+        InternalCompletableFuture<Boolean> f3 = coalescer.set(0, data(3), data(3), 12);
+
+        ArgumentCaptor<MapEntries> entries = ArgumentCaptor.forClass(MapEntries.class);
+        ArgumentCaptor<long[]> threadIds = ArgumentCaptor.forClass(long[].class);
+        verify(proxy, times(2)).invokeCoalescedSet(eq(0), entries.capture(), threadIds.capture());
+        assertEquals(MAX_BATCH_SIZE, entries.getValue().size());
+        assertArrayEquals(new long[]{10, 11, 12}, threadIds.getValue());
+
+        assertFalse(f1.isDone());
+        invocationFuture.complete(new int[0]);
+        assertTrue(f1.join() && f2.join() && f3.join());
+    }
+
+    @Test
+    public void whenEntryLocked_thenItsCallerNotified() {
+        InternalCompletableFuture<int[]> inFlight = new InternalCompletableFuture<>();
+        when(proxy.invokeCoalescedSet(anyInt(), any(), any())).thenReturn(inFlight, invocationFuture);
+        coalescer.set(0, data(0), data(0), 9);
+        InternalCompletableFuture<Boolean> f1 = coalescer.set(0, data(1), data(1), 10);
+        InternalCompletableFuture<Boolean> f2 = coalescer.set(0, data(2), data(2), 11);
+        InternalCompletableFuture<Boolean> f3 = coalescer.set(0, data(3), data(3), 12);
+
+        invocationFuture.complete(new int[]{1});
+
+        assertTrue(f1.join());
+        assertFalse(f2.join());
+        assertTrue(f3.join());
+    }
+
+    @Test
+    public void whenInvocationFails_thenAllCallersFail() {
+        List<InternalCompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            futures.add(coalescer.set(0, data(i), data(i), i));
+        }
+
+        invocationFuture.completeExceptionally(new IllegalStateException());
+
+        for (InternalCompletableFuture<Boolean> future : futures) {
+            assertTrue(future.isCompletedExceptionally());
+        }
+    }
+
+    private static Data data(int value) {
+        return new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, (byte) value});
+    }
+}
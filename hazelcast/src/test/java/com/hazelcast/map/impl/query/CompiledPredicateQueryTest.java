@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_COMPILATION_ENABLED;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompiledPredicateQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+
+    private IMap<Integer, Person> map;
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        config.setProperty(QUERY_PREDICATE_COMPILATION_ENABLED.getName(), "true");
+        map = createHazelcastInstance(config).getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person("name-" + i, i % 100));
+        }
+    }
+
+    @Test
+    public void compiledPredicate_matchesAndIsCountedAsCompiled() {
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 100 >= 40 && ("name-" + i).startsWith("name-1")) {
+                expected.add(i);
+            }
+        }
+
+        assertEquals(expected, map.keySet(Predicates.sql("age >= 40 and name like 'name-1%'")));
+
+        LocalMapStats stats = map.getLocalMapStats();
+        assertEquals(ENTRY_COUNT, stats.getQueryCompiledEvaluationCount());
+        assertEquals(0, stats.getQueryInterpretedEvaluationCount());
+    }
+
+    @Test
+    public void partiallyCompiledPredicate_isCountedAsInterpreted() {
+        Predicate<Integer, Person> even = entry -> entry.getKey() % 2 == 0;
+
+        assertEquals(ENTRY_COUNT / 4, map.keySet(Predicates.and(Predicates.lessThan("age", 50), even)).size());
+
+        LocalMapStats stats = map.getLocalMapStats();
+        assertEquals(0, stats.getQueryCompiledEvaluationCount());
+        assertEquals(ENTRY_COUNT, stats.getQueryInterpretedEvaluationCount());
+    }
+
+    private static final class Person implements Serializable {
+
+        private final String name;
+        private final int age;
+
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+
+    @Test
+    public void sortedIndex_answersCountMinMaxAndDistinct() {
+        IMap<Integer, Person> map = createMap(IndexType.SORTED, "age");
+
+        assertEquals(ENTRY_COUNT, (long) map.aggregate(Aggregators.count("age")));
+        assertEquals(0, (int) map.aggregate(Aggregators.integerMin("age")));
+        assertEquals(49, (int) map.aggregate(Aggregators.integerMax("age")));
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            expected.add(age(i));
+        }
+        assertEquals(expected, map.aggregate(Aggregators.distinct("age")));
+
+        // the entries were neither scanned nor deserialized
+        assertEquals(0, map.getLocalMapStats().getQueryScannedEntryCount());
+    }
+
+    @Test
+    public void hashIndex_answersCountOnly() {
+        IMap<Integer, Person> map = createMap(IndexType.HASH, "age");
+
+        assertEquals(ENTRY_COUNT, (long) map.aggregate(Aggregators.count("age")));
+        assertEquals(0, map.getLocalMapStats().getQueryScannedEntryCount());
+
+        // the values of hash indexes are canonicalized, the entries are scanned
+        assertEquals(49, (int) map.aggregate(Aggregators.integerMax("age")));
+        assertEquals(ENTRY_COUNT, map.getLocalMapStats().getQueryScannedEntryCount());
+    }
+
+    @Test
+    public void bitmapIndex_answersCount() {
+        IMap<Integer, Person> map = createMap(IndexType.BITMAP, "age");
+
+        assertEquals(ENTRY_COUNT, (long) map.aggregate(Aggregators.count("age")));
+        assertEquals(0, map.getLocalMapStats().getQueryScannedEntryCount());
+    }
+
+    @Test
+    public void collectionAttribute_isAccumulatedByScan() {
+        IMap<Integer, Person> map = createMap(IndexType.SORTED, "tags[any]");
+
+        // every entry has two tags
+        assertEquals(2 * ENTRY_COUNT, (long) map.aggregate(Aggregators.count("tags[any]")));
+        assertEquals(ENTRY_COUNT, map.getLocalMapStats().getQueryScannedEntryCount());
+        // min is not affected by the multiple values
+        assertEquals("tag-0", map.aggregate(Aggregators.comparableMin("tags[any]")));
+        assertEquals(ENTRY_COUNT, map.getLocalMapStats().getQueryScannedEntryCount());
+    }
+
+    @Test
+    public void filteredAggregation_isAccumulatedByScan() {
+        IMap<Integer, Person> map = createMap(IndexType.SORTED, "age");
+
+        long expectedSum = 0;
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            // the ages of the even entries are never null
+            if (i % 2 == 0) {
+                expectedSum += age(i);
+            }
+        }
+        assertEquals(expectedSum, (long) map.aggregate(Aggregators.integerSum("age"), Predicates.sql("even = true")));
+
+        Person oldest = map.aggregate(Aggregators.maxBy("age"), Predicates.sql("even = true")).getValue();
+        assertEquals(48, (int) oldest.getAge());
+        assertTrue(map.getLocalMapStats().getQueryScannedEntryCount() > 0);
+    }
+
+    private IMap<Integer, Person> createMap(IndexType indexType, String attribute) {
+        Config config = smallInstanceConfig();
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).addIndexConfig(new IndexConfig(indexType, attribute));
+        IMap<Integer, Person> map = createHazelcastInstance(config).getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, new Person(age(i), i % 2 == 0, "tag-" + i % 7, "tag-" + (i % 7 + 1)));
+        }
+        return map;
+    }
+
+    private static Integer age(int i) {
+        return i % 50 == 1 ? null : i % 50;
+    }
+
+    private static final class Person implements Serializable {
+
+        private final Integer age;
+        private final boolean even;
+        private final String[] tags;
+
+        Person(Integer age, boolean even, String... tags) {
+            this.age = age;
+            this.even = even;
+            this.tags = tags;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public boolean isEven() {
+            return even;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+    }
+
+}
@@ -164,20 +164,27 @@ public class IndexCreateTest extends HazelcastTestSupport {
 
     @Test
     public void testMultipleAttributes() {
-        if (type == IndexType.BITMAP) {
-            thrown.expect(IllegalArgumentException.class);
-            thrown.expectMessage(startsWith("Composite bitmap indexes are not supported:"));
-        }
+        expectCompositeIndexFailure();
         checkIndex(createConfig("col1", "this.col2"));
     }
 
     @Test
     public void testMultipleAttributesWithName() {
+        expectCompositeIndexFailure();
+        checkIndex(createNamedConfig("index", "col1", "this.col2"));
+    }
+
+    private void expectCompositeIndexFailure() {
         if (type == IndexType.BITMAP) {
             thrown.expect(IllegalArgumentException.class);
             thrown.expectMessage(startsWith("Composite bitmap indexes are not supported:"));
+        } else if (type == IndexType.NGRAM) {
+            thrown.expect(IllegalArgumentException.class);
+            thrown.expectMessage(startsWith("Composite n-gram indexes are not supported:"));
+        } else if (type == IndexType.VECTOR) {
+            thrown.expect(IllegalArgumentException.class);
+            thrown.expectMessage(startsWith("Composite vector indexes are not supported:"));
         }
-        checkIndex(createNamedConfig("index", "col1", "this.col2"));
     }
 
     private void checkIndex(IndexConfig... indexConfigs) {
@@ -252,6 +259,10 @@ public class IndexCreateTest extends HazelcastTestSupport {
             res.append("hash");
         } else if (config.getType() == IndexType.BITMAP) {
             res.append("bitmap");
+        } else if (config.getType() == IndexType.NGRAM) {
+            res.append("ngram");
+        } else if (config.getType() == IndexType.VECTOR) {
+            res.append("vector");
         } else {
             throw new IllegalArgumentException("unexpected index type: " + config.getType());
         }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MaterializedAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+    private static final Predicate<Integer, Integer> PREDICATE = Predicates.sql("this >= 100");
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Integer> map;
+    private final Map<Integer, Integer> values = new HashMap<>();
+
+    @Test
+    public void repeatedAggregation_isMaintainedIncrementally() {
+        createMap(1);
+
+        // the first run is remembered, the second one builds the partial aggregators
+        assertEquals(expectedSum(), sum());
+        assertEquals(expectedSum(), sum());
+        long scanned = map.getLocalMapStats().getQueryScannedEntryCount();
+        assertEquals(2 * ENTRY_COUNT, scanned);
+
+        assertEquals(expectedSum(), sum());
+        assertEquals(scanned, map.getLocalMapStats().getQueryScannedEntryCount());
+
+        // added entries are accumulated
+        put(ENTRY_COUNT, ENTRY_COUNT);
+        put(-1, -1);
+        put(1, 2);
+        assertEquals(expectedSum(), sum());
+        assertEquals(scanned, map.getLocalMapStats().getQueryScannedEntryCount());
+
+        // removals and updates of the matching entries rebuild their partitions
+        remove(150);
+        put(160, 1);
+        put(170, 171);
+        assertEquals(expectedSum(), sum());
+        long rescanned = map.getLocalMapStats().getQueryScannedEntryCount() - scanned;
+        assertTrue("rescanned: " + rescanned, rescanned > 0 && rescanned < ENTRY_COUNT);
+
+        MaterializedAggregation aggregation = single(aggregations());
+        assertEquals(4, aggregation.getReadCount());
+        assertEquals(1, aggregation.getIncrementalUpdateCount());
+        // the updated entries may share a partition
+        assertTrue(aggregation.getInvalidationCount() > 0 && aggregation.getInvalidationCount() <= 3);
+        assertEquals(0, aggregation.getStalePartitionCount());
+    }
+
+    @Test
+    public void clear_invalidatesPartitions() {
+        createMap(1);
+        sum();
+        sum();
+
+        map.clear();
+        assertEquals(0, (long) sum());
+        map.put(100, 100);
+        assertEquals(100, (long) sum());
+    }
+
+    @Test
+    public void aggregationsAreNotMaterialized_whenDisabled() {
+        createMap(0);
+        sum();
+        sum();
+        sum();
+
+        assertEquals(3 * ENTRY_COUNT, map.getLocalMapStats().getQueryScannedEntryCount());
+        assertTrue(aggregations().isEmpty());
+    }
+
+    @Test
+    public void maxCountIsRespected() {
+        createMap(1);
+        sum();
+        sum();
+        map.aggregate(Aggregators.count(), PREDICATE);
+        map.aggregate(Aggregators.count(), PREDICATE);
+
+        assertEquals(1, aggregations().size());
+        assertEquals(ENTRY_COUNT - 100, (long) map.aggregate(Aggregators.count(), PREDICATE));
+    }
+
+    private void createMap(int maxCount) {
+        Config config = smallInstanceConfig()
+                .setProperty(QUERY_MATERIALIZED_AGGREGATIONS_MAX_COUNT.getName(), String.valueOf(maxCount));
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setStatisticsEnabled(true);
+        instance = createHazelcastInstance(config);
+        map = instance.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            put(i, i);
+        }
+    }
+
+    private void put(int key, int value) {
+        map.put(key, value);
+        values.put(key, value);
+    }
+
+    private void remove(int key) {
+        map.remove(key);
+        values.remove(key);
+    }
+
+    private Long sum() {
+        return map.aggregate(Aggregators.integerSum(), PREDICATE);
+    }
+
+    private Long expectedSum() {
+        long sum = 0;
+        for (Integer value : values.values()) {
+            if (value >= 100) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    private Collection<MaterializedAggregation> aggregations() {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getMapContainer(map.getName()).getMaterializedAggregations().getAll();
+    }
+
+    private static MaterializedAggregation single(Collection<MaterializedAggregation> aggregations) {
+        assertEquals(1, aggregations.size());
+        return aggregations.iterator().next();
+    }
+}
@@ -29,7 +29,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.internal.util.SetUtil.singletonPartitionIdSet;
 import static com.hazelcast.test.Accessors.getSerializationService;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -59,6 +61,25 @@ public class QueryResultTest extends HazelcastTestSupport {
         assertEquals(row, actual.iterator().next());
     }
 
+    @Test
+    public void combineAll() {
+        QueryResult combined = new QueryResult(IterationType.ENTRY, null, null, 100, false);
+        QueryResult first = combined.createSubResult();
+        first.addRow(new QueryResultRow(serializationService.toData("1"), serializationService.toData("a")));
+        first.setPartitionIds(singletonPartitionIdSet(2, 0));
+        QueryResult second = combined.createSubResult();
+        second.addRow(new QueryResultRow(serializationService.toData("2"), serializationService.toData("b")));
+        second.addRow(new QueryResultRow(serializationService.toData("3"), serializationService.toData("c")));
+        second.setPartitionIds(singletonPartitionIdSet(2, 1));
+        QueryResult notQueried = combined.createSubResult();
+        notQueried.addRow(new QueryResultRow(serializationService.toData("4"), serializationService.toData("d")));
+
+        combined.combineAll(asList(first, second, notQueried));
+
+        assertEquals(3, combined.size());
+        assertEquals(2, combined.getPartitionIds().size());
+    }
+
     private QueryResult clone(QueryResult result) {
         Data data = serializationService.toData(result);
         return serializationService.toObject(data);
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_SERIALIZED_SCAN_ENABLED;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SerializedScanQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+
+    @Test
+    public void compactValues_serializedScanMatchesDefaultScan() {
+        IMap<Integer, GenericRecord> map = populateCompactMap(createInstance());
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 100 >= 40 && ("name-" + i).startsWith("name-1")) {
+                expected.add(i);
+            }
+        }
+
+        Predicate<Integer, GenericRecord> predicate = Predicates.sql("age >= 40 and name like 'name-1%'");
+
+        assertEquals(expected, map.keySet(predicate));
+        assertEquals(expected.size(), map.values(predicate).size());
+    }
+
+    @Test
+    public void compactValues_pagingPredicate() {
+        IMap<Integer, GenericRecord> map = populateCompactMap(createInstance());
+
+        Set<Integer> page = map.keySet(Predicates.pagingPredicate(Predicates.sql("age < 10"), 5));
+
+        assertEquals(new HashSet<>(asList(0, 1, 2, 3, 4)), page);
+    }
+
+    @Test
+    public void compactValues_statsCountScannedEntriesWithoutDeserialization() {
+        IMap<Integer, GenericRecord> map = populateCompactMap(createInstance());
+
+        map.keySet(Predicates.sql("age = 42"));
+
+        LocalMapStats stats = map.getLocalMapStats();
+        assertEquals(ENTRY_COUNT, stats.getQueryScannedEntryCount());
+        assertEquals(0, stats.getQueryDeserializedBytes());
+        assertTrue(stats.getQueryScannedEntriesPerSecond() > 0);
+    }
+
+    @Test
+    public void javaSerializedValues_statsCountDeserializedBytes() {
+        IMap<Integer, Integer> map = createInstance().getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, map.keySet(Predicates.sql("this >= " + ENTRY_COUNT / 2)).size());
+
+        LocalMapStats stats = map.getLocalMapStats();
+        assertEquals(ENTRY_COUNT, stats.getQueryScannedEntryCount());
+        assertTrue(stats.getQueryDeserializedBytes() > 0);
+    }
+
+    private HazelcastInstance createInstance() {
+        Config config = smallInstanceConfig();
+        config.setProperty(QUERY_SERIALIZED_SCAN_ENABLED.getName(), "true");
+        return createHazelcastInstance(config);
+    }
+
+    private static IMap<Integer, GenericRecord> populateCompactMap(HazelcastInstance instance) {
+        IMap<Integer, GenericRecord> map = instance.getMap("compact");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, GenericRecordBuilder.compact("person")
+                    .setString("name", "name-" + i)
+                    .setInt32("age", i % 100)
+                    .build());
+        }
+        return map;
+    }
+}
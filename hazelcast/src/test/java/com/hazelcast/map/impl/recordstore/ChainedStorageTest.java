@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.ColumnarRecordFactory;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.OffHeapRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.runners.Parameterized.UseParametersRunnerFactory;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the hash table behaviour shared by the {@link AbstractChainedStorage}
+ * implementations.
+ */
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ChainedStorageTest {
+
+    @Parameterized.Parameter
+    public String storageType;
+
+    @Parameterized.Parameters(name = "storageType:{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {"offHeap"},
+                {"columnar"},
+        });
+    }
+
+    private SerializationService ss;
+    private RecordFactory<Data> recordFactory;
+    private AbstractChainedStorage storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        if (storageType.equals("offHeap")) {
+            OffHeapRecordFactory offHeapRecordFactory = new OffHeapRecordFactory(ss);
+            recordFactory = offHeapRecordFactory;
+            storage = new OffHeapStorage(offHeapRecordFactory, expirySystem, ss);
+        } else {
+            ColumnarRecordFactory columnarRecordFactory = new ColumnarRecordFactory(ss);
+            recordFactory = columnarRecordFactory;
+            storage = new ColumnarStorage(columnarRecordFactory, expirySystem, ss);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void put_get_remove() {
+        Data key = ss.toData("key");
+        storage.put(key, newRecord("value"));
+
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(ss.toData("key")));
+        assertEquals("value", ss.toObject(storage.get(key).getValue()));
+
+        storage.removeRecord(key, storage.get(key));
+        storage.disposeDeferredBlocks();
+
+        assertTrue(storage.isEmpty());
+        assertNull(storage.get(key));
+    }
+
+    @Test
+    public void put_replacesExistingRecord() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+        storage.put(key, newRecord("b"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals("b", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void put_copiesOnHeapRecord() {
+        Data key = ss.toData(1);
+        MapContainer mapContainer = mock(MapContainer.class);
+        when(mapContainer.getMapConfig()).thenReturn(new MapConfig().setPerEntryStatsEnabled(true));
+        Record heapRecord = new DataRecordFactory(mapContainer, ss).newRecord(key, "a");
+        heapRecord.setVersion(3);
+
+        storage.put(key, heapRecord);
+
+        Record record = storage.get(key);
+        assertEquals("a", ss.toObject(record.getValue()));
+        assertEquals(3, record.getVersion());
+    }
+
+    @Test
+    public void updateRecordValue() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+
+        storage.updateRecordValue(key, storage.get(key), "a much longer value than before");
+
+        assertEquals("a much longer value than before", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void removedRecord_isReadableUntilDispose() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+        Record record = storage.get(key);
+
+        storage.removeRecord(key, record);
+
+        assertFalse(storage.containsKey(key));
+        assertEquals("a", ss.toObject(record.getValue()));
+    }
+
+    @Test
+    public void put_findsAllKeysAfterResizes() {
+        for (int i = 0; i < 10_000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        assertEquals(10_000, storage.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, (int) ss.toObject(storage.get(ss.toData(i)).getValue()));
+        }
+    }
+
+    @Test
+    public void mutationTolerantIterator_toleratesRemovals() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        Set<Object> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            seen.add(ss.toObject(entry.getKey()));
+            storage.removeRecord(entry.getKey(), entry.getValue());
+            storage.disposeDeferredBlocks();
+        }
+
+        assertEquals(count, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void mutationTolerantIterator_returnsAllKeysAcrossResizes() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        List<Object> iterated = new ArrayList<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        int next = count;
+        while (iterator.hasNext()) {
+            iterated.add(ss.toObject(iterator.next().getKey()));
+            // grow the table while iterating, it is resized several times
+            for (int i = 0; i < 10 && next < 10 * count; i++) {
+                storage.put(ss.toData(next++), newRecord(i));
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertTrue("missing key " + i, iterated.contains(i));
+        }
+        // no key is returned twice
+        assertEquals(iterated.size(), new HashSet<>(iterated).size());
+    }
+
+    @Test
+    public void fetchKeys_returnsAllKeysAcrossResizes() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        List<Object> fetched = new ArrayList<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        int next = 100;
+        do {
+            MapKeysWithCursor batch = storage.fetchKeys(pointers, 10);
+            for (Data key : batch.getBatch()) {
+                fetched.add(ss.toObject(key));
+            }
+            pointers = batch.getIterationPointers();
+            // grow the table while iterating
+            for (int i = 0; i < 100; i++) {
+                storage.put(ss.toData(next++), newRecord(i));
+            }
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue("missing key " + i, fetched.contains(i));
+        }
+        // no key is returned twice
+        assertEquals(fetched.size(), new HashSet<>(fetched).size());
+    }
+
+    @Test
+    public void fetchEntries_returnsValues() {
+        for (int i = 0; i < 10; i++) {
+            storage.put(ss.toData(i), newRecord("v" + i));
+        }
+
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        MapEntriesWithCursor batch = storage.fetchEntries(pointers, 100);
+
+        assertEquals(10, batch.getBatch().size());
+        for (Map.Entry<Data, Data> entry : batch.getBatch()) {
+            assertEquals("v" + ss.toObject(entry.getKey()), ss.toObject(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void getRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        Set<Object> samples = new HashSet<>();
+        for (EntryView view : storage.getRandomSamples(15)) {
+            assertEquals(view.getKey(), view.getValue());
+            samples.add(view.getKey());
+        }
+
+        assertEquals(15, samples.size());
+    }
+
+    @Test
+    public void getRandomSamples_whenFewerEntries() {
+        storage.put(ss.toData(1), newRecord(1));
+
+        int sampleCount = 0;
+        for (EntryView view : storage.getRandomSamples(15)) {
+            sampleCount++;
+        }
+
+        assertEquals(1, sampleCount);
+    }
+
+    private Record newRecord(Object value) {
+        return recordFactory.newRecord(null, value);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.ColumnarRecord;
+import com.hazelcast.map.impl.record.ColumnarRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordColumns;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadataImpl;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarStorageTest {
+
+    private SerializationService ss;
+    private ColumnarRecordFactory recordFactory;
+    private ColumnarStorage storage;
+    private Map<Data, ExpiryMetadata> expiryMetadataView;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        recordFactory = new ColumnarRecordFactory(ss);
+        storage = new ColumnarStorage(recordFactory, expirySystem, ss);
+        expiryMetadataView = storage.getExpiryMetadataView();
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void getIfSameKey() {
+        Data key = ss.toData("key");
+        storage.put(key, newRecord("value"));
+
+        assertEquals("value", ss.toObject(storage.getIfSameKey(key).getValue()));
+        assertNull(storage.getIfSameKey(ss.toData("key")));
+    }
+
+    @Test
+    public void recordMetadata_isKeptInColumns() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+
+        Record record = storage.get(key);
+        record.setVersion(42);
+        record.setHits(7);
+        record.setRawLastUpdateTime(1234);
+
+        Record read = storage.get(key);
+        assertEquals(42, read.getVersion());
+        assertEquals(7, read.getHits());
+        assertEquals(1234, read.getRawLastUpdateTime());
+    }
+
+    @Test
+    public void updateRecordValue() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+        long cost = footprint();
+
+        storage.updateRecordValue(key, storage.get(key), "a much longer value than before");
+
+        assertEquals("a much longer value than before", ss.toObject(storage.get(key).getValue()));
+        assertTrue(footprint() > cost);
+    }
+
+    @Test
+    public void disposeDeferredBlocks_releasesSlotsForReuse() {
+        for (int i = 0; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+        newRecord("never stored");
+        for (int i = 0; i < 1000; i++) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+        storage.disposeDeferredBlocks();
+        long footprint = footprint();
+
+        for (int i = 0; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+        storage.clear(false);
+
+        // slots of the first round are reused, columns do not grow
+        assertEquals(footprint, footprint());
+    }
+
+    @Test
+    public void records_keepTheirSlotsAcrossResizes() {
+        Data key = ss.toData(0);
+        storage.put(key, newRecord("a"));
+        ColumnarRecord record = (ColumnarRecord) storage.get(key);
+
+        // grow the bucket array from 16 to 2048 buckets
+        for (int i = 1; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        assertEquals(record.getSlot(), ((ColumnarRecord) storage.get(key)).getSlot());
+        assertEquals("a", ss.toObject(record.getValue()));
+    }
+
+    @Test
+    public void expiryMetadata_isFoldedIntoRecordSlot() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+
+        expiryMetadataView.put(key, new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+
+        ExpiryMetadata expiryMetadata = expiryMetadataView.get(key);
+        assertEquals(5000, expiryMetadata.getTtl());
+        assertEquals(3000, expiryMetadata.getMaxIdle());
+        assertEquals(1, expiryMetadataView.size());
+
+        expiryMetadata.setTtl(7000);
+        assertEquals(7000, expiryMetadataView.get(key).getTtl());
+    }
+
+    @Test
+    public void expiryMetadata_isNotAddedWithoutRecord() {
+        expiryMetadataView.put(ss.toData(1), new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+
+        assertTrue(expiryMetadataView.isEmpty());
+    }
+
+    @Test
+    public void expiryMetadata_survivesRecordReplacement() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+        expiryMetadataView.put(key, new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+
+        storage.put(key, newRecord("b"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, expiryMetadataView.size());
+        assertEquals(5000, expiryMetadataView.get(key).getTtl());
+    }
+
+    @Test
+    public void expiryMetadata_survivesResizes() {
+        Data key = ss.toData(0);
+        storage.put(key, newRecord("a"));
+        expiryMetadataView.put(key, new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+
+        for (int i = 1; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        assertEquals(1, expiryMetadataView.size());
+        assertEquals(5000, expiryMetadataView.get(key).getTtl());
+    }
+
+    @Test
+    public void expiryMetadata_isRemovedWithRecord() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+        expiryMetadataView.put(key, new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+
+        storage.removeRecord(key, storage.get(key));
+
+        assertTrue(expiryMetadataView.isEmpty());
+        assertNull(expiryMetadataView.get(key));
+    }
+
+    @Test
+    public void expiryMetadataIterator_returnsExpirableKeysOnly() {
+        for (int i = 0; i < 100; i++) {
+            Data key = ss.toData(i);
+            storage.put(key, newRecord(i));
+            if (i % 2 == 0) {
+                expiryMetadataView.put(key, new ExpiryMetadataImpl(5000, 3000, 100_000, 50_000));
+            }
+        }
+
+        Set<Object> keys = new HashSet<>();
+        Iterator<Map.Entry<Data, ExpiryMetadata>> iterator = expiryMetadataView.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, ExpiryMetadata> entry = iterator.next();
+            keys.add(ss.toObject(entry.getKey()));
+            // removal while iterating, like ExpirySystemImpl does
+            expiryMetadataView.remove(entry.getKey());
+        }
+
+        assertEquals(50, keys.size());
+        for (Object key : keys) {
+            assertEquals(0, (int) key % 2);
+        }
+        assertTrue(expiryMetadataView.isEmpty());
+    }
+
+    @Test
+    public void entryCostEstimator_countsColumnsAndKeyValueCosts() {
+        long keyValueCost = 0;
+        for (int i = 0; i < 1000; i++) {
+            Data key = ss.toData(i);
+            Record record = newRecord(i);
+            storage.put(key, record);
+            keyValueCost += key.getHeapCost() + ((Data) record.getValue()).getHeapCost();
+        }
+
+        // 1024 slots and 2048 buckets
+        long columnsCost = 1024L * RecordColumns.BYTES_PER_SLOT + 2048L * Integer.BYTES;
+        assertEquals(columnsCost + keyValueCost, footprint());
+
+        storage.clear(false);
+        assertEquals(columnsCost, footprint());
+    }
+
+    private Record newRecord(Object value) {
+        return recordFactory.newRecord(null, value);
+    }
+
+    private long footprint() {
+        return storage.getEntryCostEstimator().getEstimate();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.OffHeapRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageTest {
+
+    private SerializationService ss;
+    private OffHeapRecordFactory recordFactory;
+    private OffHeapStorage storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        recordFactory = new OffHeapRecordFactory(ss);
+        storage = new OffHeapStorage(recordFactory, expirySystem, ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void recordMetadata_isKeptOffHeap() {
+        Data key = ss.toData(1);
+        storage.put(key, newRecord("a"));
+
+        Record record = storage.get(key);
+        record.setVersion(42);
+        record.setHits(7);
+        record.setRawLastUpdateTime(1234);
+
+        Record read = storage.get(key);
+        assertEquals(42, read.getVersion());
+        assertEquals(7, read.getHits());
+        assertEquals(1234, read.getRawLastUpdateTime());
+    }
+
+    @Test
+    public void disposeDeferredBlocks_freesRemovedAndUnstoredRecords() {
+        for (int i = 0; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+        newRecord("never stored");
+        for (int i = 0; i < 1000; i++) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+
+        storage.disposeDeferredBlocks();
+
+        // only the bucket array, grown to 2048 buckets, remains
+        assertEquals(2048 * 8, footprint());
+    }
+
+    @Test
+    public void entryCostEstimator_reportsNativeMemory() {
+        long emptyFootprint = footprint();
+        storage.put(ss.toData(1), newRecord(1));
+
+        assertTrue(footprint() > emptyFootprint);
+    }
+
+    @Test
+    public void destroy_freesAllNativeMemory() {
+        for (int i = 0; i < 1000; i++) {
+            storage.put(ss.toData(i), newRecord(i));
+        }
+
+        storage.destroy(false);
+
+        assertEquals(0, footprint());
+    }
+
+    private Record newRecord(Object value) {
+        return recordFactory.newRecord(null, value);
+    }
+
+    private long footprint() {
+        return storage.getEntryCostEstimator().getEstimate();
+    }
+}
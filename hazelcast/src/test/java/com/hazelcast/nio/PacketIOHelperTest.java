@@ -188,6 +188,29 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void largeValue_serializedWithoutCopy() {
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        String value = generateRandomString(100000);
+        Packet originalPacket = ss.toBytes(value, (bytes, length) -> new Packet(bytes, length, 1));
+
+        Packet clonedPacket;
+        ByteBuffer bb = ByteBuffer.allocate(1000);
+        boolean writeCompleted;
+        do {
+            writeCompleted = packetWriter.writeTo(originalPacket, bb);
+            bb.flip();
+            clonedPacket = packetReader.readFrom(bb);
+            bb.clear();
+        } while (!writeCompleted);
+
+        assertNotNull(clonedPacket);
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(originalPacket, clonedPacket);
+        assertArrayEquals(ss.toBytes(value), clonedPacket.toByteArray());
+        assertEquals(value, ss.toObject(clonedPacket));
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
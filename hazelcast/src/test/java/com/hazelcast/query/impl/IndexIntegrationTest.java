@@ -190,6 +190,31 @@ public class IndexIntegrationTest extends HazelcastTestSupport {
         assertThat(result).hasSize(1);
     }
 
+    @Test
+    public void sortedIndex_withPrimitiveStore() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.INDEX_SORTED_PRIMITIVE_STORE_ENABLED.getName(), "true");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        String name = randomMapName();
+        IMap<Integer, Trade> map = instance.getMap(name);
+        map.addIndex(IndexType.SORTED, "amount");
+
+        for (int i = 0; i < 1000; i++) {
+            Trade trade = new Trade();
+            trade.setAmount(i % 10 == 0 ? null : (long) i);
+            map.put(i, trade);
+        }
+        map.remove(15);
+
+        for (Index index : getIndexOfAttributeForMap(instance, name, "amount")) {
+            assertThat(((AbstractIndex) index).indexStore).isInstanceOf(PrimitiveOrderedIndexStore.class);
+        }
+        assertThat(map.values(Predicates.between("amount", 10, 19))).hasSize(8);
+        assertThat(map.values(Predicates.greaterEqual("amount", 990.5))).hasSize(9);
+        assertThat(map.values(Predicates.in("amount", 1L, 2, 3.0))).hasSize(3);
+        assertThat(map.values(Predicates.equal("amount", null))).hasSize(100);
+    }
+
     @Test
     public void testEmptyAndNullCollectionIndexing() {
         HazelcastInstance instance = createHazelcastInstance();
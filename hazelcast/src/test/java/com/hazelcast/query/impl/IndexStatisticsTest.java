@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexStatisticsTest {
+
+    private static final int COUNT = 100000;
+
+    @Test
+    public void testEmpty() {
+        IndexStatistics statistics = new IndexStatistics(true);
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.estimateDistinctValueCount());
+        assertEquals(0, statistics.estimateEqual(1));
+        assertEquals(0, statistics.estimateRange(null, false, null, false));
+    }
+
+    @Test
+    public void testEqual() {
+        IndexStatistics statistics = new IndexStatistics(false);
+        for (int i = 0; i < COUNT; ++i) {
+            statistics.onInsert(i % 10 == 0 ? "hot" : "cold" + i);
+        }
+
+        assertEquals(COUNT, statistics.getEntryCount());
+        assertBetween(COUNT / 10 - COUNT / 100, COUNT / 10 + COUNT / 100, statistics.estimateEqual("hot"));
+        assertBetween(0, COUNT / 100, statistics.estimateEqual("cold1"));
+        assertBetween(0, COUNT / 100, statistics.estimateEqual("absent"));
+        assertFalse(statistics.isOrdered());
+        // no histogram, the default selectivity is used
+        assertEquals(Math.round(COUNT * IndexStatistics.DEFAULT_RANGE_SELECTIVITY),
+                statistics.estimateRange(1, true, 2, true));
+    }
+
+    @Test
+    public void testEqualCanonicalizesNumbersAndNulls() {
+        IndexStatistics statistics = new IndexStatistics(false);
+        for (int i = 0; i < COUNT; ++i) {
+            statistics.onInsert(i % 2 == 0 ? null : i % 10);
+        }
+
+        assertBetween(COUNT / 2, COUNT / 2 + COUNT / 100, statistics.estimateEqual(AbstractIndex.NULL));
+        assertBetween(COUNT / 10, COUNT / 10 + COUNT / 100, statistics.estimateEqual(1L));
+        assertBetween(COUNT / 10, COUNT / 10 + COUNT / 100, statistics.estimateEqual(3.0));
+    }
+
+    @Test
+    public void testRange() {
+        IndexStatistics statistics = new IndexStatistics(true);
+        for (int i = 0; i < COUNT; ++i) {
+            statistics.onInsert(i);
+        }
+
+        assertTrue(statistics.isOrdered());
+        assertBetween(90, 110, statistics.estimateComparison(Comparison.LESS, 100));
+        assertBetween(COUNT / 2 - COUNT / 20, COUNT / 2 + COUNT / 20,
+                statistics.estimateComparison(Comparison.GREATER_OR_EQUAL, COUNT / 2));
+        assertBetween(900, 1100, statistics.estimateRange(1000, true, 2000, false));
+        assertEquals(0, statistics.estimateRange(2000, true, 1000, true));
+        assertEquals(COUNT, statistics.estimateRange(null, false, null, false));
+        assertEquals(Math.round(COUNT * IndexStatistics.DEFAULT_RANGE_SELECTIVITY),
+                statistics.estimateRange("a", true, "b", true));
+    }
+
+    @Test
+    public void testNegativeAndFractionalRange() {
+        IndexStatistics statistics = new IndexStatistics(true);
+        for (int i = 0; i < COUNT; ++i) {
+            statistics.onInsert((double) i / COUNT - 0.5);
+        }
+
+        assertBetween(COUNT / 2 - COUNT / 20, COUNT / 2 + COUNT / 20, statistics.estimateComparison(Comparison.LESS, 0.0));
+        assertBetween(COUNT / 4 - COUNT / 20, COUNT / 4 + COUNT / 20,
+                statistics.estimateComparison(Comparison.GREATER, 0.25));
+    }
+
+    @Test
+    public void testUpdateRemoveAndClear() {
+        IndexStatistics statistics = new IndexStatistics(true);
+        for (int i = 0; i < COUNT; ++i) {
+            statistics.onInsert(1);
+        }
+        for (int i = 0; i < COUNT / 2; ++i) {
+            statistics.onUpdate(1, 2);
+        }
+        assertEquals(COUNT, statistics.getEntryCount());
+        assertEquals(COUNT / 2, statistics.estimateEqual(2));
+        assertEquals(COUNT / 2, statistics.estimateRange(2, true, 2, true));
+
+        for (int i = 0; i < COUNT / 2; ++i) {
+            statistics.onRemove(1);
+        }
+        assertEquals(COUNT / 2, statistics.getEntryCount());
+        assertEquals(0, statistics.estimateEqual(1));
+        assertEquals(1, statistics.estimateDistinctValueCount());
+
+        statistics.clear();
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.estimateEqual(2));
+    }
+
+    @Test
+    public void testMultiResult() {
+        IndexStatistics statistics = new IndexStatistics(true);
+        statistics.onInsert(new MultiResult<>(asList(1, 2)));
+        statistics.onInsert(new MultiResult<>(asList(2, 3)));
+
+        assertEquals(2, statistics.getEntryCount());
+        assertEquals(2, statistics.estimateEqual(2));
+        assertEquals(1, statistics.estimateEqual(3));
+    }
+
+    private static void assertBetween(long from, long to, long actual) {
+        assertTrue(actual + " is not in [" + from + ", " + to + "]", actual >= from && actual <= to);
+    }
+
+}
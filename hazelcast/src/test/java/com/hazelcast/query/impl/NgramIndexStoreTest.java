@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.ILikePredicate;
+import com.hazelcast.query.impl.predicates.LikePredicate;
+import com.hazelcast.query.impl.predicates.RegexPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.Ngrams.gram;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NgramIndexStoreTest {
+
+    private static final String ALPHABET = "abcABC_%.\\xyzſKİı😀";
+
+    private final Random random = new Random(42);
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private NgramIndexStore store;
+    private final Map<Integer, String> values = new HashMap<>();
+
+    @Before
+    public void before() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        store = new NgramIndexStore();
+    }
+
+    @Test
+    public void testLikeGrams() {
+        assertArrayEquals(grams(), Ngrams.ofLikeExpression(null));
+        assertArrayEquals(grams(), Ngrams.ofLikeExpression("%ab%"));
+        assertArrayEquals(grams("abc"), Ngrams.ofLikeExpression("%abc%"));
+        assertArrayEquals(grams("abc"), Ngrams.ofLikeExpression("%ABC%"));
+        assertArrayEquals(grams("abc", "bcd"), Ngrams.ofLikeExpression("abcd%"));
+        assertArrayEquals(grams("abc", "xyz"), Ngrams.ofLikeExpression("abc_xyz"));
+        assertArrayEquals(grams("xyz"), Ngrams.ofLikeExpression("ab\\%xyz"));
+    }
+
+    @Test
+    public void testRegexGrams() {
+        assertArrayEquals(grams(), Ngrams.ofRegex(null));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex(".*abc.*"));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex("^abcd?$"));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex("abc+d"));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex("abcd{2,3}"));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex("abcd*?"));
+        assertArrayEquals(grams("xyz"), Ngrams.ofRegex("(abc|def)xyz"));
+        assertArrayEquals(grams("xyz"), Ngrams.ofRegex("(?:abc|def)+xyz"));
+        assertArrayEquals(grams("dxy", "xyz"), Ngrams.ofRegex("a[bc]dxyz"));
+        assertArrayEquals(grams("xyz"), Ngrams.ofRegex("[]xyz]+xyz"));
+        assertArrayEquals(grams(".ab", "abc"), Ngrams.ofRegex("\\.abc"));
+        assertArrayEquals(grams("abc"), Ngrams.ofRegex("\\d+abc\\s"));
+
+        assertArrayEquals(grams(), Ngrams.ofRegex("abc|xyz"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("(?i)abc"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("(?=abc)abc"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("\\Qabc\\E"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("\\x41abc"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("\\0101abc"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("\\p{Lu}abc"));
+        assertArrayEquals(grams(), Ngrams.ofRegex("(abc"));
+    }
+
+    @Test
+    public void testValueGrams() {
+        assertArrayEquals(grams(), Ngrams.ofValue(null));
+        assertArrayEquals(grams(), Ngrams.ofValue(42));
+        assertArrayEquals(grams(), Ngrams.ofValue("ab"));
+        assertArrayEquals(grams("aba", "bab"), Ngrams.ofValue("ABAbab"));
+        assertArrayEquals(grams("abc"), Ngrams.ofValue("abc😀"));
+    }
+
+    @Test
+    public void testCaseFolding() {
+        assertEquals(gram('s', 's', 'k'), gram('ſ', 'S', 'K'));
+    }
+
+    @Test
+    public void testEvaluate() {
+        for (int i = 0; i < 3000; i++) {
+            put(i, random.nextInt(30) == 0 ? null : randomString(random.nextInt(12)));
+        }
+        assertSameResults();
+
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextBoolean()) {
+                put(key, randomString(random.nextInt(12)));
+            } else {
+                remove(key);
+            }
+        }
+        assertSameResults();
+
+        store.clear();
+        values.clear();
+        assertSameResults();
+    }
+
+    private void assertSameResults() {
+        for (int i = 0; i < 200; i++) {
+            String like = randomPattern();
+            assertSameResults(new LikePredicate("this", like));
+            assertSameResults(new ILikePredicate("this", like));
+        }
+        for (String regex : new String[]{".*abc.*", ".*ABC.*", "a.*bc", "xyz", ".*x[yz]z.*", "(ab|bc)cab.*", ".*\\.ab.*",
+                "(?i).*abc.*", ".*ab+c.*", ".*ſKİ.*", ".*ı.*", ".*😀abc.*"}) {
+            assertSameResults(new RegexPredicate("this", regex));
+        }
+        assertSameResults(new LikePredicate("this", null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertSameResults(Predicate predicate) {
+        Set<Integer> expected = new HashSet<>();
+        for (Map.Entry<Integer, String> entry : values.entrySet()) {
+            if (predicate.apply(entry(entry.getKey(), entry.getValue()))) {
+                expected.add(entry.getKey());
+            }
+        }
+
+        Set<Integer> actual = new HashSet<>();
+        for (QueryableEntry entry : store.evaluate(predicate, TypeConverters.STRING_CONVERTER)) {
+            assertTrue(actual.add((Integer) entry.getKey()));
+        }
+        assertEquals(predicate.toString(), expected, actual);
+    }
+
+    private void put(int key, String value) {
+        boolean existed = values.containsKey(key);
+        String oldValue = values.put(key, value);
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        if (existed) {
+            store.update(oldValue, value, entry, entry, IndexOperationStats.EMPTY);
+        } else {
+            store.insert(value, entry, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    private void remove(int key) {
+        if (!values.containsKey(key)) {
+            return;
+        }
+        String value = values.remove(key);
+        store.remove(value, entry(key, value), IndexOperationStats.EMPTY);
+    }
+
+    private CachedQueryEntry<?, ?> entry(int key, Object value) {
+        Data keyData = serializationService.toData(key);
+        return new CachedQueryEntry<>(serializationService, keyData, value, extractors);
+    }
+
+    private String randomString(int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    private String randomPattern() {
+        String pattern = randomString(1 + random.nextInt(5));
+        if (random.nextBoolean()) {
+            pattern = "%" + pattern;
+        }
+        if (random.nextBoolean()) {
+            pattern = pattern + "%";
+        }
+        return pattern;
+    }
+
+    private static long[] grams(String... grams) {
+        long[] result = new long[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            result[i] = gram(grams[i].charAt(0), grams[i].charAt(1), grams[i].charAt(2));
+        }
+        Arrays.sort(result);
+        return result;
+    }
+}
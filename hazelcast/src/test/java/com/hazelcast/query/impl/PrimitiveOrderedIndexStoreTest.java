@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveOrderedIndexStoreTest {
+
+    private final Random random = new Random(42);
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private OrderedIndexStore expected;
+    private PrimitiveOrderedIndexStore actual;
+    private final Map<Integer, Object> values = new TreeMap<>();
+
+    @Before
+    public void before() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        expected = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+        actual = new PrimitiveOrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+    }
+
+    @Test
+    public void longs() {
+        for (int i = 0; i < 5000; i++) {
+            put(i, random.nextInt(10) == 0 ? null : (long) random.nextInt(1000) - 500);
+        }
+        assertSameQueryResults(-600L, -500L, -1L, 0L, 1L, 17L, 499L, 500L, 1.5, -0.0, 3.0, Double.NaN, 7, (short) 3);
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void longs_afterUpdatesAndRemovals() {
+        for (int i = 0; i < 5000; i++) {
+            put(i, (long) random.nextInt(2000));
+        }
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextBoolean()) {
+                put(key, (long) random.nextInt(2000));
+            } else {
+                remove(key);
+            }
+        }
+        // shrink the store to make the leaves merge
+        for (int key = 0; key < 5000; key++) {
+            if (key % 50 != 0) {
+                remove(key);
+            }
+        }
+        assertSameQueryResults(0L, 1L, 100L, 1000L, 1999L, 2000L, -1, 999.0);
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void integers() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, random.nextInt(100));
+        }
+        assertSameQueryResults(0, 50, 99, 100, 50L, 49.5, 50.0, Long.MAX_VALUE, Long.MIN_VALUE);
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void doubles() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, random.nextInt(20) == 0 ? Double.NaN : random.nextGaussian() * 10);
+        }
+        put(1000, -0.0);
+        put(1001, 0.0);
+        put(1002, Double.NEGATIVE_INFINITY);
+        put(1003, Double.POSITIVE_INFINITY);
+        put(1004, 5.0);
+        put(1005, null);
+        assertSameQueryResults(-0.0, 0.0, 0L, 5L, 5.0, 5.0f, 1.25, -7.5f, Double.NaN, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Long.MAX_VALUE, 1L << 60);
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void floats() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, (float) random.nextGaussian());
+        }
+        put(1000, 0.1f);
+        assertSameQueryResults(0.1f, 0.1, 0L, 1, -0.5f, Float.NaN);
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void dates() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, new Date(random.nextInt(100) * 1000L));
+        }
+        assertSameQueryResults(new Date(0), new Date(50000), new Date(50001), new Date(100000));
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void localDates() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, LocalDate.ofEpochDay(random.nextInt(100)));
+        }
+        assertSameQueryResults(LocalDate.ofEpochDay(0), LocalDate.ofEpochDay(42), LocalDate.ofEpochDay(100));
+        assertFalse(actual.isInflated());
+    }
+
+    @Test
+    public void mixedTypes_inflate() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, (long) random.nextInt(100));
+        }
+        put(1000, 50);
+        put(1001, null);
+        assertTrue(actual.isInflated());
+        assertSameQueryResults(0L, 50, 50L, 99.5);
+
+        remove(1000);
+        put(1002, 3.5);
+        assertSameQueryResults(0L, 3.5, 50L);
+    }
+
+    @Test
+    public void unsupportedType_inflates() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value-" + random.nextInt(10));
+        }
+        assertTrue(actual.isInflated());
+        assertSameQueryResults("value-0", "value-5", "value-9");
+    }
+
+    @Test
+    public void clear() {
+        put(0, "value");
+        assertTrue(actual.isInflated());
+
+        actual.clear();
+        expected.clear();
+        values.clear();
+        assertFalse(actual.isInflated());
+
+        for (int i = 0; i < 100; i++) {
+            put(i, (long) i);
+        }
+        assertFalse(actual.isInflated());
+        assertSameQueryResults(0L, 50L, 100L);
+    }
+
+    @Test
+    public void iteration_concurrentWithSplitsAndMerges() throws Exception {
+        // stable entries have even keys, the writer churns the odd ones
+        for (int i = 0; i < 4000; i += 2) {
+            put(i, (long) i);
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            Random writerRandom = new Random(7);
+            while (!stop.get()) {
+                int key = 2 * writerRandom.nextInt(2000) + 1;
+                CachedQueryEntry<?, ?> entry = entry(key, (long) key);
+                if (writerRandom.nextBoolean()) {
+                    actual.insert((long) key, entry, entry, IndexOperationStats.EMPTY);
+                } else {
+                    actual.remove((long) key, entry, IndexOperationStats.EMPTY);
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 200; round++) {
+                boolean descending = round % 2 == 1;
+                List<Long> stableValues = new ArrayList<>();
+                Iterator<QueryableEntry> iterator = actual.getSqlRecordIterator(descending);
+                long previous = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+                while (iterator.hasNext()) {
+                    long value = (Long) iterator.next().getAttributeValue("this");
+                    assertTrue(descending ? value < previous : value > previous);
+                    previous = value;
+                    if (value % 2 == 0) {
+                        stableValues.add(value);
+                    }
+                }
+                assertEquals(2000, stableValues.size());
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    private void put(int key, Object value) {
+        boolean existed = values.containsKey(key);
+        Object oldValue = values.put(key, value);
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        if (!existed) {
+            expected.insert(value, entry, entry, IndexOperationStats.EMPTY);
+            actual.insert(value, entry, entry, IndexOperationStats.EMPTY);
+        } else {
+            expected.update(oldValue, value, entry, entry, IndexOperationStats.EMPTY);
+            actual.update(oldValue, value, entry, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    private void remove(int key) {
+        if (!values.containsKey(key)) {
+            return;
+        }
+        Object value = values.remove(key);
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        expected.remove(value, entry, IndexOperationStats.EMPTY);
+        actual.remove(value, entry, IndexOperationStats.EMPTY);
+    }
+
+    private CachedQueryEntry<?, ?> entry(int key, Object value) {
+        return new CachedQueryEntry<>(serializationService, serializationService.toData(key), value, extractors);
+    }
+
+    private void assertSameQueryResults(Comparable... arguments) {
+        assertEquals(batches(expected.getSqlRecordIteratorBatch(false)), batches(actual.getSqlRecordIteratorBatch(false)));
+        assertEquals(batches(expected.getSqlRecordIteratorBatch(true)), batches(actual.getSqlRecordIteratorBatch(true)));
+        assertEquals(keys(expected.getSqlRecordIterator(true)), keys(actual.getSqlRecordIterator(true)));
+        assertEquals(keys(expected.getRecords(NULL)), keys(actual.getRecords(NULL)));
+
+        List<Comparable> bounds = new ArrayList<>(Arrays.asList(arguments));
+        bounds.add(NULL);
+        for (Comparable argument : arguments) {
+            Comparable value = expected.canonicalizeQueryArgumentScalar(argument);
+            assertEquals(keys(expected.getRecords(value)), keys(actual.getRecords(value)));
+            assertEquals(batches(expected.getSqlRecordIteratorBatch(value, true)),
+                    batches(actual.getSqlRecordIteratorBatch(value, true)));
+            for (Comparison comparison : Comparison.values()) {
+                assertEquals(keys(expected.getRecords(comparison, value)), keys(actual.getRecords(comparison, value)));
+                for (boolean descending : new boolean[]{false, true}) {
+                    assertEquals(batches(expected.getSqlRecordIteratorBatch(comparison, value, descending)),
+                            batches(actual.getSqlRecordIteratorBatch(comparison, value, descending)));
+                }
+            }
+            for (Comparable other : bounds) {
+                Comparable from = other == NULL ? NULL : expected.canonicalizeQueryArgumentScalar(other);
+                assertSameRangeResults(from, value);
+                assertSameRangeResults(value, POSITIVE_INFINITY);
+            }
+        }
+        Set<Comparable> in = new HashSet<>();
+        for (Comparable argument : arguments) {
+            in.add(expected.canonicalizeQueryArgumentScalar(argument));
+        }
+        assertEquals(keys(expected.getRecords(in)), keys(actual.getRecords(in)));
+    }
+
+    private void assertSameRangeResults(Comparable from, Comparable to) {
+        for (int flags = 0; flags < 8; flags++) {
+            boolean fromInclusive = (flags & 1) != 0;
+            boolean toInclusive = (flags & 2) != 0;
+            boolean descending = (flags & 4) != 0;
+            assertEquals(keys(expected.getRecords(from, fromInclusive, to, toInclusive)),
+                    keys(actual.getRecords(from, fromInclusive, to, toInclusive)));
+            assertEquals(batches(expected.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending)),
+                    batches(actual.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending)));
+        }
+    }
+
+    private static Set<Data> keys(Set<QueryableEntry> records) {
+        Set<Data> keys = new HashSet<>();
+        for (QueryableEntry record : records) {
+            assertTrue(keys.add(record.getKeyData()));
+        }
+        return keys;
+    }
+
+    private static List<Data> keys(Iterator<QueryableEntry> iterator) {
+        List<Data> keys = new ArrayList<>();
+        iterator.forEachRemaining(record -> keys.add(record.getKeyData()));
+        return keys;
+    }
+
+    private static List<Object> batches(Iterator<IndexKeyEntries> iterator) {
+        List<Object> batches = new ArrayList<>();
+        iterator.forEachRemaining(batch -> {
+            batches.add(batch.getIndexKey());
+            batches.add(keys(batch.getEntries()));
+        });
+        return batches;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StripedIndexStoreTest {
+
+    private static final int PARTITION_COUNT = 271;
+    private static final int STRIPE_COUNT = 4;
+
+    private final Random random = new Random(42);
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private final Map<Integer, Object> values = new TreeMap<>();
+
+    @Before
+    public void before() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+    }
+
+    @Test
+    public void sorted_sameResultsAsSingleStore() {
+        OrderedIndexStore expected = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+        StripedIndexStore actual = new StripedIndexStore(STRIPE_COUNT, PARTITION_COUNT, true,
+                () -> new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ));
+        fill(expected, actual);
+
+        assertEquals(batches(expected.getSqlRecordIteratorBatch(false)), batches(actual.getSqlRecordIteratorBatch(false)));
+        assertEquals(batches(expected.getSqlRecordIteratorBatch(true)), batches(actual.getSqlRecordIteratorBatch(true)));
+        assertEquals(keys(expected.getSqlRecordIterator(false)), keys(actual.getSqlRecordIterator(false)));
+        assertEquals(keys(expected.getSqlRecordIterator(true)), keys(actual.getSqlRecordIterator(true)));
+        for (long value = -1; value <= 100; value += 7) {
+            assertEquals(keys(expected.getRecords(value)), keys(actual.getRecords(value)));
+            assertEquals(keys(expected.getSqlRecordIterator(value)), keys(actual.getSqlRecordIterator(value)));
+            for (Comparison comparison : Comparison.values()) {
+                assertEquals(keys(expected.getRecords(comparison, value)), keys(actual.getRecords(comparison, value)));
+                for (boolean descending : new boolean[]{false, true}) {
+                    assertEquals(batches(expected.getSqlRecordIteratorBatch(comparison, value, descending)),
+                            batches(actual.getSqlRecordIteratorBatch(comparison, value, descending)));
+                }
+            }
+            assertEquals(keys(expected.getRecords(value, true, value + 20, false)),
+                    keys(actual.getRecords(value, true, value + 20, false)));
+            assertEquals(batches(expected.getSqlRecordIteratorBatch(value, false, value + 20, true, true)),
+                    batches(actual.getSqlRecordIteratorBatch(value, false, value + 20, true, true)));
+        }
+        assertEquals(keys(expected.getRecords(NULL)), keys(actual.getRecords(NULL)));
+
+        IndexedValues expectedValues = expected.getIndexedValues();
+        IndexedValues actualValues = actual.getIndexedValues();
+        assertTrue(actualValues.isOrdered());
+        assertFalse(actualValues.isMultiValued());
+        assertEquals(expectedValues.getEntryCount(), actualValues.getEntryCount());
+        assertEquals(expectedValues.getMinValue(), actualValues.getMinValue());
+        assertEquals(expectedValues.getMaxValue(), actualValues.getMaxValue());
+        assertEquals(distinct(expectedValues.getDistinctValues()), distinct(actualValues.getDistinctValues()));
+    }
+
+    @Test
+    public void hash_sameResultsAsSingleStore() {
+        UnorderedIndexStore expected = new UnorderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+        StripedIndexStore actual = new StripedIndexStore(STRIPE_COUNT, PARTITION_COUNT, false,
+                () -> new UnorderedIndexStore(IndexCopyBehavior.COPY_ON_READ));
+        fill(expected, actual);
+
+        assertEquals(new HashSet<>(keys(expected.getSqlRecordIterator(false))),
+                new HashSet<>(keys(actual.getSqlRecordIterator(false))));
+        Set<Comparable> in = new HashSet<>();
+        for (long value = -1; value <= 100; value += 7) {
+            in.add(value);
+            assertEquals(keys(expected.getRecords(value)), keys(actual.getRecords(value)));
+            assertEquals(new HashSet<>(keys(expected.getSqlRecordIterator(value))),
+                    new HashSet<>(keys(actual.getSqlRecordIterator(value))));
+            assertEquals(keys(expected.getRecords(Comparison.GREATER, value)),
+                    keys(actual.getRecords(Comparison.GREATER, value)));
+        }
+        assertEquals(keys(expected.getRecords(in)), keys(actual.getRecords(in)));
+        assertEquals(expected.getIndexedValues().getEntryCount(), actual.getIndexedValues().getEntryCount());
+        assertFalse(actual.getIndexedValues().isOrdered());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void hash_orderedIterationNotSupported() {
+        StripedIndexStore store = new StripedIndexStore(STRIPE_COUNT, PARTITION_COUNT, false,
+                () -> new UnorderedIndexStore(IndexCopyBehavior.COPY_ON_READ));
+        store.getSqlRecordIteratorBatch(false);
+    }
+
+    @Test
+    public void clear() {
+        OrderedIndexStore expected = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+        StripedIndexStore actual = new StripedIndexStore(STRIPE_COUNT, PARTITION_COUNT, true,
+                () -> new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ));
+        fill(expected, actual);
+
+        actual.clear();
+        assertFalse(actual.getSqlRecordIterator(false).hasNext());
+        assertEquals(0, actual.getIndexedValues().getEntryCount());
+    }
+
+    private void fill(IndexStore expected, IndexStore actual) {
+        for (int i = 0; i < 2000; i++) {
+            put(expected, actual, i, random.nextInt(10) == 0 ? null : (long) random.nextInt(100));
+        }
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                put(expected, actual, key, (long) random.nextInt(100));
+            } else {
+                remove(expected, actual, key);
+            }
+        }
+    }
+
+    private void put(IndexStore expected, IndexStore actual, int key, Object value) {
+        boolean existed = values.containsKey(key);
+        Object oldValue = values.put(key, value);
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        if (!existed) {
+            expected.insert(value, entry, entry, IndexOperationStats.EMPTY);
+            actual.insert(value, entry, entry, IndexOperationStats.EMPTY);
+        } else {
+            expected.update(oldValue, value, entry, entry, IndexOperationStats.EMPTY);
+            actual.update(oldValue, value, entry, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    private void remove(IndexStore expected, IndexStore actual, int key) {
+        if (!values.containsKey(key)) {
+            return;
+        }
+        Object value = values.remove(key);
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        expected.remove(value, entry, IndexOperationStats.EMPTY);
+        actual.remove(value, entry, IndexOperationStats.EMPTY);
+    }
+
+    private CachedQueryEntry<?, ?> entry(int key, Object value) {
+        return new CachedQueryEntry<>(serializationService, serializationService.toData(key), value, extractors);
+    }
+
+    private static Set<Data> keys(Set<QueryableEntry> records) {
+        Set<Data> keys = new HashSet<>();
+        for (QueryableEntry record : records) {
+            assertTrue(keys.add(record.getKeyData()));
+        }
+        assertEquals(records.size(), keys.size());
+        return keys;
+    }
+
+    private static List<Data> keys(Iterator<QueryableEntry> iterator) {
+        List<Data> keys = new ArrayList<>();
+        iterator.forEachRemaining(record -> keys.add(record.getKeyData()));
+        return keys;
+    }
+
+    private static List<Object> batches(Iterator<IndexKeyEntries> iterator) {
+        List<Object> batches = new ArrayList<>();
+        iterator.forEachRemaining(batch -> {
+            batches.add(batch.getIndexKey());
+            batches.add(keys(batch.getEntries()));
+        });
+        return batches;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static List<Comparable> distinct(Iterator<Comparable> iterator) {
+        List<Comparable> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        return values;
+    }
+}
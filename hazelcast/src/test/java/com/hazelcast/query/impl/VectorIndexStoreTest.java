@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.VectorSimilarityPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class VectorIndexStoreTest {
+
+    private static final int DIMENSION = 16;
+    private static final int K = 10;
+
+    private final Random random = new Random(42);
+    private final Map<Integer, float[]> vectors = new HashMap<>();
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private VectorIndexStore store;
+
+    @Before
+    public void before() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        store = new VectorIndexStore();
+    }
+
+    @Test
+    public void evaluate_findsNearestNeighbors() {
+        for (int i = 0; i < 5000; i++) {
+            put(i, randomVector());
+        }
+
+        int found = 0;
+        int queries = 50;
+        for (int i = 0; i < queries; i++) {
+            float[] query = randomVector();
+            Set<Integer> result = evaluate(query, K);
+            for (Integer key : exactNearest(query, K)) {
+                if (result.contains(key)) {
+                    found++;
+                }
+            }
+        }
+        double recall = (double) found / (queries * K);
+        assertTrue("recall: " + recall, recall >= 0.9);
+    }
+
+    @Test
+    public void evaluate_empty() {
+        assertTrue(evaluate(randomVector(), K).isEmpty());
+    }
+
+    @Test
+    public void evaluate_smallerThanSearchWidth_returnsEverything() {
+        for (int i = 0; i < VectorIndexStore.EF_SEARCH; i++) {
+            put(i, randomVector());
+        }
+
+        assertEquals(vectors.keySet(), evaluate(randomVector(), 1));
+    }
+
+    @Test
+    public void updateAndRemove_areVisible() {
+        for (int i = 0; i < 100; i++) {
+            put(i, randomVector());
+        }
+        float[] query = randomVector();
+        put(1000, query);
+        assertTrue(evaluate(query, 1).contains(1000));
+
+        put(1000, negate(query));
+        assertFalse(evaluate(query, 1).contains(1000));
+
+        int deletedCount = store.getDeletedCount();
+        remove(1000);
+        assertFalse(evaluate(query, 200).contains(1000));
+        assertEquals(deletedCount + 1, store.getDeletedCount());
+
+        put(1001, null);
+        assertFalse(evaluate(query, 200).contains(1001));
+    }
+
+    @Test
+    public void remove_rebuildsGraph() {
+        for (int i = 0; i < 2100; i++) {
+            put(i, randomVector());
+        }
+        for (int i = 0; i < 2000; i++) {
+            remove(i);
+        }
+
+        assertTrue(store.getDeletedCount() < 1000);
+        Set<Integer> result = evaluate(randomVector(), K);
+        assertFalse(result.isEmpty());
+        assertTrue(vectors.keySet().containsAll(result));
+    }
+
+    @Test
+    public void otherDimensions_searchedExhaustively() {
+        for (int i = 0; i < 10; i++) {
+            put(i, randomVector());
+        }
+        put(100, new float[]{1f, 0f});
+        put(101, new float[]{0f, 1f});
+
+        assertEquals(Set.of(100, 101), evaluate(new float[]{1f, 1f}, 1));
+
+        remove(101);
+        assertEquals(Set.of(100), evaluate(new float[]{1f, 1f}, 1));
+    }
+
+    @Test
+    public void clear() {
+        for (int i = 0; i < 100; i++) {
+            put(i, randomVector());
+        }
+
+        store.clear();
+        assertTrue(evaluate(randomVector(), K).isEmpty());
+        assertEquals(0, store.getDeletedCount());
+
+        // the dimension is reset as well
+        put(0, new float[]{1f, 0f});
+        assertEquals(Set.of(0), evaluate(new float[]{1f, 0f}, 1));
+    }
+
+    @Test
+    public void canEvaluate_onlySimilarityPredicate() {
+        assertTrue(store.canEvaluate(VectorSimilarityPredicate.class));
+        assertFalse(store.canEvaluate(EqualPredicate.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getRecords_notSupported() {
+        store.getRecords(1);
+    }
+
+    private Set<Integer> evaluate(float[] query, int k) {
+        Set<QueryableEntry> records = store.evaluate(new VectorSimilarityPredicate("this", query, k), null);
+        Set<Data> keys = new HashSet<>();
+        for (QueryableEntry record : records) {
+            assertTrue(keys.add(record.getKeyData()));
+        }
+        return keys.stream().map(key -> (Integer) serializationService.toObject(key)).collect(toSet());
+    }
+
+    private Set<Integer> exactNearest(float[] query, int k) {
+        return vectors.entrySet().stream()
+                .sorted(Comparator.comparingDouble(entry -> -Vectors.cosineSimilarity(query, entry.getValue())))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .collect(toSet());
+    }
+
+    private void put(int key, float[] vector) {
+        boolean existed = vectors.containsKey(key);
+        float[] oldVector = vector == null ? vectors.remove(key) : vectors.put(key, vector);
+        CachedQueryEntry<?, ?> entry = entry(key, vector);
+        if (existed) {
+            store.update(oldVector, vector, entry, entry, IndexOperationStats.EMPTY);
+        } else {
+            store.insert(vector, entry, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    private void remove(int key) {
+        float[] vector = vectors.remove(key);
+        CachedQueryEntry<?, ?> entry = entry(key, vector);
+        store.remove(vector, entry, IndexOperationStats.EMPTY);
+    }
+
+    private CachedQueryEntry<?, ?> entry(int key, float[] vector) {
+        return new CachedQueryEntry<>(serializationService, serializationService.toData(key), vector, extractors);
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static float[] negate(float[] vector) {
+        float[] negated = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            negated[i] = -vector[i];
+        }
+        return negated;
+    }
+}
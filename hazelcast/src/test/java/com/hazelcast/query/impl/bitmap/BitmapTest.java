@@ -16,10 +16,12 @@
 
 package com.hazelcast.query.impl.bitmap;
 
+import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.monitor.impl.GlobalIndexOperationStats;
 import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.predicates.EvaluatePredicate;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -28,8 +30,10 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -42,6 +46,7 @@ import static com.hazelcast.query.Predicates.or;
 import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -145,6 +150,51 @@ public class BitmapTest {
         clear();
     }
 
+    @Test
+    public void testMemoryCost() {
+        for (long i = 0; i < COUNT; ++i) {
+            insert(i, i);
+        }
+        assertTrue(operationStats.getMemoryCostDelta() > 0);
+
+        for (long i = 0; i < COUNT; ++i) {
+            update(i, i, i + 1);
+        }
+        assertTrue(operationStats.getMemoryCostDelta() > 0);
+
+        for (long i = 0; i < COUNT; ++i) {
+            remove(i, i + 1);
+        }
+        assertEquals(0, operationStats.getMemoryCostDelta());
+    }
+
+    @Test
+    public void testMultiBitmapEvaluate() {
+        Bitmap<String> other = new Bitmap<>();
+        for (long i = 0; i < COUNT; ++i) {
+            insert(i, i);
+            other.insert(values(i * 3), i, Long.toString(i), operationStats);
+        }
+
+        Map<String, Bitmap<String>> bitmaps = new HashMap<>();
+        bitmaps.put("a", bitmap);
+        bitmaps.put("b", other);
+        Map<String, TypeConverter> converters = new HashMap<>();
+        converters.put("a", INTEGER_CONVERTER);
+        converters.put("b", INTEGER_CONVERTER);
+
+        Predicate a1 = new EvaluatePredicate(equal("a", 1), "a");
+        Predicate a2 = new EvaluatePredicate(or(equal("a", 2), equal("a", 3)), "a");
+        Predicate b1 = new EvaluatePredicate(equal("b", 1), "b");
+        Predicate b4 = new EvaluatePredicate(not(equal("b", 4)), "b");
+
+        verify(Bitmap.evaluate(and(a1, b1), bitmaps, converters), key -> bit(1, key) && bit(1, key * 3));
+        verify(Bitmap.evaluate(or(a1, b1), bitmaps, converters), key -> bit(1, key) || bit(1, key * 3));
+        verify(Bitmap.evaluate(not(and(a1, b1)), bitmaps, converters), key -> !(bit(1, key) && bit(1, key * 3)));
+        verify(Bitmap.evaluate(and(a2, or(b1, not(b4))), bitmaps, converters),
+                key -> (bit(2, key) || bit(3, key)) && (bit(1, key * 3) || bit(4, key * 3)));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUnexpectedPredicate() {
         bitmap.evaluate(Predicates.like("a", "b"), INTEGER_CONVERTER);
@@ -188,6 +238,14 @@ public class BitmapTest {
         }
     }
 
+    private static void verify(Iterator<String> actualResult, LongPredicate predicate) {
+        ExpectedQuery expectedQuery = new ExpectedQuery(predicate);
+        for (long i = 0; i < COUNT; ++i) {
+            expectedQuery.insert(i, i);
+        }
+        expectedQuery.verify(actualResult);
+    }
+
     private static Iterator<Integer> values(long key) {
         List<Integer> values = new ArrayList<>(Long.SIZE);
         for (int i = 0; i < Long.SIZE; ++i) {
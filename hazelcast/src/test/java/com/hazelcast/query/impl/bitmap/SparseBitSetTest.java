@@ -31,6 +31,7 @@ import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_MAX_
 import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_32_MAX_SIZE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -395,6 +396,93 @@ public class SparseBitSetTest {
         }
     }
 
+    @Test
+    public void testRunStorage16SplitsAndMerges() {
+        // a single long run
+        for (long i = 100; i < 100 + ARRAY_STORAGE_16_MAX_SIZE * 2; ++i) {
+            set(i);
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        // split the run into many smaller ones
+        for (long i = 105; i < 100 + ARRAY_STORAGE_16_MAX_SIZE * 2; i += 7) {
+            clear(i);
+            verify();
+        }
+        verifyAdvanceAtLeastTo();
+
+        // merge them back
+        for (long i = 105; i < 100 + ARRAY_STORAGE_16_MAX_SIZE * 2; i += 7) {
+            set(i);
+            verify();
+        }
+        verifyAdvanceAtLeastTo();
+
+        // shrink the run from both ends
+        for (long i = 0; i < ARRAY_STORAGE_16_MAX_SIZE; ++i) {
+            clear(100 + i);
+            clear(100 + ARRAY_STORAGE_16_MAX_SIZE * 2 - 1 - i);
+            verify();
+        }
+        verifyAdvanceAtLeastTo();
+    }
+
+    @Test
+    public void testRunStorage16Switching() {
+        long prefix = ((long) Short.MAX_VALUE * 2 + 1);
+
+        // alternating members produce as many runs as there are members
+        // forcing the conversions between all the storage flavors
+        for (long i = 0; i < prefix; i += 2) {
+            set(i);
+        }
+        verify();
+        for (long i = 1; i < prefix; i += 2) {
+            set(i);
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        for (long i = 0; i < prefix; i += 2) {
+            clear(i);
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        for (long i = 1; i < prefix; i += 4) {
+            clear(i);
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+    }
+
+    @Test
+    public void testMemoryCost() {
+        long emptyCost = actual.getMemoryCost();
+
+        for (long i = 0; i < ARRAY_STORAGE_32_MAX_SIZE * 4; ++i) {
+            set(i);
+        }
+        long runsCost = actual.getMemoryCost();
+
+        for (long i = 0; i < ARRAY_STORAGE_32_MAX_SIZE * 4; ++i) {
+            clear(i);
+        }
+        assertEquals(emptyCost, actual.getMemoryCost());
+
+        for (long i = 0; i < ARRAY_STORAGE_32_MAX_SIZE * 8; i += 2) {
+            set(i);
+        }
+        // runs of a single member are more expensive than a long run
+        assertTrue(actual.getMemoryCost() > runsCost);
+
+        for (long i = 0; i < ARRAY_STORAGE_32_MAX_SIZE * 8; i += 2) {
+            clear(i);
+        }
+        assertEquals(emptyCost, actual.getMemoryCost());
+    }
+
     private void verify() {
         AscendingLongIterator iterator = actual.iterator();
         verify(iterator, expected);
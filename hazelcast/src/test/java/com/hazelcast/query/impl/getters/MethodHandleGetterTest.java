@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MethodHandleGetterTest {
+
+    @Test
+    public void testFieldAndMethodChain() throws Exception {
+        Field limbField = Body.class.getDeclaredField("limb");
+        limbField.setAccessible(true);
+        Method nameMethod = Limb.class.getMethod("getName");
+        Getter getter = new MethodGetter(new FieldGetter(null, limbField, null, null), nameMethod, null, null);
+
+        MethodHandleGetter compiled = MethodHandleGetter.compile(getter);
+        assertNotNull(compiled);
+        assertEquals(String.class, compiled.getReturnType());
+        assertEquals("hand", compiled.getValue(new Body(new Limb("hand"))));
+        assertNull(compiled.getValue(new Body(null)));
+        assertNull(compiled.getValue(null));
+    }
+
+    @Test
+    public void testOptionalIsUnwrapped() throws Exception {
+        Method nicknameMethod = Limb.class.getMethod("getNickname");
+        MethodHandleGetter compiled = MethodHandleGetter.compile(new MethodGetter(null, nicknameMethod, null, null));
+
+        assertNotNull(compiled);
+        assertEquals("hand", compiled.getValue(new Limb("hand")));
+        assertNull(compiled.getValue(new Limb(null)));
+    }
+
+    @Test
+    public void testGettersWithModifiersAreNotCompiled() throws Exception {
+        Field limbsField = Body.class.getDeclaredField("limbs");
+        limbsField.setAccessible(true);
+        Getter getter = new FieldGetter(null, limbsField, "[any]", Limb.class);
+
+        assertNull(MethodHandleGetter.compile(getter));
+        assertNull(MethodHandleGetter.compile(new MethodGetter(getter, Limb.class.getMethod("getName"), null, null)));
+    }
+
+    @Test
+    public void testGenericGettersAreNotCompiled() {
+        assertNull(MethodHandleGetter.compile(new ThisGetter(null, new Object())));
+        assertNull(MethodHandleGetter.compile(NullGetter.NULL_GETTER));
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Body {
+
+        private final Limb limb;
+        private final Limb[] limbs;
+
+        Body(Limb limb) {
+            this.limb = limb;
+            this.limbs = new Limb[]{limb};
+        }
+
+    }
+
+    public static final class Limb {
+
+        private final String name;
+
+        Limb(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Optional<String> getNickname() {
+            return Optional.ofNullable(name);
+        }
+
+    }
+
+}
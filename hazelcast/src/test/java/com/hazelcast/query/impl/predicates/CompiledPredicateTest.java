@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.hazelcast.instance.impl.TestUtil.toData;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompiledPredicateTest {
+
+    private static final int COUNT = 100;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(serializationService).build();
+
+    @Test
+    public void testCompiledPredicateMatchesInterpreter() {
+        assertMatchesInterpreter(Predicates.sql("name = 'name-1' or age > 90"), true);
+        assertMatchesInterpreter(Predicates.sql("age between 10 and 20 and not (address.city = 'city-3')"), true);
+        assertMatchesInterpreter(Predicates.sql("name in ('name-1', 'name-2', 'name-42') or name like 'name-9%'"), true);
+        assertMatchesInterpreter(Predicates.sql("__key.age != 7 and address.city ilike 'CITY-1'"), true);
+        assertMatchesInterpreter(Predicates.sql("__key.name regex 'name-[0-4]' or optionalNickname = 'name-5'"), true);
+        assertMatchesInterpreter(Predicates.and(Predicates.alwaysTrue(), Predicates.notEqual("age", "5")), true);
+    }
+
+    @Test
+    public void testUnsupportedNodesAreInterpreted() {
+        Predicate<Object, Person> custom = entry -> entry.getValue().age % 2 == 0;
+        assertMatchesInterpreter(Predicates.and(Predicates.greaterThan("age", 50), custom), false);
+        assertMatchesInterpreter(Predicates.sql("limbs[any] = 'name-3'"), true);
+    }
+
+    @Test
+    public void testCompiledPredicatesAreCached() {
+        CompiledPredicateCache cache = new CompiledPredicateCache(extractors);
+
+        CompiledPredicate compiled = cache.getOrCompile(Predicates.sql("age > 10"));
+        assertSame(compiled, cache.getOrCompile(Predicates.sql("age > 10")));
+        assertSame(compiled, cache.getOrCompile(compiled));
+        assertNotSame(compiled, cache.getOrCompile(Predicates.sql("age > 11")));
+        assertEquals(2, cache.size());
+
+        for (int i = 0; i < CompiledPredicateCache.MAX_PREDICATES_IN_CACHE * 2; ++i) {
+            cache.getOrCompile(Predicates.equal("age", i));
+        }
+        assertTrue(cache.size() <= CompiledPredicateCache.MAX_PREDICATES_IN_CACHE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertMatchesInterpreter(Predicate predicate, boolean fullyCompiled) {
+        CompiledPredicate compiled = CompiledPredicate.compile(predicate, extractors);
+        assertEquals(fullyCompiled, compiled.isFullyCompiled());
+
+        int matched = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            Person person = new Person(i);
+            Map.Entry entry = new QueryEntry(serializationService, toData(person), person, extractors);
+            boolean expected = predicate.apply(entry);
+            assertEquals(predicate + " on " + i, expected, compiled.apply(entry));
+            matched += expected ? 1 : 0;
+        }
+        assertFalse(predicate + " matches nothing", matched == 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Person implements Serializable {
+
+        private final String name;
+        private final int age;
+        private final Address address;
+        private final String[] limbs;
+
+        Person(int id) {
+            this.name = "name-" + id;
+            this.age = id;
+            this.address = id % 10 == 0 ? null : new Address("city-" + id % 5);
+            this.limbs = new String[]{"name-" + id % 4, "name-" + id % 7};
+        }
+
+        public Optional<String> getOptionalNickname() {
+            return Optional.ofNullable(age % 3 == 0 ? null : name);
+        }
+
+    }
+
+    private static final class Address implements Serializable {
+
+        private final String city;
+
+        Address(String city) {
+            this.city = city;
+        }
+
+    }
+
+}
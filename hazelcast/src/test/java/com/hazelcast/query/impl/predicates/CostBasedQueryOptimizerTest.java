@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexRegistry;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
+import com.hazelcast.query.impl.TypeConverters;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.query.impl.IndexRegistry.SKIP_PARTITIONS_COUNT_CHECK;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CostBasedQueryOptimizerTest {
+
+    private static final int COUNT = 10000;
+
+    private final CostBasedQueryOptimizer optimizer = new CostBasedQueryOptimizer();
+    private IndexRegistry indexes;
+
+    @Before
+    public void before() {
+        indexes = mock(IndexRegistry.class);
+        when(indexes.getCompositeIndexes()).thenReturn(new InternalIndex[0]);
+
+        // "status" is a low-cardinality attribute: 9 of 10 entries are active
+        IndexStatistics status = new IndexStatistics(false);
+        for (int i = 0; i < COUNT; ++i) {
+            status.onInsert(i % 10 == 0 ? "inactive" : "active");
+        }
+        mockIndex("status", status);
+
+        // "age" is a uniformly distributed attribute in [0, 100)
+        IndexStatistics age = new IndexStatistics(true);
+        for (int i = 0; i < COUNT; ++i) {
+            age.onInsert(i % 100);
+        }
+        mockIndex("age", age);
+
+        // "unknown" has no statistics
+        InternalIndex unknown = mock(InternalIndex.class);
+        when(unknown.getConverter()).thenReturn(TypeConverters.STRING_CONVERTER);
+        when(indexes.matchIndex(eq("unknown"), any(IndexMatchHint.class), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .thenReturn(unknown);
+    }
+
+    @Test
+    public void testMostSelectiveIndexDrives() {
+        Predicate status = equal("status", "active");
+        Predicate age = greaterThan("age", 94);
+        Predicate name = like("name", "J%");
+
+        CostBasedAndPredicate plan = (CostBasedAndPredicate) optimizer.optimize(and(status, age, name), indexes);
+        assertSame(age, plan.getDriver());
+        assertTrue(plan.getDriverEstimate() > 0 && plan.getDriverEstimate() < COUNT / 10);
+        assertEquals(asList(status, name), plan.getResiduals());
+        assertTrue(plan.toString(), plan.toString().contains("[index scan, est. " + plan.getDriverEstimate() + "]"));
+
+        Predicate halfAges = greaterThan("age", 49);
+        plan = (CostBasedAndPredicate) optimizer.optimize(and(name, halfAges, equal("status", "inactive")), indexes);
+        assertEquals(equal("status", "inactive"), plan.getDriver());
+        assertEquals(COUNT / 10, plan.getDriverEstimate());
+        assertEquals(asList(halfAges, name), plan.getResiduals());
+    }
+
+    @Test
+    public void testInAndOrEstimations() {
+        Predicate statuses = in("status", "inactive", "absent");
+        Predicate ages = or(equal("age", 1), equal("age", 2));
+
+        CostBasedAndPredicate plan = (CostBasedAndPredicate) optimizer.optimize(and(ages, statuses), indexes);
+        assertSame(ages, plan.getDriver());
+        assertTrue(plan.getDriverEstimate() >= 2 * COUNT / 100 && plan.getDriverEstimate() < COUNT / 10);
+        assertEquals(asList(statuses), plan.getResiduals());
+    }
+
+    @Test
+    public void testSingleIndexedPredicateIsLeftIntact() {
+        Predicate predicate = and(equal("status", "active"), like("name", "J%"));
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    @Test
+    public void testUnknownSelectivityIsLeftIntact() {
+        Predicate predicate = and(equal("status", "active"), greaterThan("age", 94), equal("unknown", "x"));
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    @Test
+    public void testNestedConjunctionsArePlanned() {
+        Predicate predicate = or(and(equal("status", "active"), equal("age", 1)), like("name", "J%"));
+
+        OrPredicate optimized = (OrPredicate) optimizer.optimize(predicate, indexes);
+        CostBasedAndPredicate plan = (CostBasedAndPredicate) optimized.getPredicates()[0];
+        assertEquals(equal("age", 1), plan.getDriver());
+    }
+
+    private void mockIndex(String attribute, IndexStatistics statistics) {
+        InternalIndex index = mock(InternalIndex.class);
+        when(index.getName()).thenReturn(attribute);
+        when(index.getConverter()).thenReturn(statistics.isOrdered() ? TypeConverters.INTEGER_CONVERTER
+                : TypeConverters.STRING_CONVERTER);
+        when(index.getStatistics()).thenReturn(statistics);
+        when(indexes.matchIndex(eq(attribute), any(IndexMatchHint.class), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .thenReturn(index);
+    }
+
+}
@@ -16,6 +16,9 @@
 
 package com.hazelcast.query.impl.predicates;
 
+import com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.IndexRegistry;
 import com.hazelcast.query.impl.InternalIndex;
@@ -39,11 +42,13 @@ import java.util.Set;
 import static com.hazelcast.query.Predicates.alwaysFalse;
 import static com.hazelcast.query.Predicates.and;
 import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.ilike;
 import static com.hazelcast.query.Predicates.in;
 import static com.hazelcast.query.Predicates.like;
 import static com.hazelcast.query.Predicates.not;
 import static com.hazelcast.query.Predicates.notEqual;
 import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.query.Predicates.regex;
 import static com.hazelcast.query.impl.IndexRegistry.SKIP_PARTITIONS_COUNT_CHECK;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertSame;
@@ -58,6 +63,7 @@ import static org.mockito.Mockito.when;
 public class EvaluateVisitorTest {
 
     private static final Set<Class<? extends Predicate>> EVALUABLE_PREDICATES = new HashSet<>();
+    private static final Set<Class<? extends Predicate>> TEXT_PREDICATES = new HashSet<>();
 
     static {
         EVALUABLE_PREDICATES.add(AndPredicate.class);
@@ -67,6 +73,10 @@ public class EvaluateVisitorTest {
         EVALUABLE_PREDICATES.add(EqualPredicate.class);
         EVALUABLE_PREDICATES.add(NotEqualPredicate.class);
         EVALUABLE_PREDICATES.add(InPredicate.class);
+
+        TEXT_PREDICATES.add(LikePredicate.class);
+        TEXT_PREDICATES.add(ILikePredicate.class);
+        TEXT_PREDICATES.add(RegexPredicate.class);
     }
 
     private EvaluateVisitor visitor = new EvaluateVisitor();
@@ -129,6 +139,26 @@ public class EvaluateVisitorTest {
                     }
                 });
 
+        InternalIndex ngramT = mock(InternalIndex.class);
+        when(ngramT.getName()).thenReturn("t");
+        when(ngramT.getConverter()).thenReturn(TypeConverters.STRING_CONVERTER);
+        when(indexes.matchIndex(eq("t"), any(), eq(IndexMatchHint.PREFER_UNORDERED), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .then((Answer<InternalIndex>) invocation ->
+                        TEXT_PREDICATES.contains(invocation.getArgument(1)) ? ngramT : null);
+
+        InternalIndex sortedT = mock(InternalIndex.class);
+        when(sortedT.isOrdered()).thenReturn(true);
+        when(indexes.matchIndex(eq("st"), any(), eq(IndexMatchHint.PREFER_UNORDERED), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .then((Answer<InternalIndex>) invocation ->
+                        TEXT_PREDICATES.contains(invocation.getArgument(1)) ? ngramT : null);
+        when(indexes.matchIndex(eq("st"), eq(IndexMatchHint.PREFER_ORDERED), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .thenReturn(sortedT);
+
+        mockBitmapIndex("x", UniqueKeyTransformation.RAW);
+        mockBitmapIndex("y", UniqueKeyTransformation.RAW);
+        mockBitmapIndex("z", UniqueKeyTransformation.RAW);
+        mockBitmapIndex("o", UniqueKeyTransformation.OBJECT);
+
         visitor = new EvaluateVisitor();
     }
 
@@ -194,6 +224,66 @@ public class EvaluateVisitorTest {
                 and(or(eval(equal("a", 1), "a"), eval(equal("b", 2), "b")), eval(and(equal("a", 3), equal("a", 4)), "a")));
     }
 
+    @Test
+    public void testTextPredicates() {
+        assertNoOptimization(like("r", "%abc%"));
+        assertNoOptimization(regex("a", ".*abc.*"));
+
+        assertOptimization(like("t", "%abc%"), eval(like("t", "%abc%"), "t"));
+        assertOptimization(like("t", "abc%"), eval(like("t", "abc%"), "t"));
+        assertOptimization(ilike("t", "abc%"), eval(ilike("t", "abc%"), "t"));
+        assertOptimization(regex("t", ".*abc.*"), eval(regex("t", ".*abc.*"), "t"));
+        assertOptimization(and(like("t", "%abc%"), equal("a", 1)),
+                and(eval(like("t", "%abc%"), "t"), eval(equal("a", 1), "a")));
+
+        // prefix queries are left for the sorted index
+        assertNoOptimization(like("st", "abc%"));
+        assertOptimization(like("st", "%abc%"), eval(like("st", "%abc%"), "st"));
+        assertOptimization(ilike("st", "abc%"), eval(ilike("st", "abc%"), "st"));
+    }
+
+    @Test
+    public void testBitmapAlgebraPredicates() {
+        // remapped unique keys can't be shared among the indexes
+        assertBitmapAlgebra(and(equal("x", 1), equal("o", 2)), and(eval(equal("x", 1), "x"), eval(equal("o", 2), "o")));
+        assertBitmapAlgebra(or(equal("x", 1), equal("a", 2)), or(eval(equal("x", 1), "x"), eval(equal("a", 2), "a")));
+
+        assertBitmapAlgebra(and(equal("x", 1), equal("y", 2)),
+                new BitmapAlgebraPredicate(and(eval(equal("x", 1), "x"), eval(equal("y", 2), "y"))));
+        assertBitmapAlgebra(or(equal("x", 1), notEqual("y", 2)),
+                new BitmapAlgebraPredicate(or(eval(equal("x", 1), "x"), eval(notEqual("y", 2), "y"))));
+        assertBitmapAlgebra(and(equal("x", 1), equal("x", 2), equal("y", 3), equal("o", 4)),
+                and(eval(equal("o", 4), "o"), new BitmapAlgebraPredicate(
+                        and(eval(and(equal("x", 1), equal("x", 2)), "x"), eval(equal("y", 3), "y")))));
+        assertBitmapAlgebra(not(and(equal("x", 1), equal("y", 2))),
+                new BitmapAlgebraPredicate(not(and(eval(equal("x", 1), "x"), eval(equal("y", 2), "y")))));
+        assertBitmapAlgebra(or(and(equal("x", 1), equal("y", 2)), equal("z", 3)),
+                new BitmapAlgebraPredicate(
+                        or(and(eval(equal("x", 1), "x"), eval(equal("y", 2), "y")), eval(equal("z", 3), "z"))));
+    }
+
+    private void mockBitmapIndex(String name, UniqueKeyTransformation uniqueKeyTransformation) {
+        IndexConfig config = new IndexConfig(IndexType.BITMAP, name);
+        config.getBitmapIndexOptions().setUniqueKey("id").setUniqueKeyTransformation(uniqueKeyTransformation);
+
+        InternalIndex index = mock(InternalIndex.class);
+        when(index.getName()).thenReturn(name);
+        when(index.getConfig()).thenReturn(config);
+        when(index.getConverter()).thenReturn(TypeConverters.INTEGER_CONVERTER);
+        when(indexes.matchIndex(eq(name), any(), eq(IndexMatchHint.EXACT_NAME), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .then((Answer<InternalIndex>) invocation ->
+                        EVALUABLE_PREDICATES.contains(invocation.getArgument(1)) ? index : null);
+        when(indexes.matchIndex(eq(name), any(), eq(IndexMatchHint.PREFER_UNORDERED), eq(SKIP_PARTITIONS_COUNT_CHECK)))
+                .then((Answer<InternalIndex>) invocation ->
+                        EVALUABLE_PREDICATES.contains(invocation.getArgument(1)) ? index : null);
+        when(indexes.matchIndex(eq(name), eq(IndexMatchHint.EXACT_NAME), eq(SKIP_PARTITIONS_COUNT_CHECK))).thenReturn(index);
+    }
+
+    private void assertBitmapAlgebra(Predicate original, Predicate expected) {
+        Predicate actual = optimize(original);
+        assertTrue(expected.toString() + " vs " + actual.toString(), same(expected, actual));
+    }
+
     private void assertNoOptimization(Predicate original) {
         Predicate actual = optimize(original);
         assertSame(original, actual);
@@ -215,6 +305,11 @@ public class EvaluateVisitorTest {
             return same(((EvaluatePredicate) expected).getPredicate(), ((EvaluatePredicate) actual).getPredicate());
         }
 
+        if (expected instanceof BitmapAlgebraPredicate && actual instanceof BitmapAlgebraPredicate) {
+            return same(((BitmapAlgebraPredicate) expected).getExpression(),
+                    ((BitmapAlgebraPredicate) actual).getExpression());
+        }
+
         if (expected instanceof AndPredicate && actual instanceof AndPredicate) {
             List<Predicate> expectedSubPredicates = new ArrayList<>(asList(((AndPredicate) expected).predicates));
             List<Predicate> actualSubPredicates = new ArrayList<>(asList(((AndPredicate) actual).predicates));
@@ -48,6 +48,14 @@ public class QueryOptimizerFactoryTest {
         assertThat(queryOptimizer).isInstanceOf(RuleBasedQueryOptimizer.class);
     }
 
+    @Test
+    public void newOptimizer_whenPropertyContainsCost_thenCreateCostBasedOptimizer() {
+        HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "COST");
+        QueryOptimizer queryOptimizer = QueryOptimizerFactory.newOptimizer(hazelcastProperties);
+
+        assertThat(queryOptimizer).isInstanceOf(CostBasedQueryOptimizer.class);
+    }
+
     @Test
     public void newOptimizer_whenPropertyContainsNone_thenCreateEmptyOptimizer() {
         HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "NONE");
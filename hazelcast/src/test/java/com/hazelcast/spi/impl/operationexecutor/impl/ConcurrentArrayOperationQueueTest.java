@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.ConcurrentArrayOperationQueue.DRAIN_BATCH_SIZE;
+import static com.hazelcast.spi.impl.operationexecutor.impl.ConcurrentArrayOperationQueue.LATENCY_SAMPLE_INTERVAL;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ConcurrentArrayOperationQueueTest extends HazelcastTestSupport {
+
+    private ConcurrentArrayOperationQueue operationQueue = new ConcurrentArrayOperationQueue(16, null);
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenCapacityNotPositive() {
+        new ConcurrentArrayOperationQueue(0, null);
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(operationQueue.poll());
+        assertTrue(operationQueue.isEmpty());
+    }
+
+    @Test
+    public void poll_priorityBeforeNormal() {
+        operationQueue.add("normal1", false);
+        operationQueue.add("normal2", false);
+        // the first poll moves both normal tasks into the consumer side batch
+        assertSame("normal1", operationQueue.poll());
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.poll());
+        assertSame("normal2", operationQueue.poll());
+        assertNull(operationQueue.poll());
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void poll_whenMoreThanBatch() {
+        operationQueue = new ConcurrentArrayOperationQueue(4 * DRAIN_BATCH_SIZE, null);
+        int count = 3 * DRAIN_BATCH_SIZE + 1;
+        for (int i = 0; i < count; i++) {
+            operationQueue.add(i, false);
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(count - i, operationQueue.normalSize());
+            assertEquals(i, operationQueue.poll());
+        }
+        assertTrue(operationQueue.isEmpty());
+    }
+
+    @Test
+    public void add_whenFull_thenOverflowPreservesOrder() {
+        int count = 100;
+        for (int i = 0; i < count; i++) {
+            operationQueue.add(i, false);
+            operationQueue.add(-i, true);
+        }
+
+        assertEquals(count, operationQueue.normalSize());
+        assertEquals(count, operationQueue.prioritySize());
+        for (int i = 0; i < count; i++) {
+            assertEquals(-i, operationQueue.poll());
+        }
+        // tasks added while the overflow is drained don't overtake it
+        operationQueue.add(count, false);
+        for (int i = 0; i <= count; i++) {
+            assertEquals(i, operationQueue.poll());
+        }
+        assertNull(operationQueue.poll());
+    }
+
+    @Test
+    public void take_whenAvailable() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(false));
+        assertSame("normal", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly_thenNormalIgnored() throws Exception {
+        operationQueue.add("normal", false);
+        Future<Object> future = spawn(() -> {
+            operationQueue.setConsumerThread(Thread.currentThread());
+            return operationQueue.take(true);
+        });
+
+        assertTrueEventually(() -> assertTrue(operationQueue.getParkCount() > 0));
+        operationQueue.add("priority", true);
+
+        assertSame("priority", future.get());
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenParked_thenWokenUpByAdd() throws Exception {
+        Future<Object> future = spawn(() -> {
+            operationQueue.setConsumerThread(Thread.currentThread());
+            return operationQueue.take(false);
+        });
+
+        assertTrueEventually(() -> assertTrue(operationQueue.getParkCount() > 0));
+        operationQueue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+
+    @Test
+    public void take_whenIdleStrategy_thenWokenUpByAdd() throws Exception {
+        operationQueue = new ConcurrentArrayOperationQueue(16,
+                new BackoffIdleStrategy(10, 10, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(1)));
+        Future<Object> future = spawn(() -> {
+            operationQueue.setConsumerThread(Thread.currentThread());
+            return operationQueue.take(false);
+        });
+
+        assertTrueEventually(() -> assertTrue(operationQueue.getParkCount() > 0));
+        operationQueue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+
+    @Test
+    public void take_whenInterrupted() {
+        Thread.currentThread().interrupt();
+        operationQueue.setConsumerThread(Thread.currentThread());
+
+        assertThrows(InterruptedException.class, () -> operationQueue.take(false));
+    }
+
+    @Test
+    public void latency_recordedForSampledTasks() {
+        int count = 4 * LATENCY_SAMPLE_INTERVAL;
+        operationQueue = new ConcurrentArrayOperationQueue(count, null);
+        for (int i = 0; i < count; i++) {
+            operationQueue.add(i, false);
+        }
+        for (int i = 0; i < count; i++) {
+            operationQueue.poll();
+        }
+
+        assertEquals(count / LATENCY_SAMPLE_INTERVAL, operationQueue.getLatencyDistribution().count());
+    }
+
+    @Test
+    public void concurrentProducers_preserveOrderPerProducer() throws Exception {
+        int producerCount = 4;
+        int taskCount = 10_000;
+        Future[] producers = new Future[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            producers[p] = spawn(() -> {
+                for (int i = 0; i < taskCount; i++) {
+                    operationQueue.add(new long[]{producer, i}, i % 10 == 0);
+                }
+            });
+        }
+
+        operationQueue.setConsumerThread(Thread.currentThread());
+        long[] lastNormal = new long[producerCount];
+        long[] lastPriority = new long[producerCount];
+        Arrays.fill(lastNormal, -1);
+        Arrays.fill(lastPriority, -1);
+        for (int i = 0; i < producerCount * taskCount; i++) {
+            long[] task = (long[]) operationQueue.take(false);
+            int producer = (int) task[0];
+            long[] last = task[1] % 10 == 0 ? lastPriority : lastNormal;
+            assertTrue(task[1] > last[producer]);
+            last[producer] = task[1];
+        }
+
+        for (Future producer : producers) {
+            assertCompletesEventually(producer);
+        }
+        assertTrue(operationQueue.isEmpty());
+    }
+}
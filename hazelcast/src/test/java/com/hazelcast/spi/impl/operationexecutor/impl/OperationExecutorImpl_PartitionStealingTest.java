@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_STEALING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_STEALING_THRESHOLD;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationExecutorImpl_PartitionStealingTest extends OperationExecutorImpl_AbstractTest {
+
+    private static final int PARTITION_COUNT_VALUE = 8;
+    private static final int HOT_PARTITION = 0;
+
+    private void initStealingExecutor() {
+        config.setProperty(PARTITION_COUNT.getName(), "" + PARTITION_COUNT_VALUE);
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty(PARTITION_OPERATION_THREAD_STEALING_ENABLED.getName(), "true");
+        config.setProperty(PARTITION_OPERATION_THREAD_STEALING_THRESHOLD.getName(), "2");
+        initExecutor();
+    }
+
+    @Test
+    public void whenDisabled_thenNoAffinity() {
+        initExecutor();
+
+        assertNull(executor.getPartitionThreadAffinity());
+        assertEquals(0, executor.getPartitionThreads()[0].stolenPartitionCount());
+    }
+
+    @Test
+    public void whenThreadOverloaded_thenIdlePartitionsHandedOver() {
+        initStealingExecutor();
+        PartitionThreadAffinity affinity = executor.getPartitionThreadAffinity();
+        int hotThreadId = executor.toPartitionThreadIndex(HOT_PARTITION);
+
+        for (int k = 0; k < 64; k++) {
+            executor.execute(new DummyOperation(HOT_PARTITION).durationMs(5));
+        }
+
+        assertTrueEventually(() -> assertTrue(affinity.getStealCount() > 0));
+        // the hot partition always had pending operations, so it can't have moved
+        assertEquals(hotThreadId, executor.toPartitionThreadIndex(HOT_PARTITION));
+        assertTrue(affinity.getDonatedPartitionCount(hotThreadId) > 0);
+        assertEquals(affinity.getDonatedPartitionCount(hotThreadId), affinity.getStolenPartitionCount(1 - hotThreadId));
+        assertEquals(PARTITION_COUNT_VALUE,
+                affinity.getOwnedPartitionCount(0) + affinity.getOwnedPartitionCount(1));
+
+        PartitionOperationThread thief = executor.getPartitionThreads()[1 - hotThreadId];
+        assertEquals(affinity.getOwnedPartitionCount(thief.getThreadId()), thief.ownedPartitionCount());
+    }
+
+    @Test
+    public void whenPartitionHandedOver_thenOrderingPreserved() {
+        initStealingExecutor();
+
+        int operationsPerPartition = 200;
+        List<List<Integer>> executed = new ArrayList<>();
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            executed.add(new ArrayList<>());
+        }
+        CountDownLatch completed = new CountDownLatch(operationsPerPartition * PARTITION_COUNT_VALUE);
+        for (int k = 0; k < operationsPerPartition; k++) {
+            // the hot partition keeps its thread busy, the others are candidates for hand-over
+            executor.execute(new DummyOperation(HOT_PARTITION).durationMs(1));
+            for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+                executor.execute(new SequencedOperation(partitionId, k, executed.get(partitionId), completed));
+            }
+        }
+
+        assertOpenEventually(completed);
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            List<Integer> sequence = executed.get(partitionId);
+            assertEquals(operationsPerPartition, sequence.size());
+            for (int k = 0; k < operationsPerPartition; k++) {
+                assertEquals("partition " + partitionId, k, (int) sequence.get(k));
+            }
+        }
+    }
+
+    @Test
+    public void whenTwoHotPartitionsOnOneThread_thenBusyPartitionHandedOver() {
+        initStealingExecutor();
+        PartitionThreadAffinity affinity = executor.getPartitionThreadAffinity();
+        int[] hotPartitions = {HOT_PARTITION, HOT_PARTITION + 2};
+        int hotThreadId = executor.toPartitionThreadIndex(hotPartitions[0]);
+        assertEquals(hotThreadId, executor.toPartitionThreadIndex(hotPartitions[1]));
+
+        int operationsPerPartition = 200;
+        List<List<Integer>> executed = asList(new ArrayList<>(), new ArrayList<>());
+        List<List<Integer>> threadIds = asList(new ArrayList<>(), new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(operationsPerPartition * hotPartitions.length);
+        for (int k = 0; k < operationsPerPartition; k++) {
+            for (int i = 0; i < hotPartitions.length; i++) {
+                executor.execute(new HotOperation(hotPartitions[i], k, executed.get(i), threadIds.get(i), completed)
+                        .durationMs(1));
+            }
+        }
+
+        assertOpenEventually(completed);
+        assertTrue(affinity.getStealCount() > 0);
+        for (int i = 0; i < hotPartitions.length; i++) {
+            List<Integer> sequence = executed.get(i);
+            assertEquals(operationsPerPartition, sequence.size());
+            for (int k = 0; k < operationsPerPartition; k++) {
+                assertEquals("partition " + hotPartitions[i], k, (int) sequence.get(k));
+            }
+        }
+        // one of the hot partitions has been run by the idle thread while it had pending operations
+        assertTrue(threadIds.get(0).contains(1 - hotThreadId) || threadIds.get(1).contains(1 - hotThreadId));
+    }
+
+    @Test
+    public void whenPartitionHandedOver_thenRunAllowedOnlyOnNewOwner() throws Exception {
+        initStealingExecutor();
+        PartitionThreadAffinity affinity = executor.getPartitionThreadAffinity();
+
+        for (int k = 0; k < 64; k++) {
+            executor.execute(new DummyOperation(HOT_PARTITION).durationMs(5));
+        }
+        assertTrueEventually(() -> assertTrue(affinity.getStealCount() > 0));
+
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            int owner = executor.toPartitionThreadIndex(partitionId);
+            PartitionSpecificCallable<Boolean> task = new PartitionSpecificCallable<Boolean>(partitionId) {
+                @Override
+                public Boolean call() {
+                    PartitionOperationThread thread = (PartitionOperationThread) Thread.currentThread();
+                    Operation op = new DummyOperation(getPartitionId());
+                    return thread.getThreadId() == owner && executor.isRunAllowed(op);
+                }
+            };
+            executor.execute(task);
+            assertEqualsEventually(task, Boolean.TRUE);
+        }
+        assertFalse(executor.isRunAllowed(new DummyOperation(HOT_PARTITION)));
+    }
+
+    @Test
+    public void executeOnPartitions_whenStealingEnabled() {
+        initStealingExecutor();
+
+        BitSet partitions = new BitSet(PARTITION_COUNT_VALUE);
+        partitions.set(0, PARTITION_COUNT_VALUE);
+        AtomicInteger completed = new AtomicInteger();
+        PartitionTaskFactory taskFactory = partitionId -> (Runnable) completed::incrementAndGet;
+        for (int k = 0; k < 16; k++) {
+            executor.executeOnPartitions(taskFactory, partitions);
+        }
+
+        assertTrueEventually(() -> assertEquals(16 * PARTITION_COUNT_VALUE, completed.get()));
+    }
+
+    static class SequencedOperation extends DummyOperation {
+
+        private final int sequence;
+        private final List<Integer> executed;
+        private final CountDownLatch completed;
+
+        SequencedOperation(int partitionId, int sequence, List<Integer> executed, CountDownLatch completed) {
+            super(partitionId);
+            this.sequence = sequence;
+            this.executed = executed;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            // no synchronization needed; operations of a partition never run concurrently
+            executed.add(sequence);
+            completed.countDown();
+        }
+    }
+
+    static class HotOperation extends DummyOperation {
+
+        private final int sequence;
+        private final List<Integer> executed;
+        private final List<Integer> threadIds;
+        private final CountDownLatch completed;
+
+        HotOperation(int partitionId, int sequence, List<Integer> executed, List<Integer> threadIds,
+                     CountDownLatch completed) {
+            super(partitionId);
+            this.sequence = sequence;
+            this.executed = executed;
+            this.threadIds = threadIds;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() throws Exception {
+            super.run();
+            // no synchronization needed; operations of a partition never run concurrently
+            executed.add(sequence);
+            threadIds.add(((PartitionOperationThread) Thread.currentThread()).getThreadId());
+            completed.countDown();
+        }
+    }
+}
@@ -25,11 +25,14 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -247,6 +250,163 @@ public class OperationExecutorImpl_RunOrExecuteTest extends OperationExecutorImp
         });
     }
 
+    // ===================== partition specific tasks ========================
+
+    @Test
+    public void whenPartitionTask_andCallingFromUserThread_thenExecuteOnPartitionThread() {
+        initExecutor();
+
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        };
+
+        executor.runOrExecuteTask(task);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertInstanceOf(PartitionOperationThread.class, task.getResult());
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionTask_andCallingFromTaskOfSamePartition_thenExecuteAfterThatTask() {
+        initExecutor();
+
+        final AtomicBoolean outerTaskCompleted = new AtomicBoolean();
+        final AtomicBoolean outerTaskCompletedBeforeInnerTask = new AtomicBoolean();
+        final PartitionSpecificCallable<Thread> innerTask = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                outerTaskCompletedBeforeInnerTask.set(outerTaskCompleted.get());
+                return Thread.currentThread();
+            }
+        };
+        final PartitionSpecificCallable<Thread> outerTask = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                executor.runOrExecuteTask(innerTask);
+                outerTaskCompleted.set(true);
+                return Thread.currentThread();
+            }
+        };
+
+        executor.execute(outerTask);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertSame(outerTask.getResult(), innerTask.getResult());
+                assertTrue(outerTaskCompletedBeforeInnerTask.get());
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionTask_andCallingFromOwningThreadOutsideTask_thenRunInline() {
+        initExecutor();
+
+        final AtomicBoolean ranInline = new AtomicBoolean();
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        };
+
+        executor.executeOnPartitionThreads(new Runnable() {
+            @Override
+            public void run() {
+                if (isOwningThread(0)) {
+                    executor.runOrExecuteTask(task);
+                    ranInline.set(task.getResult() != null);
+                }
+            }
+        });
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(ranInline.get());
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionTask_andCallingFromOwningThreadWithPendingWork_thenExecuteAfterThatWork() {
+        initExecutor();
+
+        final AtomicBoolean pendingTaskCompleted = new AtomicBoolean();
+        final AtomicBoolean pendingTaskCompletedBeforeTask = new AtomicBoolean();
+        final PartitionSpecificCallable<Thread> pendingTask = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                pendingTaskCompleted.set(true);
+                return Thread.currentThread();
+            }
+        };
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                pendingTaskCompletedBeforeTask.set(pendingTaskCompleted.get());
+                return Thread.currentThread();
+            }
+        };
+
+        executor.executeOnPartitionThreads(new Runnable() {
+            @Override
+            public void run() {
+                if (isOwningThread(0)) {
+                    executor.execute(pendingTask);
+                    executor.runOrExecuteTask(task);
+                }
+            }
+        });
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertNotNull(task.getResult());
+                assertTrue(pendingTaskCompletedBeforeTask.get());
+            }
+        });
+    }
+
+    @Test
+    public void whenPartitionTask_andCallingFromOperationHostileThread() {
+        initExecutor();
+
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        };
+
+        DummyOperationHostileThread thread = new DummyOperationHostileThread(new Runnable() {
+            @Override
+            public void run() {
+                executor.runOrExecuteTask(task);
+            }
+        });
+        thread.start();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertInstanceOf(PartitionOperationThread.class, task.getResult());
+            }
+        });
+    }
+
+    private boolean isOwningThread(int partitionId) {
+        return ((PartitionOperationThread) Thread.currentThread()).threadId == executor.toPartitionThreadIndex(partitionId);
+    }
+
     private static class ThreadCapturingOperation extends Operation {
 
         private final AtomicReference<Thread> executingThread;
@@ -46,7 +46,7 @@ import static org.junit.Assert.fail;
 @Category(QuickTest.class)
 public class InvocationRegistryTest extends HazelcastTestSupport {
 
-    private InvocationRegistry invocationRegistry;
+    protected InvocationRegistry invocationRegistry;
     private ILogger logger;
 
     @Before
@@ -54,15 +54,19 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
         logger = Mockito.mock(ILogger.class);
         int capacity = 2;
         CallIdSequenceWithBackpressure callIdSequence = new CallIdSequenceWithBackpressure(capacity, 1000, ConcurrencyDetection.createDisabled());
-        HazelcastProperties properties = new HazelcastProperties(new Properties());
+        HazelcastProperties properties = new HazelcastProperties(newProperties());
         invocationRegistry = new InvocationRegistry(logger, callIdSequence, properties);
     }
 
-    private Invocation newInvocation() {
+    protected Properties newProperties() {
+        return new Properties();
+    }
+
+    protected Invocation newInvocation() {
         return newInvocation(new DummyBackupAwareOperation());
     }
 
-    private Invocation newInvocation(Operation op) {
+    protected Invocation newInvocation(Operation op) {
         Invocation.Context context = new Context(null, null, null, null, null,
                 1000, invocationRegistry, null, logger, null, null, null, null, null, null, null, null, null, null);
         return new PartitionInvocation(context, op, 0, 0, 0, false, false);
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static com.hazelcast.spi.properties.ClusterProperty.INVOCATION_REGISTRY_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the {@link InvocationRegistryTest} with the invocations stored in an
+ * {@link InvocationRing}. The ring has 2 slots, since the backpressure allows
+ * 2 concurrent invocations.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class InvocationRegistry_RingTest extends InvocationRegistryTest {
+
+    @Override
+    protected Properties newProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(INVOCATION_REGISTRY_TYPE.getName(), "ring");
+        return properties;
+    }
+
+    @Test
+    public void register_whenSlotTaken_thenOverflow() {
+        Invocation first = newInvocation();
+        Invocation second = newInvocation();
+        invocationRegistry.register(first);
+        invocationRegistry.register(second);
+        invocationRegistry.deregister(second);
+
+        // the call ID of the third invocation maps to the slot of the first one
+        Invocation third = newInvocation();
+        invocationRegistry.register(third);
+        assertEquals(first.op.getCallId() + 2, third.op.getCallId());
+
+        assertSame(first, invocationRegistry.get(first.op.getCallId()));
+        assertSame(third, invocationRegistry.get(third.op.getCallId()));
+        assertEquals(2, invocationRegistry.size());
+
+        invocationRegistry.deregister(third);
+        assertNull(invocationRegistry.get(third.op.getCallId()));
+        assertSame(first, invocationRegistry.get(first.op.getCallId()));
+        assertEquals(1, invocationRegistry.size());
+    }
+
+    @Test
+    public void get_whenSlotReused_thenStaleCallIdNotFound() {
+        Invocation first = newInvocation();
+        invocationRegistry.register(first);
+        long staleCallId = first.op.getCallId();
+        invocationRegistry.deregister(first);
+
+        Invocation second = newInvocation();
+        Invocation third = newInvocation();
+        invocationRegistry.register(second);
+        invocationRegistry.register(third);
+        // one of them reuses the slot of the first invocation
+        assertEquals(staleCallId + 2, third.op.getCallId());
+
+        assertNull(invocationRegistry.get(staleCallId));
+        assertSame(third, invocationRegistry.get(third.op.getCallId()));
+    }
+
+    @Test
+    public void iterator_includesOverflow() {
+        Invocation first = newInvocation();
+        Invocation second = newInvocation();
+        invocationRegistry.register(first);
+        invocationRegistry.register(second);
+        invocationRegistry.deregister(second);
+        Invocation third = newInvocation();
+        invocationRegistry.register(third);
+
+        Set<Invocation> invocations = new HashSet<>();
+        for (Invocation invocation : invocationRegistry) {
+            invocations.add(invocation);
+        }
+
+        assertEquals(2, invocations.size());
+        assertTrue(invocations.contains(first));
+        assertTrue(invocations.contains(third));
+        assertEquals(2, invocationRegistry.entrySet().size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCHING_ENABLED;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationServiceImpl_ResponseBatchingTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenReceiverHasBatchingDisabled_thenBatchedResponsesProcessed() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance sender = factory.newHazelcastInstance(batchingConfig(true));
+        HazelcastInstance receiver = factory.newHazelcastInstance(batchingConfig(false));
+        warmUpPartitions(sender, receiver);
+
+        // the sender owns the keys, so the receiver gets the responses
+        IMap<String, Integer> map = receiver.getMap(randomMapName());
+        List<String> keys = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = generateKeyOwnedBy(sender);
+            keys.add(key);
+            futures.add(map.setAsync(key, i).toCompletableFuture());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, (int) map.get(keys.get(i)));
+        }
+        ResponseBatcher batcher = getOperationService(sender).getOutboundResponseHandler().getBatcher();
+        assertTrue(batcher.batchCount() > 0);
+        assertNull(getOperationService(receiver).getOutboundResponseHandler().getBatcher());
+    }
+
+    private Config batchingConfig(boolean batchingEnabled) {
+        return getConfig()
+                .setProperty(RESPONSE_BATCHING_ENABLED.getName(), Boolean.toString(batchingEnabled));
+    }
+}
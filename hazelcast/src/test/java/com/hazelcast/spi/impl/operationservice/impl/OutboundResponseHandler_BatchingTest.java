@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.impl.MemberImpl;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.server.ServerConnection;
+import com.hazelcast.internal.server.ServerConnectionManager;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.version.MemberVersion;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static com.hazelcast.internal.cluster.Versions.CURRENT_CLUSTER_VERSION;
+import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.RESPONSE_BATCH;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
+import static com.hazelcast.spi.impl.operationservice.impl.ResponseBatcher.OFFSET_BATCH_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.ResponseBatcher.OFFSET_BATCH_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCHING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCH_MAX_LATENCY_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.RESPONSE_BATCH_MAX_SIZE;
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OutboundResponseHandler_BatchingTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private OutboundResponseHandler handler;
+    private InternalSerializationService serializationService;
+    private ILogger logger = Logger.getLogger(OutboundResponseHandler_BatchingTest.class);
+    private Address thatAddress;
+    private ServerConnectionManager connectionManager;
+    private ServerConnection connection;
+    private ClusterService clusterService;
+    private ArgumentCaptor<Packet> packets;
+    private boolean useBigEndian;
+
+    @Before
+    public void setup() throws Exception {
+        Address thisAddress = new Address("127.0.0.1", 5701);
+        thatAddress = new Address("127.0.0.1", 5702);
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
+        connectionManager = mock(ServerConnectionManager.class);
+        connection = mock(ServerConnection.class);
+        when(connection.getConnectionManager()).thenReturn(connectionManager);
+        packets = ArgumentCaptor.forClass(Packet.class);
+        when(connectionManager.transmit(packets.capture(), eq(thatAddress), anyInt())).thenReturn(true);
+        clusterService = mock(ClusterService.class);
+        when(clusterService.getClusterVersion()).thenReturn(CURRENT_CLUSTER_VERSION);
+        NodeEngine nodeEngine = mock(NodeEngine.class);
+        when(nodeEngine.getClusterService()).thenReturn(clusterService);
+
+        Properties properties = new Properties();
+        properties.setProperty(RESPONSE_BATCHING_ENABLED.getName(), "true");
+        properties.setProperty(RESPONSE_BATCH_MAX_SIZE.getName(), "" + MAX_BATCH_SIZE);
+        properties.setProperty(RESPONSE_BATCH_MAX_LATENCY_MICROS.getName(), "100");
+        handler = new OutboundResponseHandler(thisAddress, serializationService, nodeEngine,
+                new HazelcastProperties(properties), "test", logger);
+    }
+
+    @After
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    public void sendResponse_whenBatchIsFull_thenResponsesSentInSinglePacket() {
+        for (int callId = 1; callId <= MAX_BATCH_SIZE; callId++) {
+            handler.sendResponse(createDummyOperation(callId), "foo" + callId);
+        }
+
+        verify(connectionManager).transmit(any(Packet.class), eq(thatAddress), anyInt());
+        List<byte[]> responses = unpack(packets.getValue());
+        assertEquals(MAX_BATCH_SIZE, responses.size());
+        for (int callId = 1; callId <= MAX_BATCH_SIZE; callId++) {
+            NormalResponse expected = new NormalResponse("foo" + callId, callId, 0, false);
+            assertEquals(serializationService.toData(expected), new Packet(responses.get(callId - 1)));
+        }
+    }
+
+    @Test
+    public void sendResponse_whenUrgent_thenNotBatched() {
+        NormalResponse response = new NormalResponse("foo", 10, 1, true);
+
+        handler.sendResponse(createDummyOperation(10), response);
+
+        assertEquals(serializationService.toData(response), packets.getValue());
+    }
+
+    @Test
+    public void sendResponse_whenClusterVersionBefore5_4_thenNotBatched() {
+        when(clusterService.getClusterVersion()).thenReturn(V5_3);
+
+        handler.sendResponse(createDummyOperation(10), "foo");
+
+        assertEquals(serializationService.toData(new NormalResponse("foo", 10, 0, false)), packets.getValue());
+        assertEquals(0, handler.getBatcher().batchCount());
+    }
+
+    @Test
+    public void sendBackupAck_whenLatencyElapsed_thenSentAsRegularResponse() {
+        handler.start();
+
+        handler.sendBackupAck(connectionManager, thatAddress, 10, false);
+
+        assertTrueEventually(() -> verify(connectionManager).transmit(any(Packet.class), eq(thatAddress), anyInt()));
+        assertArrayEquals(handler.toBackupAckPacket(10, false).toByteArray(), packets.getValue().toByteArray());
+    }
+
+    @Test
+    public void shutdown_flushesBatchedResponses() {
+        handler.sendBackupAck(connectionManager, thatAddress, 10, false);
+        handler.sendBackupAck(connectionManager, thatAddress, 11, false);
+        verify(connectionManager, never()).transmit(any(Packet.class), eq(thatAddress), anyInt());
+
+        handler.shutdown();
+
+        List<byte[]> responses = unpack(packets.getValue());
+        assertEquals(2, responses.size());
+        assertArrayEquals(handler.toBackupAckPacket(10, false).toByteArray(), responses.get(0));
+        assertArrayEquals(handler.toBackupAckPacket(11, false).toByteArray(), responses.get(1));
+    }
+
+    @Test
+    public void sendBackupAck_whenDifferentConnectionManagers_thenBatchedSeparately() {
+        ServerConnectionManager otherConnectionManager = mock(ServerConnectionManager.class);
+        ArgumentCaptor<Packet> otherPackets = ArgumentCaptor.forClass(Packet.class);
+        when(otherConnectionManager.transmit(otherPackets.capture(), eq(thatAddress), anyInt())).thenReturn(true);
+
+        handler.sendBackupAck(connectionManager, thatAddress, 10, false);
+        handler.sendBackupAck(otherConnectionManager, thatAddress, 11, false);
+        handler.sendBackupAck(connectionManager, thatAddress, 12, false);
+        handler.shutdown();
+
+        List<byte[]> responses = unpack(packets.getValue());
+        assertEquals(2, responses.size());
+        assertArrayEquals(handler.toBackupAckPacket(10, false).toByteArray(), responses.get(0));
+        assertArrayEquals(handler.toBackupAckPacket(12, false).toByteArray(), responses.get(1));
+        assertArrayEquals(handler.toBackupAckPacket(11, false).toByteArray(), otherPackets.getValue().toByteArray());
+    }
+
+    @Test
+    public void onMemberLeft_thenBatchesOfMemberDropped() throws Exception {
+        Address otherAddress = new Address("127.0.0.1", 5703);
+        handler.sendBackupAck(connectionManager, thatAddress, 10, false);
+        handler.sendBackupAck(connectionManager, otherAddress, 11, false);
+        assertEquals(2, handler.getBatcher().batchCount());
+
+        handler.onMemberLeft(new MemberImpl.Builder(thatAddress).version(MemberVersion.of(5, 4, 0)).build());
+
+        assertEquals(1, handler.getBatcher().batchCount());
+    }
+
+    private List<byte[]> unpack(Packet batch) {
+        byte[] bytes = batch.toByteArray();
+        assertEquals(RESPONSE_BATCH, Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian));
+        byte[][] responses = new byte[Bits.readInt(bytes, OFFSET_BATCH_COUNT, useBigEndian)][];
+        int offset = OFFSET_BATCH_RESPONSES;
+        for (int i = 0; i < responses.length; i++) {
+            int length = Bits.readInt(bytes, offset, useBigEndian);
+            offset += INT_SIZE_IN_BYTES;
+            responses[i] = Arrays.copyOfRange(bytes, offset, offset + length);
+            offset += length;
+        }
+        assertEquals(bytes.length, offset);
+        return Arrays.asList(responses);
+    }
+
+    private Operation createDummyOperation(long callId) {
+        Operation op = new DummyOperation();
+        setCallId(op, callId);
+        setCallerAddress(op, thatAddress);
+        setConnection(op, connection);
+        return op;
+    }
+}